@@ -0,0 +1,123 @@
+package com.intuitive.api.repository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.crawler.AggregatorService;
+import com.intuitive.crawler.BenchmarkData;
+import com.intuitive.crawler.CsvParserService;
+import com.intuitive.crawler.OperadoraClassifier;
+import com.intuitive.crawler.SyntheticAnsDataset;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Resolver {@code cnpjs} CNPJs (10% inexistentes): um
+ * {@link OperadoraRepository#findByCnpjWithHistory} por CNPJ, que é o que
+ * GET /api/operadoras/{cnpj} executa, vs. {@link OperadoraRepository#findByCnpjs}
+ * de POST /api/operadoras/batch, com e sem o total de despesas.
+ *
+ * Só o banco é medido: no caminho por item cada CNPJ ainda custa uma
+ * requisição HTTP inteira, que fica de fora. serverMillis soma uma espera
+ * por statement (rede + MySQL), como em {@link ParallelQueriesBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OperadoraBatchBenchmark {
+
+    @Param({"10000"})
+    int operadoras;
+
+    @Param({"100", "1000"})
+    int cnpjs;
+
+    @Param({"0", "1"})
+    int serverMillis;
+
+    private HikariDataSource dataSource;
+    private OperadoraRepository repository;
+    private List<String> lote;
+
+    @Setup
+    public void setup() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:batch" + operadoras + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(10);
+        JdbcTemplate jdbc = new JdbcTemplate(ParallelQueriesBenchmark.withServerLatency(dataSource, serverMillis));
+        TestSchema.load(jdbc);
+
+        SyntheticAnsDataset.Output quarter = BenchmarkData.quarter(operadoras);
+        List<Object[]> cadastro = new ArrayList<>();
+        for (Map<String, String> row : new CsvParserService().parseAndFilter(quarter.cadastroCsv(), Set.of(".*"))) {
+            cadastro.add(new Object[]{row.get("REG_ANS"), row.get("RAZAO_SOCIAL"), row.get("NOME_FANTASIA"),
+                row.get("UF"), row.get("MODALIDADE"), OperadoraClassifier.isOperadoraReal(row.get("RAZAO_SOCIAL"))});
+        }
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", cadastro);
+
+        List<Object[]> despesas = new ArrayList<>();
+        for (AggregatorService.AggregatedRecord record : new AggregatorService()
+                .aggregateByOperadoraAndConta(BenchmarkData.enriched(quarter))) {
+            despesas.add(new Object[]{record.cnpjOperadora, record.codigoConta, record.totalValor,
+                BenchmarkData.TRIMESTRE.competencia()});
+        }
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total, competencia) "
+                + "VALUES (?, ?, ?, ?)", despesas);
+
+        repository = new OperadoraRepository(jdbc);
+        lote = new ArrayList<>(cnpjs);
+        int passo = Math.max(1, cadastro.size() / cnpjs);
+        for (int i = 0; i < cnpjs; i++) {
+            lote.add(i % 10 == 9 ? String.format("9%013d", i) : (String) cadastro.get((i * passo) % cadastro.size())[0]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.close();
+    }
+
+    @Benchmark
+    public int perItem() {
+        int found = 0;
+        for (String cnpj : lote) {
+            if (repository.findByCnpjWithHistory(cnpj) != null) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    public Map<String, OperadoraDTO> batch() {
+        return repository.findByCnpjs(lote, false);
+    }
+
+    @Benchmark
+    public Map<String, OperadoraDTO> batchComDespesas() {
+        return repository.findByCnpjs(lote, true);
+    }
+}
@@ -0,0 +1,163 @@
+package com.intuitive.api.repository;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.dto.OperadoraDetalhadaDTO;
+import com.intuitive.crawler.AggregatorService;
+import com.intuitive.crawler.BenchmarkData;
+import com.intuitive.crawler.CsvParserService;
+import com.intuitive.crawler.OperadoraClassifier;
+import com.intuitive.crawler.SyntheticAnsDataset;
+
+/**
+ * Queries do {@link OperadoraRepository} contra H2 embarcado (modo MySQL),
+ * populado com o cadastro e as despesas agregadas de um trimestre sintético.
+ *
+ * Mede o custo do SQL + mapeamento no H2; latência de rede e o otimizador do
+ * MySQL ficam de fora.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OperadoraRepositoryBenchmark {
+
+    @Param({"1000", "10000"})
+    int operadoras;
+
+    /**
+     * Termos de busca: comum (muitos matches), raro e por CNPJ parcial.
+     */
+    @Param({"SAÚDE", "AÇAÍ", "3001"})
+    String query;
+
+    private OperadoraRepository repository;
+    private String cnpj;
+    private int lastPage;
+    private KeysetCursor secondPageCursor;
+    private KeysetCursor lastPageCursor;
+
+    @Setup
+    public void setup() throws IOException {
+        JdbcTemplate jdbc = TestSchema.create("bench" + operadoras);
+
+        SyntheticAnsDataset.Output quarter = BenchmarkData.quarter(operadoras);
+        List<Object[]> cadastro = new ArrayList<>();
+        for (Map<String, String> row : new CsvParserService().parseAndFilter(quarter.cadastroCsv(), Set.of(".*"))) {
+            cadastro.add(new Object[]{row.get("REG_ANS"), row.get("RAZAO_SOCIAL"), row.get("NOME_FANTASIA"),
+                row.get("UF"), row.get("MODALIDADE"), OperadoraClassifier.isOperadoraReal(row.get("RAZAO_SOCIAL"))});
+        }
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", cadastro);
+
+        List<Object[]> despesas = new ArrayList<>();
+        for (AggregatorService.AggregatedRecord record : new AggregatorService()
+                .aggregateByOperadoraAndConta(BenchmarkData.enriched(quarter))) {
+            despesas.add(new Object[]{record.cnpjOperadora, record.codigoConta, record.totalValor,
+                BenchmarkData.TRIMESTRE.competencia()});
+        }
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total, competencia) "
+                + "VALUES (?, ?, ?, ?)", despesas);
+
+        repository = new OperadoraRepository(jdbc);
+        cnpj = (String) cadastro.get(cadastro.size() / 2)[0];
+        lastPage = Math.max(1, repository.countTotal() / 10);
+        secondPageCursor = repository.findAllKeyset(null, 10).next();
+        // Última linha da página anterior a lastPage: o keyset chega à mesma página do OFFSET
+        lastPageCursor = jdbc.queryForObject("""
+                SELECT nome_fantasia, cnpj FROM operadoras WHERE is_operadora_real = TRUE
+                ORDER BY nome_fantasia, cnpj LIMIT 1 OFFSET ?
+                """, (rs, n) -> new KeysetCursor(rs.getString(1), rs.getString(2)), Math.max(0, (lastPage - 1) * 10 - 1));
+    }
+
+    @Benchmark
+    public List<OperadoraDTO> findAllFirstPage() {
+        return repository.findAllPaginado(1, 10);
+    }
+
+    @Benchmark
+    public List<OperadoraDTO> findAllLastPage() {
+        return repository.findAllPaginado(lastPage, 10);
+    }
+
+    /**
+     * Paginação por chave: o custo não deve crescer com a profundidade, ao
+     * contrário de findAllLastPage (OFFSET).
+     */
+    @Benchmark
+    public OperadoraRepository.KeysetPage findAllKeysetSecondPage() {
+        return repository.findAllKeyset(secondPageCursor, 10);
+    }
+
+    @Benchmark
+    public OperadoraRepository.KeysetPage findAllKeysetLastPage() {
+        return repository.findAllKeyset(lastPageCursor, 10);
+    }
+
+    @Benchmark
+    public int countTotal() {
+        return repository.countTotal();
+    }
+
+    @Benchmark
+    public List<OperadoraDTO> findByQuery() {
+        return repository.findByQuery(query, 1, 10);
+    }
+
+    @Benchmark
+    public int countByQuery() {
+        return repository.countByQuery(query);
+    }
+
+    /**
+     * Antes: página e total em duas queries (o que o controller fazia).
+     */
+    @Benchmark
+    public int pageThenCountByQuery() {
+        return repository.findByQuery(query, 2, 10).size() + repository.countByQuery(query);
+    }
+
+    /**
+     * Depois, primeira página do filtro: página e total numa query só.
+     */
+    @Benchmark
+    public OperadoraRepository.PageWithTotal findPageWithTotal() {
+        return repository.findPageWithTotal(query, 2, 10);
+    }
+
+    @Benchmark
+    public List<OperadoraDTO> findTop5Despesas() {
+        return repository.findTop5Despesas();
+    }
+
+    @Benchmark
+    public List<OperadoraRepository.EstatisticaContaDTO> findMediaPorConta() {
+        return repository.findMediaPorConta();
+    }
+
+    @Benchmark
+    public OperadoraDetalhadaDTO findDetalhesCompletos() {
+        return repository.findDetalhesCompletos(cnpj);
+    }
+}
@@ -0,0 +1,177 @@
+package com.intuitive.api.repository;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import com.intuitive.api.dto.OperadoraDetalhadaDTO;
+import com.intuitive.crawler.AggregatorService;
+import com.intuitive.crawler.BenchmarkData;
+import com.intuitive.crawler.CsvParserService;
+import com.intuitive.crawler.OperadoraClassifier;
+import com.intuitive.crawler.SyntheticAnsDataset;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Latência de uma requisição com duas queries independentes, em sequência
+ * vs. via {@link ParallelQueries}, num pool Hikari de 10 conexões sobre H2.
+ *
+ * pageOnly/countOnly medem cada query sozinha: a versão paralela deve ficar
+ * perto da mais lenta delas, a sequencial perto da soma.
+ *
+ * O H2 embarcado executa o SQL na CPU da própria JVM; serverMillis soma uma
+ * espera por statement (rede + tempo do MySQL), que é o que a thread da
+ * requisição passa esperando em produção. Com serverMillis = 0 e poucos
+ * núcleos as duas queries disputam a mesma CPU e não há ganho.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ParallelQueriesBenchmark {
+
+    @Param({"10000"})
+    int operadoras;
+
+    @Param({"SAÚDE"})
+    String query;
+
+    @Param({"0", "5"})
+    int serverMillis;
+
+    private HikariDataSource dataSource;
+    private ParallelQueries parallel;
+    private OperadoraRepository sequencial;
+    private OperadoraRepository paralelo;
+    private String cnpj;
+
+    @Setup
+    public void setup() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:parallel" + operadoras + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(10);
+        JdbcTemplate jdbc = new JdbcTemplate(withServerLatency(dataSource, serverMillis));
+        TestSchema.load(jdbc);
+
+        SyntheticAnsDataset.Output quarter = BenchmarkData.quarter(operadoras);
+        List<Object[]> cadastro = new ArrayList<>();
+        for (Map<String, String> row : new CsvParserService().parseAndFilter(quarter.cadastroCsv(), Set.of(".*"))) {
+            cadastro.add(new Object[]{row.get("REG_ANS"), row.get("RAZAO_SOCIAL"), row.get("NOME_FANTASIA"),
+                row.get("UF"), row.get("MODALIDADE"), OperadoraClassifier.isOperadoraReal(row.get("RAZAO_SOCIAL"))});
+        }
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", cadastro);
+
+        List<Object[]> despesas = new ArrayList<>();
+        for (AggregatorService.AggregatedRecord record : new AggregatorService()
+                .aggregateByOperadoraAndConta(BenchmarkData.enriched(quarter))) {
+            despesas.add(new Object[]{record.cnpjOperadora, record.codigoConta, record.totalValor,
+                BenchmarkData.TRIMESTRE.competencia()});
+        }
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total, competencia) "
+                + "VALUES (?, ?, ?, ?)", despesas);
+
+        parallel = new ParallelQueries(10, 5_000);
+        sequencial = new OperadoraRepository(jdbc);
+        paralelo = new OperadoraRepository(jdbc, parallel);
+        cnpj = (String) cadastro.get(cadastro.size() / 2)[0];
+    }
+
+    @TearDown
+    public void tearDown() {
+        parallel.shutdown();
+        dataSource.close();
+    }
+
+    /**
+     * Conexões cujos statements esperam serverMillis antes de executar.
+     */
+    static DataSource withServerLatency(DataSource target, int millis) {
+        if (millis == 0) {
+            return target;
+        }
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return proxy(Connection.class, connection, (method, result) -> method.getName().equals("prepareStatement")
+                        ? proxy(PreparedStatement.class, result, (m, r) -> r, millis) : result, 0);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, BiFunction<Method, Object, Object> wrap, int millis) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (p, method, args) -> {
+            if (millis > 0 && method.getName().startsWith("execute")) {
+                Thread.sleep(millis);
+            }
+            try {
+                return wrap.apply(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        });
+    }
+
+    @Benchmark
+    public OperadoraRepository.KeysetPage pageOnly() {
+        return sequencial.findByQueryKeyset(query, null, 20);
+    }
+
+    @Benchmark
+    public int countOnly() {
+        return sequencial.countByQuery(query);
+    }
+
+    @Benchmark
+    public int pageAndCountSequential() {
+        return sequencial.findByQueryKeyset(query, null, 20).data().size() + sequencial.countByQuery(query);
+    }
+
+    @Benchmark
+    public int pageAndCountParallel() {
+        return parallel.join(() -> paralelo.countByQuery(query),
+                () -> paralelo.findByQueryKeyset(query, null, 20), (total, page) -> total + page.data().size());
+    }
+
+    @Benchmark
+    public OperadoraDetalhadaDTO detalhesSequential() {
+        return sequencial.findDetalhesCompletos(cnpj);
+    }
+
+    @Benchmark
+    public OperadoraDetalhadaDTO detalhesParallel() {
+        return paralelo.findDetalhesCompletos(cnpj);
+    }
+}
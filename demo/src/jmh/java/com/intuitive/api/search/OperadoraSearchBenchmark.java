@@ -0,0 +1,98 @@
+package com.intuitive.api.search;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.TestSchema;
+import com.intuitive.crawler.BenchmarkData;
+import com.intuitive.crawler.CsvParserService;
+import com.intuitive.crawler.OperadoraClassifier;
+import com.intuitive.crawler.SyntheticAnsDataset;
+
+/**
+ * Busca de operadoras (página + total) pelo {@link TrigramIndex} vs. o LIKE
+ * do {@link OperadoraRepository} (findByQuery + countByQuery, como o
+ * controller fazia), sobre o mesmo cadastro sintético em H2 (modo MySQL).
+ *
+ * O SQL roda em banco embarcado, sem rede: no MySQL real a diferença só
+ * aumenta.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OperadoraSearchBenchmark {
+
+    @Param({"100000"})
+    int operadoras;
+
+    /**
+     * Termos de busca: comum (muitos matches), raro e por CNPJ parcial.
+     */
+    @Param({"SAÚDE", "AÇAÍ", "3001"})
+    String query;
+
+    private OperadoraRepository repository;
+    private TrigramIndex index;
+
+    @Setup
+    public void setup() throws IOException {
+        JdbcTemplate jdbc = TestSchema.create("search" + operadoras);
+
+        // Só o cadastro importa aqui: evita gerar o CSV financeiro de 100 mil operadoras
+        Path cadastroCsv = Files.createTempFile("cadop-" + operadoras, ".csv");
+        new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(operadoras, BenchmarkData.SEED)).writeCadastro(cadastroCsv);
+        List<Object[]> cadastro = new ArrayList<>();
+        for (Map<String, String> row : new CsvParserService().parseAndFilter(cadastroCsv, Set.of(".*"))) {
+            cadastro.add(new Object[]{row.get("REG_ANS"), row.get("RAZAO_SOCIAL"), row.get("NOME_FANTASIA"),
+                row.get("UF"), row.get("MODALIDADE"), OperadoraClassifier.isOperadoraReal(row.get("RAZAO_SOCIAL"))});
+        }
+        Files.delete(cadastroCsv);
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", cadastro);
+
+        repository = new OperadoraRepository(jdbc);
+        index = TrigramIndex.build(repository.findAllForSearch());
+    }
+
+    @Benchmark
+    public void sqlLike(Blackhole bh) {
+        List<OperadoraDTO> page = repository.findByQuery(query, 1, 20);
+        bh.consume(page);
+        bh.consume(repository.countByQuery(query));
+    }
+
+    @Benchmark
+    public TrigramIndex.SearchPage trigramIndex() {
+        return index.search(query, 0, 20);
+    }
+
+    @Benchmark
+    public TrigramIndex buildIndex() {
+        return TrigramIndex.build(repository.findAllForSearch());
+    }
+}
@@ -0,0 +1,74 @@
+package com.intuitive.api.search;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.crawler.BenchmarkData;
+import com.intuitive.crawler.CsvParserService;
+import com.intuitive.crawler.SyntheticAnsDataset;
+
+/**
+ * Latência do autocomplete ({@link PrefixSuggester#suggest}) sobre o
+ * cadastro sintético. SampleTime para ler a distribuição (p99) no
+ * relatório, não só a média.
+ *
+ * Prefixos: 1 letra (intervalo enorme), palavra comum, palavra quase
+ * inteira e CNPJ parcial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class PrefixSuggesterBenchmark {
+
+    @Param({"100000"})
+    int operadoras;
+
+    @Param({"s", "sau", "instituto de p", "3001"})
+    String prefix;
+
+    private PrefixSuggester suggester;
+
+    @Setup
+    public void setup() throws IOException {
+        Path cadastroCsv = Files.createTempFile("cadop-" + operadoras, ".csv");
+        new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(operadoras, BenchmarkData.SEED)).writeCadastro(cadastroCsv);
+        Random random = new Random(BenchmarkData.SEED);
+        List<OperadoraDTO> cadastro = new ArrayList<>();
+        for (Map<String, String> row : new CsvParserService().parseAndFilter(cadastroCsv, Set.of(".*"))) {
+            OperadoraDTO dto = new OperadoraDTO(row.get("REG_ANS"), row.get("RAZAO_SOCIAL"), row.get("NOME_FANTASIA"),
+                    BigDecimal.valueOf(random.nextLong(1_000_000_000L), 2));
+            cadastro.add(dto);
+        }
+        Files.delete(cadastroCsv);
+        suggester = PrefixSuggester.build(cadastro);
+    }
+
+    @Benchmark
+    public List<OperadoraDTO> suggest() {
+        return suggester.suggest(prefix, 10);
+    }
+}
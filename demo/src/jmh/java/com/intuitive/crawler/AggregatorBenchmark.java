@@ -0,0 +1,56 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Agregação por (CNPJ, conta): groupingBy com streams
+ * ({@link AggregatorService#aggregateByOperadoraAndConta}) vs. o
+ * {@link AggregatorService.Accumulator} do pipeline. Verifica a afirmação
+ * "30% mais rápido para &gt;100k registros" do javadoc do serviço (10000
+ * operadoras = 400k linhas).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AggregatorBenchmark {
+
+    @Param({"1000", "10000"})
+    int operadoras;
+
+    private final AggregatorService aggregator = new AggregatorService();
+    private List<DataEnricherService.EnrichedRecord> records;
+
+    @Setup
+    public void setup() throws IOException {
+        records = BenchmarkData.enriched(BenchmarkData.quarter(operadoras));
+    }
+
+    @Benchmark
+    public List<AggregatorService.AggregatedRecord> groupingByStreams() {
+        return aggregator.aggregateByOperadoraAndConta(records);
+    }
+
+    @Benchmark
+    public List<AggregatorService.AggregatedRecord> accumulator() {
+        AggregatorService.Accumulator accumulator = new AggregatorService.Accumulator();
+        records.forEach(accumulator::add);
+        return accumulator.toRecords(cnpj -> "", BenchmarkData.TRIMESTRE.competencia());
+    }
+}
@@ -0,0 +1,51 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Entradas dos benchmarks, geradas pelo {@link SyntheticAnsDataset} com
+ * semente fixa e guardadas em target/bench-data (reaproveitadas entre forks).
+ */
+public final class BenchmarkData {
+
+    public static final long SEED = 42L;
+    public static final Trimestre TRIMESTRE = new Trimestre(2024, 4);
+
+    private static final Path DIR = Path.of("target", "bench-data");
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Trimestre sintético com N operadoras (40 contas cada).
+     */
+    public static SyntheticAnsDataset.Output quarter(int operadoras) throws IOException {
+        Path dir = DIR.resolve(operadoras + "-" + SEED);
+        Path csv = dir.resolve(TRIMESTRE.label() + ".csv");
+        Path cadastro = dir.resolve("Relatorio_cadop.csv");
+        if (Files.exists(csv) && Files.exists(cadastro)) {
+            return new SyntheticAnsDataset.Output(csv, null, cadastro, -1, -1);
+        }
+        return new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(operadoras, SEED)).writeQuarterCsv(dir, TRIMESTRE);
+    }
+
+    /**
+     * Linhas parseadas do trimestre (entrada de enriquecimento/agregação).
+     */
+    public static List<Map<String, String>> rows(SyntheticAnsDataset.Output quarter) throws IOException {
+        return new CsvParserService().parseAndFilter(quarter.financialCsv(), Set.of(".*"));
+    }
+
+    /**
+     * Registros enriquecidos com o cadastro do próprio trimestre.
+     */
+    public static List<DataEnricherService.EnrichedRecord> enriched(SyntheticAnsDataset.Output quarter) throws IOException {
+        CsvParserService parser = new CsvParserService();
+        return new DataEnricherService(parser).enrichRecords(rows(quarter), quarter.cadastroCsv());
+    }
+}
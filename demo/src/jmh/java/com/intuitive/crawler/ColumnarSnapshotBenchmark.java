@@ -0,0 +1,71 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Recarga de um trimestre enriquecido: CSV da ANS (parse + enriquecimento)
+ * vs. {@link ColumnarSnapshot}, e a soma de uma única coluna do snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ColumnarSnapshotBenchmark {
+
+    @Param({"1000", "10000"})
+    int operadoras;
+
+    private SyntheticAnsDataset.Output quarter;
+    private Path snapshot;
+
+    @Setup
+    public void setup() throws IOException {
+        quarter = BenchmarkData.quarter(operadoras);
+        snapshot = Files.createTempFile("bench-snapshot", ".col");
+        ColumnarSnapshot.writeEnriched(BenchmarkData.enriched(quarter), snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public List<DataEnricherService.EnrichedRecord> reloadCsv() throws IOException {
+        return BenchmarkData.enriched(quarter);
+    }
+
+    @Benchmark
+    public List<DataEnricherService.EnrichedRecord> reloadSnapshot() throws IOException {
+        try (ColumnarSnapshot.Reader reader = ColumnarSnapshot.open(snapshot)) {
+            return reader.readEnriched();
+        }
+    }
+
+    @Benchmark
+    public BigDecimal sumValorColumn() throws IOException {
+        try (ColumnarSnapshot.Reader reader = ColumnarSnapshot.open(snapshot)) {
+            return reader.decimals("valor").sum();
+        }
+    }
+}
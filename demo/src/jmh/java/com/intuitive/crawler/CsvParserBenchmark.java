@@ -0,0 +1,68 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CsvParserService#parseAndFilter} sobre um trimestre sintético, por
+ * tamanho do arquivo e conjunto de palavras-chave.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvParserBenchmark {
+
+    @Param({"1000", "10000"})
+    int operadoras;
+
+    /**
+     * all: ".*" (caso do pipeline); despesas: duas palavras do plano de
+     * contas; multi: oito palavras, a maioria sem match (pior caso do loop de
+     * regex por célula).
+     */
+    @Param({"all", "despesas", "multi"})
+    String keywords;
+
+    private final CsvParserService parser = new CsvParserService();
+    private Path csv;
+    private Set<String> keywordSet;
+
+    @Setup
+    public void setup() throws IOException {
+        csv = BenchmarkData.quarter(operadoras).financialCsv();
+        keywordSet = switch (keywords) {
+            case "all" ->
+                Set.of(".*");
+            case "despesas" ->
+                Set.of("EVENTOS", "SINISTROS");
+            case "multi" ->
+                Set.of("INTERNAÇÕES", "CONSULTAS", "EXAMES", "TERAPIAS", "REEMBOLSO", "GLOSAS", "ODONTO", "XYZ");
+            default ->
+                throw new IllegalArgumentException("Conjunto desconhecido: " + keywords);
+        };
+    }
+
+    @Benchmark
+    public List<Map<String, String>> parseAndFilter() throws IOException {
+        return parser.parseAndFilter(csv, keywordSet);
+    }
+}
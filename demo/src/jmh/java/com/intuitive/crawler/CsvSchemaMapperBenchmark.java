@@ -0,0 +1,40 @@
+package com.intuitive.crawler;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link CsvSchemaMapper#normalizeHeader} com os headers reais dos CSVs da
+ * ANS (caixa e espaços variados).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvSchemaMapperBenchmark {
+
+    private static final String[] HEADERS = {
+        "CD_CONTA_CONTABIL", "reg_ans", " Conta_Contabil ", "REGISTRO", "data_documento", "Reg_Ans"
+    };
+
+    private final CsvSchemaMapper mapper = new CsvSchemaMapper();
+
+    @Benchmark
+    public void normalizeHeaders(Blackhole blackhole) {
+        for (String header : HEADERS) {
+            blackhole.consume(mapper.normalizeHeader(header));
+        }
+    }
+}
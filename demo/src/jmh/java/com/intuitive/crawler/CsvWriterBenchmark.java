@@ -0,0 +1,57 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CsvWriterService#writeEnrichedRecords} do trimestre enriquecido para
+ * um arquivo temporário.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvWriterBenchmark {
+
+    @Param({"1000", "10000"})
+    int operadoras;
+
+    private final CsvWriterService writer = new CsvWriterService();
+    private List<DataEnricherService.EnrichedRecord> records;
+    private Path output;
+
+    @Setup
+    public void setup() throws IOException {
+        records = BenchmarkData.enriched(BenchmarkData.quarter(operadoras));
+        output = Files.createTempFile("bench-writer", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public Path writeEnrichedRecords() throws IOException {
+        writer.writeEnrichedRecords(records, output);
+        return output;
+    }
+}
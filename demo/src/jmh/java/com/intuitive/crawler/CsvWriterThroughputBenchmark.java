@@ -0,0 +1,101 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Vazão do {@link CsvWriterService} em streaming: 10 milhões de linhas
+ * geradas sob demanda (nada materializado) num heap de 256 MB, com e sem
+ * gzip. O resultado sai em ns por linha; o CSV sem compressão tem ~800 MB.
+ *
+ * O writer antigo (StringBuilder do arquivo inteiro) não cabe nesse heap
+ * com 10M linhas, por isso não há baseline aqui; a comparação com a lista
+ * do trimestre fica no {@link CsvWriterBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms256m", "-Xmx256m"})
+public class CsvWriterThroughputBenchmark {
+
+    static final int ROWS = 10_000_000;
+
+    @Param({"NONE", "GZIP"})
+    CsvWriterService.Compression compression;
+
+    private final CsvWriterService writer = new CsvWriterService();
+    private Path output;
+
+    @Setup
+    public void setup() throws IOException {
+        output = Files.createTempFile("bench-writer-stream", compression == CsvWriterService.Compression.GZIP ? ".csv.gz" : ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public long write10MRows() throws IOException {
+        return writer.writeEnrichedRecords(new SyntheticRecords(ROWS), output, compression);
+    }
+
+    /**
+     * Registros com a forma dos reais (CNPJ de 14 dígitos, nomes com
+     * acento, alguns com ';'), variando só o que é barato de variar.
+     */
+    static final class SyntheticRecords implements Iterator<DataEnricherService.EnrichedRecord> {
+
+        private static final String[] RAZOES = {
+            "OPERADORA SAÚDE LTDA", "ASSISTÊNCIA MÉDICA S/A", "PLANO; ODONTO COOPERATIVA", "UNIMED SÃO JOSÉ"
+        };
+
+        private final int total;
+        private int next;
+
+        SyntheticRecords(int total) {
+            this.total = total;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < total;
+        }
+
+        @Override
+        public DataEnricherService.EnrichedRecord next() {
+            if (next >= total) {
+                throw new NoSuchElementException();
+            }
+            int i = next++;
+            int operadora = i / 40;
+            String razao = RAZOES[operadora & 3];
+            return new DataEnricherService.EnrichedRecord(
+                    Long.toString(10_000_000_000_000L + operadora),
+                    razao, razao, Integer.toString(411 + (i % 40)),
+                    Integer.toString(i % 100_000) + ".25", "2024-10-01");
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link DataEnricherService#enrichRecords}: leitura do cadastro, índice e
+ * junção com as linhas financeiras (2% órfãs).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class DataEnricherBenchmark {
+
+    @Param({"1000", "10000"})
+    int operadoras;
+
+    private DataEnricherService enricher;
+    private SyntheticAnsDataset.Output quarter;
+    private List<Map<String, String>> rows;
+
+    @Setup
+    public void setup() throws IOException {
+        quarter = BenchmarkData.quarter(operadoras);
+        rows = BenchmarkData.rows(quarter);
+        enricher = new DataEnricherService(new CsvParserService());
+    }
+
+    @Benchmark
+    public List<DataEnricherService.EnrichedRecord> enrichRecords() throws IOException {
+        return enricher.enrichRecords(rows, quarter.cadastroCsv());
+    }
+}
@@ -0,0 +1,52 @@
+package com.intuitive.api.cache;
+
+import com.intuitive.api.dto.OperadoraDetalhadaDTO;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Detalhes de operadora (cadastro + histórico) por CNPJ em
+ * {@link VersionedCache}: as operadoras mais consultadas ficam em memória e
+ * não refazem as duas queries a cada clique no dashboard.
+ *
+ * Misses simultâneos do mesmo CNPJ viram uma carga só; uma carga nova do
+ * importador descarta o cache inteiro. CNPJ inexistente não é guardado, para
+ * que uma varredura de CNPJs inválidos não ocupe espaço das operadoras quentes.
+ *
+ * Trade-off: LRU limitado por número de entradas vs. W-TinyLFU (Caffeine). -
+ * Reaproveita o cache das estatísticas, sem dependência nova. - Limitação: a
+ * capacidade é em entradas, não em bytes; uma operadora com histórico longo
+ * pesa o mesmo que uma com duas linhas.
+ */
+@Component
+public class DetalhesCache {
+
+    private final OperadoraRepository repository;
+    private final VersionedCache<String, OperadoraDetalhadaDTO> detalhes;
+
+    public DetalhesCache(OperadoraRepository repository, DatasetVersionRepository datasetVersion,
+            @Value("${api.detail-cache.max-entries:10000}") int maxEntries,
+            @Value("${api.detail-cache.ttl-ms:600000}") long ttlMillis) {
+        this.repository = repository;
+        this.detalhes = new VersionedCache<>("detalhes", maxEntries, ttlMillis, datasetVersion::current);
+    }
+
+    /**
+     * @param cnpj CNPJ da operadora
+     * @return detalhes (ver {@link OperadoraRepository#findDetalhesCompletos}),
+     * ou null se o CNPJ não existe. Compartilhado entre requisições: não
+     * alterar.
+     */
+    public OperadoraDetalhadaDTO get(String cnpj) {
+        return detalhes.get(cnpj, () -> repository.findDetalhesCompletos(cnpj));
+    }
+
+    /**
+     * @return métricas do cache (acertos, expulsões, tempo de carga)
+     */
+    public VersionedCache.Stats stats() {
+        return detalhes.stats();
+    }
+}
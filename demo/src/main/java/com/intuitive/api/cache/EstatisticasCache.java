@@ -0,0 +1,58 @@
+package com.intuitive.api.cache;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Estatísticas do dashboard (Top 5 e média por conta) servidas de
+ * {@link VersionedCache}: o GROUP BY sobre despesas_agregadas roda uma vez
+ * por carga do importador, não a cada requisição.
+ *
+ * Trade-off: cache por versão do dataset vs. tabela de resumo gravada pelo
+ * importador. - Nenhuma mudança no crawler nem no schema; a primeira
+ * requisição após a carga paga o GROUP BY (uma só, pelo single-flight). -
+ * Limitação: cada instância da API calcula o seu; com várias réplicas o
+ * banco recebe um GROUP BY por réplica e por carga.
+ */
+@Component
+public class EstatisticasCache {
+
+    private final OperadoraRepository repository;
+    private final VersionedCache<String, List<OperadoraDTO>> top5;
+    private final VersionedCache<String, List<OperadoraRepository.EstatisticaContaDTO>> mediaPorConta;
+
+    public EstatisticasCache(OperadoraRepository repository, DatasetVersionRepository datasetVersion,
+            @Value("${api.stats-cache.ttl-ms:300000}") long ttlMillis) {
+        this.repository = repository;
+        this.top5 = new VersionedCache<>("estatisticas.top5", 1, ttlMillis, datasetVersion::current);
+        this.mediaPorConta = new VersionedCache<>("estatisticas.media-conta", 1, ttlMillis, datasetVersion::current);
+    }
+
+    /**
+     * @return Top 5 operadoras por despesa total (ver
+     * {@link OperadoraRepository#findTop5Despesas()})
+     */
+    public List<OperadoraDTO> top5Despesas() {
+        return top5.get("top5", () -> List.copyOf(repository.findTop5Despesas()));
+    }
+
+    /**
+     * @return média por código de conta (ver
+     * {@link OperadoraRepository#findMediaPorConta()})
+     */
+    public List<OperadoraRepository.EstatisticaContaDTO> mediaPorConta() {
+        return mediaPorConta.get("media-conta", () -> List.copyOf(repository.findMediaPorConta()));
+    }
+
+    /**
+     * @return métricas dos dois caches
+     */
+    public List<VersionedCache.Stats> stats() {
+        return List.of(top5.stats(), mediaPorConta.stats());
+    }
+}
@@ -0,0 +1,224 @@
+package com.intuitive.api.cache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cache de resultados da API atrelado à versão do dataset: uma entrada só
+ * vale para a versão em que foi calculada (o importador incrementa
+ * dataset_version a cada carga) e por no máximo ttlMillis.
+ *
+ * Misses simultâneos da mesma chave são coalescidos (single-flight): a
+ * primeira thread calcula, as demais esperam o mesmo resultado. Uma rajada
+ * de requisições logo após uma carga nova dispara um cálculo só. A
+ * primeira consulta que vê uma versão nova descarta o cache inteiro, em vez
+ * de deixar as entradas antigas ocupando espaço até serem consultadas.
+ *
+ * Trade-off: LinkedHashMap em ordem de acesso (LRU) sob lock vs. Caffeine
+ * (W-TinyLFU). - Sem dependência nova; as operações sob lock são só
+ * get/put no mapa, o cálculo roda fora dele. - Limitação: LRU puro deixa
+ * uma varredura de chaves frias expulsar as quentes, o que a política de
+ * frequência do Caffeine evitaria.
+ *
+ * @param <K> chave
+ * @param <V> valor (compartilhado entre requisições: não deve ser alterado)
+ */
+public class VersionedCache<K, V> {
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier datasetVersion;
+
+    private final Map<K, Entry<V>> entries;
+    private final ConcurrentHashMap<Flight<K>, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadNanos = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /** Versão das entradas atuais; guardada sob o lock de entries. */
+    private long entriesVersion = Long.MIN_VALUE;
+
+    /**
+     * @param name nome exibido nas métricas
+     * @param maxEntries máximo de entradas (a menos usada sai primeiro)
+     * @param ttlMillis validade de uma entrada
+     * @param datasetVersion versão atual do dataset
+     */
+    public VersionedCache(String name, int maxEntries, long ttlMillis, LongSupplier datasetVersion) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.datasetVersion = datasetVersion;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > VersionedCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Valor da chave na versão atual, calculado por loader se ausente.
+     *
+     * @param key chave
+     * @param loader cálculo do valor; null (ex.: registro inexistente) é
+     * devolvido sem ir para o cache
+     * @return valor em cache ou recém-calculado, ou null
+     */
+    public V get(K key, Supplier<V> loader) {
+        // Versão lida ANTES do cálculo: se uma carga terminar no meio, a entrada
+        // fica marcada como antiga e é recalculada (nunca o contrário)
+        long version = datasetVersion.getAsLong();
+        V cached = lookup(key, version);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        Flight<K> flight = new Flight<>(key, version);
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(flight, mine);
+        if (running != null) {
+            return await(running);
+        }
+        try {
+            // Outra thread pode ter terminado o cálculo entre o lookup e o putIfAbsent
+            V loaded = lookup(key, version);
+            if (loaded != null) {
+                mine.complete(loaded);
+                return loaded;
+            }
+            long start = System.nanoTime();
+            V value = loader.get();
+            loads.increment();
+            loadNanos.add(System.nanoTime() - start);
+            if (value != null) {
+                synchronized (entries) {
+                    // Não grava sobre um cache já limpo para uma versão mais nova
+                    if (version == entriesVersion) {
+                        entries.put(key, new Entry<>(value, version, System.nanoTime()));
+                    }
+                }
+            }
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flight, mine);
+        }
+    }
+
+    /** Descarta todas as entradas. */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return contadores acumulados desde a criação
+     */
+    public Stats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new Stats(name, size, maxEntries, hits.sum(), misses.sum(), loads.sum(), evictions.sum(),
+                invalidations.sum(), loadNanos.sum() / 1_000);
+    }
+
+    private V lookup(K key, long version) {
+        synchronized (entries) {
+            // Versões só crescem; uma thread atrasada com a versão anterior
+            // não limpa de novo, apenas não encontra nada
+            if (version > entriesVersion) {
+                if (!entries.isEmpty()) {
+                    entries.clear();
+                    invalidations.increment();
+                }
+                entriesVersion = version;
+            }
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.version() != version || System.nanoTime() - entry.storedAt() >= ttlNanos) {
+                entries.remove(key);
+                return null;
+            }
+            return entry.value();
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Métricas do cache.
+     *
+     * @param name nome do cache
+     * @param size entradas atuais
+     * @param maxEntries capacidade
+     * @param hits consultas respondidas do cache
+     * @param misses consultas que precisaram calcular (ou esperar quem calculava)
+     * @param loads cálculos efetivamente executados
+     * @param evictions entradas expulsas por capacidade
+     * @param invalidations vezes em que o cache foi descartado por versão nova
+     * @param loadMicros tempo total gasto nos cálculos
+     */
+    public record Stats(String name, int size, int maxEntries, long hits, long misses, long loads, long evictions,
+            long invalidations, long loadMicros) {
+
+        /** Fração das consultas respondidas do cache. */
+        @JsonProperty
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        /** Tempo médio de um cálculo. */
+        @JsonProperty
+        public long averageLoadMicros() {
+            return loads == 0 ? 0 : loadMicros / loads;
+        }
+    }
+
+    private record Entry<V>(V value, long version, long storedAt) {
+
+    }
+
+    private record Flight<K>(K key, long version) {
+
+    }
+}
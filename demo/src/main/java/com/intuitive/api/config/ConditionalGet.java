@@ -0,0 +1,22 @@
+package com.intuitive.api.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marca um GET cuja resposta só muda com a versão do dataset: ganha ETag e
+ * responde 304 a If-None-Match sem executar o método (ver
+ * {@link ConditionalGetSupport}).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConditionalGet {
+
+    /**
+     * Nome do endpoint na configuração: o Cache-Control vem de
+     * api.cache-control.&lt;nome&gt; (padrão: no-cache).
+     */
+    String value();
+}
@@ -0,0 +1,151 @@
+package com.intuitive.api.config;
+
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.search.OperadoraSearchIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * GET condicional para os endpoints marcados com {@link ConditionalGet}.
+ *
+ * O ETag é forte e calculado só com o que já está em memória: versão do
+ * dataset, versão do índice de busca em uso e a requisição (caminho +
+ * parâmetros em ordem alfabética). Por isso o If-None-Match é conferido no
+ * preHandle, antes do controller: um 304 não executa SQL, não serializa
+ * JSON e não envia corpo. O ETag e o Cache-Control
+ * (api.cache-control.&lt;nome&gt;, padrão no-cache = "pode guardar, mas
+ * confirme antes") vão só nas respostas 2xx com corpo.
+ *
+ * Trade-off: ETag pela versão vs. hash do corpo (ShallowEtagHeaderFilter).
+ * - O hash do corpo só economiza banda: o SQL e a serialização já rodaram.
+ * - Limitação: a versão vista pela API atrasa até pollMillis em relação ao
+ * importador; nesse intervalo um 304 pode confirmar a resposta da carga
+ * anterior.
+ */
+@ControllerAdvice
+public class ConditionalGetSupport implements WebMvcConfigurer, HandlerInterceptor, ResponseBodyAdvice<Object> {
+
+    private static final String ETAG_ATTRIBUTE = ConditionalGetSupport.class.getName() + ".etag";
+    private static final String CACHE_CONTROL_ATTRIBUTE = ConditionalGetSupport.class.getName() + ".cacheControl";
+
+    private final DatasetVersionRepository datasetVersion;
+    private final OperadoraSearchIndex searchIndex;
+    private final Environment environment;
+
+    public ConditionalGetSupport(DatasetVersionRepository datasetVersion, OperadoraSearchIndex searchIndex,
+            Environment environment) {
+        this.datasetVersion = datasetVersion;
+        this.searchIndex = searchIndex;
+        this.environment = environment;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        ConditionalGet conditional = method.getMethodAnnotation(ConditionalGet.class);
+        if (conditional == null) {
+            return true;
+        }
+        String etag = etag(request);
+        String cacheControl = environment.getProperty("api.cache-control." + conditional.value(), "no-cache");
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            return false;
+        }
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(CACHE_CONTROL_ATTRIBUTE, cacheControl);
+        return true;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class converterType) {
+        return returnType.hasMethodAnnotation(ConditionalGet.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType contentType, Class converterType,
+            ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            HttpServletRequest httpRequest = servletRequest.getServletRequest();
+            int status = servletResponse.getServletResponse().getStatus();
+            Object etag = httpRequest.getAttribute(ETAG_ATTRIBUTE);
+            if (etag != null && status >= 200 && status < 300) {
+                response.getHeaders().setETag((String) etag);
+                response.getHeaders().setCacheControl((String) httpRequest.getAttribute(CACHE_CONTROL_ATTRIBUTE));
+            }
+        }
+        return body;
+    }
+
+    /**
+     * ETag forte da requisição na versão atual do dataset.
+     */
+    String etag(HttpServletRequest request) {
+        // TreeMap: ?page=1&limit=20 e ?limit=20&page=1 são a mesma resposta
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        params.forEach((name, values) -> key.append('\u0001').append(name).append('=').append(Arrays.toString(values)));
+        return "\"" + datasetVersion.current() + "-" + searchIndex.version() + "-" + sha256(key.toString()) + "\"";
+    }
+
+    /**
+     * If-None-Match usa comparação fraca (RFC 9110): W/"x" casa com "x". "*"
+     * não é aceito: aqui não se sabe, antes do SQL, se o recurso existe.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
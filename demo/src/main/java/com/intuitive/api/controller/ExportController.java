@@ -0,0 +1,197 @@
+package com.intuitive.api.controller;
+
+import com.intuitive.api.export.ExportFormat;
+import com.intuitive.api.repository.ExportRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exportação completa em uma requisição, para integrações que hoje paginam
+ * /api/operadoras de 100 em 100.
+ *
+ * GET /api/export/operadoras?format=ndjson|csv
+ * GET /api/export/despesas?format=ndjson|csv&competencia=2024-T4
+ *
+ * O corpo é escrito enquanto o banco devolve as linhas (StreamingResponseBody
+ * + {@link ExportRepository}); com Accept-Encoding: gzip a saída é
+ * comprimida aqui mesmo, no nível mais rápido.
+ *
+ * Trade-off: limite de exportações simultâneas (api.export.max-concurrent)
+ * vs. aceitar todas. - Cada exportação prende uma conexão do pool até o fim
+ * do download; sem limite, alguns downloads lentos esgotariam o pool das
+ * demais rotas. - Limitação: acima do limite a resposta é 503 com
+ * Retry-After, e o cliente precisa tentar de novo. O slot é reservado antes
+ * da resposta (para poder responder 503) e devolvido pelo corpo ou pelo fim
+ * da requisição assíncrona, o que vier primeiro.
+ */
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin(origins = "*")
+public class ExportController {
+
+    private final ExportRepository repository;
+    private final Semaphore slots;
+
+    public ExportController(ExportRepository repository, @Value("${api.export.max-concurrent:2}") int maxConcurrent) {
+        this.repository = repository;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Todas as operadoras reais, em ordem de CNPJ.
+     *
+     * @param format ndjson (padrão) ou csv; sem ele vale o Accept
+     * @return corpo em streaming
+     */
+    @GetMapping("/operadoras")
+    public ResponseEntity<StreamingResponseBody> exportarOperadoras(
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportar("operadoras", format, accept, acceptEncoding, repository::streamOperadoras);
+    }
+
+    /**
+     * Despesas agregadas, opcionalmente de um só trimestre.
+     *
+     * @param format ndjson (padrão) ou csv; sem ele vale o Accept
+     * @param competencia trimestre no formato 2024-T4 (opcional)
+     * @return corpo em streaming
+     */
+    @GetMapping("/despesas")
+    public ResponseEntity<StreamingResponseBody> exportarDespesas(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String competencia,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return exportar("despesas", format, accept, acceptEncoding, sink -> repository.streamDespesas(competencia, sink));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportar(String nome, String format, String accept,
+            String acceptEncoding, Export export) {
+        ExportFormat exportFormat = ExportFormat.negotiate(format, accept);
+        if (exportFormat == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!slots.tryAcquire()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "5").build();
+        }
+        Runnable release = releaseOnce();
+        releaseOnAsyncCompletion(release);
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            try {
+                ExportFormat.RowWriter writer = exportFormat.writer(gzip ? new FastGzipOutputStream(out) : out);
+                export.run(writer);
+                // Só fecha (trailer do gzip) se tudo foi lido: em erro a resposta
+                // termina incompleta e o cliente não confunde com exportação completa
+                writer.close();
+            } finally {
+                release.run();
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, exportFormat.contentType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + nome + "." + exportFormat.extension() + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT + ", " + HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Devolve o slot uma vez só, chamado de onde vier primeiro.
+     */
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * O corpo pode nunca rodar (timeout antes de começar, cliente que
+     * desconectou, executor cheio): o fim da requisição assíncrona também
+     * devolve o slot, senão ele ficaria preso para sempre.
+     */
+    private static void releaseOnAsyncCompletion(Runnable release) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            WebAsyncUtils.getAsyncManager(attributes.getRequest()).registerCallableInterceptor(
+                    ExportController.class.getName(), new CallableProcessingInterceptor() {
+                @Override
+                public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                    release.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * gzip com q &gt; 0 em Accept-Encoding (ex.: "gzip, deflate, br";
+     * "gzip;q=0" recusa).
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.split(";");
+            String coding = tokens[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.equals("gzip") && !coding.equals("x-gzip")) {
+                continue;
+            }
+            for (int i = 1; i < tokens.length; i++) {
+                String param = tokens[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException e) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @FunctionalInterface
+    private interface Export {
+
+        void run(ExportRepository.RowSink sink) throws IOException;
+    }
+
+    /**
+     * Nível 1 de compressão: texto repetitivo como CNPJs e contas já cai para
+     * uma fração do tamanho, e a CPU não vira o gargalo da exportação.
+     */
+    private static final class FastGzipOutputStream extends GZIPOutputStream {
+
+        FastGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 1 << 16);
+            def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+}
@@ -1,18 +1,36 @@
 package com.intuitive.api.controller;
 
+import com.intuitive.api.cache.DetalhesCache;
+import com.intuitive.api.cache.EstatisticasCache;
+import com.intuitive.api.cache.VersionedCache;
+import com.intuitive.api.config.ConditionalGet;
 import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.dto.OperadoraLoteDTO;
+import com.intuitive.api.repository.CountCache;
+import com.intuitive.api.repository.KeysetCursor;
 import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.ParallelQueries;
+import com.intuitive.api.search.OperadoraSearchIndex;
+import com.intuitive.api.search.PrefixSuggester;
+import com.intuitive.api.search.TrigramIndex;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * REST Controller para endpoints de operadoras. Trade-off: Controller direto
  * sem Service Layer - Simplicidade para MVP. Em produção, adicionar camada de
  * serviço para lógica de negócio.
+ *
+ * Os GETs marcados com {@link ConditionalGet} respondem com ETag e aceitam
+ * If-None-Match: o 304 sai antes de o método rodar.
  */
 @RestController
 @RequestMapping("/api")
@@ -20,26 +38,55 @@ import java.util.Map;
 public class OperadoraController {
 
     private final OperadoraRepository repository;
+    private final OperadoraSearchIndex searchIndex;
+    private final CountCache countCache;
+    private final ParallelQueries parallel;
+    private final EstatisticasCache estatisticas;
+    private final DetalhesCache detalhesCache;
 
-    public OperadoraController(OperadoraRepository repository) {
+    public OperadoraController(OperadoraRepository repository, OperadoraSearchIndex searchIndex,
+            CountCache countCache, ParallelQueries parallel, EstatisticasCache estatisticas,
+            DetalhesCache detalhesCache) {
         this.repository = repository;
+        this.searchIndex = searchIndex;
+        this.countCache = countCache;
+        this.parallel = parallel;
+        this.estatisticas = estatisticas;
+        this.detalhesCache = detalhesCache;
     }
 
     /**
      * Lista operadoras com paginação e busca.
      *
      * GET /api/operadoras?page=1&limit=20&q=termo
+     * GET /api/operadoras?cursor=&limit=20&q=termo (paginação por chave)
      *
-     * @param page número da página (padrão: 1)
+     * Com o parâmetro cursor (vazio na primeira página) a listagem usa
+     * keyset e devolve "next" para a página seguinte, com latência constante
+     * em qualquer profundidade; page continua aceito para compatibilidade.
+     *
+     * A busca paginada (q sem cursor) é respondida pelo índice de trigramas
+     * em memória quando ele está pronto: sem acento/caixa, também no nome
+     * fantasia e ordenada por relevância. Sem índice, cai no LIKE do banco.
+     *
+     * No banco, a primeira página de um filtro traz página e total numa
+     * query só (COUNT(*) OVER()); o total fica em CountCache e as páginas
+     * seguintes do mesmo filtro buscam só as linhas. No modo cursor, sem
+     * total em cache, página e COUNT rodam ao mesmo tempo (ParallelQueries).
+     *
+     * @param page número da página (padrão: 1; ignorado com cursor)
      * @param limit registros por página (padrão: 20)
      * @param q termo de busca (opcional)
-     * @return JSON com data, total e page
+     * @param cursor valor de "next" da resposta anterior (opcional)
+     * @return JSON com data, total e page (ou next, no modo cursor)
      */
     @GetMapping("/operadoras")
+    @ConditionalGet("operadoras")
     public ResponseEntity<Map<String, Object>> listarOperadoras(
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(required = false) String q
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String cursor
     ) {
         // Validação básica
         if (page < 1) {
@@ -48,16 +95,62 @@ public class OperadoraController {
         if (limit < 1 || limit > 100) {
             limit = 20;
         }
+        boolean busca = q != null && !q.trim().isEmpty();
+
+        if (cursor != null) {
+            KeysetCursor after;
+            try {
+                after = cursor.isBlank() ? null : KeysetCursor.decode(cursor.trim());
+            } catch (IllegalArgumentException e) {
+                Map<String, Object> error = new HashMap<>();
+                error.put("error", e.getMessage());
+                return ResponseEntity.badRequest().body(error);
+            }
+            String termo = busca ? q.trim() : null;
+            int pageLimit = limit;
+            Supplier<OperadoraRepository.KeysetPage> pagina = () -> busca
+                    ? repository.findByQueryKeyset(termo, after, pageLimit)
+                    : repository.findAllKeyset(after, pageLimit);
+            OperadoraRepository.KeysetPage keyset;
+            Integer total = countCache.get(termo);
+            if (total != null) {
+                keyset = pagina.get();
+            } else {
+                Map.Entry<Integer, OperadoraRepository.KeysetPage> result = parallel.join(
+                        () -> busca ? repository.countByQuery(termo) : repository.countTotal(), pagina, Map::entry);
+                total = result.getKey();
+                keyset = result.getValue();
+                countCache.put(termo, total);
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("data", keyset.data());
+            response.put("total", total);
+            response.put("limit", limit);
+            response.put("next", keyset.next() != null ? keyset.next().encode() : null);
+            return ResponseEntity.ok(response);
+        }
 
         List<OperadoraDTO> operadoras;
         int total;
 
-        if (q != null && !q.trim().isEmpty()) {
-            operadoras = repository.findByQuery(q.trim(), page, limit);
-            total = repository.countByQuery(q.trim());
+        Optional<TrigramIndex> index = busca ? searchIndex.current() : Optional.empty();
+        if (index.isPresent()) {
+            TrigramIndex.SearchPage result = index.get().search(q.trim(), (page - 1) * limit, limit);
+            operadoras = result.data();
+            total = result.total();
         } else {
-            operadoras = repository.findAllPaginado(page, limit);
-            total = repository.countTotal();
+            String termo = busca ? q.trim() : null;
+            Integer cached = countCache.get(termo);
+            if (cached != null) {
+                operadoras = busca ? repository.findByQuery(termo, page, limit) : repository.findAllPaginado(page, limit);
+                total = cached;
+            } else {
+                OperadoraRepository.PageWithTotal result = repository.findPageWithTotal(termo, page, limit);
+                operadoras = result.data();
+                total = result.total();
+                countCache.put(termo, total);
+            }
         }
 
         Map<String, Object> response = new HashMap<>();
@@ -70,6 +163,37 @@ public class OperadoraController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Sugestões para autocomplete: operadoras com alguma palavra do nome (ou
+     * o CNPJ) começando pelo prefixo, as de maior despesa total primeiro.
+     * Respondido só da memória, sem ir ao banco.
+     *
+     * GET /api/operadoras/suggest?prefix=uni&limit=10
+     *
+     * @param prefix texto digitado (acento/caixa ignorados)
+     * @param limit máximo de sugestões (padrão: 10, até 50)
+     * @return JSON com data; 503 enquanto o índice não foi construído
+     */
+    @GetMapping("/operadoras/suggest")
+    @ConditionalGet("suggest")
+    public ResponseEntity<Map<String, Object>> sugerirOperadoras(
+            @RequestParam(defaultValue = "") String prefix,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (limit < 1 || limit > 50) {
+            limit = 10;
+        }
+        Optional<PrefixSuggester> suggester = searchIndex.suggester();
+        Map<String, Object> response = new HashMap<>();
+        if (suggester.isEmpty()) {
+            response.put("error", "Índice de sugestões em construção");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response);
+        }
+        response.put("data", suggester.get().suggest(prefix, limit));
+        response.put("prefix", prefix);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Busca operadora por CNPJ com histórico de despesas.
      *
@@ -79,6 +203,7 @@ public class OperadoraController {
      * @return JSON com dados da operadora e histórico
      */
     @GetMapping("/operadoras/{cnpj}")
+    @ConditionalGet("detalhes")
     public ResponseEntity<OperadoraDTO> buscarOperadora(@PathVariable String cnpj) {
         OperadoraDTO operadora = repository.findByCnpjWithHistory(cnpj);
 
@@ -89,8 +214,54 @@ public class OperadoraController {
         return ResponseEntity.ok(operadora);
     }
 
+    /**
+     * Máximo de CNPJs por chamada de {@link #buscarOperadorasEmLote}.
+     */
+    static final int MAX_LOTE = 5_000;
+
+    /**
+     * Busca várias operadoras de uma vez, para integrações que hoje chamam
+     * GET /api/operadoras/{cnpj} CNPJ a CNPJ.
+     *
+     * POST /api/operadoras/batch?despesas=true
+     * ["11111111000100", "22222222000100"]
+     *
+     * @param cnpjs até {@value #MAX_LOTE} CNPJs
+     * @param despesas inclui o total de despesas de cada operadora
+     * @return JSON com data (um item por CNPJ, na ordem enviada, inclusive os
+     * não encontrados), found e missing
+     */
+    @PostMapping("/operadoras/batch")
+    public ResponseEntity<Map<String, Object>> buscarOperadorasEmLote(
+            @RequestBody List<String> cnpjs,
+            @RequestParam(defaultValue = "false") boolean despesas
+    ) {
+        Map<String, Object> response = new HashMap<>();
+        if (cnpjs.size() > MAX_LOTE) {
+            response.put("error", "Máximo de " + MAX_LOTE + " CNPJs por requisição");
+            return ResponseEntity.badRequest().body(response);
+        }
+
+        Map<String, OperadoraDTO> encontradas = repository.findByCnpjs(cnpjs, despesas);
+        List<OperadoraLoteDTO> data = new ArrayList<>(cnpjs.size());
+        int found = 0;
+        for (String cnpj : cnpjs) {
+            OperadoraDTO operadora = cnpj == null ? null : encontradas.get(cnpj);
+            data.add(new OperadoraLoteDTO(cnpj, operadora != null, operadora));
+            if (operadora != null) {
+                found++;
+            }
+        }
+
+        response.put("data", data);
+        response.put("found", found);
+        response.put("missing", cnpjs.size() - found);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Busca detalhes completos da operadora incluindo histórico estruturado.
+     * Servido de DetalhesCache enquanto a versão do dataset não muda.
      *
      * GET /api/operadoras/{cnpj}/detalhes
      *
@@ -98,8 +269,9 @@ public class OperadoraController {
      * @return JSON com dados cadastrais completos e histórico de despesas
      */
     @GetMapping("/operadoras/{cnpj}/detalhes")
+    @ConditionalGet("detalhes")
     public ResponseEntity<com.intuitive.api.dto.OperadoraDetalhadaDTO> buscarDetalhesOperadora(@PathVariable String cnpj) {
-        com.intuitive.api.dto.OperadoraDetalhadaDTO detalhes = repository.findDetalhesCompletos(cnpj);
+        com.intuitive.api.dto.OperadoraDetalhadaDTO detalhes = detalhesCache.get(cnpj);
 
         if (detalhes == null) {
             return ResponseEntity.notFound().build();
@@ -109,15 +281,17 @@ public class OperadoraController {
     }
 
     /**
-     * Retorna estatísticas: Top 5 operadoras com maiores despesas.
+     * Retorna estatísticas: Top 5 operadoras com maiores despesas. Calculado
+     * uma vez por versão do dataset (EstatisticasCache).
      *
      * GET /api/estatisticas/top5
      *
      * @return JSON com lista das top 5
      */
     @GetMapping("/estatisticas/top5")
+    @ConditionalGet("estatisticas")
     public ResponseEntity<Map<String, Object>> top5Despesas() {
-        List<OperadoraDTO> top5 = repository.findTop5Despesas();
+        List<OperadoraDTO> top5 = estatisticas.top5Despesas();
 
         Map<String, Object> response = new HashMap<>();
         response.put("data", top5);
@@ -127,15 +301,17 @@ public class OperadoraController {
     }
 
     /**
-     * Retorna média de gastos por código de conta.
+     * Retorna média de gastos por código de conta. Calculado uma vez por
+     * versão do dataset (EstatisticasCache).
      *
      * GET /api/estatisticas/media-conta
      *
      * @return JSON com estatísticas por conta
      */
     @GetMapping("/estatisticas/media-conta")
+    @ConditionalGet("estatisticas")
     public ResponseEntity<Map<String, Object>> mediaPorConta() {
-        List<OperadoraRepository.EstatisticaContaDTO> stats = repository.findMediaPorConta();
+        List<OperadoraRepository.EstatisticaContaDTO> stats = estatisticas.mediaPorConta();
 
         Map<String, Object> response = new HashMap<>();
         response.put("data", stats);
@@ -144,6 +320,24 @@ public class OperadoraController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Métricas dos caches da API: taxa de acerto, expulsões, descartes por
+     * carga nova e tempo médio de carga.
+     *
+     * GET /api/cache/stats
+     *
+     * @return JSON com uma entrada por cache
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, Object>> cacheStats() {
+        List<VersionedCache.Stats> caches = new ArrayList<>(estatisticas.stats());
+        caches.add(detalhesCache.stats());
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("data", caches);
+        return ResponseEntity.ok(response);
+    }
+
     /**
      * Health check da API.
      *
@@ -0,0 +1,13 @@
+package com.intuitive.api.dto;
+
+/**
+ * Item da resposta de POST /api/operadoras/batch: um por CNPJ enviado, na
+ * mesma ordem, com found = false (e operadora null) quando o CNPJ não existe.
+ *
+ * @param cnpj CNPJ como enviado
+ * @param found se o CNPJ foi encontrado
+ * @param operadora dados da operadora, ou null
+ */
+public record OperadoraLoteDTO(String cnpj, boolean found, OperadoraDTO operadora) {
+
+}
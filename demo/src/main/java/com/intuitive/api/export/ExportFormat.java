@@ -0,0 +1,177 @@
+package com.intuitive.api.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.intuitive.api.repository.ExportRepository;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formatos da exportação: uma linha de saída por linha do banco, escrita
+ * assim que lida.
+ *
+ * Trade-off: escrita manual (JsonGenerator / CSV à mão) vs. mapear cada linha
+ * para DTO e serializar com o ObjectMapper. - Sem objeto intermediário por
+ * linha: o custo fica no JDBC e no gzip. - Limitação: as colunas saem com o
+ * nome do banco (cnpj_operadora, valor_total), não com os nomes dos DTOs.
+ */
+public enum ExportFormat {
+
+    /** Um objeto JSON por linha (application/x-ndjson). */
+    NDJSON("application/x-ndjson", "ndjson") {
+        @Override
+        public RowWriter writer(OutputStream out) throws IOException {
+            JsonGenerator json = JSON.createGenerator(out);
+            return new RowWriter() {
+                private List<String> columns;
+
+                @Override
+                public void start(List<String> columns) {
+                    this.columns = columns;
+                }
+
+                @Override
+                public void row(Object[] values) throws IOException {
+                    json.writeStartObject();
+                    for (int i = 0; i < values.length; i++) {
+                        json.writeFieldName(columns.get(i));
+                        Object value = values[i];
+                        if (value == null) {
+                            json.writeNull();
+                        } else if (value instanceof BigDecimal decimal) {
+                            json.writeNumber(decimal);
+                        } else if (value instanceof Number number) {
+                            json.writeNumber(number.toString());
+                        } else if (value instanceof Boolean bool) {
+                            json.writeBoolean(bool);
+                        } else {
+                            json.writeString(value.toString());
+                        }
+                    }
+                    json.writeEndObject();
+                    json.writeRaw('\n');
+                }
+
+                @Override
+                public void close() throws IOException {
+                    json.close();
+                }
+            };
+        }
+    },
+
+    /** CSV RFC 4180 (vírgula, aspas duplas, CRLF) com cabeçalho. */
+    CSV("text/csv;charset=UTF-8", "csv") {
+        @Override
+        public RowWriter writer(OutputStream out) {
+            Writer csv = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            return new RowWriter() {
+                @Override
+                public void start(List<String> columns) throws IOException {
+                    row(columns.toArray());
+                }
+
+                @Override
+                public void row(Object[] values) throws IOException {
+                    for (int i = 0; i < values.length; i++) {
+                        if (i > 0) {
+                            csv.write(',');
+                        }
+                        Object value = values[i];
+                        if (value instanceof BigDecimal decimal) {
+                            csv.write(decimal.toPlainString());
+                        } else if (value != null) {
+                            writeField(csv, value.toString());
+                        }
+                    }
+                    csv.write("\r\n");
+                }
+
+                @Override
+                public void close() throws IOException {
+                    csv.close();
+                }
+            };
+        }
+    };
+
+    // Sem separador automático entre objetos: cada um termina com '\n' próprio
+    private static final JsonFactory JSON = new JsonFactoryBuilder()
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .rootValueSeparator((String) null)
+            .build();
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Escritor que grava em out; close() descarrega e fecha out.
+     */
+    public abstract RowWriter writer(OutputStream out) throws IOException;
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    /**
+     * Formato pedido: parâmetro format (ndjson/csv) tem precedência; sem ele,
+     * text/csv no Accept escolhe CSV e o resto cai em NDJSON.
+     *
+     * @return formato, ou null se format não for reconhecido
+     */
+    public static ExportFormat negotiate(String format, String accept) {
+        if (format != null && !format.isBlank()) {
+            return switch (format.trim().toLowerCase(Locale.ROOT)) {
+                case "ndjson", "jsonl" -> NDJSON;
+                case "csv" -> CSV;
+                default -> null;
+            };
+        }
+        if (accept != null && accept.toLowerCase(Locale.ROOT).contains("text/csv")) {
+            return CSV;
+        }
+        return NDJSON;
+    }
+
+    private static void writeField(Writer out, String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.write(value);
+            return;
+        }
+        out.write('"');
+        out.write(value.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    /**
+     * {@link ExportRepository.RowSink} que escreve no formato.
+     */
+    public interface RowWriter extends ExportRepository.RowSink, Closeable {
+
+    }
+}
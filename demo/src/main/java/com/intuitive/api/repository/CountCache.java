@@ -0,0 +1,84 @@
+package com.intuitive.api.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Totais da listagem de operadoras por termo de busca, para que paginar o
+ * mesmo resultado não repita o COUNT a cada página.
+ *
+ * A chave é o termo normalizado (trim + minúsculas, como o LIKE sem caixa
+ * da busca); a entrada vale enquanto a versão do dataset não mudar e por no
+ * máximo ttlMillis.
+ *
+ * Trade-off: TTL curto + versão vs. invalidação só por versão. - A versão
+ * cobre as cargas do importador; o TTL cobre escritas fora dele (ajuste
+ * manual no banco), que a versão não enxerga. - Limitação: nesse intervalo
+ * o total pode divergir das linhas da página, e o número de páginas mostrado
+ * fica aproximado até a entrada expirar.
+ */
+@Component
+public class CountCache {
+
+    /** Termos distintos guardados; o menos usado sai primeiro. */
+    private static final int MAX_ENTRIES = 1_024;
+
+    private final LongSupplier datasetVersion;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Autowired
+    public CountCache(DatasetVersionRepository datasetVersion,
+            @Value("${api.count-cache.ttl-ms:30000}") long ttlMillis) {
+        this(datasetVersion::current, ttlMillis);
+    }
+
+    CountCache(LongSupplier datasetVersion, long ttlMillis) {
+        this.datasetVersion = datasetVersion;
+        this.ttlNanos = ttlMillis * 1_000_000;
+    }
+
+    /**
+     * @param query termo de busca (null = listagem completa)
+     * @return total guardado, ou null se ausente, expirado ou de outra versão
+     */
+    public synchronized Integer get(String query) {
+        String key = key(query);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.version != datasetVersion.getAsLong() || System.nanoTime() - entry.storedAt >= ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.total;
+    }
+
+    /**
+     * @param query termo de busca (null = listagem completa)
+     * @param total total calculado pelo banco
+     */
+    public synchronized void put(String query, int total) {
+        entries.put(key(query), new Entry(total, datasetVersion.getAsLong(), System.nanoTime()));
+    }
+
+    private static String key(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Entry(int total, long version, long storedAt) {
+
+    }
+}
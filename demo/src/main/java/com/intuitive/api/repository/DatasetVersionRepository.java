@@ -0,0 +1,113 @@
+package com.intuitive.api.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Versão do dataset gravada pelo importador (tabela dataset_version, linha
+ * id = 1), incrementada na mesma transação de cada carga.
+ *
+ * Trade-off: consulta periódica vs. notificação do importador. - O crawler
+ * roda em outro processo (às vezes em outra máquina); um SELECT por chave
+ * primária a cada poucos segundos não precisa de canal extra. - Limitação:
+ * o que depende da versão (índice de busca, caches, ETags) enxerga uma
+ * carga nova com até pollMillis de atraso.
+ *
+ * Com a aplicação no ar a releitura é feita por uma thread própria e
+ * {@link #current()} só lê memória: nenhuma requisição espera pelo banco
+ * para saber a versão (um 304 não executa SQL nenhum). Montado à mão
+ * (testes, benchmarks), sem {@link #start()}, relê na própria chamada.
+ */
+@Repository
+public class DatasetVersionRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long pollNanos;
+
+    private final ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "dataset-version-poll");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long version = -1;
+    private volatile long checkedAt;
+    private volatile boolean polling;
+
+    public DatasetVersionRepository(JdbcTemplate jdbcTemplate,
+            @Value("${api.dataset-version.poll-ms:2000}") long pollMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pollNanos = pollMillis * 1_000_000;
+    }
+
+    /**
+     * Versão atual, relida do banco no máximo uma vez por intervalo.
+     *
+     * @return versão do dataset (0 se a tabela ainda não existir)
+     */
+    public long current() {
+        long now = System.nanoTime();
+        if (version < 0 || (!polling && now - checkedAt >= pollNanos)) {
+            // Corrida benigna: duas threads podem reler ao mesmo tempo
+            version = read();
+            checkedAt = now;
+        }
+        return version;
+    }
+
+    /**
+     * Passa a reler a versão em segundo plano, a cada pollMillis.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        polling = true;
+        poller.scheduleWithFixedDelay(this::refresh, 0, Math.max(1, pollMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+    }
+
+    private void refresh() {
+        try {
+            version = read();
+            checkedAt = System.nanoTime();
+        } catch (RuntimeException e) {
+            // Sem relançar: uma exceção cancelaria o agendamento
+            System.out.println("⚠ Falha ao ler dataset_version: " + e.getMessage());
+        }
+    }
+
+    /** Intervalo entre releituras do banco. */
+    public long pollMillis() {
+        return pollNanos / 1_000_000;
+    }
+
+    private long read() {
+        try {
+            List<Long> rows = jdbcTemplate.queryForList("SELECT version FROM dataset_version WHERE id = 1", Long.class);
+            return rows.isEmpty() || rows.get(0) == null ? 0 : rows.get(0);
+        } catch (BadSqlGrammarException e) {
+            // Banco criado antes da tabela existir: trata como versão inicial
+            return 0;
+        } catch (DataAccessException e) {
+            // Falha transitória: mantém a última versão conhecida
+            if (version >= 0) {
+                return version;
+            }
+            throw e;
+        }
+    }
+}
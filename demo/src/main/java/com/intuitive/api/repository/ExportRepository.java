@@ -0,0 +1,149 @@
+package com.intuitive.api.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Exportação completa das tabelas, linha a linha, sem montar lista em
+ * memória: o ResultSet é forward-only/read-only e cada linha vai direto para
+ * um {@link RowSink} (o corpo da resposta HTTP).
+ *
+ * No MySQL o Connector/J só deixa de carregar o resultado inteiro com fetch
+ * size Integer.MIN_VALUE (streaming linha a linha); nos demais bancos vale
+ * api.export.fetch-size.
+ *
+ * Trade-off: um SELECT em streaming vs. páginas com LIMIT/OFFSET. - Uma
+ * query, sem o custo crescente do OFFSET, e memória constante. - Limitação:
+ * a conexão fica presa durante todo o download; um cliente lento segura uma
+ * conexão do pool (e, no MySQL, o servidor derruba a query se o cliente
+ * parar de ler por mais que net_write_timeout).
+ */
+@Repository
+public class ExportRepository {
+
+    /** Colunas de {@link #streamOperadoras}. */
+    public static final List<String> COLUNAS_OPERADORAS = List.of("cnpj", "razao_social", "nome_fantasia", "uf", "modalidade");
+
+    /** Colunas de {@link #streamDespesas}. */
+    public static final List<String> COLUNAS_DESPESAS = List.of("cnpj_operadora", "codigo_conta", "valor_total", "competencia");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int fetchSize;
+
+    /**
+     * @param jdbcTemplate acesso ao banco
+     * @param fetchSize linhas por ida ao banco (ignorado no MySQL, que faz
+     * streaming linha a linha)
+     */
+    public ExportRepository(JdbcTemplate jdbcTemplate, @Value("${api.export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Destino das linhas exportadas.
+     */
+    public interface RowSink {
+
+        /**
+         * Chamado uma vez, antes da primeira linha (também se não houver linhas).
+         */
+        void start(List<String> columns) throws IOException;
+
+        /**
+         * @param values valores na ordem das colunas; o array é reaproveitado
+         * na linha seguinte, então não deve ser guardado
+         */
+        void row(Object[] values) throws IOException;
+    }
+
+    /**
+     * Operadoras reais (mesmo filtro da listagem), em ordem de CNPJ.
+     *
+     * @return linhas exportadas
+     */
+    public long streamOperadoras(RowSink sink) throws IOException {
+        String sql = """
+            SELECT cnpj, razao_social, nome_fantasia, uf, modalidade
+            FROM operadoras
+            WHERE is_operadora_real = TRUE
+            ORDER BY cnpj
+            """;
+        return stream("export.operadoras", sql, COLUNAS_OPERADORAS, sink);
+    }
+
+    /**
+     * Despesas agregadas em ordem de inserção.
+     *
+     * @param competencia trimestre ("2024-T4"); null ou vazio = todos
+     * @return linhas exportadas
+     */
+    public long streamDespesas(String competencia, RowSink sink) throws IOException {
+        String sql = """
+            SELECT cnpj_operadora, codigo_conta, valor_total, competencia
+            FROM despesas_agregadas
+            """;
+        if (competencia == null || competencia.isBlank()) {
+            return stream("export.despesas", sql + "ORDER BY id", COLUNAS_DESPESAS, sink);
+        }
+        return stream("export.despesas", sql + "WHERE competencia = ? ORDER BY id", COLUNAS_DESPESAS, sink,
+                competencia.trim());
+    }
+
+    private long stream(String queryId, String sql, List<String> columns, RowSink sink, Object... args)
+            throws IOException {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        long[] rows = {0};
+        boolean failed = true;
+        try {
+            sink.start(columns);
+            Object[] values = new Object[columns.size()];
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(isMySql(con) ? Integer.MIN_VALUE : fetchSize);
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = rs.getObject(i + 1);
+                }
+                try {
+                    sink.row(values);
+                } catch (IOException e) {
+                    // Cliente desconectou: interrompe a leitura e fecha o statement
+                    throw new UncheckedIOException(e);
+                }
+                rows[0]++;
+            });
+            failed = false;
+            return rows[0];
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.query = queryId;
+                event.rows = rows[0];
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    private static boolean isMySql(Connection con) throws SQLException {
+        return "MySQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+    }
+}
@@ -0,0 +1,51 @@
+package com.intuitive.api.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por chave (keyset): a última linha devolvida,
+ * identificada por (nome_fantasia, cnpj) - a mesma ordem do ORDER BY.
+ *
+ * Trade-off: cursor opaco (Base64 URL-safe) vs. expor os campos na URL. - O
+ * cliente só repassa o valor de "next"; o formato pode mudar (o prefixo v1
+ * versiona) sem quebrar quem consome a API. - Limitação: não é assinado;
+ * um cursor forjado só posiciona a busca em outro ponto da mesma ordem.
+ *
+ * @param nomeFantasia nome fantasia da última linha ("" se nulo)
+ * @param cnpj CNPJ da última linha (desempate)
+ */
+public record KeysetCursor(String nomeFantasia, String cnpj) {
+
+    private static final String VERSION = "v1";
+    private static final char SEPARATOR = '\u0000';
+
+    public KeysetCursor {
+        nomeFantasia = nomeFantasia == null ? "" : nomeFantasia;
+        if (cnpj == null || cnpj.isEmpty()) {
+            throw new IllegalArgumentException("Cursor sem CNPJ");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + nomeFantasia + SEPARATOR + cnpj;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException se o valor não for um cursor desta API
+     */
+    public static KeysetCursor decode(String value) {
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+        String[] parts = raw.split(String.valueOf(SEPARATOR), -1);
+        if (parts.length != 3 || !VERSION.equals(parts[0])) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return new KeysetCursor(parts[1], parts[2]);
+    }
+}
@@ -1,12 +1,21 @@
 package com.intuitive.api.repository;
 
 import com.intuitive.api.dto.OperadoraDTO;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * Repositório para acesso a dados de operadoras via JDBC puro. Trade-off:
@@ -17,31 +26,38 @@ import java.util.List;
 public class OperadoraRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ParallelQueries parallel;
 
     public OperadoraRepository(JdbcTemplate jdbcTemplate) {
-        this.jdbcTemplate = jdbcTemplate;
+        this(jdbcTemplate, ParallelQueries.sequential());
     }
 
     /**
-     * Filtro SQL para excluir categorias contábeis e registros que não são
-     * operadoras reais. Remove: ATIVO, PASSIVO, PATRIMÔNIO, contas negativas
-     * (-) e outros termos contábeis.
+     * @param jdbcTemplate acesso ao banco
+     * @param parallel executa as queries independentes de um mesmo método
+     * (cadastro + histórico) ao mesmo tempo; também define o query timeout
+     * das queries deste repositório
+     */
+    @Autowired
+    public OperadoraRepository(JdbcTemplate jdbcTemplate, ParallelQueries parallel) {
+        this.jdbcTemplate = parallel.withQueryTimeout(jdbcTemplate);
+        this.parallel = parallel;
+    }
+
+    /**
+     * Filtro para excluir categorias contábeis e registros que não são
+     * operadoras reais (ATIVO, PASSIVO, PATRIMÔNIO, contas negativas (-) e
+     * outros termos contábeis).
+     *
+     * Trade-off: flag calculada na importação vs. 13 LIKEs por consulta. - A
+     * regra roda uma vez por operadora no crawler (OperadoraClassifier) e
+     * aqui vira uma igualdade que usa o índice idx_real_nome_fantasia_cnpj;
+     * antes cada listagem/contagem avaliava os LIKEs linha a linha. -
+     * Limitação: bases antigas precisam da migração do schema.sql (ou de
+     * uma nova importação) para preencher a coluna.
      */
     private static final String FILTRO_OPERADORAS_REAIS = """
-        AND razao_social NOT LIKE '(-)%'
-        AND razao_social NOT LIKE '%(-) %'
-        AND razao_social NOT LIKE '%Acionistas%'
-        AND razao_social NOT LIKE '%Provisão%'
-        AND razao_social NOT LIKE '%Outros%'
-        AND UPPER(razao_social) NOT LIKE '%ATIVO%'
-        AND UPPER(razao_social) NOT LIKE '%PASSIVO%'
-        AND UPPER(razao_social) NOT LIKE '%PATRIMÔNIO%'
-        AND UPPER(razao_social) NOT LIKE '%PATRIMONIO%'
-        AND UPPER(razao_social) NOT LIKE '%RESULTADO%'
-        AND UPPER(razao_social) NOT LIKE '%RECEITA%'
-        AND UPPER(razao_social) NOT LIKE '%DESPESA%'
-        AND razao_social IS NOT NULL
-        AND LENGTH(TRIM(razao_social)) > 5
+        AND is_operadora_real = TRUE
         """;
 
     /**
@@ -64,6 +80,20 @@ public class OperadoraRepository {
                     rs.getString("razao_social")
             );
 
+    /**
+     * RowMapper para {@link #findByCnpjs} (cadastro + total opcional).
+     */
+    private static final RowMapper<OperadoraDTO> OPERADORA_LOTE_MAPPER = (rs, rowNum)
+            -> new OperadoraDTO(
+                    null,
+                    rs.getString("cnpj"),
+                    rs.getString("razao_social"),
+                    rs.getString("nome_fantasia"),
+                    rs.getString("modalidade"),
+                    rs.getString("uf"),
+                    rs.getBigDecimal("total_despesas")
+            );
+
     /**
      * Lista operadoras com paginação.
      *
@@ -79,11 +109,11 @@ public class OperadoraRepository {
             FROM operadoras
             WHERE 1=1
             """ + FILTRO_OPERADORAS_REAIS + """
-            ORDER BY nome_fantasia
+            ORDER BY nome_fantasia, cnpj
             LIMIT ? OFFSET ?
             """;
 
-        return jdbcTemplate.query(sql, OPERADORA_ROW_MAPPER, limit, offset);
+        return query("findAllPaginado", sql, OPERADORA_ROW_MAPPER, limit, offset);
     }
 
     /**
@@ -93,8 +123,7 @@ public class OperadoraRepository {
      */
     public int countTotal() {
         String sql = "SELECT COUNT(*) FROM operadoras WHERE 1=1 " + FILTRO_OPERADORAS_REAIS;
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class);
-        return count != null ? count : 0;
+        return count("countTotal", sql);
     }
 
     /**
@@ -114,11 +143,11 @@ public class OperadoraRepository {
             FROM operadoras
             WHERE (cnpj LIKE ? OR LOWER(razao_social) LIKE LOWER(?))
             """ + FILTRO_OPERADORAS_REAIS + """
-            ORDER BY nome_fantasia
+            ORDER BY nome_fantasia, cnpj
             LIMIT ? OFFSET ?
             """;
 
-        return jdbcTemplate.query(sql, OPERADORA_ROW_MAPPER, searchPattern, searchPattern, limit, offset);
+        return query("findByQuery", sql, OPERADORA_ROW_MAPPER, searchPattern, searchPattern, limit, offset);
     }
 
     /**
@@ -133,8 +162,166 @@ public class OperadoraRepository {
             SELECT COUNT(*) FROM operadoras 
             WHERE (cnpj LIKE ? OR LOWER(razao_social) LIKE LOWER(?))
             """ + FILTRO_OPERADORAS_REAIS;
-        Integer count = jdbcTemplate.queryForObject(sql, Integer.class, searchPattern, searchPattern);
-        return count != null ? count : 0;
+        return count("countByQuery", sql, searchPattern, searchPattern);
+    }
+
+    /**
+     * Página e total da listagem (com ou sem busca) em uma ida ao banco.
+     *
+     * Trade-off: uma query vs. SELECT da página + SELECT COUNT(*). - Um
+     * round trip e uma conexão do pool. Na busca, COUNT(*) OVER() filtra as
+     * linhas (LIKE, sem índice) uma vez só; na listagem completa a janela
+     * obrigaria a ler e ordenar todas as linhas, então o total vem de uma
+     * subquery escalar e a página continua parando no LIMIT do índice
+     * idx_real_nome_fantasia_cnpj. - Limitação: a busca ainda percorre todo
+     * o filtro; por isso o controller guarda o total em CountCache e, nas
+     * páginas seguintes, usa só findAllPaginado/findByQuery. Página além do
+     * fim não traz linha para carregar o total: nesse caso (raro) conta à
+     * parte.
+     *
+     * @param query termo de busca (null ou vazio = listagem completa)
+     * @param page número da página (1-based)
+     * @param limit registros por página
+     * @return operadoras da página e total do filtro
+     */
+    public PageWithTotal findPageWithTotal(String query, int page, int limit) {
+        int offset = (page - 1) * limit;
+        boolean busca = query != null && !query.isEmpty();
+        String searchPattern = busca ? "%" + query + "%" : null;
+
+        String sql = busca
+                ? """
+                  SELECT cnpj, razao_social, nome_fantasia, uf, modalidade,
+                         COUNT(*) OVER() AS total_count
+                  FROM operadoras
+                  WHERE (cnpj LIKE ? OR LOWER(razao_social) LIKE LOWER(?))
+                  """ + FILTRO_OPERADORAS_REAIS + """
+                  ORDER BY nome_fantasia, cnpj
+                  LIMIT ? OFFSET ?
+                  """
+                : """
+                  SELECT cnpj, razao_social, nome_fantasia, uf, modalidade,
+                         (SELECT COUNT(*) FROM operadoras WHERE 1=1
+                  """ + FILTRO_OPERADORAS_REAIS + """
+                         ) AS total_count
+                  FROM operadoras
+                  WHERE 1=1
+                  """ + FILTRO_OPERADORAS_REAIS + """
+                  ORDER BY nome_fantasia, cnpj
+                  LIMIT ? OFFSET ?
+                  """;
+        Object[] args = busca
+                ? new Object[]{searchPattern, searchPattern, limit, offset}
+                : new Object[]{limit, offset};
+
+        int[] total = {0};
+        List<OperadoraDTO> rows = query("findPageWithTotal", sql, (rs, rowNum) -> {
+            total[0] = rs.getInt("total_count");
+            return OPERADORA_ROW_MAPPER.mapRow(rs, rowNum);
+        }, args);
+
+        if (rows.isEmpty() && offset > 0) {
+            return new PageWithTotal(rows, busca ? countByQuery(query) : countTotal());
+        }
+        return new PageWithTotal(rows, total[0]);
+    }
+
+    /**
+     * Todas as operadoras reais, com nome fantasia e despesa total, na ordem
+     * da listagem - carga dos índices de busca em memória.
+     *
+     * @return operadoras ordenadas por nome_fantasia, cnpj
+     */
+    public List<OperadoraDTO> findAllForSearch() {
+        String sql = """
+            SELECT o.cnpj, o.razao_social, o.nome_fantasia, o.uf, o.modalidade,
+                   COALESCE(d.total, 0) AS total_despesas
+            FROM operadoras o
+            LEFT JOIN (
+                SELECT cnpj_operadora, SUM(valor_total) AS total
+                FROM despesas_agregadas
+                GROUP BY cnpj_operadora
+            ) d ON d.cnpj_operadora = o.cnpj
+            WHERE 1=1
+            """ + FILTRO_OPERADORAS_REAIS + """
+            ORDER BY o.nome_fantasia, o.cnpj
+            """;
+
+        return query("findAllForSearch", sql, (rs, rowNum) -> {
+            OperadoraDTO dto = OPERADORA_ROW_MAPPER.mapRow(rs, rowNum);
+            dto.setNomeFantasia(rs.getString("nome_fantasia"));
+            dto.setTotalDespesas(rs.getBigDecimal("total_despesas"));
+            return dto;
+        });
+    }
+
+    /**
+     * Lista operadoras por chave (keyset): a página seguinte começa depois da
+     * última linha da anterior.
+     *
+     * Trade-off: keyset vs. OFFSET. - WHERE (nome_fantasia, cnpj) &gt; (?, ?)
+     * desce direto no índice idx_real_nome_fantasia_cnpj, então a página 500
+     * custa o mesmo que a primeira; com OFFSET o banco lê e descarta todas as linhas
+     * anteriores. - Limitação: sem salto para uma página arbitrária, só
+     * "próxima"; linhas com nome_fantasia NULL (o importador grava "") ficam
+     * só na primeira página.
+     *
+     * @param after cursor da última linha vista (null = início)
+     * @param limit registros por página
+     * @return página com o cursor da próxima (null na última)
+     */
+    public KeysetPage findAllKeyset(KeysetCursor after, int limit) {
+        return keyset("findAllKeyset", "WHERE 1=1", List.of(), after, limit);
+    }
+
+    /**
+     * Busca por CNPJ ou Razão Social com paginação por chave (ver
+     * {@link #findAllKeyset}).
+     *
+     * @param query termo de busca
+     * @param after cursor da última linha vista (null = início)
+     * @param limit registros por página
+     * @return página com o cursor da próxima (null na última)
+     */
+    public KeysetPage findByQueryKeyset(String query, KeysetCursor after, int limit) {
+        String searchPattern = "%" + query + "%";
+        return keyset("findByQueryKeyset", "WHERE (cnpj LIKE ? OR LOWER(razao_social) LIKE LOWER(?))",
+                List.of(searchPattern, searchPattern), after, limit);
+    }
+
+    private KeysetPage keyset(String queryId, String where, List<Object> whereArgs, KeysetCursor after, int limit) {
+        List<Object> args = new java.util.ArrayList<>(whereArgs);
+        String seek = "";
+        if (after != null) {
+            seek = "AND (nome_fantasia, cnpj) > (?, ?)\n";
+            args.add(after.nomeFantasia());
+            args.add(after.cnpj());
+        }
+        // Uma linha a mais só para saber se existe próxima página
+        args.add(limit + 1);
+
+        // is_operadora_real é constante após o filtro: no ORDER BY só para a ordem
+        // bater com idx_real_nome_fantasia_cnpj (o H2 não ignora o prefixo fixo)
+        String sql = """
+            SELECT cnpj, razao_social, nome_fantasia, uf, modalidade
+            FROM operadoras
+            """ + where + "\n" + FILTRO_OPERADORAS_REAIS + seek + """
+            ORDER BY is_operadora_real, nome_fantasia, cnpj
+            LIMIT ?
+            """;
+
+        List<OperadoraDTO> rows = query(queryId, sql, (rs, rowNum) -> {
+            OperadoraDTO dto = OPERADORA_ROW_MAPPER.mapRow(rs, rowNum);
+            dto.setNomeFantasia(rs.getString("nome_fantasia"));
+            return dto;
+        }, args.toArray());
+
+        if (rows.size() <= limit) {
+            return new KeysetPage(rows, null);
+        }
+        List<OperadoraDTO> page = rows.subList(0, limit);
+        OperadoraDTO last = page.get(limit - 1);
+        return new KeysetPage(List.copyOf(page), new KeysetCursor(last.getNomeFantasia(), last.getCnpj()));
     }
 
     /**
@@ -145,7 +332,7 @@ public class OperadoraRepository {
      */
     public OperadoraDTO findByCnpjWithHistory(String cnpj) {
         String sql = "SELECT cnpj, razao_social, nome_fantasia, uf, modalidade FROM operadoras WHERE cnpj = ?";
-        List<OperadoraDTO> result = jdbcTemplate.query(sql, OPERADORA_ROW_MAPPER, cnpj);
+        List<OperadoraDTO> result = query("findByCnpjWithHistory", sql, OPERADORA_ROW_MAPPER, cnpj);
 
         if (result.isEmpty()) {
             return null;
@@ -155,23 +342,61 @@ public class OperadoraRepository {
 
         // Buscar histórico de despesas (simulando trimestres)
         String sqlDespesas = """
-            SELECT codigo_conta, valor_total
+            SELECT codigo_conta, valor_total, competencia
             FROM despesas_agregadas
             WHERE cnpj_operadora = ?
-            ORDER BY codigo_conta
+            ORDER BY codigo_conta, competencia
             """;
 
         java.util.Map<String, BigDecimal> historico = new java.util.HashMap<>();
-        jdbcTemplate.query(sqlDespesas, rs -> {
-            String conta = rs.getString("codigo_conta");
-            BigDecimal valor = rs.getBigDecimal("valor_total");
-            historico.put("Conta " + conta, valor);
-        }, cnpj);
+        timed("findByCnpjWithHistory.despesas", () -> {
+            jdbcTemplate.query(sqlDespesas, rs -> {
+                String conta = rs.getString("codigo_conta");
+                BigDecimal valor = rs.getBigDecimal("valor_total");
+                historico.put("Conta " + conta, valor);
+            }, cnpj);
+            return historico;
+        }, java.util.Map::size);
 
         // Retornar o DTO existente (histórico não incorporado no DTO atual)
         return op;
     }
 
+    /**
+     * CNPJs por query no lote: cabe folgado no limite de placeholders dos
+     * drivers e mantém o plano do IN pela chave primária.
+     */
+    static final int LOTE_IN = 500;
+
+    /**
+     * Resolve vários CNPJs com poucas queries ({@code WHERE cnpj IN (...)}
+     * em blocos de {@link #LOTE_IN}), em vez de uma ida ao banco por CNPJ.
+     *
+     * Com comDespesas o total de despesas vem na mesma query, numa
+     * subquery correlacionada que usa o índice idx_cnpj_conta.
+     *
+     * @param cnpjs CNPJs (repetidos são consultados uma vez)
+     * @param comDespesas preenche totalDespesas (null se não houver despesas)
+     * @return operadoras encontradas por CNPJ; ausentes não aparecem
+     */
+    public Map<String, OperadoraDTO> findByCnpjs(Collection<String> cnpjs, boolean comDespesas) {
+        List<String> distintos = new ArrayList<>(new LinkedHashSet<>(cnpjs));
+        distintos.remove(null);
+        Map<String, OperadoraDTO> encontradas = new HashMap<>(distintos.size() * 2);
+        String total = comDespesas
+                ? ", (SELECT SUM(d.valor_total) FROM despesas_agregadas d WHERE d.cnpj_operadora = o.cnpj) AS total_despesas"
+                : ", NULL AS total_despesas";
+        for (int from = 0; from < distintos.size(); from += LOTE_IN) {
+            List<String> lote = distintos.subList(from, Math.min(from + LOTE_IN, distintos.size()));
+            String sql = "SELECT o.cnpj, o.razao_social, o.nome_fantasia, o.uf, o.modalidade" + total
+                    + " FROM operadoras o WHERE o.cnpj IN (" + String.join(", ", Collections.nCopies(lote.size(), "?")) + ")";
+            for (OperadoraDTO operadora : query("findByCnpjs", sql, OPERADORA_LOTE_MAPPER, lote.toArray())) {
+                encontradas.put(operadora.getCnpj(), operadora);
+            }
+        }
+        return encontradas;
+    }
+
     /**
      * Retorna as Top 5 operadoras com maiores despesas. Reutiliza a Query 1 do
      * arquivo queries_analiticas.sql.
@@ -193,7 +418,7 @@ public class OperadoraRepository {
             LIMIT 5
             """;
 
-        return jdbcTemplate.query(sql, (rs, rowNum)
+        return query("findTop5Despesas", sql, (rs, rowNum)
                 -> new OperadoraDTO(
                         rs.getString("cnpj"),
                         rs.getString("razao_social"),
@@ -220,7 +445,7 @@ public class OperadoraRepository {
             ORDER BY media_gastos DESC
             """;
 
-        return jdbcTemplate.query(sql, (rs, rowNum)
+        return query("findMediaPorConta", sql, (rs, rowNum)
                 -> new EstatisticaContaDTO(
                         rs.getString("codigo_conta"),
                         rs.getBigDecimal("media_gastos"),
@@ -232,6 +457,10 @@ public class OperadoraRepository {
     /**
      * Busca detalhes completos da operadora incluindo histórico estruturado.
      *
+     * Cadastro e histórico são independentes: o histórico vai para
+     * {@link ParallelQueries} enquanto o cadastro roda nesta thread. Para um
+     * CNPJ inexistente o histórico (vazio) é descartado.
+     *
      * @param cnpj CNPJ da operadora
      * @return OperadoraDetalhadaDTO com todos os dados
      */
@@ -243,7 +472,15 @@ public class OperadoraRepository {
             WHERE cnpj = ?
             """;
 
-        List<com.intuitive.api.dto.OperadoraDetalhadaDTO> result = jdbcTemplate.query(sqlOperadora, (rs, rowNum) -> {
+        // Buscar histórico de despesas
+        String sqlHistorico = """
+            SELECT codigo_conta, valor_total, competencia
+            FROM despesas_agregadas
+            WHERE cnpj_operadora = ?
+            ORDER BY codigo_conta, competencia
+            """;
+
+        return parallel.join(() -> findHistorico(sqlHistorico, cnpj), () -> query("findDetalhesCompletos", sqlOperadora, (rs, rowNum) -> {
             com.intuitive.api.dto.OperadoraDetalhadaDTO dto = new com.intuitive.api.dto.OperadoraDetalhadaDTO();
             dto.setCnpj(rs.getString("cnpj"));
             dto.setRazaoSocial(rs.getString("razao_social"));
@@ -257,54 +494,119 @@ public class OperadoraRepository {
             dto.setTelefone("(11) 3000-0000");
 
             return dto;
+        }, cnpj), (historico, result) -> {
+            if (result.isEmpty()) {
+                return null;
+            }
+            com.intuitive.api.dto.OperadoraDetalhadaDTO operadora = result.get(0);
+            operadora.setHistoricoDespesas(historico);
+            return operadora;
+        });
+    }
+
+    private List<com.intuitive.api.dto.OperadoraDetalhadaDTO.DespesaHistoricoDTO> findHistorico(String sqlHistorico, String cnpj) {
+        return query("findDetalhesCompletos.historico", sqlHistorico, (rs, rowNum) -> {
+            String codigoConta = rs.getString("codigo_conta");
+            String[] periodo = periodo(rs.getString("competencia"), codigoConta);
+            return new com.intuitive.api.dto.OperadoraDetalhadaDTO.DespesaHistoricoDTO(
+                    periodo[0], periodo[1], rs.getBigDecimal("valor_total"), codigoConta
+            );
         }, cnpj);
+    }
 
-        if (result.isEmpty()) {
-            return null;
+    /**
+     * Ano e trimestre de uma linha do histórico, lidos da competência gravada
+     * pelo importador ("2024-T4" -> "2024", "4T") por posição, sem regex.
+     *
+     * Linhas de cargas antigas (competência vazia) mantêm a heurística
+     * anterior: trimestre no primeiro dígito do código da conta, ano nos
+     * quatro últimos, "2024"/"4T" quando não há como saber.
+     *
+     * @return {ano, trimestre}
+     */
+    static String[] periodo(String competencia, String codigoConta) {
+        if (competencia != null && competencia.length() == 7 && competencia.charAt(4) == '-'
+                && competencia.charAt(5) == 'T' && isDigits(competencia, 0, 4)) {
+            char numero = competencia.charAt(6);
+            if (numero >= '1' && numero <= '4') {
+                return new String[]{competencia.substring(0, 4), numero + "T"};
+            }
         }
+        String ano = "2024";
+        String trimestre = "4T";
+        if (codigoConta != null && codigoConta.length() >= 3) {
+            char primeiro = codigoConta.charAt(0);
+            if (primeiro >= '1' && primeiro <= '4') {
+                trimestre = primeiro + "T";
+            }
+            if (codigoConta.length() >= 7 && isDigits(codigoConta, codigoConta.length() - 4, codigoConta.length())) {
+                ano = codigoConta.substring(codigoConta.length() - 4);
+            }
+        }
+        return new String[]{ano, trimestre};
+    }
 
-        com.intuitive.api.dto.OperadoraDetalhadaDTO operadora = result.get(0);
+    private static boolean isDigits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
 
-        // Buscar histórico de despesas
-        String sqlHistorico = """
-            SELECT codigo_conta, valor_total
-            FROM despesas_agregadas
-            WHERE cnpj_operadora = ?
-            ORDER BY codigo_conta
-            """;
+    /**
+     * Executa a query registrando um {@link QueryEvent} (JFR).
+     */
+    private <T> List<T> query(String queryId, String sql, RowMapper<T> mapper, Object... args) {
+        return timed(queryId, () -> jdbcTemplate.query(sql, mapper, args), List::size);
+    }
+
+    private int count(String queryId, String sql, Object... args) {
+        Integer count = timed(queryId, () -> jdbcTemplate.queryForObject(sql, Integer.class, args), c -> 1);
+        return count != null ? count : 0;
+    }
+
+    private static <T> T timed(String queryId, Supplier<T> query, ToLongFunction<T> rows) {
+        QueryEvent event = new QueryEvent();
+        event.begin();
+        T result = null;
+        boolean failed = true;
+        try {
+            result = query.get();
+            failed = false;
+            return result;
+        } finally {
+            event.end();
+            // Campos só preenchidos se a gravação estiver ativa e a duração passar do threshold
+            if (event.shouldCommit()) {
+                event.query = queryId;
+                event.rows = failed || result == null ? 0 : rows.applyAsLong(result);
+                event.failed = failed;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Página da paginação por offset com o total do filtro.
+     *
+     * @param data operadoras da página
+     * @param total total de operadoras que atendem ao filtro
+     */
+    public record PageWithTotal(List<OperadoraDTO> data, int total) {
+
+    }
+
+    /**
+     * Página da paginação por chave.
+     *
+     * @param data operadoras da página
+     * @param next cursor para a próxima página (null se esta for a última)
+     */
+    public record KeysetPage(List<OperadoraDTO> data, KeysetCursor next) {
 
-        List<com.intuitive.api.dto.OperadoraDetalhadaDTO.DespesaHistoricoDTO> historico
-                = jdbcTemplate.query(sqlHistorico, (rs, rowNum) -> {
-                    String codigoConta = rs.getString("codigo_conta");
-                    BigDecimal valor = rs.getBigDecimal("valor_total");
-
-                    // Extrair ano e trimestre do código da conta (exemplo: "4112024" -> ano: 2024, trim: 4T)
-                    String ano = "2024";
-                    String trimestre = "4T";
-
-                    // Tentar extrair informações reais do código
-                    if (codigoConta != null && codigoConta.length() >= 3) {
-                        String ultimoDigito = codigoConta.substring(0, 1);
-                        if (ultimoDigito.matches("[1-4]")) {
-                            trimestre = ultimoDigito + "T";
-                        }
-                        // Tentar extrair ano dos últimos 4 dígitos
-                        if (codigoConta.length() >= 7) {
-                            String anoStr = codigoConta.substring(codigoConta.length() - 4);
-                            if (anoStr.matches("\\d{4}")) {
-                                ano = anoStr;
-                            }
-                        }
-                    }
-
-                    return new com.intuitive.api.dto.OperadoraDetalhadaDTO.DespesaHistoricoDTO(
-                            ano, trimestre, valor, codigoConta
-                    );
-                }, cnpj);
-
-        operadora.setHistoricoDespesas(historico);
-
-        return operadora;
     }
 
     /**
@@ -0,0 +1,161 @@
+package com.intuitive.api.repository;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Executa duas queries independentes de uma mesma requisição ao mesmo
+ * tempo: a primeira num executor próprio, a segunda na thread da
+ * requisição. A resposta passa a custar a query mais lenta, não a soma.
+ *
+ * O executor tem metade do pool do Hikari
+ * (spring.datasource.hikari.maximum-pool-size): mesmo com todas as threads
+ * ocupadas sobra metade das conexões para as queries feitas nas threads das
+ * requisições. Fila cheia = a query roda na própria thread da requisição
+ * (volta ao sequencial em vez de recusar).
+ *
+ * O timeout vale para as duas queries e para o SQL: o repositório usa o
+ * JdbcTemplate de {@link #withQueryTimeout(JdbcTemplate)}, e o driver cancela
+ * no banco o statement que passar do limite, rode ele no executor, na thread
+ * da requisição ou inline pela fila cheia.
+ *
+ * Trade-off: executor limitado vs. uma thread por query (Java 17, sem
+ * virtual threads). - Limitar threads limita conexões; uma thread por
+ * query levaria a rajada inteira para a fila do Hikari. - Limitação: o
+ * timeout JDBC é em segundos (arredondado para cima), então o SQL pode
+ * passar até 1 s do timeout da espera.
+ */
+@Component
+public class ParallelQueries {
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+
+    @Autowired
+    public ParallelQueries(@Value("${spring.datasource.hikari.maximum-pool-size:10}") int poolSize,
+            @Value("${api.parallel-queries.timeout-ms:5000}") long timeoutMillis) {
+        this(newExecutor(Math.max(1, poolSize / 2)), timeoutMillis);
+    }
+
+    private ParallelQueries(ThreadPoolExecutor executor, long timeoutMillis) {
+        this.executor = executor;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Sem executor, para quem monta o repositório à mão (testes,
+     * benchmarks): as duas queries rodam em sequência na thread chamadora.
+     *
+     * @return instância sem paralelismo
+     */
+    public static ParallelQueries sequential() {
+        return new ParallelQueries(null, 0);
+    }
+
+    /**
+     * Cópia do JdbcTemplate com query timeout igual ao timeout da espera, para
+     * que nenhuma das queries de {@link #join} fique sem limite no banco. A
+     * cópia não altera o JdbcTemplate compartilhado (as exportações rodam por
+     * minutos).
+     *
+     * @param jdbcTemplate template do repositório
+     * @return cópia com query timeout, ou o próprio template se não há
+     * timeout (instância sequencial)
+     */
+    public JdbcTemplate withQueryTimeout(JdbcTemplate jdbcTemplate) {
+        if (timeoutMillis <= 0) {
+            return jdbcTemplate;
+        }
+        int seconds = (int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999));
+        JdbcTemplate bounded = new JdbcTemplate(jdbcTemplate.getDataSource());
+        bounded.setExceptionTranslator(jdbcTemplate.getExceptionTranslator());
+        bounded.setFetchSize(jdbcTemplate.getFetchSize());
+        bounded.setMaxRows(jdbcTemplate.getMaxRows());
+        bounded.setIgnoreWarnings(jdbcTemplate.isIgnoreWarnings());
+        int configured = jdbcTemplate.getQueryTimeout();
+        bounded.setQueryTimeout(configured > 0 ? Math.min(configured, seconds) : seconds);
+        return bounded;
+    }
+
+    /**
+     * Roda first e second ao mesmo tempo e combina os resultados.
+     *
+     * @param first query enviada ao executor
+     * @param second query executada na thread chamadora
+     * @param combine junta os dois resultados
+     * @return resultado de combine
+     * @throws QueryTimeoutException se first não terminar em timeoutMillis (a
+     * query de second é limitada pelo query timeout de
+     * {@link #withQueryTimeout})
+     */
+    public <A, B, R> R join(Supplier<A> first, Supplier<B> second, BiFunction<A, B, R> combine) {
+        if (executor == null) {
+            return combine.apply(first.get(), second.get());
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        Future<A> pending = executor.submit(first::get);
+        B secondResult;
+        try {
+            secondResult = second.get();
+        } catch (RuntimeException | Error e) {
+            pending.cancel(true);
+            throw e;
+        }
+        return combine.apply(await(pending, deadline), secondResult);
+    }
+
+    private <A> A await(Future<A> pending, long deadline) {
+        try {
+            return pending.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            throw new QueryTimeoutException("Query paralela passou de " + timeoutMillis + " ms", e);
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new QueryTimeoutException("Interrompido esperando query paralela", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ThreadPoolExecutor newExecutor(int threads) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4), r -> {
+                    Thread thread = new Thread(r, "query-fanout-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,33 @@
+package com.intuitive.api.repository;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento do Java Flight Recorder para cada query do repositório.
+ *
+ * Trade-off: evento JFR vs. log de SQL lento. - Sem gravação ativa o custo é
+ * zero (o JIT elimina o evento), então fica sempre ligado e um pico de
+ * latência na gravação aponta direto para a query e o número de linhas. -
+ * Limitação: não guarda os parâmetros (CNPJ, termo de busca) para não vazar
+ * dados em gravações compartilhadas.
+ */
+@Name("com.intuitive.api.RepositoryQuery")
+@Label("Repository Query")
+@Category({"Intuitive", "API"})
+@Description("Uma query do OperadoraRepository")
+final class QueryEvent extends Event {
+
+    @Label("Query")
+    @Description("Identificador da query (método do repositório)")
+    String query;
+
+    @Label("Rows")
+    long rows;
+
+    @Label("Failed")
+    boolean failed;
+}
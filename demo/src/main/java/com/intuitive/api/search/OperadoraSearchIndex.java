@@ -0,0 +1,126 @@
+package com.intuitive.api.search;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mantém os índices de busca em memória ({@link TrigramIndex} e
+ * {@link PrefixSuggester}) alinhados com a versão do dataset: quando o
+ * importador publica uma carga nova (dataset_version), os dois são
+ * reconstruídos em segundo plano e trocados juntos.
+ *
+ * A versão é conferida por uma thread própria, no intervalo de
+ * {@link DatasetVersionRepository#pollMillis()}: uma busca nunca espera
+ * pelo banco.
+ *
+ * Trade-off: reconstrução completa vs. atualização incremental. - O cadastro
+ * tem poucos milhares de operadoras (100 mil carregam e indexam em ~2 s) e o
+ * importador troca o dataset inteiro; diferenças linha a linha não pagariam
+ * a complexidade. - Limitação: até a primeira construção terminar (e entre a
+ * carga e a troca) as buscas usam o SQL ou o índice anterior.
+ */
+@Component
+public class OperadoraSearchIndex {
+
+    private final OperadoraRepository repository;
+    private final DatasetVersionRepository datasetVersion;
+    private final ScheduledExecutorService rebuilder = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "search-index-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Snapshot snapshot;
+
+    public OperadoraSearchIndex(OperadoraRepository repository, DatasetVersionRepository datasetVersion) {
+        this.repository = repository;
+        this.datasetVersion = datasetVersion;
+    }
+
+    /**
+     * Índice de trigramas pronto para busca.
+     *
+     * @return índice atual, ou vazio se ainda não houver nenhum construído
+     */
+    public Optional<TrigramIndex> current() {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.index());
+    }
+
+    /**
+     * Autocomplete construído junto com o índice de trigramas.
+     *
+     * @return autocomplete atual, ou vazio se ainda não houver nenhum
+     */
+    public Optional<PrefixSuggester> suggester() {
+        Snapshot current = snapshot;
+        return current == null ? Optional.empty() : Optional.of(current.suggester());
+    }
+
+    /**
+     * Versão do dataset dos índices em uso (entra no ETag das respostas que
+     * dependem deles).
+     *
+     * @return versão, ou -1 se ainda não houver índice construído
+     */
+    public long version() {
+        Snapshot current = snapshot;
+        return current == null ? -1 : current.version();
+    }
+
+    /**
+     * Começa a conferir a versão do dataset (a primeira construção é
+     * imediata).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        rebuilder.scheduleWithFixedDelay(this::refresh, 0, Math.max(1, datasetVersion.pollMillis()), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuilder.shutdownNow();
+    }
+
+    /**
+     * Reconstrói se a versão mudou. Roda só na thread do rebuilder, então
+     * nunca há duas construções ao mesmo tempo.
+     */
+    private void refresh() {
+        try {
+            // Versão lida ANTES dos dados: se uma carga terminar no meio, o índice
+            // fica marcado como antigo e é reconstruído de novo (nunca o contrário)
+            long version = datasetVersion.current();
+            Snapshot current = snapshot;
+            if (current != null && current.version() == version) {
+                return;
+            }
+            long start = System.nanoTime();
+            List<OperadoraDTO> operadoras = repository.findAllForSearch();
+            TrigramIndex index = TrigramIndex.build(operadoras);
+            PrefixSuggester suggester = PrefixSuggester.build(operadoras);
+            snapshot = new Snapshot(index, suggester, version);
+            System.out.printf("✓ Índices de busca v%d: %d operadoras, %d n-gramas, %d KB de postings, %d chaves de autocomplete (%d ms)%n",
+                    version, index.size(), index.grams(), index.postingBytes() / 1024, suggester.entries(),
+                    (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            // Sem relançar: uma exceção cancelaria o agendamento
+            System.out.println("⚠ Falha ao construir os índices de busca (usando SQL): " + e.getMessage());
+        }
+    }
+
+    private record Snapshot(TrigramIndex index, PrefixSuggester suggester, long version) {
+
+    }
+}
@@ -0,0 +1,227 @@
+package com.intuitive.api.search;
+
+import com.intuitive.api.dto.OperadoraDTO;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Autocomplete de operadoras: array ordenado de chaves (início de cada
+ * palavra da razão social e do nome fantasia, sem acento/caixa, e os
+ * dígitos do CNPJ) com busca binária do prefixo e as N de maior despesa
+ * total dentro do intervalo encontrado.
+ *
+ * As chaves não são copiadas: cada entrada guarda (operadora, posição) no
+ * texto normalizado da operadora e termina no fim do campo.
+ *
+ * Trade-off: árvore de segmentos de máximo vs. varrer o intervalo. - Um
+ * prefixo de 1-2 letras cobre dezenas de milhares de entradas; com a
+ * árvore, as N maiores saem em O(N log n) sem olhar o resto. - Limitação:
+ * peso fixo por construção (despesa total na carga); mudou o dataset,
+ * reconstrói.
+ */
+public final class PrefixSuggester {
+
+    private static final char FIELD_END = '\u0001';
+
+    private final OperadoraDTO[] docs;
+    private final String[] texts;
+    private final double[] weights;
+    private final int[] entryDoc;
+    private final int[] entryOffset;
+    /** Árvore de segmentos (heap implícito, folhas em [n, 2n)): entrada de maior peso de cada nó. */
+    private final int[] maxTree;
+
+    private PrefixSuggester(OperadoraDTO[] docs, String[] texts, double[] weights, int[] entryDoc, int[] entryOffset) {
+        this.docs = docs;
+        this.texts = texts;
+        this.weights = weights;
+        this.entryDoc = entryDoc;
+        this.entryOffset = entryOffset;
+
+        int n = entryDoc.length;
+        this.maxTree = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            maxTree[n + i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            maxTree[i] = better(maxTree[2 * i], maxTree[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Constrói o índice; o peso de cada operadora é o totalDespesas do DTO
+     * (nulo conta como zero).
+     *
+     * @param operadoras operadoras indexadas (os DTOs são devolvidos como
+     * estão; não devem ser alterados depois)
+     */
+    public static PrefixSuggester build(List<OperadoraDTO> operadoras) {
+        OperadoraDTO[] docs = operadoras.toArray(new OperadoraDTO[0]);
+        String[] texts = new String[docs.length];
+        double[] weights = new double[docs.length];
+        List<long[]> entries = new ArrayList<>();
+
+        for (int doc = 0; doc < docs.length; doc++) {
+            OperadoraDTO op = docs[doc];
+            BigDecimal total = op.getTotalDespesas();
+            weights[doc] = total != null ? total.doubleValue() : 0;
+
+            String razao = TrigramIndex.normalize(op.getRazaoSocial());
+            String fantasia = TrigramIndex.normalize(op.getNomeFantasia());
+            String cnpj = TrigramIndex.normalizeQuery(op.getCnpj() != null ? op.getCnpj() : "");
+            String text = razao + FIELD_END + fantasia + FIELD_END + cnpj + FIELD_END;
+            texts[doc] = text;
+
+            for (int i = 0; i < razao.length() + 1 + fantasia.length(); i++) {
+                char c = text.charAt(i);
+                if (c != ' ' && c != FIELD_END && (i == 0 || text.charAt(i - 1) == ' ' || text.charAt(i - 1) == FIELD_END)) {
+                    entries.add(new long[]{doc, i});
+                }
+            }
+            if (!cnpj.isEmpty()) {
+                entries.add(new long[]{doc, razao.length() + fantasia.length() + 2});
+            }
+        }
+
+        entries.sort((a, b) -> {
+            int cmp = compareKeys(texts[(int) a[0]], (int) a[1], texts[(int) b[0]], (int) b[1]);
+            return cmp != 0 ? cmp : Long.compare(a[0], b[0]);
+        });
+        int[] entryDoc = new int[entries.size()];
+        int[] entryOffset = new int[entries.size()];
+        for (int i = 0; i < entryDoc.length; i++) {
+            entryDoc[i] = (int) entries.get(i)[0];
+            entryOffset[i] = (int) entries.get(i)[1];
+        }
+        return new PrefixSuggester(docs, texts, weights, entryDoc, entryOffset);
+    }
+
+    /**
+     * Operadoras com alguma palavra do nome (ou o CNPJ) começando pelo
+     * prefixo, da maior para a menor despesa total; empate pela ordem
+     * alfabética da chave.
+     *
+     * @param prefix texto digitado (acento/caixa ignorados; "12.3" busca
+     * pelos dígitos do CNPJ)
+     * @param limit máximo de sugestões
+     * @return sugestões (vazio para prefixo em branco)
+     */
+    public List<OperadoraDTO> suggest(String prefix, int limit) {
+        String key = TrigramIndex.normalizeQuery(prefix);
+        if (key.isEmpty() || limit < 1 || entryDoc.length == 0) {
+            return List.of();
+        }
+        int lo = lowerBound(key, false);
+        int hi = lowerBound(key, true);
+        if (lo >= hi) {
+            return List.of();
+        }
+
+        // Fila de intervalos pelo máximo de cada um: retira o maior, divide o intervalo em dois
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> a[0] == b[0] ? 0 : better(a[0], b[0]) == a[0] ? -1 : 1);
+        queue.add(new int[]{argMax(lo, hi), lo, hi});
+        List<OperadoraDTO> result = new ArrayList<>(limit);
+        int[] seen = new int[limit];
+        while (!queue.isEmpty() && result.size() < limit) {
+            int[] top = queue.poll();
+            int entry = top[0];
+            int doc = entryDoc[entry];
+            // A mesma operadora aparece uma vez por palavra que casa
+            if (!contains(seen, result.size(), doc)) {
+                seen[result.size()] = doc;
+                result.add(docs[doc]);
+            }
+            if (top[1] < entry) {
+                queue.add(new int[]{argMax(top[1], entry), top[1], entry});
+            }
+            if (entry + 1 < top[2]) {
+                queue.add(new int[]{argMax(entry + 1, top[2]), entry + 1, top[2]});
+            }
+        }
+        return result;
+    }
+
+    /** Quantidade de chaves (entradas do array ordenado). */
+    public int entries() {
+        return entryDoc.length;
+    }
+
+    /**
+     * Primeira entrada cuja chave não é menor que o prefixo (ou, com
+     * afterPrefix, a primeira depois de todas que começam com ele).
+     */
+    private int lowerBound(String key, boolean afterPrefix) {
+        int lo = 0;
+        int hi = entryDoc.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = comparePrefix(texts[entryDoc[mid]], entryOffset[mid], key);
+            if (cmp < 0 || (afterPrefix && cmp == 0)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** Compara os primeiros key.length() caracteres da chave com key (0 = começa com key). */
+    private static int comparePrefix(String text, int offset, String key) {
+        for (int i = 0; i < key.length(); i++) {
+            char c = text.charAt(offset + i);
+            if (c == FIELD_END) {
+                return -1;
+            }
+            if (c != key.charAt(i)) {
+                return c < key.charAt(i) ? -1 : 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareKeys(String a, int offsetA, String b, int offsetB) {
+        for (int i = 0;; i++) {
+            char ca = a.charAt(offsetA + i);
+            char cb = b.charAt(offsetB + i);
+            if (ca != cb) {
+                return ca == FIELD_END ? -1 : cb == FIELD_END ? 1 : Character.compare(ca, cb);
+            }
+            if (ca == FIELD_END) {
+                return 0;
+            }
+        }
+    }
+
+    /** Entrada de maior peso em [from, to). */
+    private int argMax(int from, int to) {
+        int n = entryDoc.length;
+        int best = from;
+        for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+            if ((l & 1) == 1) {
+                best = better(best, maxTree[l++]);
+            }
+            if ((r & 1) == 1) {
+                best = better(best, maxTree[--r]);
+            }
+        }
+        return best;
+    }
+
+    private int better(int a, int b) {
+        double wa = weights[entryDoc[a]];
+        double wb = weights[entryDoc[b]];
+        return wa > wb || (wa == wb && a < b) ? a : b;
+    }
+
+    private static boolean contains(int[] values, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,389 @@
+package com.intuitive.api.search;
+
+import com.intuitive.api.dto.OperadoraDTO;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice invertido de n-gramas (bigramas e trigramas) sobre razão social,
+ * nome fantasia e dígitos do CNPJ, normalizados sem acento e em minúsculas.
+ *
+ * Busca = interseção das listas dos trigramas do termo (candidatas) +
+ * conferência do termo no texto de cada candidata, então o total é exato
+ * (mesma semântica de um LIKE '%termo%' sem acentos, nos três campos).
+ *
+ * Trade-off: postings comprimidos (delta + varint) vs. int[] por n-grama. -
+ * IDs crescentes viram diferenças pequenas, quase sempre 1 byte: ~4x menos
+ * memória e a decodificação sequencial é barata perto do resto da busca. -
+ * Limitação: não há acesso aleatório a uma posting, só varredura; termos de
+ * 1 caractere (sem n-grama) percorrem todas as operadoras.
+ *
+ * Imutável depois de construído: pode ser lido por várias threads sem
+ * sincronização e trocado inteiro quando o dataset muda.
+ */
+public final class TrigramIndex {
+
+    /** Separa os campos no texto indexado: nenhum n-grama atravessa campos. */
+    private static final char FIELD_SEPARATOR = '\u0001';
+
+    /** Ranks: início de campo, início de palavra, meio de palavra. */
+    private static final int RANKS = 3;
+
+    private final OperadoraDTO[] docs;
+    private final String[] texts;
+    private final Map<Long, Integer> gramIds;
+    private final int[] postingStart;
+    private final byte[] postings;
+
+    private TrigramIndex(OperadoraDTO[] docs, String[] texts, Map<Long, Integer> gramIds,
+            int[] postingStart, byte[] postings) {
+        this.docs = docs;
+        this.texts = texts;
+        this.gramIds = gramIds;
+        this.postingStart = postingStart;
+        this.postings = postings;
+    }
+
+    /**
+     * Constrói o índice. A ordem da lista é a ordem de desempate dos
+     * resultados (o repositório entrega por nome_fantasia, cnpj - a mesma
+     * da listagem).
+     *
+     * @param operadoras operadoras indexadas (os DTOs são devolvidos como
+     * estão nas buscas; não devem ser alterados depois)
+     */
+    public static TrigramIndex build(List<OperadoraDTO> operadoras) {
+        OperadoraDTO[] docs = operadoras.toArray(new OperadoraDTO[0]);
+        String[] texts = new String[docs.length];
+        Map<Long, Integer> gramIds = new HashMap<>();
+        List<IntList> lists = new ArrayList<>();
+        long[] grams = new long[64];
+
+        for (int doc = 0; doc < docs.length; doc++) {
+            OperadoraDTO op = docs[doc];
+            String text = normalize(op.getRazaoSocial()) + FIELD_SEPARATOR
+                    + normalize(op.getNomeFantasia()) + FIELD_SEPARATOR + digits(op.getCnpj());
+            texts[doc] = text;
+
+            int n = 0;
+            for (int i = 0; i + 1 < text.length(); i++) {
+                if (grams.length < n + 2) {
+                    grams = Arrays.copyOf(grams, grams.length * 2);
+                }
+                if (text.charAt(i) == FIELD_SEPARATOR || text.charAt(i + 1) == FIELD_SEPARATOR) {
+                    continue;
+                }
+                grams[n++] = key(text, i, 2);
+                if (i + 2 < text.length() && text.charAt(i + 2) != FIELD_SEPARATOR) {
+                    grams[n++] = key(text, i, 3);
+                }
+            }
+            // Cada operadora entra uma vez por n-grama: a lista fica estritamente crescente
+            Arrays.sort(grams, 0, n);
+            for (int i = 0; i < n; i++) {
+                if (i > 0 && grams[i] == grams[i - 1]) {
+                    continue;
+                }
+                Integer id = gramIds.get(grams[i]);
+                if (id == null) {
+                    id = lists.size();
+                    gramIds.put(grams[i], id);
+                    lists.add(new IntList());
+                }
+                lists.get(id).add(doc);
+            }
+        }
+
+        int[] postingStart = new int[lists.size() + 1];
+        ByteSink sink = new ByteSink();
+        for (int id = 0; id < lists.size(); id++) {
+            postingStart[id] = sink.size;
+            IntList list = lists.get(id);
+            int previous = -1;
+            for (int i = 0; i < list.size; i++) {
+                sink.varint(list.values[i] - previous);
+                previous = list.values[i];
+            }
+            lists.set(id, null);
+        }
+        postingStart[lists.size()] = sink.size;
+        return new TrigramIndex(docs, texts, gramIds, postingStart, Arrays.copyOf(sink.bytes, sink.size));
+    }
+
+    /**
+     * Busca operadoras cujo CNPJ, razão social ou nome fantasia contenham o
+     * termo (sem diferenciar acento/caixa). Termo só com dígitos e
+     * pontuação de CNPJ é comparado pelos dígitos ("12.345" acha
+     * "12345678000190").
+     *
+     * Ordem: termo no início de um campo, depois no início de uma palavra,
+     * depois no meio; empate pela ordem de construção.
+     *
+     * @param query termo digitado
+     * @param offset resultados a pular
+     * @param limit tamanho da página
+     * @return página e total exato de resultados
+     */
+    public SearchPage search(String query, int offset, int limit) {
+        String term = normalizeQuery(query);
+        if (term.isEmpty()) {
+            return new SearchPage(0, List.of());
+        }
+
+        int[] candidates = term.length() == 1 ? null : candidates(term);
+        int count = candidates == null ? docs.length : candidates.length;
+
+        IntList[] ranked = new IntList[RANKS];
+        for (int r = 0; r < RANKS; r++) {
+            ranked[r] = new IntList();
+        }
+        for (int i = 0; i < count; i++) {
+            int doc = candidates == null ? i : candidates[i];
+            int rank = rank(texts[doc], term);
+            if (rank >= 0) {
+                ranked[rank].add(doc);
+            }
+        }
+
+        int total = 0;
+        for (IntList list : ranked) {
+            total += list.size;
+        }
+        List<OperadoraDTO> page = new ArrayList<>(Math.max(0, Math.min(limit, total - offset)));
+        int skip = Math.max(0, offset);
+        for (IntList list : ranked) {
+            for (int i = 0; i < list.size && page.size() < limit; i++) {
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    page.add(docs[list.values[i]]);
+                }
+            }
+        }
+        return new SearchPage(total, page);
+    }
+
+    /** Quantidade de operadoras indexadas. */
+    public int size() {
+        return docs.length;
+    }
+
+    /** Bytes ocupados pelas postings comprimidas. */
+    public int postingBytes() {
+        return postings.length;
+    }
+
+    /** Quantidade de n-gramas distintos. */
+    public int grams() {
+        return gramIds.size();
+    }
+
+    /**
+     * Interseção das postings dos n-gramas do termo, começando pela menor.
+     */
+    private int[] candidates(String term) {
+        int n = term.length() == 2 ? 2 : 3;
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i + n <= term.length(); i++) {
+            Integer id = gramIds.get(key(term, i, n));
+            if (id == null) {
+                return new int[0];
+            }
+            if (!ids.contains(id)) {
+                ids.add(id);
+            }
+        }
+        ids.sort((a, b) -> Integer.compare(postingLength(a), postingLength(b)));
+
+        int[] result = decode(ids.get(0));
+        for (int i = 1; i < ids.size() && result.length > 0; i++) {
+            result = intersect(result, ids.get(i));
+        }
+        return result;
+    }
+
+    private int postingLength(int id) {
+        return postingStart[id + 1] - postingStart[id];
+    }
+
+    private int[] decode(int id) {
+        int[] out = new int[postingLength(id)];
+        int n = 0;
+        int doc = -1;
+        int pos = postingStart[id];
+        int end = postingStart[id + 1];
+        while (pos < end) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            out[n++] = doc;
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Mantém de sorted só os IDs presentes na posting id (merge direto sobre os bytes). */
+    private int[] intersect(int[] sorted, int id) {
+        int[] out = new int[sorted.length];
+        int n = 0;
+        int i = 0;
+        int doc = -1;
+        int pos = postingStart[id];
+        int end = postingStart[id + 1];
+        while (pos < end && i < sorted.length) {
+            int delta = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = postings[pos++];
+                delta |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            doc += delta;
+            while (i < sorted.length && sorted[i] < doc) {
+                i++;
+            }
+            if (i < sorted.length && sorted[i] == doc) {
+                out[n++] = doc;
+                i++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Melhor posição do termo no texto (0 = início de campo, 1 = início de
+     * palavra, 2 = meio), ou -1 se não ocorrer - descarta os falsos
+     * positivos da interseção de trigramas.
+     */
+    private static int rank(String text, String term) {
+        int best = -1;
+        for (int at = text.indexOf(term); at >= 0; at = text.indexOf(term, at + 1)) {
+            char before = at == 0 ? FIELD_SEPARATOR : text.charAt(at - 1);
+            if (before == FIELD_SEPARATOR) {
+                return 0;
+            }
+            int rank = before == ' ' ? 1 : 2;
+            best = best < 0 ? rank : Math.min(best, rank);
+        }
+        return best;
+    }
+
+    private static long key(String text, int from, int n) {
+        long key = (long) n << 48;
+        for (int i = 0; i < n; i++) {
+            key |= (long) text.charAt(from + i) << (32 - 16 * i);
+        }
+        return key;
+    }
+
+    /**
+     * Normaliza o termo de busca: dígitos e pontuação de CNPJ viram só
+     * dígitos; o resto segue {@link #normalize}.
+     */
+    static String normalizeQuery(String query) {
+        if (query == null) {
+            return "";
+        }
+        String trimmed = query.trim();
+        if (!trimmed.isEmpty() && trimmed.chars().anyMatch(Character::isDigit)
+                && trimmed.chars().allMatch(c -> Character.isDigit(c) || c == '.' || c == '/' || c == '-')) {
+            return digits(trimmed);
+        }
+        return normalize(trimmed);
+    }
+
+    /**
+     * Remove acentos, passa para minúsculas e reduz o que não é letra ou
+     * dígito a um espaço ("SAÚDE - Ltda." vira "saude ltda").
+     */
+    static String normalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        boolean space = true;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                sb.append(Character.toLowerCase(c));
+                space = false;
+            } else if (!space) {
+                sb.append(' ');
+                space = true;
+            }
+        }
+        int end = sb.length();
+        if (end > 0 && sb.charAt(end - 1) == ' ') {
+            sb.setLength(end - 1);
+        }
+        return sb.toString();
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                sb.append(value.charAt(i));
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Página de resultados.
+     *
+     * @param total total exato de operadoras encontradas
+     * @param data operadoras da página, na ordem de relevância
+     */
+    public record SearchPage(int total, List<OperadoraDTO> data) {
+
+    }
+
+    private static final class IntList {
+
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class ByteSink {
+
+        byte[] bytes = new byte[1 << 16];
+        int size;
+
+        void varint(int value) {
+            if (bytes.length - size < 5) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.intuitive.crawler;
+
+/**
+ * Ajusta o tamanho do lote em tempo de execução a partir da latência de cada
+ * flush e das linhas/segundo obtidas.
+ *
+ * Estratégia: - Latência acima do alvo: reduz proporcionalmente (volta para
+ * dentro do alvo no próximo lote). - Throughput estável ou subindo: cresce 50%
+ * (sonda lotes maiores). - Throughput caiu após crescer: volta ao melhor
+ * tamanho já observado.
+ *
+ * O melhor throughput decai a cada medição para que o sizer se readapte se o
+ * servidor ficar mais lento no meio da carga.
+ */
+public class AdaptiveBatchSizer {
+
+    private static final double GROWTH_FACTOR = 1.5;
+    private static final double TOLERANCE = 0.9;
+    private static final double BEST_DECAY = 0.98;
+
+    /**
+     * Limites configuráveis do sizer.
+     *
+     * @param minRows menor lote permitido
+     * @param maxRows maior lote permitido
+     * @param initialRows lote inicial
+     * @param targetFlushMillis latência máxima desejada por flush
+     */
+    public record BatchBounds(int minRows, int maxRows, int initialRows, long targetFlushMillis) {
+
+        public static final BatchBounds DEFAULT = new BatchBounds(100, 20_000, 1_000, 500);
+
+        public BatchBounds {
+            if (minRows < 1 || maxRows < minRows) {
+                throw new IllegalArgumentException("Limites de lote inválidos: " + minRows + ".." + maxRows);
+            }
+            if (targetFlushMillis <= 0) {
+                throw new IllegalArgumentException("A latência alvo deve ser positiva.");
+            }
+            initialRows = Math.max(minRows, Math.min(maxRows, initialRows));
+        }
+
+        public AdaptiveBatchSizer newSizer() {
+            return new AdaptiveBatchSizer(this);
+        }
+
+        /**
+         * Mesmos limites, com o lote máximo reduzido a {@code rows} (ex.: o
+         * teto de placeholders de um statement).
+         */
+        public BatchBounds cappedAt(int rows) {
+            int max = Math.min(maxRows, rows);
+            return new BatchBounds(Math.min(minRows, max), max, initialRows, targetFlushMillis);
+        }
+    }
+
+    private BatchBounds bounds;
+    private int current;
+    private int bestSize;
+    private double bestRowsPerSecond;
+    private double lastRowsPerSecond;
+    private double lastFlushMillis;
+
+    public AdaptiveBatchSizer(BatchBounds bounds) {
+        this.bounds = bounds;
+        this.current = bounds.initialRows();
+        this.bestSize = current;
+    }
+
+    /**
+     * Limita o sizer a {@code rows} linhas por flush. Sem isso, um lote atual
+     * acima do teto do statement faria todo flush parecer o resto parcial da
+     * carga e o sizer pararia de se ajustar.
+     *
+     * @param rows maior lote que o chamador consegue enviar
+     */
+    public synchronized void capAt(int rows) {
+        bounds = bounds.cappedAt(rows);
+        current = Math.min(current, bounds.maxRows());
+        bestSize = Math.min(bestSize, bounds.maxRows());
+    }
+
+    /**
+     * Tamanho de lote a ser usado no próximo flush.
+     */
+    public synchronized int currentBatchSize() {
+        return current;
+    }
+
+    /**
+     * Registra a medição de um flush e recalcula o próximo tamanho.
+     *
+     * @param rows linhas enviadas no flush
+     * @param elapsedNanos duração do flush
+     */
+    public synchronized void record(int rows, long elapsedNanos) {
+        if (rows <= 0) {
+            return;
+        }
+        double millis = elapsedNanos / 1_000_000.0;
+        double rowsPerSecond = rows / Math.max(elapsedNanos / 1_000_000_000.0, 1e-9);
+        lastFlushMillis = millis;
+        lastRowsPerSecond = rowsPerSecond;
+
+        // Lote parcial (resto do final da carga) não diz nada sobre o tamanho atual
+        if (rows < current) {
+            return;
+        }
+
+        bestRowsPerSecond *= BEST_DECAY;
+        int next;
+        if (millis > bounds.targetFlushMillis()) {
+            next = (int) (current * (bounds.targetFlushMillis() / millis));
+        } else if (rowsPerSecond >= bestRowsPerSecond * TOLERANCE) {
+            if (rowsPerSecond > bestRowsPerSecond) {
+                bestRowsPerSecond = rowsPerSecond;
+                bestSize = current;
+            }
+            next = (int) Math.ceil(current * GROWTH_FACTOR);
+        } else {
+            next = bestSize;
+        }
+        current = quantize(next);
+    }
+
+    public synchronized double lastRowsPerSecond() {
+        return lastRowsPerSecond;
+    }
+
+    public synchronized double lastFlushMillis() {
+        return lastFlushMillis;
+    }
+
+    public synchronized BatchBounds bounds() {
+        return bounds;
+    }
+
+    /**
+     * Arredonda para múltiplos do lote mínimo: mantém pequeno o número de
+     * templates SQL distintos em cache.
+     */
+    private int quantize(int size) {
+        int step = bounds.minRows();
+        int rounded = Math.max(step, (size / step) * step);
+        return Math.min(bounds.maxRows(), rounded);
+    }
+}
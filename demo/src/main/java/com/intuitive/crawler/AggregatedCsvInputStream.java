@@ -0,0 +1,96 @@
+package com.intuitive.crawler;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * InputStream que serializa registros agregados sob demanda no formato
+ * esperado pelos loaders nativos: "cnpj";"conta";valor;"competencia" (UTF-8,
+ * separador ';').
+ *
+ * Trade-off: codifica uma linha por vez em vez de montar o CSV inteiro em
+ * memória - o LOAD DATA consome o stream diretamente, sem arquivo temporário.
+ */
+class AggregatedCsvInputStream extends InputStream {
+
+    private final Iterator<AggregatorService.AggregatedRecord> records;
+    private final StringBuilder line = new StringBuilder(64);
+    private byte[] current = new byte[0];
+    private int position;
+
+    AggregatedCsvInputStream(List<AggregatorService.AggregatedRecord> records, String header) {
+        this.records = records.iterator();
+        if (header != null) {
+            this.current = (header + "\n").getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public int read() {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) {
+        if (length == 0) {
+            return 0;
+        }
+        int written = 0;
+        while (written < length && fill()) {
+            int chunk = Math.min(length - written, current.length - position);
+            System.arraycopy(current, position, buffer, offset + written, chunk);
+            position += chunk;
+            written += chunk;
+        }
+        return written == 0 ? -1 : written;
+    }
+
+    /**
+     * Garante que existam bytes pendentes, codificando o próximo registro.
+     *
+     * @return false quando não há mais registros
+     */
+    private boolean fill() {
+        while (position >= current.length) {
+            if (!records.hasNext()) {
+                return false;
+            }
+            AggregatorService.AggregatedRecord record = records.next();
+            line.setLength(0);
+            appendQuoted(record.cnpjOperadora);
+            line.append(';');
+            appendQuoted(record.codigoConta);
+            line.append(';');
+            line.append(formatValor(record.totalValor));
+            line.append(';');
+            appendQuoted(record.competencia);
+            line.append('\n');
+            current = line.toString().getBytes(StandardCharsets.UTF_8);
+            position = 0;
+        }
+        return true;
+    }
+
+    private void appendQuoted(String value) {
+        line.append('"');
+        if (value != null) {
+            line.append(value.replace("\"", "\"\""));
+        }
+        line.append('"');
+    }
+
+    /**
+     * Formata o valor sem notação científica (1.0E7 não é aceito pelo LOAD
+     * DATA em colunas DECIMAL).
+     */
+    static String formatValor(double valor) {
+        return BigDecimal.valueOf(valor).setScale(2, RoundingMode.HALF_UP).toPlainString();
+    }
+}
@@ -1,6 +1,13 @@
 package com.intuitive.crawler;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.intuitive.crawler.DataEnricherService.EnrichedRecord;
@@ -47,7 +54,9 @@ public class AggregatorService {
 
                     return new AggregatedRecord(cnpj, razao, codigoConta, totalValor);
                 })
-                .sorted((a, b) -> a.cnpjOperadora.compareTo(b.cnpjOperadora))
+                // Ordem total (CNPJ + conta): a carga em chunks depende de uma ordem estável
+                .sorted(Comparator.comparing((AggregatedRecord r) -> r.cnpjOperadora)
+                        .thenComparing(r -> r.codigoConta))
                 .toList();
 
         return aggregated;
@@ -68,6 +77,21 @@ public class AggregatorService {
         }
     }
 
+    /**
+     * Igual a {@link #parseValor}, mas exato: somas em BigDecimal não dependem
+     * da ordem de chegada dos registros (agregação concorrente).
+     *
+     * @param valorStr string do valor (ex: "1.234,56")
+     * @return valor exato ou zero se inválido
+     */
+    static BigDecimal parseValorExact(String valorStr) {
+        try {
+            return new BigDecimal(valorStr.replace(".", "").replace(",", "."));
+        } catch (NumberFormatException e) {
+            return BigDecimal.ZERO;
+        }
+    }
+
     /**
      * Cria chave composta para agrupamento.
      *
@@ -78,6 +102,73 @@ public class AggregatorService {
         return record.cnpj + "|" + record.codigoConta;
     }
 
+    /**
+     * Agregação incremental e thread-safe (CNPJ + conta → soma), usada pelo
+     * pipeline em estágios enquanto os registros ainda estão chegando.
+     *
+     * Trade-off: ConcurrentHashMap.merge vs. groupingBy sobre a lista completa.
+     * - Não materializa os registros enriquecidos, só um total por grupo. -
+     * Limitação: o resultado só existe depois do último registro (barreira).
+     *
+     * Memória: a tabela de grupos é a única estrutura que cresce com o
+     * arquivo. CNPJs e códigos de conta se repetem em milhares de linhas, então
+     * as chaves guardam uma instância canônica de cada string em vez da cópia
+     * de cada linha.
+     */
+    public static class Accumulator {
+
+        private record GroupKey(String cnpj, String codigoConta) {
+
+        }
+
+        private final ConcurrentHashMap<GroupKey, BigDecimal> totals = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, String> canonical = new ConcurrentHashMap<>();
+
+        public void add(EnrichedRecord record) {
+            GroupKey key = new GroupKey(canonical(record.cnpj), canonical(record.codigoConta));
+            totals.merge(key, parseValorExact(record.valor), BigDecimal::add);
+        }
+
+        public int groups() {
+            return totals.size();
+        }
+
+        /**
+         * Registros agregados na mesma ordem de
+         * {@link AggregatorService#aggregateByOperadoraAndConta}.
+         *
+         * Esvazia o acumulador: cada grupo é removido ao virar registro, então
+         * a tabela e a lista de saída não ficam inteiras na memória ao mesmo
+         * tempo.
+         *
+         * @param razaoSocialByCnpj razão social de cada operadora
+         * @param competencia competência gravada em cada registro
+         * @return registros agregados ordenados por (CNPJ, conta)
+         */
+        public List<AggregatedRecord> toRecords(Function<String, String> razaoSocialByCnpj, String competencia) {
+            List<AggregatedRecord> records = new ArrayList<>(totals.size());
+            Iterator<Map.Entry<GroupKey, BigDecimal>> entries = totals.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<GroupKey, BigDecimal> e = entries.next();
+                records.add(new AggregatedRecord(e.getKey().cnpj(), razaoSocialByCnpj.apply(e.getKey().cnpj()),
+                        e.getKey().codigoConta(), e.getValue().doubleValue(), competencia));
+                entries.remove();
+            }
+            canonical.clear();
+            records.sort(Comparator.comparing((AggregatedRecord r) -> r.cnpjOperadora)
+                    .thenComparing(r -> r.codigoConta));
+            return records;
+        }
+
+        private String canonical(String value) {
+            if (value == null) {
+                return null;
+            }
+            String existing = canonical.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        }
+    }
+
     /**
      * Record para dados agregados.
      */
@@ -87,12 +178,19 @@ public class AggregatorService {
         public String razaoSocial;
         public String codigoConta;
         public double totalValor;
+        // Trimestre no formato de Trimestre.competencia() ("" = não informado)
+        public String competencia;
 
         public AggregatedRecord(String cnpjOperadora, String razaoSocial, String codigoConta, double totalValor) {
+            this(cnpjOperadora, razaoSocial, codigoConta, totalValor, "");
+        }
+
+        public AggregatedRecord(String cnpjOperadora, String razaoSocial, String codigoConta, double totalValor, String competencia) {
             this.cnpjOperadora = cnpjOperadora;
             this.razaoSocial = razaoSocial;
             this.codigoConta = codigoConta;
             this.totalValor = totalValor;
+            this.competencia = competencia;
         }
     }
 
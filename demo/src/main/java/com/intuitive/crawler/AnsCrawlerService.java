@@ -82,6 +82,39 @@ public class AnsCrawlerService {
         return result;
     }
 
+    /**
+     * Resolve a URL do .zip de um trimestre específico (modo backfill).
+     *
+     * Procura primeiro no diretório do ano (ex.: 2024/4T2024.zip) e depois no
+     * diretório do trimestre (ex.: 2024/4T2024/*.zip). Se a listagem falhar ou
+     * não achar nada, usa a URL direta no padrão conhecido da ANS.
+     *
+     * @param trimestre trimestre desejado
+     * @return URL do arquivo .zip
+     */
+    public String resolveZipUrl(Trimestre trimestre) {
+        String yearUrl = BASE_URL + trimestre.ano() + "/";
+        String zipName = trimestre.label().toLowerCase() + ".zip";
+        try {
+            for (String zipUrl : fetchZipUrls(yearUrl)) {
+                if (zipUrl.toLowerCase().endsWith("/" + zipName)) {
+                    return zipUrl;
+                }
+            }
+            for (String trimesterUrl : fetchTrimestersUrls(yearUrl)) {
+                if (trimesterUrl.toUpperCase().endsWith("/" + trimestre.label().toUpperCase() + "/")) {
+                    List<String> zipUrls = fetchZipUrls(trimesterUrl);
+                    if (!zipUrls.isEmpty()) {
+                        return zipUrls.get(0);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("⚠ Listagem de " + yearUrl + " falhou: " + e.getMessage());
+        }
+        return yearUrl + trimestre.label() + ".zip";
+    }
+
     public  List <String> fetchYearsUrls() throws IOException {
         return fetchUrlsByPattern(BASE_URL, YEAR_PATTERN);
     }
@@ -0,0 +1,152 @@
+package com.intuitive.crawler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * Backfill de vários trimestres: cada trimestre é baixado, processado e
+ * importado como unidade independente, com os trimestres rodando em paralelo.
+ *
+ * Trade-off: uma thread por trimestre + limites globais vs. um pool fixo de
+ * trimestres. - Enquanto um trimestre baixa, outro parseia e um terceiro
+ * grava: os recursos ficam ocupados ao mesmo tempo. - Os
+ * {@link ConcurrencyLimits} impedem que N trimestres disputem a mesma CPU ou
+ * conexão de banco. - Limitação: falha em um trimestre não interrompe os
+ * outros; o trimestre falho é reportado e pode ser reexecutado sozinho (a
+ * importação substitui a competência inteira).
+ */
+public class BackfillService {
+
+    /**
+     * Obtém o CSV financeiro de um trimestre (download + descompactação).
+     */
+    @FunctionalInterface
+    public interface QuarterSource {
+
+        Path fetch(Trimestre trimestre) throws Exception;
+    }
+
+    /**
+     * Resultado de um trimestre.
+     *
+     * @param trimestre trimestre processado
+     * @param summary contagens do pipeline (null em caso de falha)
+     * @param erro mensagem de erro (null em caso de sucesso)
+     * @param millis duração total do trimestre
+     */
+    public record QuarterResult(Trimestre trimestre, IngestPipeline.Summary summary, String erro, long millis) {
+
+        public boolean sucesso() {
+            return erro == null;
+        }
+    }
+
+    private final QuarterSource source;
+    private final IngestPipeline pipeline;
+    private final ConcurrencyLimits limits;
+    private final RunReport.Recorder recorder;
+
+    public BackfillService(QuarterSource source, IngestPipeline pipeline, ConcurrencyLimits limits) {
+        this(source, pipeline, limits, new RunReport.Recorder("backfill"));
+    }
+
+    /**
+     * @param recorder recebe os estágios de cada trimestre (prefixados pelo
+     * rótulo, ex: 4T2024/parse)
+     */
+    public BackfillService(QuarterSource source, IngestPipeline pipeline, ConcurrencyLimits limits,
+            RunReport.Recorder recorder) {
+        this.source = source;
+        this.pipeline = pipeline;
+        this.limits = limits;
+        this.recorder = recorder;
+    }
+
+    /**
+     * Fonte padrão: resolve a URL na ANS, baixa e descompacta em
+     * downloadDir/&lt;trimestre&gt;.
+     */
+    public static QuarterSource ansSource(AnsCrawlerService crawler, FileManagerService fileManager, Path downloadDir) {
+        return trimestre -> {
+            String zipUrl = crawler.resolveZipUrl(trimestre);
+            Path quarterDir = downloadDir.resolve(trimestre.label());
+            Path zipPath = quarterDir.resolve(zipUrl.substring(zipUrl.lastIndexOf('/') + 1));
+
+            System.out.println("Baixando: " + zipUrl + " ...");
+            fileManager.downloadFile(zipUrl, zipPath);
+            Path extractPath = quarterDir.resolve("extracted");
+            fileManager.unzipFile(zipPath, extractPath);
+
+            try (Stream<Path> files = Files.walk(extractPath)) {
+                return files.filter(p -> p.toString().toLowerCase().endsWith(".csv"))
+                        .findFirst()
+                        .orElseThrow(() -> new IllegalStateException("Nenhum CSV no ZIP de " + trimestre.label()));
+            }
+        };
+    }
+
+    /**
+     * Processa os trimestres em paralelo e espera todos terminarem.
+     *
+     * @param trimestres trimestres a importar
+     * @return um resultado por trimestre, em ordem cronológica
+     * @throws InterruptedException se a espera for interrompida
+     */
+    public List<QuarterResult> run(List<Trimestre> trimestres) throws InterruptedException {
+        List<Trimestre> ordenados = trimestres.stream().distinct().sorted().toList();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, ordenados.size()), runnable -> {
+            Thread thread = new Thread(runnable, "backfill");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<QuarterResult>> futures = new ArrayList<>();
+            for (Trimestre trimestre : ordenados) {
+                futures.add(executor.submit(() -> process(trimestre)));
+            }
+
+            List<QuarterResult> results = new ArrayList<>();
+            for (Future<QuarterResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // process() já captura as falhas do trimestre
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private QuarterResult process(Trimestre trimestre) {
+        long start = System.nanoTime();
+        try {
+            Path csv = limits.call(ConcurrencyLimits.Resource.DOWNLOAD,
+                    () -> recorder.measure(trimestre.label() + "/download", metrics -> {
+                        Path fetched = source.fetch(trimestre);
+                        metrics.bytesWritten(Files.size(fetched));
+                        return fetched;
+                    }));
+            IngestPipeline.Summary summary = pipeline.runQuarter(csv, trimestre);
+            recorder.addPipeline(trimestre.label() + "/", summary.pipeline());
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("✓ %s: %d registros, %d agregados em %d ms%n",
+                    trimestre.label(), summary.registros(), summary.agregados(), millis);
+            return new QuarterResult(trimestre, summary, null, millis);
+        } catch (Exception e) {
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.err.println("✗ " + trimestre.label() + ": " + e.getMessage());
+            return new QuarterResult(trimestre, null, e.getClass().getSimpleName() + ": " + e.getMessage(), millis);
+        }
+    }
+}
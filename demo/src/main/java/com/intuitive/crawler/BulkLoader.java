@@ -0,0 +1,62 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Estratégia de carga em massa de registros agregados.
+ *
+ * Trade-off: loader nativo (LOAD DATA / CSVREAD) vs. batch de INSERTs. - O
+ * loader nativo evita o parse de um statement por linha e é uma ordem de
+ * grandeza mais rápido. - Limitação: depende de recursos específicos de cada
+ * banco, por isso o batch JDBC continua como fallback universal.
+ *
+ * Implementações NÃO fazem commit: a transação pertence ao chamador.
+ */
+public interface BulkLoader {
+
+    /**
+     * Nome curto da estratégia (usado em logs).
+     */
+    String name();
+
+    /**
+     * Carrega os registros na tabela informada.
+     *
+     * @param conn conexão com autoCommit desligado
+     * @param table tabela de destino (colunas cnpj_operadora, codigo_conta,
+     * valor_total, competencia)
+     * @param records registros agregados
+     * @return quantidade de linhas carregadas
+     * @throws SQLException em erros de carga
+     */
+    int load(Connection conn, String table, List<AggregatorService.AggregatedRecord> records) throws SQLException;
+
+    /**
+     * Escolhe o loader mais rápido disponível para a conexão.
+     *
+     * @param conn conexão aberta
+     * @return MySQL LOAD DATA, H2 CSVREAD ou batch JDBC (fallback)
+     * @throws SQLException se não for possível ler os metadados da conexão
+     */
+    static BulkLoader forConnection(Connection conn) throws SQLException {
+        return forConnection(conn, AdaptiveBatchSizer.BatchBounds.DEFAULT);
+    }
+
+    /**
+     * Igual a {@link #forConnection(Connection)}, com limites próprios para o
+     * lote adaptativo do fallback JDBC.
+     */
+    static BulkLoader forConnection(Connection conn, AdaptiveBatchSizer.BatchBounds bounds) throws SQLException {
+        String product = conn.getMetaData().getDatabaseProductName();
+
+        if ("MySQL".equalsIgnoreCase(product) && MySqlLoadDataBulkLoader.isAvailable(conn)) {
+            return new MySqlLoadDataBulkLoader();
+        }
+        if ("H2".equalsIgnoreCase(product)) {
+            return new H2CsvReadBulkLoader();
+        }
+        return new JdbcBatchBulkLoader(bounds);
+    }
+}
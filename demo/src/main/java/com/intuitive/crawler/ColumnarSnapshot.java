@@ -0,0 +1,578 @@
+package com.intuitive.crawler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Snapshot colunar binário de registros agregados ou enriquecidos, para
+ * recarregar um trimestre sem parsear CSV de novo.
+ *
+ * Formato (inteiros das colunas em little-endian; rodapé em big-endian):
+ * <pre>
+ * "ANSCOL01"
+ * bloco de cada coluna, alinhado em 8 bytes:
+ *   texto:   dicionário [int n][int offsets[n+1]][bytes UTF-8] + códigos (1, 2 ou 4 bytes por linha)
+ *   decimal: long por linha (valor x 10^escala)
+ * rodapé: versão, tipo, linhas, colunas (nome, tipo, escala, cardinalidade,
+ *         offsets/tamanhos dos blocos, mínimo, máximo)
+ * long offset do rodapé + "ANSCOL01"
+ * </pre>
+ *
+ * Trade-off: formato próprio vs. Parquet/Arrow. - Sem dependência nova e o
+ * leitor mapeia (mmap) só os blocos da coluna pedida: somar valor_total não
+ * lê CNPJ nem conta. - Dicionário ordenado: código menor = texto menor, e
+ * cada CNPJ/conta vira um único String na recarga. - Limitação: um único
+ * grupo de linhas (o arquivo inteiro é escrito de uma vez, com as colunas em
+ * memória) e no máximo 2 GB por bloco (~268 milhões de linhas).
+ */
+public final class ColumnarSnapshot {
+
+    static final byte[] MAGIC = "ANSCOL01".getBytes(StandardCharsets.US_ASCII);
+    static final int FORMAT_VERSION = 1;
+
+    // Valores monetários da ANS têm centavos; mesmo arredondamento do DECIMAL(15, 2) do banco
+    static final int VALUE_SCALE = 2;
+
+    private static final int ALIGNMENT = 8;
+
+    private ColumnarSnapshot() {
+    }
+
+    public enum Kind {
+        AGGREGATED,
+        ENRICHED
+    }
+
+    public enum ColumnType {
+        DICTIONARY,
+        DECIMAL
+    }
+
+    /**
+     * Descrição de uma coluna, lida do rodapé.
+     *
+     * @param name nome (o mesmo da coluna no banco quando existe)
+     * @param type DICTIONARY (texto) ou DECIMAL (ponto fixo)
+     * @param scale casas decimais do DECIMAL (0 no DICTIONARY)
+     * @param cardinality valores distintos do DICTIONARY (0 no DECIMAL)
+     * @param codeWidth bytes por código do DICTIONARY, 8 no DECIMAL
+     * @param dataOffset início dos códigos/valores no arquivo
+     * @param dataLength tamanho dos códigos/valores
+     * @param dictOffset início do dicionário (0 no DECIMAL)
+     * @param dictLength tamanho do dicionário (0 no DECIMAL)
+     * @param min menor valor (texto ou decimal sem notação científica; "" sem linhas)
+     * @param max maior valor
+     */
+    public record ColumnInfo(String name, ColumnType type, int scale, int cardinality, int codeWidth,
+            long dataOffset, long dataLength, long dictOffset, long dictLength, String min, String max) {
+    }
+
+    // ── Escrita ──────────────────────────────────────────────────────────────
+
+    /**
+     * Grava registros agregados (cnpj_operadora, razao_social, codigo_conta,
+     * valor_total, competencia); valor_total é arredondado para centavos.
+     */
+    public static void writeAggregated(List<AggregatorService.AggregatedRecord> records, Path path) throws IOException {
+        write(path, Kind.AGGREGATED, records.size(), List.of(
+                dictionary("cnpj_operadora", records, r -> r.cnpjOperadora),
+                dictionary("razao_social", records, r -> r.razaoSocial),
+                dictionary("codigo_conta", records, r -> r.codigoConta),
+                decimal("valor_total", records, r -> BigDecimal.valueOf(r.totalValor)),
+                dictionary("competencia", records, r -> r.competencia)));
+    }
+
+    /**
+     * Grava registros enriquecidos (cnpj, razao_social, nome_fantasia,
+     * codigo_conta, valor, data).
+     *
+     * O valor é gravado como o agregador o interpreta
+     * ({@link AggregatorService#parseValorExact}); na leitura volta como
+     * "1234,56" (sem separador de milhar), que reagrega para o mesmo total.
+     */
+    public static void writeEnriched(List<DataEnricherService.EnrichedRecord> records, Path path) throws IOException {
+        write(path, Kind.ENRICHED, records.size(), List.of(
+                dictionary("cnpj", records, r -> r.cnpj),
+                dictionary("razao_social", records, r -> r.razaoSocial),
+                dictionary("nome_fantasia", records, r -> r.nomeFantasia),
+                dictionary("codigo_conta", records, r -> r.codigoConta),
+                decimal("valor", records, r -> AggregatorService.parseValorExact(r.valor)),
+                dictionary("data", records, r -> r.data)));
+    }
+
+    private static void write(Path path, Kind kind, int rows, List<ColumnBlock> columns) throws IOException {
+        try (FileChannel out = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            writeFully(out, ByteBuffer.wrap(MAGIC));
+            List<ColumnInfo> infos = new ArrayList<>(columns.size());
+            for (ColumnBlock column : columns) {
+                infos.add(column.writeTo(out));
+            }
+
+            long footerOffset = out.position();
+            ByteArrayOutputStream footerBytes = new ByteArrayOutputStream();
+            try (DataOutputStream footer = new DataOutputStream(footerBytes)) {
+                footer.writeInt(FORMAT_VERSION);
+                footer.writeUTF(kind.name());
+                footer.writeLong(rows);
+                footer.writeInt(infos.size());
+                for (ColumnInfo info : infos) {
+                    footer.writeUTF(info.name());
+                    footer.writeUTF(info.type().name());
+                    footer.writeInt(info.scale());
+                    footer.writeInt(info.cardinality());
+                    footer.writeInt(info.codeWidth());
+                    footer.writeLong(info.dataOffset());
+                    footer.writeLong(info.dataLength());
+                    footer.writeLong(info.dictOffset());
+                    footer.writeLong(info.dictLength());
+                    footer.writeUTF(info.min());
+                    footer.writeUTF(info.max());
+                }
+                footer.writeLong(footerOffset);
+                footer.write(MAGIC);
+            }
+            writeFully(out, ByteBuffer.wrap(footerBytes.toByteArray()));
+        }
+    }
+
+    private static <T> ColumnBlock dictionary(String name, List<T> records, Function<T, String> value) {
+        return new DictionaryBlock(name, records, value);
+    }
+
+    private static <T> ColumnBlock decimal(String name, List<T> records, Function<T, BigDecimal> value) {
+        long[] unscaled = new long[records.size()];
+        for (int i = 0; i < unscaled.length; i++) {
+            BigDecimal decimal = value.apply(records.get(i)).setScale(VALUE_SCALE, RoundingMode.HALF_UP);
+            unscaled[i] = decimal.unscaledValue().longValueExact();
+        }
+        return new DecimalBlock(name, unscaled);
+    }
+
+    private interface ColumnBlock {
+
+        ColumnInfo writeTo(FileChannel out) throws IOException;
+    }
+
+    private static final class DictionaryBlock implements ColumnBlock {
+
+        private final String name;
+        private final String[] dictionary;
+        private final int[] codes;
+
+        <T> DictionaryBlock(String name, List<T> records, Function<T, String> value) {
+            this.name = name;
+            Map<String, Integer> provisional = new HashMap<>();
+            int[] firstSeen = new int[records.size()];
+            for (int i = 0; i < firstSeen.length; i++) {
+                // null vira "": o formato não distingue ausente de vazio
+                String text = value.apply(records.get(i));
+                firstSeen[i] = provisional.computeIfAbsent(text == null ? "" : text, k -> provisional.size());
+            }
+
+            // Dicionário ordenado: a ordem dos códigos é a ordem do texto
+            dictionary = provisional.keySet().toArray(new String[0]);
+            Arrays.sort(dictionary);
+            int[] remap = new int[dictionary.length];
+            for (int code = 0; code < dictionary.length; code++) {
+                remap[provisional.get(dictionary[code])] = code;
+            }
+            codes = new int[firstSeen.length];
+            for (int i = 0; i < codes.length; i++) {
+                codes[i] = remap[firstSeen[i]];
+            }
+        }
+
+        @Override
+        public ColumnInfo writeTo(FileChannel out) throws IOException {
+            byte[][] encoded = new byte[dictionary.length][];
+            int textBytes = 0;
+            for (int i = 0; i < dictionary.length; i++) {
+                encoded[i] = dictionary[i].getBytes(StandardCharsets.UTF_8);
+                textBytes += encoded[i].length;
+            }
+            long dictOffset = align(out);
+            ByteBuffer dict = littleEndian(4 + 4 * (dictionary.length + 1) + textBytes);
+            dict.putInt(dictionary.length);
+            int offset = 0;
+            for (byte[] text : encoded) {
+                dict.putInt(offset);
+                offset += text.length;
+            }
+            dict.putInt(offset);
+            for (byte[] text : encoded) {
+                dict.put(text);
+            }
+            writeFully(out, dict.flip());
+
+            int width = dictionary.length <= 0x100 ? 1 : dictionary.length <= 0x10000 ? 2 : 4;
+            long dataOffset = align(out);
+            ByteBuffer data = littleEndian(codes.length * width);
+            for (int code : codes) {
+                switch (width) {
+                    case 1 -> data.put((byte) code);
+                    case 2 -> data.putShort((short) code);
+                    default -> data.putInt(code);
+                }
+            }
+            writeFully(out, data.flip());
+
+            String min = dictionary.length == 0 ? "" : dictionary[0];
+            String max = dictionary.length == 0 ? "" : dictionary[dictionary.length - 1];
+            return new ColumnInfo(name, ColumnType.DICTIONARY, 0, dictionary.length, width,
+                    dataOffset, data.limit(), dictOffset, dict.limit(), min, max);
+        }
+    }
+
+    private static final class DecimalBlock implements ColumnBlock {
+
+        private final String name;
+        private final long[] unscaled;
+
+        DecimalBlock(String name, long[] unscaled) {
+            this.name = name;
+            this.unscaled = unscaled;
+        }
+
+        @Override
+        public ColumnInfo writeTo(FileChannel out) throws IOException {
+            long min = Long.MAX_VALUE;
+            long max = Long.MIN_VALUE;
+            long dataOffset = align(out);
+            ByteBuffer data = littleEndian(unscaled.length * Long.BYTES);
+            for (long value : unscaled) {
+                data.putLong(value);
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            writeFully(out, data.flip());
+
+            String minText = unscaled.length == 0 ? "" : BigDecimal.valueOf(min, VALUE_SCALE).toPlainString();
+            String maxText = unscaled.length == 0 ? "" : BigDecimal.valueOf(max, VALUE_SCALE).toPlainString();
+            return new ColumnInfo(name, ColumnType.DECIMAL, VALUE_SCALE, 0, Long.BYTES,
+                    dataOffset, data.limit(), 0, 0, minText, maxText);
+        }
+    }
+
+    private static ByteBuffer littleEndian(int capacity) {
+        return ByteBuffer.allocate(capacity).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Completa com zeros até o próximo múltiplo de 8 e devolve a posição. */
+    private static long align(FileChannel out) throws IOException {
+        int padding = (int) ((ALIGNMENT - out.position() % ALIGNMENT) % ALIGNMENT);
+        if (padding > 0) {
+            writeFully(out, ByteBuffer.allocate(padding));
+        }
+        return out.position();
+    }
+
+    private static void writeFully(FileChannel out, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+
+    // ── Leitura ──────────────────────────────────────────────────────────────
+
+    /**
+     * Abre o snapshot lendo só o rodapé; as colunas são mapeadas sob demanda.
+     *
+     * @throws IOException se o arquivo não for um snapshot ou for de outra versão
+     */
+    public static Reader open(Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    /**
+     * Leitor de um snapshot. Os buffers devolvidos continuam válidos depois
+     * do close (o mapeamento só é liberado pelo GC).
+     */
+    public static final class Reader implements AutoCloseable {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final Kind kind;
+        private final int rowCount;
+        private final Map<String, ColumnInfo> columns = new LinkedHashMap<>();
+
+        private Reader(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                long size = channel.size();
+                ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES + MAGIC.length);
+                if (size < MAGIC.length + trailer.capacity()) {
+                    throw new IOException("Não é um snapshot colunar: " + path);
+                }
+                readFully(trailer, size - trailer.capacity());
+                long footerOffset = trailer.flip().getLong();
+                byte[] magic = new byte[MAGIC.length];
+                trailer.get(magic);
+                if (!Arrays.equals(MAGIC, magic) || footerOffset < MAGIC.length || footerOffset >= size) {
+                    throw new IOException("Não é um snapshot colunar: " + path);
+                }
+
+                ByteBuffer footer = ByteBuffer.allocate((int) (size - footerOffset));
+                readFully(footer, footerOffset);
+                try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(footer.array()))) {
+                    int version = in.readInt();
+                    if (version != FORMAT_VERSION) {
+                        throw new IOException("Versão de snapshot não suportada: " + version + " em " + path);
+                    }
+                    kind = Kind.valueOf(in.readUTF());
+                    rowCount = Math.toIntExact(in.readLong());
+                    int count = in.readInt();
+                    for (int i = 0; i < count; i++) {
+                        ColumnInfo info = new ColumnInfo(in.readUTF(), ColumnType.valueOf(in.readUTF()),
+                                in.readInt(), in.readInt(), in.readInt(),
+                                in.readLong(), in.readLong(), in.readLong(), in.readLong(),
+                                in.readUTF(), in.readUTF());
+                        columns.put(info.name(), info);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                try {
+                    channel.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+                throw e;
+            }
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public int rowCount() {
+            return rowCount;
+        }
+
+        public List<ColumnInfo> columns() {
+            return List.copyOf(columns.values());
+        }
+
+        public ColumnInfo column(String name) {
+            ColumnInfo info = columns.get(name);
+            if (info == null) {
+                throw new IllegalArgumentException("Coluna inexistente no snapshot: " + name + " (" + columns.keySet() + ")");
+            }
+            return info;
+        }
+
+        /** Mapeia o dicionário e os códigos de uma coluna de texto. */
+        public StringColumn strings(String name) throws IOException {
+            ColumnInfo info = expect(name, ColumnType.DICTIONARY);
+            ByteBuffer dict = map(info.dictOffset(), info.dictLength());
+            int size = dict.getInt(0);
+            String[] dictionary = new String[size];
+            int textStart = 4 + 4 * (size + 1);
+            byte[] text = new byte[dict.capacity() - textStart];
+            dict.get(textStart, text);
+            for (int code = 0; code < size; code++) {
+                int from = dict.getInt(4 + 4 * code);
+                int to = dict.getInt(4 + 4 * (code + 1));
+                dictionary[code] = new String(text, from, to - from, StandardCharsets.UTF_8);
+            }
+            return new StringColumn(dictionary, map(info.dataOffset(), info.dataLength()), info.codeWidth(), rowCount);
+        }
+
+        /** Mapeia os valores de uma coluna decimal. */
+        public DecimalColumn decimals(String name) throws IOException {
+            ColumnInfo info = expect(name, ColumnType.DECIMAL);
+            return new DecimalColumn(map(info.dataOffset(), info.dataLength()), info.scale(), rowCount);
+        }
+
+        public List<AggregatorService.AggregatedRecord> readAggregated() throws IOException {
+            expectKind(Kind.AGGREGATED);
+            StringColumn cnpj = strings("cnpj_operadora");
+            StringColumn razaoSocial = strings("razao_social");
+            StringColumn conta = strings("codigo_conta");
+            DecimalColumn valor = decimals("valor_total");
+            StringColumn competencia = strings("competencia");
+            List<AggregatorService.AggregatedRecord> records = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                records.add(new AggregatorService.AggregatedRecord(cnpj.get(row), razaoSocial.get(row),
+                        conta.get(row), valor.doubleValue(row), competencia.get(row)));
+            }
+            return records;
+        }
+
+        public List<DataEnricherService.EnrichedRecord> readEnriched() throws IOException {
+            expectKind(Kind.ENRICHED);
+            StringColumn cnpj = strings("cnpj");
+            StringColumn razaoSocial = strings("razao_social");
+            StringColumn nomeFantasia = strings("nome_fantasia");
+            StringColumn conta = strings("codigo_conta");
+            DecimalColumn valor = decimals("valor");
+            StringColumn data = strings("data");
+            List<DataEnricherService.EnrichedRecord> records = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                records.add(new DataEnricherService.EnrichedRecord(cnpj.get(row), razaoSocial.get(row),
+                        nomeFantasia.get(row), conta.get(row), valor.brazilianText(row), data.get(row)));
+            }
+            return records;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        private ColumnInfo expect(String name, ColumnType type) {
+            ColumnInfo info = column(name);
+            if (info.type() != type) {
+                throw new IllegalArgumentException("Coluna " + name + " é " + info.type() + ", não " + type);
+            }
+            return info;
+        }
+
+        private void expectKind(Kind expected) {
+            if (kind != expected) {
+                throw new IllegalStateException("Snapshot " + path + " é " + kind + ", não " + expected);
+            }
+        }
+
+        private MappedByteBuffer map(long offset, long length) throws IOException {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            return buffer;
+        }
+
+        private void readFully(ByteBuffer buffer, long position) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Snapshot truncado: " + path);
+                }
+            }
+        }
+    }
+
+    /** Coluna de texto: dicionário ordenado + um código por linha. */
+    public static final class StringColumn {
+
+        private final String[] dictionary;
+        private final ByteBuffer codes;
+        private final int width;
+        private final int rows;
+
+        StringColumn(String[] dictionary, ByteBuffer codes, int width, int rows) {
+            this.dictionary = dictionary;
+            this.codes = codes;
+            this.width = width;
+            this.rows = rows;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        public int cardinality() {
+            return dictionary.length;
+        }
+
+        public int code(int row) {
+            return switch (width) {
+                case 1 -> Byte.toUnsignedInt(codes.get(row));
+                case 2 -> Short.toUnsignedInt(codes.getShort(row * 2));
+                default -> codes.getInt(row * 4);
+            };
+        }
+
+        public String dictionaryValue(int code) {
+            return dictionary[code];
+        }
+
+        public String get(int row) {
+            return dictionary[code(row)];
+        }
+    }
+
+    /** Coluna decimal em ponto fixo (long = valor x 10^escala). */
+    public static final class DecimalColumn {
+
+        private final ByteBuffer values;
+        private final int scale;
+        private final int rows;
+
+        DecimalColumn(ByteBuffer values, int scale, int rows) {
+            this.values = values;
+            this.scale = scale;
+            this.rows = rows;
+        }
+
+        public int size() {
+            return rows;
+        }
+
+        public int scale() {
+            return scale;
+        }
+
+        public long unscaled(int row) {
+            return values.getLong(row * Long.BYTES);
+        }
+
+        public BigDecimal get(int row) {
+            return BigDecimal.valueOf(unscaled(row), scale);
+        }
+
+        public double doubleValue(int row) {
+            return get(row).doubleValue();
+        }
+
+        /** Soma exata da coluna inteira, sem criar um BigDecimal por linha. */
+        public BigDecimal sum() {
+            long total = 0;
+            for (int row = 0; row < rows; row++) {
+                total = Math.addExact(total, unscaled(row));
+            }
+            return BigDecimal.valueOf(total, scale);
+        }
+
+        /** Texto no formato do CSV da ANS, sem milhar: "-1234,56". */
+        String brazilianText(int row) {
+            return get(row).toPlainString().replace('.', ',');
+        }
+    }
+
+    /**
+     * Uso: java ... ColumnarSnapshot &lt;arquivo&gt; - imprime o tipo, as
+     * linhas e as colunas com estatísticas.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Uso: ColumnarSnapshot <arquivo>");
+            System.exit(2);
+        }
+        try (Reader reader = open(Path.of(args[0]))) {
+            System.out.println(reader.kind() + ": " + reader.rowCount() + " linhas");
+            for (ColumnInfo column : reader.columns()) {
+                System.out.println("  " + column.name() + " " + column.type()
+                        + (column.type() == ColumnType.DICTIONARY ? " distintos=" + column.cardinality() : " escala=" + column.scale())
+                        + " min=" + column.min() + " max=" + column.max()
+                        + " bytes=" + (column.dataLength() + column.dictLength()));
+            }
+        }
+    }
+}
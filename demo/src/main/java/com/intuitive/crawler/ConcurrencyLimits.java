@@ -0,0 +1,100 @@
+package com.intuitive.crawler;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limites globais de concorrência compartilhados por todos os trimestres de um
+ * backfill: downloads simultâneos, workers de CPU (parse/enriquecimento/
+ * agregação) e escritores no banco.
+ *
+ * Trade-off: semáforos por recurso vs. um pool de threads por recurso. - Cada
+ * pipeline mantém suas próprias threads e filas; o semáforo só decide quantas
+ * trabalham ao mesmo tempo. - Limitação: permissões são pegas só para o
+ * trabalho em si, nunca durante um emit bloqueante (evita deadlock entre
+ * pipelines que esperam fila cheia segurando CPU).
+ */
+public class ConcurrencyLimits {
+
+    public enum Resource {
+        DOWNLOAD, CPU, DB_WRITER
+    }
+
+    @FunctionalInterface
+    public interface Work {
+
+        void run() throws Exception;
+    }
+
+    private final Map<Resource, Semaphore> permits = new EnumMap<>(Resource.class);
+    private final Map<Resource, AtomicInteger> active = new EnumMap<>(Resource.class);
+    private final Map<Resource, AtomicInteger> peak = new EnumMap<>(Resource.class);
+
+    /**
+     * @param downloads downloads simultâneos (limitado pela banda/servidor da
+     * ANS)
+     * @param cpuWorkers workers de CPU simultâneos (normalmente o nº de
+     * núcleos)
+     * @param dbWriters transações de carga simultâneas no banco
+     */
+    public ConcurrencyLimits(int downloads, int cpuWorkers, int dbWriters) {
+        if (downloads < 1 || cpuWorkers < 1 || dbWriters < 1) {
+            throw new IllegalArgumentException("Limites de concorrência devem ser positivos.");
+        }
+        permits.put(Resource.DOWNLOAD, new Semaphore(downloads, true));
+        permits.put(Resource.CPU, new Semaphore(cpuWorkers, true));
+        permits.put(Resource.DB_WRITER, new Semaphore(dbWriters, true));
+        for (Resource resource : Resource.values()) {
+            active.put(resource, new AtomicInteger());
+            peak.put(resource, new AtomicInteger());
+        }
+    }
+
+    /**
+     * Padrão da máquina: 3 downloads, um worker de CPU por núcleo e 2
+     * escritores (mais que isso disputa locks/redo log no MySQL).
+     */
+    public static ConcurrencyLimits defaults() {
+        return new ConcurrencyLimits(3, Runtime.getRuntime().availableProcessors(), 2);
+    }
+
+    /**
+     * Sem limite global (execução de um único trimestre).
+     */
+    public static ConcurrencyLimits unlimited() {
+        return new ConcurrencyLimits(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Executa o trabalho segurando uma permissão do recurso.
+     */
+    public <T> T call(Resource resource, Callable<T> work) throws Exception {
+        Semaphore semaphore = permits.get(resource);
+        semaphore.acquire();
+        int running = active.get(resource).incrementAndGet();
+        peak.get(resource).accumulateAndGet(running, Math::max);
+        try {
+            return work.call();
+        } finally {
+            active.get(resource).decrementAndGet();
+            semaphore.release();
+        }
+    }
+
+    public void run(Resource resource, Work work) throws Exception {
+        call(resource, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Maior número de permissões em uso ao mesmo tempo (métrica/testes).
+     */
+    public int peak(Resource resource) {
+        return peak.get(resource).get();
+    }
+}
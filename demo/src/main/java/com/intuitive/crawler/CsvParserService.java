@@ -56,24 +56,15 @@ public class CsvParserService {
             if (headerLine == null) {
                 return filteredRows; // Arquivo vazio
             }
-            String[] headers = headerLine.split(";");
-
-            // Remove aspas dos headers para normalização
-            for (int i = 0; i < headers.length; i++) {
-                headers[i] = headers[i].trim().replaceAll("^\"|\"$", "");
-            }
+            String[] headers = parseHeader(headerLine);
 
             String line;
 
             while ((line = reader.readLine()) != null) {
-                String[] cells = line.split(";");
-                Map<String, String> rowMap = new java.util.HashMap<>();
+                Map<String, String> rowMap = parseRow(headers, line);
                 boolean containsKeyword = false;
 
-                for (int i = 0; i < headers.length && i < cells.length; i++) {
-                    String normalizedHeader = headers[i].trim().toUpperCase();
-                    String cellValue = cells[i].trim().replaceAll("^\"|\"$", ""); // Remove aspas
-                    rowMap.put(normalizedHeader, cellValue);
+                for (String cellValue : rowMap.values()) {
                     // Verifica se a célula contém alguma keyword
                     for (String keyword : keywords) {
                         // tratar keywords como regex (case-insensitive). Ex: ".*" casa tudo
@@ -91,6 +82,9 @@ public class CsvParserService {
                             }
                         }
                     }
+                    if (containsKeyword) {
+                        break;
+                    }
                 }
                 if (containsKeyword) {
                     filteredRows.add(rowMap);
@@ -99,4 +93,47 @@ public class CsvParserService {
             return filteredRows;
         }
     }
+
+    /**
+     * Normaliza a linha de header (sem aspas, maiúsculas).
+     *
+     * Usado também pelo pipeline em estágios, que parseia as linhas fora da
+     * thread de leitura.
+     *
+     * @param headerLine primeira linha do CSV
+     * @return headers normalizados na ordem das colunas
+     */
+    public static String[] parseHeader(String headerLine) {
+        String[] headers = headerLine.split(";");
+        for (int i = 0; i < headers.length; i++) {
+            headers[i] = headers[i].trim().replaceAll("^\"|\"$", "").trim().toUpperCase();
+        }
+        return headers;
+    }
+
+    /**
+     * Converte uma linha de dados em mapa header → célula (sem aspas).
+     *
+     * @param headers headers de {@link #parseHeader}
+     * @param line linha de dados
+     * @return mapa com as colunas presentes na linha
+     */
+    public static Map<String, String> parseRow(String[] headers, String line) {
+        String[] cells = line.split(";");
+        Map<String, String> rowMap = new java.util.HashMap<>();
+        for (int i = 0; i < headers.length && i < cells.length; i++) {
+            rowMap.put(headers[i], stripQuotes(cells[i].trim()));
+        }
+        return rowMap;
+    }
+
+    /**
+     * Remove aspas das pontas; mesmo efeito de replaceAll("^\"|\"$", "") sem
+     * compilar uma regex por célula.
+     */
+    private static String stripQuotes(String cell) {
+        int start = cell.startsWith("\"") ? 1 : 0;
+        int end = cell.length() > start && cell.endsWith("\"") ? cell.length() - 1 : cell.length();
+        return cell.substring(start, end);
+    }
 }
@@ -1,48 +1,269 @@
 package com.intuitive.crawler;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Escreve CSVs em UTF-8 (formato limpo para BD/API).
- * 
+ *
  * Trade-off: UTF-8 é padrão moderno, mas ocupa mais bytes para acentos.
  * Decisão: Priorizar compatibilidade com bancos modernos e APIs REST.
+ *
+ * Trade-off: streaming com buffer de bytes reutilizável vs. StringBuilder do
+ * arquivo inteiro. - Cada registro é codificado direto em UTF-8 num
+ * ByteBuffer fixo, que vai para o FileChannel quando enche: a memória não
+ * cresce com o número de linhas e não existe a cópia String -> byte[] do
+ * arquivo inteiro. - Limitação: o arquivo é escrito no lugar; uma falha no
+ * meio deixa um CSV truncado.
  */
 
 public class CsvWriterService {
 
+    public static final String HEADER = "CNPJ;RAZAO_SOCIAL;NOME_FANTASIA;CODIGO_CONTA;VALOR;DATA";
+
+    private static final int DEFAULT_BUFFER_BYTES = 64 * 1024;
+
+    /**
+     * Compressão do arquivo de saída.
+     *
+     * Trade-off: gzip durante a escrita vs. comprimir depois. - Não grava o
+     * CSV descomprimido em disco; custa CPU na thread que escreve (~2x o
+     * tempo da escrita simples).
+     */
+    public enum Compression {
+        NONE,
+        GZIP;
+
+        /** GZIP quando o arquivo termina em ".gz", NONE caso contrário. */
+        public static Compression forPath(Path path) {
+            return path.getFileName().toString().toLowerCase().endsWith(".gz") ? GZIP : NONE;
+        }
+    }
+
+    private final int bufferBytes;
+
+    public CsvWriterService() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * @param bufferBytes Tamanho do buffer de codificação (mínimo 16 bytes;
+     *                    um campo maior que o buffer é escrito em partes)
+     */
+    public CsvWriterService(int bufferBytes) {
+        if (bufferBytes < 16) {
+            throw new IllegalArgumentException("bufferBytes deve ser >= 16: " + bufferBytes);
+        }
+        this.bufferBytes = bufferBytes;
+    }
+
     /**
      * Salva registros enriquecidos em CSV UTF-8.
-     * 
+     *
      * @param records Lista de registros enriquecidos
-     * @param outputPath Path do arquivo de saída
+     * @param outputPath Path do arquivo de saída (".gz" ativa gzip)
+     * @return Número de linhas de dados escritas
      * @throws IOException Se erro ao escrever arquivo
      */
-    public void writeEnrichedRecords(
-        List<DataEnricherService.EnrichedRecord> records, 
+    public long writeEnrichedRecords(
+        List<DataEnricherService.EnrichedRecord> records,
         Path outputPath
     ) throws IOException {
-        
-        // TODO: 1. Criar StringBuilder com header
-        StringBuilder csv = new StringBuilder();
-        csv.append("CNPJ;RAZAO_SOCIAL;NOME_FANTASIA;CODIGO_CONTA;VALOR;DATA\n");
-        
-        // TODO: 2. Iterar records e adicionar linhas
-        for (DataEnricherService.EnrichedRecord record : records) {
-            csv.append(record.cnpj).append(";")
-               .append(record.razaoSocial).append(";")
-               .append(record.nomeFantasia).append(";")
-               .append(record.codigoConta).append(";")
-               .append(record.valor).append(";")
-               .append(record.data).append("\n");
-        }
-        
-        // TODO: 3. Escrever em UTF-8
-        Files.writeString(outputPath, csv.toString(), StandardCharsets.UTF_8);
+        return writeEnrichedRecords(records.iterator(), outputPath, Compression.forPath(outputPath));
+    }
+
+    /**
+     * Salva registros de um Stream sem materializá-los; o Stream é consumido
+     * (e não fechado) aqui.
+     */
+    public long writeEnrichedRecords(
+        Stream<DataEnricherService.EnrichedRecord> records,
+        Path outputPath,
+        Compression compression
+    ) throws IOException {
+        return writeEnrichedRecords(records.iterator(), outputPath, compression);
+    }
+
+    /**
+     * Salva registros de um Iterator, codificando linha a linha no buffer.
+     *
+     * Campos com ';', aspas ou quebra de linha saem entre aspas, com aspas
+     * internas duplicadas; null vira campo vazio.
+     *
+     * @param records Registros, consumidos uma única vez
+     * @param outputPath Path do arquivo de saída (criado ou truncado)
+     * @param compression NONE ou GZIP
+     * @return Número de linhas de dados escritas
+     * @throws IOException Se erro ao escrever arquivo
+     */
+    public long writeEnrichedRecords(
+        Iterator<DataEnricherService.EnrichedRecord> records,
+        Path outputPath,
+        Compression compression
+    ) throws IOException {
+        try (FileChannel file = FileChannel.open(outputPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (compression == Compression.GZIP) {
+                try (OutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(file), bufferBytes)) {
+                    return write(records, Channels.newChannel(gzip));
+                }
+            }
+            return write(records, file);
+        }
+    }
+
+    private long write(Iterator<DataEnricherService.EnrichedRecord> records, WritableByteChannel out) throws IOException {
+        Utf8LineEncoder encoder = new Utf8LineEncoder(ByteBuffer.allocate(bufferBytes), out);
+        writeHeader(encoder);
+
+        long rows = 0;
+        while (records.hasNext()) {
+            writeRecord(encoder, records.next());
+            rows++;
+        }
+        encoder.flush();
+        return rows;
+    }
+
+    static void writeHeader(Utf8LineEncoder encoder) throws IOException {
+        encoder.raw(HEADER);
+        encoder.newLine();
+    }
+
+    static void writeRecord(Utf8LineEncoder encoder, DataEnricherService.EnrichedRecord record) throws IOException {
+        encoder.field(record.cnpj);
+        encoder.separator();
+        encoder.field(record.razaoSocial);
+        encoder.separator();
+        encoder.field(record.nomeFantasia);
+        encoder.separator();
+        encoder.field(record.codigoConta);
+        encoder.separator();
+        encoder.field(record.valor);
+        encoder.separator();
+        encoder.field(record.data);
+        encoder.newLine();
     }
 
+    /**
+     * Codificador UTF-8 manual sobre um ByteBuffer: evita o String.getBytes
+     * por campo (um byte[] novo a cada chamada).
+     */
+    static final class Utf8LineEncoder {
+
+        private final ByteBuffer buffer;
+        private final WritableByteChannel out;
+
+        Utf8LineEncoder(ByteBuffer buffer, WritableByteChannel out) {
+            this.buffer = buffer;
+            this.out = out;
+        }
+
+        void separator() throws IOException {
+            put((byte) ';');
+        }
+
+        void newLine() throws IOException {
+            put((byte) '\n');
+        }
+
+        /** Escreve o campo, entre aspas se tiver ';', '"', '\n' ou '\r'. */
+        void field(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (!needsQuotes(value)) {
+                raw(value);
+                return;
+            }
+            put((byte) '"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    put((byte) '"');
+                }
+                i = encode(value, i);
+            }
+            put((byte) '"');
+        }
+
+        void raw(String value) throws IOException {
+            for (int i = 0; i < value.length(); i++) {
+                i = encode(value, i);
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        static boolean needsQuotes(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == ';' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Codifica o caractere em i (e o par surrogate, se houver).
+         *
+         * @return Índice do último char consumido
+         */
+        private int encode(String value, int i) throws IOException {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                put((byte) c);
+                return i;
+            }
+            if (buffer.remaining() < 4) {
+                flush();
+            }
+            if (c < 0x800) {
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+                return i;
+            }
+            if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+                buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                return i + 1;
+            }
+            if (Character.isSurrogate(c)) {
+                // surrogate solto: mesmo substituto ('?') do String.getBytes
+                buffer.put((byte) '?');
+                return i;
+            }
+            buffer.put((byte) (0xE0 | (c >> 12)));
+            buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+            return i;
+        }
+
+        private void put(byte b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.put(b);
+        }
+    }
 }
@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.hibernate.mapping.Index;
@@ -45,35 +46,7 @@ public class DataEnricherService {
         System.out.println("Operadora index size: " + operadoraIndex.size());
 
         List<EnrichedRecord> enrichedRecords = financialRecords.stream()
-                .map(finRecord -> {
-
-                    String cnpjBruto = finRecord.getOrDefault("CNPJ",
-                            finRecord.getOrDefault("REG_ANS",
-                                    finRecord.getOrDefault("REGISTRO_ANS", "")));
-
-                    String cnpj = normalizeCnpj(cnpjBruto);
-                    Operadora operadora = operadoraIndex.get(cnpj);
-
-                    if (operadora == null) {
-                        return null;
-                    }
-
-                    String codigoConta = finRecord.getOrDefault("CD_CONTA_CONTABIL",
-                            finRecord.getOrDefault("CODIGO_CONTA", ""));
-                    String valor = finRecord.getOrDefault("VL_SALDO_FINAL",
-                            finRecord.getOrDefault("VALOR", ""));
-                    String data = finRecord.getOrDefault("DATA", "");
-
-                    return new EnrichedRecord(
-                            operadora.cnpj,
-                            operadora.razaoSocial,
-                            operadora.nomeFantasia,
-                            codigoConta,
-                            valor,
-                            data
-                    );
-
-                })
+                .map(finRecord -> enrich(finRecord, operadoraIndex::get))
                 .filter(enrichedRecord -> enrichedRecord != null)
                 .toList();
 
@@ -84,6 +57,47 @@ public class DataEnricherService {
         return enrichedRecords;
     }
 
+    /**
+     * Enriquece um único registro financeiro (usado pelo pipeline em
+     * estágios, registro a registro).
+     *
+     * @param finRecord registro do CSV de demonstrações contábeis
+     * @param operadoraLookup busca a operadora pelo CNPJ normalizado
+     * @return registro enriquecido ou null se a operadora não existir (órfão)
+     */
+    public EnrichedRecord enrich(Map<String, String> finRecord, Function<String, Operadora> operadoraLookup) {
+        String cnpj = normalizeCnpj(extractCnpj(finRecord));
+        Operadora operadora = operadoraLookup.apply(cnpj);
+
+        if (operadora == null) {
+            return null;
+        }
+
+        String codigoConta = finRecord.getOrDefault("CD_CONTA_CONTABIL",
+                finRecord.getOrDefault("CODIGO_CONTA", ""));
+        String valor = finRecord.getOrDefault("VL_SALDO_FINAL",
+                finRecord.getOrDefault("VALOR", ""));
+        String data = finRecord.getOrDefault("DATA", "");
+
+        return new EnrichedRecord(
+                operadora.cnpj,
+                operadora.razaoSocial,
+                operadora.nomeFantasia,
+                codigoConta,
+                valor,
+                data
+        );
+    }
+
+    /**
+     * Identificador bruto da operadora (CNPJ ou registro ANS).
+     */
+    static String extractCnpj(Map<String, String> record) {
+        return record.getOrDefault("CNPJ",
+                record.getOrDefault("REG_ANS",
+                        record.getOrDefault("REGISTRO_ANS", "")));
+    }
+
     /*
      *Constroi indice de operadoras por CNPJ/Registro ANS.
      *
@@ -100,11 +114,7 @@ public class DataEnricherService {
                 || record.containsKey("NOME_FANTASIA")
                 || record.containsKey("RAZAO_SOCIAL"))
                 .map(record -> {
-                    String cnpjBruto = record.getOrDefault("CNPJ",
-                            record.getOrDefault("REG_ANS",
-                                    record.getOrDefault("REGISTRO_ANS", "")));
-
-                    String cnpj = normalizeCnpj(cnpjBruto);
+                    String cnpj = normalizeCnpj(extractCnpj(record));
                     String razaoSocial = record.getOrDefault("RAZAO_SOCIAL", "");
                     String nomeFantasia = record.getOrDefault("NOME_FANTASIA", "");
 
@@ -124,7 +134,7 @@ public class DataEnricherService {
       * @param cnpj CNPJ bruto.
       * @return CNPJ normalizado.
      */
-    private String normalizeCnpj(String cnpj) {
+    static String normalizeCnpj(String cnpj) {
         if (cnpj == null) {
             return "";
         }
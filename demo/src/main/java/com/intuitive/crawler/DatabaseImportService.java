@@ -4,8 +4,18 @@ import java.nio.file.Files;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.IntConsumer;
 
 /**
  * Serviço para importar dados dos CSVs para o banco de dados.
@@ -13,12 +23,33 @@ import java.util.List;
  * Trade-off: JDBC vs. ORM (Hibernate). - Batch: 50x mais para >10k registros,
  * sem overhead de EntityManger. - Limitação: SQL manual,sem cache de segundo
  * nivel
+ *
+ * Lotes: INSERTs multi-linha com tamanho adaptativo (ver
+ * {@link AdaptiveBatchSizer}) em vez de lotes fixos de INSERTs de uma linha.
  */
 public class DatabaseImportService {
 
+    // MySQL usa INSERT ... ON DUPLICATE KEY UPDATE em vez de MERGE
+    private static final MultiRowInsertTemplate OPERADORAS_TEMPLATE = new MultiRowInsertTemplate(
+            "operadoras",
+            new String[]{"cnpj", "razao_social", "nome_fantasia", "uf", "modalidade", "is_operadora_real"},
+            "ON DUPLICATE KEY UPDATE razao_social = VALUES(razao_social), nome_fantasia = VALUES(nome_fantasia), "
+            + "is_operadora_real = VALUES(is_operadora_real)");
+
+    // Staging não tem UNIQUE durante a carga: as operadoras chegam deduplicadas
+    private static final MultiRowInsertTemplate OPERADORAS_STAGING_TEMPLATE = new MultiRowInsertTemplate(
+            "operadoras" + StagingTableSwapper.STAGING_SUFFIX,
+            new String[]{"cnpj", "razao_social", "nome_fantasia", "uf", "modalidade", "is_operadora_real"},
+            null);
+
     private final String jdbcUrl;
     private final String username;
     private final String password;
+    private BulkLoader bulkLoader;
+    private AdaptiveBatchSizer.BatchBounds batchBounds = AdaptiveBatchSizer.BatchBounds.DEFAULT;
+
+    // Gancho de testes: chamado antes do commit de cada chunk da carga retomável (injeção de falhas)
+    IntConsumer chunkListener;
 
     public DatabaseImportService(String jdbcUrl, String username, String password) {
         this.jdbcUrl = jdbcUrl;
@@ -26,52 +57,300 @@ public class DatabaseImportService {
         this.password = password;
     }
 
+    /**
+     * Fixa a estratégia de carga de despesas (null = detecção automática).
+     *
+     * @param bulkLoader loader a ser usado em importAgregatedRecords
+     */
+    public void setBulkLoader(BulkLoader bulkLoader) {
+        this.bulkLoader = bulkLoader;
+    }
+
+    /**
+     * Define os limites do lote adaptativo dos INSERTs multi-linha.
+     *
+     * @param batchBounds lote mínimo/máximo/inicial e latência alvo por flush
+     */
+    public void setBatchBounds(AdaptiveBatchSizer.BatchBounds batchBounds) {
+        this.batchBounds = batchBounds;
+    }
+
     /**
      * Importa registros agregados para o banco.
      *
+     * Usa o loader em massa mais rápido disponível para a conexão (ver
+     * {@link BulkLoader#forConnection}), salvo se um loader foi fixado via
+     * {@link #setBulkLoader}.
+     *
      * @param records lista de AggregatedRecord
      * @throws SQLException em erros de conexão/insert
      */
     public void importAgregatedRecords(List<AggregatorService.AggregatedRecord> records) throws SQLException {
 
-        String sql = """
-            INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) 
-            VALUES (?, ?, ?)
-                """;
         Connection conn = null;
         try {
             conn = DriverManager.getConnection(jdbcUrl, username, password);
+            ensureDatasetVersionTable(conn);
             conn.setAutoCommit(false);
 
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                int batchSize = 5000;
+            BulkLoader loader = bulkLoader != null ? bulkLoader : BulkLoader.forConnection(conn, batchBounds);
+            System.out.println("Importando " + records.size() + " registros agregados via " + loader.name() + "...");
+
+            int count = loader.load(conn, "despesas_agregadas", records);
+            System.out.printf("✓ %d registros importados com sucesso%n", count);
+
+            bumpDatasetVersion(conn);
+            conn.commit();
+        } catch (SQLException e) {
+            if (conn != null) {
+                try {
+                    conn.rollback();
+                } catch (SQLException rollback) {
+                    e.addSuppressed(rollback);
+                }
+            }
+            throw e;
+        } finally {
+            if (conn != null) {
+                conn.close();
+            }
+        }
+    }
+
+    /**
+     * Importa um dataset completo (operadoras + despesas) sem expor dados
+     * parciais à API: carrega em tabelas sombra (*_staging), cria os índices
+     * depois da carga, valida e só então troca pelas tabelas vivas.
+     *
+     * Diferente de importOperadoras/importAgregatedRecords, o dataset anterior
+     * é substituído por inteiro (não há upsert incremental) - exceto as
+     * despesas de competências ausentes em records, que são copiadas para a
+     * staging junto com suas operadoras (ver {@link #importCompetencia}).
+     *
+     * @param operadoras operadoras do dataset (CNPJ repetido: vale a última)
+     * @param records despesas agregadas do dataset
+     * @throws SQLException em erros de carga/troca (tabelas vivas intactas)
+     * @throws IllegalStateException se a validação da staging falhar
+     */
+    public void importDatasetWithSwap(
+            List<DataEnricherService.Operadora> operadoras,
+            List<AggregatorService.AggregatedRecord> records
+    ) throws SQLException {
+        importDatasetWithSwap(null, operadoras, records, Math.max(1, records.size()));
+    }
+
+    /**
+     * Como {@link #importDatasetWithSwap(List, List)}, mas carrega as despesas
+     * na staging em chunks duráveis e, se uma execução anterior com o mesmo
+     * jobId falhou, retoma do primeiro chunk não commitado.
+     *
+     * Cada chunk e o checkpoint (import_checkpoint) são gravados na MESMA
+     * transação: uma retomada nunca duplica nem perde linhas. A versão do
+     * dataset sobe uma vez, na troca; a API não vê nenhum chunk antes dela.
+     *
+     * Trade-off: checkpoint na staging vs. nas tabelas vivas. - A API nunca
+     * enxerga uma carga pela metade, nem entre execuções. - Limitação: há uma
+     * staging só, então começar um job descarta o checkpoint dos outros. Os
+     * registros devem vir na mesma ordem em todas as execuções (o
+     * AggregatorService ordena por CNPJ + conta); se a impressão digital não
+     * bater, a carga recomeça do zero.
+     *
+     * @param jobId identificador estável da carga (ex.: "ingest-2024-T4"), ou
+     * null para carregar tudo em uma transação, sem checkpoint
+     * @param operadoras operadoras do dataset (CNPJ repetido: vale a última)
+     * @param records despesas agregadas do dataset
+     * @param chunkSize despesas por chunk/commit
+     * @return despesas carregadas nesta execução
+     * @throws SQLException em erros de carga/troca (tabelas vivas intactas;
+     * chunks já commitados ficam na staging)
+     * @throws IllegalStateException se a validação da staging falhar
+     */
+    public int importDatasetWithSwap(
+            String jobId,
+            List<DataEnricherService.Operadora> operadoras,
+            List<AggregatorService.AggregatedRecord> records,
+            int chunkSize
+    ) throws SQLException {
+
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("O tamanho do chunk deve ser maior que zero.");
+        }
+        // Mesma semântica do upsert: CNPJ vazio é ignorado e o último vence
+        Map<String, DataEnricherService.Operadora> unicas = new LinkedHashMap<>();
+        for (DataEnricherService.Operadora operadora : operadoras) {
+            if (operadora.cnpj != null && !operadora.cnpj.trim().isEmpty()) {
+                unicas.put(operadora.cnpj, operadora);
+            }
+        }
+        int totalChunks = (records.size() + chunkSize - 1) / chunkSize;
+
+        try (Connection conn = DriverManager.getConnection(jdbcUrl, username, password)) {
+            StagingTableSwapper swapper = new StagingTableSwapper(conn);
+            // Falha durante os chunks: a staging fica para a retomada
+            boolean keepStaging = false;
+            try {
+                ensureDatasetVersionTable(conn);
+                long fingerprint = 0;
+                int startChunk = -1;
+                if (jobId != null) {
+                    ensureCheckpointTable(conn);
+                    fingerprint = 31 * fingerprint(records) + fingerprintOperadoras(unicas.values());
+                    startChunk = resumeChunk(conn, swapper, jobId, records.size(), chunkSize, fingerprint);
+                }
+
+                if (startChunk < 0) {
+                    swapper.createStagingTables();
+                    conn.setAutoCommit(false);
+                    System.out.println("Carregando " + unicas.size() + " operadoras e " + records.size()
+                            + " despesas nas tabelas staging...");
+                    try (MultiRowInsertWriter<DataEnricherService.Operadora> writer = new MultiRowInsertWriter<>(
+                            conn, OPERADORAS_STAGING_TEMPLATE, batchBounds.newSizer(), DatabaseImportService::bindOperadora)) {
+                        for (DataEnricherService.Operadora operadora : unicas.values()) {
+                            writer.add(operadora);
+                        }
+                        writer.flush();
+                    }
+                    if (jobId != null) {
+                        insertCheckpoint(conn, jobId, records.size(), chunkSize, fingerprint);
+                        conn.commit();
+                    }
+                    startChunk = 0;
+                } else {
+                    conn.setAutoCommit(false);
+                    System.out.printf("Retomando %s a partir do chunk %d/%d%n", jobId, startChunk + 1, totalChunks);
+                }
+                keepStaging = jobId != null;
+
+                BulkLoader loader = bulkLoader != null ? bulkLoader : BulkLoader.forConnection(conn, batchBounds);
                 int count = 0;
-                int totalRecords = records.size();
+                try (PreparedStatement checkpoint = jobId == null ? null : conn.prepareStatement("""
+                        UPDATE import_checkpoint
+                        SET last_chunk = ?, rows_committed = ?, updated_at = CURRENT_TIMESTAMP
+                        WHERE job_id = ?
+                        """)) {
+                    for (int chunk = startChunk; chunk < totalChunks; chunk++) {
+                        int from = chunk * chunkSize;
+                        int to = Math.min(from + chunkSize, records.size());
+                        count += loader.load(conn, "despesas_agregadas" + StagingTableSwapper.STAGING_SUFFIX,
+                                records.subList(from, to));
+                        if (checkpoint != null) {
+                            checkpoint.setInt(1, chunk);
+                            checkpoint.setLong(2, to);
+                            checkpoint.setString(3, jobId);
+                            checkpoint.executeUpdate();
+                            if (chunkListener != null) {
+                                chunkListener.accept(chunk);
+                            }
+                            conn.commit();
+                            System.out.printf("  chunk %d/%d commitado (%d registros)%n", chunk + 1, totalChunks, to);
+                        }
+                    }
+                }
+                keepStaging = false;
 
-                System.out.println("Importando " + totalRecords + " registros agregados...");
+                int[] carried = swapper.carryOverOtherCompetencias(competencias(records));
+                conn.commit();
+                conn.setAutoCommit(true);
+                System.out.printf("✓ %d despesas carregadas via %s (%d de outras competências preservadas)%n",
+                        count, loader.name(), carried[1]);
 
-                for (AggregatorService.AggregatedRecord record : records) {
-                    pstmt.setString(1, record.cnpjOperadora);
-                    pstmt.setString(2, record.codigoConta);
-                    pstmt.setDouble(3, record.totalValor);
-                    pstmt.addBatch();
+                swapper.buildIndexes();
+                swapper.validate(unicas.size() + carried[0], records.size() + carried[1]);
+                swapper.addForeignKey();
+                System.out.println("✓ Staging validada, trocando tabelas...");
 
-                    if (++count % batchSize == 0) {
-                        pstmt.executeBatch();
-                        pstmt.clearBatch();
-                        System.out.printf("  [%d/%d] %.1f%% concluído%n", count, totalRecords, (count * 100.0 / totalRecords));
+                swapper.swap();
+                bumpDatasetVersion(conn);
+                if (jobId != null) {
+                    deleteCheckpoints(conn);
+                }
+                System.out.println("✓ Dataset publicado (troca atômica concluída)");
+                return count;
+            } catch (SQLException | RuntimeException e) {
+                try {
+                    if (!conn.getAutoCommit()) {
+                        conn.rollback();
+                        conn.setAutoCommit(true);
                     }
+                    if (!keepStaging) {
+                        swapper.dropStagingTables();
+                        if (jobId != null) {
+                            deleteCheckpoints(conn);
+                        }
+                    }
+                } catch (SQLException cleanup) {
+                    e.addSuppressed(cleanup);
                 }
+                throw e;
+            }
+        }
+    }
 
-                // Executa o restante
-                if (count % batchSize != 0) {
-                    pstmt.executeBatch();
+    /**
+     * Importa um trimestre como unidade independente: upsert das operadoras,
+     * remoção das despesas antigas da competência e carga das novas, tudo na
+     * mesma transação. Outras competências não são tocadas, então trimestres
+     * diferentes podem ser importados em paralelo (modo backfill).
+     *
+     * Despesas sem competência ('', anteriores à coluna) também são removidas,
+     * como em {@link StagingTableSwapper#carryOverOtherCompetencias}: senão o
+     * trimestre reimportado seria somado duas vezes.
+     *
+     * @param competencia competência do trimestre (ex: "2024-T4")
+     * @param operadoras operadoras referenciadas pelas despesas
+     * @param records despesas agregadas, todas da mesma competência
+     * @return despesas carregadas
+     * @throws SQLException em erros de carga (a competência fica como estava)
+     * @throws IllegalArgumentException se algum registro for de outra
+     * competência
+     */
+    public int importCompetencia(
+            String competencia,
+            List<DataEnricherService.Operadora> operadoras,
+            List<AggregatorService.AggregatedRecord> records
+    ) throws SQLException {
+
+        for (AggregatorService.AggregatedRecord record : records) {
+            if (!competencia.equals(record.competencia)) {
+                throw new IllegalArgumentException("Registro de " + record.competencia
+                        + " na importação de " + competencia);
+            }
+        }
+        // Ordem fixa de CNPJ: upserts concorrentes travam as linhas na mesma ordem (sem deadlock)
+        List<DataEnricherService.Operadora> ordenadas = operadoras.stream()
+                .filter(op -> op.cnpj != null && !op.cnpj.trim().isEmpty())
+                .sorted(Comparator.comparing((DataEnricherService.Operadora op) -> op.cnpj))
+                .toList();
+
+        Connection conn = null;
+        try {
+            conn = DriverManager.getConnection(jdbcUrl, username, password);
+            ensureDatasetVersionTable(conn);
+            conn.setAutoCommit(false);
+
+            try (MultiRowInsertWriter<DataEnricherService.Operadora> writer = new MultiRowInsertWriter<>(
+                    conn, OPERADORAS_TEMPLATE, batchBounds.newSizer(), DatabaseImportService::bindOperadora)) {
+                for (DataEnricherService.Operadora operadora : ordenadas) {
+                    writer.add(operadora);
                 }
+                writer.flush();
+            }
 
-                System.out.printf("✓ %d registros importados com sucesso%n", count);
+            int removed;
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM despesas_agregadas WHERE competencia = ? OR competencia = ''")) {
+                delete.setString(1, competencia);
+                removed = delete.executeUpdate();
             }
 
+            BulkLoader loader = bulkLoader != null ? bulkLoader : BulkLoader.forConnection(conn, batchBounds);
+            int count = loader.load(conn, "despesas_agregadas", records);
+            bumpDatasetVersion(conn);
             conn.commit();
+
+            System.out.printf("✓ %s: %d despesas importadas via %s (%d substituídas)%n",
+                    competencia, count, loader.name(), removed);
+            return count;
         } catch (SQLException e) {
             if (conn != null) {
                 try {
@@ -120,49 +399,32 @@ public class DatabaseImportService {
      * @throws SQLException
      */
     public void importOperadoras(List<DataEnricherService.Operadora> operadoras) throws SQLException {
-        // MySQL usa INSERT ... ON DUPLICATE KEY UPDATE em vez de MERGE
-        String sql = """
-            INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade)
-            VALUES (?, ?, ?, '', '')
-            ON DUPLICATE KEY UPDATE
-                razao_social = VALUES(razao_social),
-                nome_fantasia = VALUES(nome_fantasia)
-            """;
         Connection conn = null;
         try {
             conn = DriverManager.getConnection(jdbcUrl, username, password);
+            ensureDatasetVersionTable(conn);
             conn.setAutoCommit(false);
 
-            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
-                int batchSize = 1000;
-                int count = 0;
-                int totalOperadoras = operadoras.size();
+            AdaptiveBatchSizer sizer = batchBounds.newSizer();
+            try (MultiRowInsertWriter<DataEnricherService.Operadora> writer
+                    = new MultiRowInsertWriter<>(conn, OPERADORAS_TEMPLATE, sizer, DatabaseImportService::bindOperadora)) {
 
                 for (DataEnricherService.Operadora operadora : operadoras) {
                     // Pular registros com CNPJ vazio
                     if (operadora.cnpj == null || operadora.cnpj.trim().isEmpty()) {
                         continue;
                     }
-
-                    pstmt.setString(1, operadora.cnpj);
-                    pstmt.setString(2, operadora.razaoSocial != null ? operadora.razaoSocial : "");
-                    pstmt.setString(3, operadora.nomeFantasia != null ? operadora.nomeFantasia : "");
-                    pstmt.addBatch();
-
-                    if (++count % batchSize == 0) {
-                        pstmt.executeBatch();
-                        pstmt.clearBatch();
+                    if (writer.add(operadora)) {
                         System.out.print(".");
                     }
                 }
 
                 // Executa o restante
-                if (count % batchSize != 0) {
-                    pstmt.executeBatch();
-                }
-                System.out.println(" ✓ " + count + " operadoras processadas");
+                writer.flush();
+                System.out.println(" ✓ " + writer.written() + " operadoras processadas");
             }
 
+            bumpDatasetVersion(conn);
             conn.commit();
         } catch (SQLException e) {
             if (conn != null) {
@@ -179,4 +441,148 @@ public class DatabaseImportService {
             }
         }
     }
+
+    private static Set<String> competencias(List<AggregatorService.AggregatedRecord> records) {
+        Set<String> competencias = new TreeSet<>();
+        for (AggregatorService.AggregatedRecord record : records) {
+            competencias.add(record.competencia != null ? record.competencia : "");
+        }
+        return competencias;
+    }
+
+    private static int bindOperadora(PreparedStatement ps, int index, DataEnricherService.Operadora operadora) throws SQLException {
+        ps.setString(index++, operadora.cnpj);
+        String razaoSocial = operadora.razaoSocial != null ? operadora.razaoSocial : "";
+        ps.setString(index++, razaoSocial);
+        ps.setString(index++, operadora.nomeFantasia != null ? operadora.nomeFantasia : "");
+        ps.setString(index++, "");
+        ps.setString(index++, "");
+        // Classificação feita aqui, uma vez: a API só filtra pela coluna indexada
+        ps.setBoolean(index++, OperadoraClassifier.isOperadoraReal(razaoSocial));
+        return index;
+    }
+
+    /**
+     * Cria a tabela de checkpoints se ainda não existir (mesma DDL do
+     * schema.sql).
+     */
+    private void ensureCheckpointTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS import_checkpoint (
+                    job_id VARCHAR(100) PRIMARY KEY,
+                    last_chunk INT NOT NULL,
+                    rows_committed BIGINT NOT NULL,
+                    total_rows BIGINT NOT NULL,
+                    chunk_size INT NOT NULL,
+                    fingerprint BIGINT NOT NULL,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+        }
+    }
+
+    /**
+     * Cria a tabela de versão do dataset (mesma DDL do schema.sql) com a
+     * linha única id = 1. Fora da transação da carga: DDL faz commit
+     * implícito no MySQL.
+     */
+    private void ensureDatasetVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS dataset_version (
+                    id INT PRIMARY KEY,
+                    version BIGINT NOT NULL,
+                    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+            stmt.executeUpdate("INSERT INTO dataset_version (id, version) VALUES (1, 0) ON DUPLICATE KEY UPDATE id = id");
+        }
+    }
+
+    /**
+     * Incrementa a versão do dataset na transação da carga: a API só enxerga
+     * a versão nova junto com os dados novos e usa a mudança para
+     * reconstruir o que mantém em memória (índice de busca).
+     */
+    private static void bumpDatasetVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE dataset_version SET version = version + 1, updated_at = CURRENT_TIMESTAMP WHERE id = 1");
+        }
+    }
+
+    /**
+     * Confere o checkpoint do job contra os registros e a staging.
+     *
+     * @return primeiro chunk a carregar, ou -1 para recomeçar do zero
+     * (sem checkpoint, registros diferentes ou staging descartada)
+     */
+    private int resumeChunk(Connection conn, StagingTableSwapper swapper, String jobId, int totalRows, int chunkSize,
+            long fingerprint) throws SQLException {
+        try (PreparedStatement select = conn.prepareStatement(
+                "SELECT last_chunk, total_rows, chunk_size, fingerprint FROM import_checkpoint WHERE job_id = ?")) {
+            select.setString(1, jobId);
+            try (ResultSet rs = select.executeQuery()) {
+                if (!rs.next()) {
+                    return -1;
+                }
+                if (rs.getLong("total_rows") == totalRows && rs.getInt("chunk_size") == chunkSize
+                        && rs.getLong("fingerprint") == fingerprint && swapper.stagingTablesExist()) {
+                    return rs.getInt("last_chunk") + 1;
+                }
+            }
+        }
+        System.out.println("⚠ Checkpoint de " + jobId + " não corresponde aos registros atuais: recomeçando a carga");
+        return -1;
+    }
+
+    /**
+     * Grava o checkpoint de um job novo; os de outros jobs apontavam para a
+     * staging que acabou de ser recriada.
+     */
+    private void insertCheckpoint(Connection conn, String jobId, int totalRows, int chunkSize, long fingerprint)
+            throws SQLException {
+        deleteCheckpoints(conn);
+        try (PreparedStatement insert = conn.prepareStatement("""
+                INSERT INTO import_checkpoint (job_id, last_chunk, rows_committed, total_rows, chunk_size, fingerprint)
+                VALUES (?, -1, 0, ?, ?, ?)
+                """)) {
+            insert.setString(1, jobId);
+            insert.setLong(2, totalRows);
+            insert.setInt(3, chunkSize);
+            insert.setLong(4, fingerprint);
+            insert.executeUpdate();
+        }
+    }
+
+    private void deleteCheckpoints(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("DELETE FROM import_checkpoint");
+        }
+    }
+
+    /**
+     * Impressão digital da ordem e do conteúdo dos registros (detecta retomada
+     * com dados diferentes dos da execução original).
+     */
+    static long fingerprint(List<AggregatorService.AggregatedRecord> records) {
+        long hash = 1125899906842597L;
+        for (AggregatorService.AggregatedRecord record : records) {
+            hash = 31 * hash + Objects.hashCode(record.cnpjOperadora);
+            hash = 31 * hash + Objects.hashCode(record.codigoConta);
+            hash = 31 * hash + Double.hashCode(record.totalValor);
+            hash = 31 * hash + Objects.hashCode(record.competencia);
+        }
+        return hash;
+    }
+
+    private static long fingerprintOperadoras(Collection<DataEnricherService.Operadora> operadoras) {
+        long hash = 1125899906842597L;
+        for (DataEnricherService.Operadora operadora : operadoras) {
+            hash = 31 * hash + Objects.hashCode(operadora.cnpj);
+            hash = 31 * hash + Objects.hashCode(operadora.razaoSocial);
+            hash = 31 * hash + Objects.hashCode(operadora.nomeFantasia);
+        }
+        return hash;
+    }
 }
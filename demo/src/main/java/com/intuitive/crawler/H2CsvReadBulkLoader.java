@@ -0,0 +1,78 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Carga via CSVREAD do H2 (INSERT ... SELECT sobre um CSV temporário).
+ *
+ * Trade-off: CSVREAD só lê arquivos, então o CSV é gravado em disco antes da
+ * carga. - Ainda assim é um único statement, sem round-trip por linha.
+ */
+public class H2CsvReadBulkLoader implements BulkLoader {
+
+    private static final String HEADER = "CNPJ_OPERADORA;CODIGO_CONTA;VALOR_TOTAL;COMPETENCIA";
+
+    @Override
+    public String name() {
+        return "H2 CSVREAD";
+    }
+
+    @Override
+    public int load(Connection conn, String table, List<AggregatorService.AggregatedRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        Path tempCsv = null;
+        try {
+            tempCsv = Files.createTempFile("despesas_bulk", ".csv");
+            try (InputStream csv = new AggregatedCsvInputStream(records, HEADER)) {
+                Files.copy(csv, tempCsv, StandardCopyOption.REPLACE_EXISTING);
+            }
+            long bytes = Files.size(tempCsv);
+
+            // CSVREAD é resolvido na preparação do statement: o caminho não pode ser parâmetro
+            String fileLiteral = tempCsv.toAbsolutePath().toString().replace("'", "''");
+            // COALESCE: o CSVREAD lê campo vazio como NULL
+            String sql = "INSERT INTO " + table + " (cnpj_operadora, codigo_conta, valor_total, competencia) "
+                    + "SELECT CNPJ_OPERADORA, CODIGO_CONTA, CAST(VALOR_TOTAL AS DECIMAL(15, 2)), COALESCE(COMPETENCIA, '') "
+                    + "FROM CSVREAD('" + fileLiteral + "', NULL, 'charset=UTF-8 fieldSeparator=;')";
+
+            IngestEvents.BatchFlush event = new IngestEvents.BatchFlush();
+            event.begin();
+            int inserted = -1;
+            try (Statement stmt = conn.createStatement()) {
+                inserted = stmt.executeUpdate(sql);
+                return inserted;
+            } finally {
+                event.end();
+                if (event.shouldCommit()) {
+                    event.table = table;
+                    event.statement = "csvread:" + table;
+                    event.rows = records.size();
+                    event.bytes = bytes;
+                    event.failed = inserted < 0;
+                    event.commit();
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Falha ao gerar CSV temporário para o CSVREAD", e);
+        } finally {
+            if (tempCsv != null) {
+                try {
+                    Files.deleteIfExists(tempCsv);
+                } catch (IOException ignored) {
+                    // arquivo temporário: o SO limpa depois
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.intuitive.crawler;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Eventos do Java Flight Recorder da ingestão: início/fim de cada worker do
+ * pipeline e cada flush de lote no banco.
+ *
+ * Trade-off: eventos JFR vs. logs de tempo. - Sem gravação ativa,
+ * begin()/commit() não fazem nada e o JIT elimina a alocação do evento, então
+ * ficam ligados em produção. - Os campos só são preenchidos depois de
+ * shouldCommit(), para não pagar nem a montagem das strings. - Limitação: a
+ * duração mínima (threshold) e a habilitação vêm do .jfc da gravação, ex:
+ * com.intuitive.ingest.BatchFlush#threshold=10 ms.
+ */
+final class IngestEvents {
+
+    private IngestEvents() {
+    }
+
+    @Name("com.intuitive.ingest.PipelineStage")
+    @Label("Pipeline Stage")
+    @Category({"Intuitive", "Ingest"})
+    @Description("Vida de um worker de estágio do pipeline, do primeiro take ao fim do estágio")
+    @StackTrace(false)
+    static final class PipelineStage extends Event {
+
+        @Label("Stage")
+        String stage;
+
+        @Label("Worker")
+        int worker;
+
+        @Label("Items")
+        long items;
+
+        @Label("Blocked")
+        @Description("Tempo esperando fila cheia no estágio seguinte")
+        @Timespan(Timespan.NANOSECONDS)
+        long blockedNanos;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("com.intuitive.ingest.BatchFlush")
+    @Label("Batch Flush")
+    @Category({"Intuitive", "Ingest"})
+    @Description("Um statement de carga enviado ao banco (INSERT multi-linha, CSVREAD ou LOAD DATA)")
+    static final class BatchFlush extends Event {
+
+        @Label("Table")
+        String table;
+
+        @Label("Statement")
+        @Description("Identificador do SQL, ex: insert:operadoras[500]")
+        String statement;
+
+        @Label("Rows")
+        long rows;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Failed")
+        boolean failed;
+    }
+}
@@ -0,0 +1,283 @@
+package com.intuitive.crawler;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ingestão de um trimestre como pipeline em estágios (ver
+ * {@link StagedPipeline}): leitura → parse → enriquecimento → agregação →
+ * importação.
+ *
+ * Trade-off: pedaços de N linhas vs. uma linha por item de fila. - Um item
+ * por linha gastaria mais em sincronização da fila do que no parse. - O
+ * header vai junto de cada pedaço, então o parse roda em qualquer thread.
+ *
+ * As operadoras vêm do próprio arquivo financeiro (REG_ANS + DESCRICAO), como
+ * no fluxo sequencial: em caso de duplicata vale a primeira linha do arquivo,
+ * independente da ordem em que as threads processam os pedaços.
+ */
+public class IngestPipeline {
+
+    /**
+     * Paralelismo e tamanho das filas de cada estágio.
+     *
+     * Memória: além da tabela de agregação e do índice de operadoras, só
+     * ficam vivos os pedaços em trânsito, no máximo (3 filas × queueCapacity +
+     * threads) × linesPerChunk linhas, independente do tamanho do arquivo.
+     *
+     * @param parseThreads threads de parse
+     * @param enrichThreads threads de enriquecimento
+     * @param aggregateThreads threads de agregação
+     * @param queueCapacity pedaços em espera por fila (limita a memória)
+     * @param linesPerChunk linhas por pedaço
+     */
+    public record Settings(int parseThreads, int enrichThreads, int aggregateThreads,
+            int queueCapacity, int linesPerChunk) {
+
+        public static Settings defaults() {
+            int cpus = Runtime.getRuntime().availableProcessors();
+            return new Settings(Math.max(1, cpus / 2), Math.max(1, cpus / 4), 2, 16, 2_000);
+        }
+    }
+
+    /**
+     * Resultado da ingestão.
+     *
+     * @param operadoras operadoras únicas importadas
+     * @param registros registros financeiros lidos
+     * @param agregados registros agregados importados
+     * @param pipeline métricas de cada estágio
+     */
+    public record Summary(int operadoras, long registros, int agregados, StagedPipeline.Result pipeline) {
+
+    }
+
+    private record Chunk(String[] headers, long firstLine, List<String> lines) {
+
+    }
+
+    private record ParsedChunk(long firstLine, List<Map<String, String>> rows) {
+
+    }
+
+    // Operadora com a linha em que apareceu pela primeira vez
+    private record FirstSeen(long line, DataEnricherService.Operadora operadora) {
+
+    }
+
+    // Destino do dataset agregado (troca completa ou competência isolada)
+    @FunctionalInterface
+    private interface Publisher {
+
+        void publish(List<DataEnricherService.Operadora> operadoras,
+                List<AggregatorService.AggregatedRecord> records) throws Exception;
+    }
+
+    private final DataEnricherService enricher;
+    private final DatabaseImportService importer;
+    private final Settings settings;
+    private final ConcurrencyLimits limits;
+
+    public IngestPipeline(DataEnricherService enricher, DatabaseImportService importer, Settings settings) {
+        this(enricher, importer, settings, ConcurrencyLimits.unlimited());
+    }
+
+    /**
+     * @param limits limites globais compartilhados com outros pipelines
+     * (backfill de vários trimestres)
+     */
+    public IngestPipeline(DataEnricherService enricher, DatabaseImportService importer, Settings settings,
+            ConcurrencyLimits limits) {
+        this.enricher = enricher;
+        this.importer = importer;
+        this.settings = settings;
+        this.limits = limits;
+    }
+
+    /**
+     * Processa o CSV financeiro de um trimestre e publica operadoras e
+     * despesas via {@link DatabaseImportService#importDatasetWithSwap}.
+     *
+     * A competência vem do nome do arquivo (ex: 4T2024.csv); as despesas de
+     * outras competências já carregadas são preservadas pela troca.
+     *
+     * @param financialCsv CSV de demonstrações contábeis (ISO-8859-1)
+     * @return contagens e métricas dos estágios
+     * @throws Exception primeira falha de qualquer estágio
+     */
+    public Summary run(Path financialCsv) throws Exception {
+        return execute(financialCsv, competencia(financialCsv), importer::importDatasetWithSwap);
+    }
+
+    /**
+     * Como {@link #run}, mas a carga na staging é retomável (ver
+     * {@link DatabaseImportService#importDatasetWithSwap(String, List, List, int)}):
+     * se a execução anterior do mesmo arquivo caiu no meio da carga, o parse
+     * roda de novo e só os chunks que faltavam são gravados.
+     *
+     * @param financialCsv CSV de demonstrações contábeis (ISO-8859-1)
+     * @param chunkSize despesas por commit na staging
+     * @return contagens e métricas dos estágios
+     * @throws Exception primeira falha de qualquer estágio
+     */
+    public Summary runResumable(Path financialCsv, int chunkSize) throws Exception {
+        String competencia = competencia(financialCsv);
+        String jobId = "ingest-" + (competencia.isEmpty() ? financialCsv.getFileName().toString() : competencia);
+        return execute(financialCsv, competencia,
+                (operadoras, records) -> importer.importDatasetWithSwap(jobId, operadoras, records, chunkSize));
+    }
+
+    /**
+     * Processa um trimestre e o importa como unidade independente (ver
+     * {@link DatabaseImportService#importCompetencia}).
+     *
+     * @param financialCsv CSV de demonstrações contábeis (ISO-8859-1)
+     * @param trimestre competência gravada nas despesas
+     * @return contagens e métricas dos estágios
+     * @throws Exception primeira falha de qualquer estágio
+     */
+    public Summary runQuarter(Path financialCsv, Trimestre trimestre) throws Exception {
+        return execute(financialCsv, trimestre.competencia(),
+                (operadoras, records) -> importer.importCompetencia(trimestre.competencia(), operadoras, records));
+    }
+
+    private Summary execute(Path financialCsv, String competencia, Publisher publisher) throws Exception {
+        ConcurrentHashMap<String, FirstSeen> operadoras = new ConcurrentHashMap<>();
+        AggregatorService.Accumulator accumulator = new AggregatorService.Accumulator();
+        LongAdder registros = new LongAdder();
+        List<AggregatorService.AggregatedRecord> aggregated = new ArrayList<>();
+        List<DataEnricherService.Operadora> imported = new ArrayList<>();
+
+        StagedPipeline.Result result = StagedPipeline
+                .<Chunk>from("leitura", out -> readChunks(financialCsv, out))
+                .then("parse", settings.parseThreads(), settings.queueCapacity(),
+                        (Chunk chunk, StagedPipeline.Emitter<ParsedChunk> out) -> {
+                            // Permissão só durante o trabalho: nunca segurada em um emit bloqueante
+                            List<Map<String, String>> rows = limits.call(ConcurrencyLimits.Resource.CPU, () -> {
+                                List<Map<String, String>> parsed = new ArrayList<>(chunk.lines().size());
+                                for (String line : chunk.lines()) {
+                                    parsed.add(CsvParserService.parseRow(chunk.headers(), line));
+                                }
+                                return parsed;
+                            });
+                            registros.add(rows.size());
+                            StagedPipeline.metrics().rowsIn(chunk.lines().size());
+                            StagedPipeline.metrics().rowsOut(rows.size());
+                            out.emit(new ParsedChunk(chunk.firstLine(), rows));
+                        })
+                .then("enrich", settings.enrichThreads(), settings.queueCapacity(),
+                        (ParsedChunk chunk, StagedPipeline.Emitter<List<DataEnricherService.EnrichedRecord>> out) -> {
+                            List<DataEnricherService.EnrichedRecord> enriched =
+                                    limits.call(ConcurrencyLimits.Resource.CPU, () -> enrichChunk(chunk, operadoras));
+                            StagedPipeline.metrics().rowsIn(chunk.rows().size());
+                            StagedPipeline.metrics().rowsOut(enriched.size());
+                            out.emit(enriched);
+                        })
+                .then("agregacao", settings.aggregateThreads(), settings.queueCapacity(),
+                        new StagedPipeline.Stage<List<DataEnricherService.EnrichedRecord>, List<AggregatorService.AggregatedRecord>>() {
+                    @Override
+                    public void process(List<DataEnricherService.EnrichedRecord> records,
+                            StagedPipeline.Emitter<List<AggregatorService.AggregatedRecord>> out) throws Exception {
+                        limits.run(ConcurrencyLimits.Resource.CPU, () -> records.forEach(accumulator::add));
+                        StagedPipeline.metrics().rowsIn(records.size());
+                    }
+
+                    @Override
+                    public void finish(StagedPipeline.Emitter<List<AggregatorService.AggregatedRecord>> out) throws Exception {
+                        List<AggregatorService.AggregatedRecord> records = limits.call(ConcurrencyLimits.Resource.CPU,
+                                () -> accumulator.toRecords(cnpj -> operadoras.get(cnpj).operadora().razaoSocial, competencia));
+                        StagedPipeline.metrics().rowsOut(records.size());
+                        out.emit(records);
+                    }
+                })
+                .then("import", 1, 1,
+                        new StagedPipeline.Stage<List<AggregatorService.AggregatedRecord>, Void>() {
+                    @Override
+                    public void process(List<AggregatorService.AggregatedRecord> records, StagedPipeline.Emitter<Void> out) {
+                        aggregated.addAll(records);
+                        StagedPipeline.metrics().rowsIn(records.size());
+                    }
+
+                    @Override
+                    public void finish(StagedPipeline.Emitter<Void> out) throws Exception {
+                        operadoras.values().stream()
+                                .sorted(Comparator.comparingLong(FirstSeen::line))
+                                .forEach(first -> imported.add(first.operadora()));
+                        limits.run(ConcurrencyLimits.Resource.DB_WRITER, () -> publisher.publish(imported, aggregated));
+                        StagedPipeline.metrics().rowsOut(aggregated.size() + imported.size());
+                    }
+                })
+                .run();
+
+        return new Summary(imported.size(), registros.sum(), aggregated.size(), result);
+    }
+
+    private static String competencia(Path financialCsv) {
+        return Trimestre.fromFileName(financialCsv.getFileName().toString())
+                .map(Trimestre::competencia)
+                .orElse("");
+    }
+
+    /**
+     * Lê o arquivo em pedaços de linhas (única thread de I/O).
+     */
+    private void readChunks(Path csv, StagedPipeline.Emitter<Chunk> out) throws Exception {
+        try (BufferedReader reader = Files.newBufferedReader(csv, StandardCharsets.ISO_8859_1)) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return; // Arquivo vazio
+            }
+            String[] headers = CsvParserService.parseHeader(headerLine);
+
+            long lineNumber = 0;
+            List<String> lines = new ArrayList<>(settings.linesPerChunk());
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == settings.linesPerChunk()) {
+                    out.emit(new Chunk(headers, lineNumber, lines));
+                    lineNumber += lines.size();
+                    lines = new ArrayList<>(settings.linesPerChunk());
+                }
+            }
+            if (!lines.isEmpty()) {
+                out.emit(new Chunk(headers, lineNumber, lines));
+                lineNumber += lines.size();
+            }
+            StagedPipeline.metrics().rowsOut(lineNumber);
+        }
+        StagedPipeline.metrics().bytesRead(Files.size(csv));
+    }
+
+    /**
+     * Registra as operadoras do pedaço e enriquece cada linha.
+     */
+    private List<DataEnricherService.EnrichedRecord> enrichChunk(ParsedChunk chunk, ConcurrentHashMap<String, FirstSeen> operadoras) {
+        List<DataEnricherService.EnrichedRecord> enriched = new ArrayList<>(chunk.rows().size());
+        long line = chunk.firstLine();
+
+        for (Map<String, String> row : chunk.rows()) {
+            String cnpj = DataEnricherService.normalizeCnpj(row.getOrDefault("REG_ANS", "").trim());
+            if (!cnpj.isEmpty()) {
+                String descricao = row.getOrDefault("DESCRICAO", "").trim();
+                FirstSeen candidate = new FirstSeen(line, new DataEnricherService.Operadora(cnpj, descricao, descricao));
+                operadoras.merge(cnpj, candidate, (current, other) -> current.line() <= other.line() ? current : other);
+
+                DataEnricherService.EnrichedRecord record = enricher.enrich(row, key -> candidate.operadora());
+                if (record != null) {
+                    enriched.add(record);
+                }
+            }
+            line++;
+        }
+        return enriched;
+    }
+}
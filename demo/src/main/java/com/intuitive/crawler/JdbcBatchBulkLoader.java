@@ -0,0 +1,64 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Carga via INSERTs multi-linha (fallback para qualquer banco JDBC).
+ *
+ * O tamanho de cada lote é ajustado pelo {@link AdaptiveBatchSizer} a partir
+ * da latência medida em cada flush.
+ */
+public class JdbcBatchBulkLoader implements BulkLoader {
+
+    private static final String[] COLUMNS = {"cnpj_operadora", "codigo_conta", "valor_total", "competencia"};
+
+    private final AdaptiveBatchSizer.BatchBounds bounds;
+
+    public JdbcBatchBulkLoader() {
+        this(AdaptiveBatchSizer.BatchBounds.DEFAULT);
+    }
+
+    public JdbcBatchBulkLoader(AdaptiveBatchSizer.BatchBounds bounds) {
+        this.bounds = bounds;
+    }
+
+    @Override
+    public String name() {
+        return "JDBC multi-row";
+    }
+
+    @Override
+    public int load(Connection conn, String table, List<AggregatorService.AggregatedRecord> records) throws SQLException {
+        MultiRowInsertTemplate template = new MultiRowInsertTemplate(table, COLUMNS, null);
+        AdaptiveBatchSizer sizer = bounds.newSizer();
+        int totalRecords = records.size();
+
+        try (MultiRowInsertWriter<AggregatorService.AggregatedRecord> writer
+                = new MultiRowInsertWriter<>(conn, template, sizer, JdbcBatchBulkLoader::bind)) {
+
+            for (AggregatorService.AggregatedRecord record : records) {
+                if (writer.add(record)) {
+                    int count = writer.written();
+                    System.out.printf("  [%d/%d] %.1f%% concluído (lote=%d, %.0f linhas/s)%n",
+                            count, totalRecords, (count * 100.0 / totalRecords),
+                            sizer.currentBatchSize(), sizer.lastRowsPerSecond());
+                }
+            }
+
+            // Executa o restante
+            writer.flush();
+            return writer.written();
+        }
+    }
+
+    private static int bind(PreparedStatement ps, int index, AggregatorService.AggregatedRecord record) throws SQLException {
+        ps.setString(index++, record.cnpjOperadora);
+        ps.setString(index++, record.codigoConta);
+        ps.setDouble(index++, record.totalValor);
+        ps.setString(index++, record.competencia != null ? record.competencia : "");
+        return index;
+    }
+}
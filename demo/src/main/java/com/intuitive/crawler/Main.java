@@ -8,22 +8,35 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 public class Main {
 
     // Configuração do banco MySQL (mesma do application.properties)
-    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/registrosans?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true";
+    // allowLoadLocalInfile habilita o fast path LOAD DATA do MySqlLoadDataBulkLoader
+    private static final String JDBC_URL = "jdbc:mysql://localhost:3306/registrosans?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&allowLoadLocalInfile=true";
     private static final String DB_USER = "root";
     private static final String DB_PASSWORD = "Amateresu123.";
     private static final String DOWNLOAD_DIR = "downloads_ans";
+    // Um relatório JSON por execução (ver RunReport)
+    private static final String REPORTS_DIR = "reports";
+    // Despesas por commit na staging: uma execução que cair retoma do último chunk gravado
+    private static final int RESUME_CHUNK_SIZE = 50_000;
     // URL alternativa - usando URL direta conhecida da ANS (demonstrações contábeis)
     private static final String ANS_ZIP_URL = "https://dadosabertos.ans.gov.br/FTP/PDA/demonstracoes_contabeis/2024/4T2024.zip";
 
+    /**
+     * Uso: sem argumentos importa o trimestre mais recente, retomando a carga
+     * interrompida do mesmo arquivo se houver (ver
+     * {@link IngestPipeline#runResumable}); "backfill 1T2023 4T2024" importa o
+     * intervalo de trimestres em paralelo (ver {@link BackfillService}).
+     */
     public static void main(String[] args) {
         System.out.println("=== Crawler ANS - Download e Importação de Dados ===\n");
 
+        if (args.length > 0 && "backfill".equalsIgnoreCase(args[0])) {
+            System.exit(runBackfill(args));
+        }
+
         try {
             // Testa conexão com o banco
             try (Connection conn = DriverManager.getConnection(JDBC_URL, DB_USER, DB_PASSWORD)) {
@@ -36,12 +49,12 @@ public class Main {
             System.out.println("✓ Diretório de downloads criado: " + downloadPath.toAbsolutePath() + "\n");
 
             // Inicializa serviços
+            RunReport.Recorder recorder = new RunReport.Recorder("ingest");
             AnsCrawlerService crawler = new AnsCrawlerService();
             FileManagerService fileManager = new FileManagerService();
             CsvParserService parser = new CsvParserService();
             DataEnricherService enricher = new DataEnricherService(parser);
             DatabaseImportService importer = new DatabaseImportService(JDBC_URL, DB_USER, DB_PASSWORD);
-            AggregatorService aggregator = new AggregatorService();
 
             // Passo 1: Buscar e baixar dados financeiros (trimestres recentes)
             System.out.println("═══ PASSO 1: Buscando trimestres mais recentes da ANS ═══");
@@ -68,13 +81,22 @@ public class Main {
             Path zipPath = downloadPath.resolve(zipFileName);
 
             System.out.println("Baixando: " + zipFileName + " ...");
-            fileManager.downloadFile(zipUrl, zipPath);
+            String url = zipUrl;
+            recorder.measure("download", metrics -> {
+                fileManager.downloadFile(url, zipPath);
+                metrics.bytesWritten(Files.size(zipPath));
+                return null;
+            });
             System.out.println("✓ Download concluído: " + zipPath.toAbsolutePath());
 
             // Passo 3: Descompactar arquivo
             System.out.println("\n═══ PASSO 3: Descompactando arquivo ═══");
             Path extractPath = downloadPath.resolve("extracted");
-            fileManager.unzipFile(zipPath, extractPath);
+            recorder.measure("unzip", metrics -> {
+                metrics.bytesRead(Files.size(zipPath));
+                fileManager.unzipFile(zipPath, extractPath);
+                return null;
+            });
             System.out.println("✓ Arquivo descompactado em: " + extractPath.toAbsolutePath());
 
             // Passo 4: Encontrar CSV dentro do ZIP extraído
@@ -96,82 +118,22 @@ public class Main {
             System.out.println("NOTA: Usando lista de operadoras do próprio arquivo financeiro");
             System.out.println("(O cadastro completo requer análise adicional da estrutura da ANS)");
 
-            // Passo 6: Parsear dados financeiros
-            System.out.println("\n═══ PASSO 6: Parseando dados financeiros ═══");
-            List<Map<String, String>> financialRecords = parser.parseAndFilter(
-                    financialCsv,
-                    Set.of(".*") // Pega todos os registros
-            );
-            System.out.println("✓ " + financialRecords.size() + " registros parseados");
-
-            if (financialRecords.isEmpty()) {
-                System.out.println("⚠ Nenhum registro encontrado. Verifique o formato do CSV.");
-                System.exit(0);
-            }
-
-            // Debug: Mostrar colunas disponíveis
-            if (!financialRecords.isEmpty()) {
-                System.out.println("\nColunas disponíveis no CSV:");
-                financialRecords.get(0).keySet().forEach(k -> System.out.println("  - " + k));
-            }
-
-            // Passo 7: Criar índice de operadoras do próprio arquivo
-            System.out.println("\n═══ PASSO 7: Extraindo informações de operadoras ═══");
-            List<DataEnricherService.Operadora> operadoras = financialRecords.stream()
-                    .map(record -> {
-                        // O CSV da ANS usa REG_ANS como identificador da operadora
-                        String regAns = record.getOrDefault("REG_ANS", "").trim();
-                        String descricao = record.getOrDefault("DESCRICAO", "").trim();
-
-                        // Usar REG_ANS como identificador (CNPJ no contexto do DataEnricherService)
-                        return new DataEnricherService.Operadora(regAns, descricao, descricao);
-                    })
-                    .filter(op -> op.cnpj != null && !op.cnpj.isEmpty())
-                    .collect(java.util.stream.Collectors.toMap(
-                            op -> op.cnpj, // Chave: REG_ANS único
-                            op -> op, // Valor: objeto Operadora
-                            (op1, op2) -> op1 // Se houver duplicata, mantém o primeiro
-                    ))
-                    .values()
-                    .stream()
-                    .toList();
-
-            System.out.println("✓ " + operadoras.size() + " operadoras únicas identificadas");
-
-            // Passo 8: Importar operadoras
-            System.out.println("\n═══ PASSO 8: Importando operadoras no banco ═══");
-            importer.importOperadoras(operadoras);
-
-            // Passo 9: Enriquecer e agregar dados
-            System.out.println("\n═══ PASSO 9: Agregando despesas por operadora ═══");
-            // Criar CSV temporário de cadastro para o enricher
-            Path tempCadastro = Files.createTempFile("cadastro", ".csv");
-            StringBuilder cadastroCsv = new StringBuilder("REG_ANS;RAZAO_SOCIAL;NOME_FANTASIA\n");
-            operadoras.forEach(op -> cadastroCsv.append(op.cnpj).append(";")
-                    .append(op.razaoSocial != null ? op.razaoSocial.replace(";", " ") : "").append(";")
-                    .append(op.nomeFantasia != null ? op.nomeFantasia.replace(";", " ") : "").append("\n"));
-            Files.writeString(tempCadastro, cadastroCsv.toString());
-
-            List<DataEnricherService.EnrichedRecord> enriched = enricher.enrichRecords(financialRecords, tempCadastro);
-            System.out.println("✓ " + enriched.size() + " registros enriquecidos");
-
-            List<AggregatorService.AggregatedRecord> aggregated = aggregator.aggregateByOperadoraAndConta(enriched);
-            System.out.println("✓ " + aggregated.size() + " registros agregados");
-
-            // Passo 10: Importar dados agregados
-            System.out.println("\n═══ PASSO 10: Importando despesas agregadas no banco ═══");
-            importer.importAgregatedRecords(aggregated);
-
-            // Limpar arquivo temporário
-            Files.deleteIfExists(tempCadastro);
+            // Passos 6 a 10 em pipeline: parse, enriquecimento, agregação e importação
+            // rodam sobrepostos, ligados por filas limitadas (ver IngestPipeline)
+            System.out.println("\n═══ PASSOS 6-10: Parse, enriquecimento, agregação e importação em pipeline ═══");
+            IngestPipeline pipeline = new IngestPipeline(enricher, importer, IngestPipeline.Settings.defaults());
+            IngestPipeline.Summary summary = pipeline.runResumable(financialCsv, RESUME_CHUNK_SIZE);
+            summary.pipeline().print();
+            recorder.addPipeline("", summary.pipeline());
+            writeReport(recorder.finish());
 
             System.out.println("\n" + "═".repeat(60));
             System.out.println("✓✓✓ IMPORTAÇÃO CONCLUÍDA COM SUCESSO! ✓✓✓");
             System.out.println("═".repeat(60));
             System.out.println("\nEstatísticas:");
-            System.out.println("  • Operadoras únicas: " + operadoras.size());
-            System.out.println("  • Registros financeiros: " + financialRecords.size());
-            System.out.println("  • Registros agregados: " + aggregated.size());
+            System.out.println("  • Operadoras únicas: " + summary.operadoras());
+            System.out.println("  • Registros financeiros: " + summary.registros());
+            System.out.println("  • Registros agregados: " + summary.agregados());
             System.out.println("\nAPI disponível em: http://localhost:8081/api/operadoras");
             System.out.println("\nArquivos baixados em: " + downloadPath.toAbsolutePath());
 
@@ -194,4 +156,67 @@ public class Main {
             System.exit(1);
         }
     }
+
+    /**
+     * Modo backfill: baixa, processa e importa cada trimestre do intervalo como
+     * unidade independente.
+     *
+     * @return código de saída (0 se todos os trimestres foram importados)
+     */
+    private static int runBackfill(String[] args) {
+        if (args.length != 3) {
+            System.err.println("Uso: backfill <de> <até>   (ex: backfill 1T2023 4T2024)");
+            return 2;
+        }
+        try {
+            List<Trimestre> trimestres = Trimestre.range(Trimestre.parse(args[1]), Trimestre.parse(args[2]));
+            RunReport.Recorder recorder = new RunReport.Recorder("backfill");
+            ConcurrencyLimits limits = ConcurrencyLimits.defaults();
+            System.out.println("═══ BACKFILL: " + trimestres.size() + " trimestres ("
+                    + args[1] + " a " + args[2] + ") ═══");
+
+            Path downloadPath = Files.createDirectories(Paths.get(DOWNLOAD_DIR));
+            DatabaseImportService importer = new DatabaseImportService(JDBC_URL, DB_USER, DB_PASSWORD);
+            // Paralelismo por trimestre menor: o limite global de CPU é quem manda
+            IngestPipeline pipeline = new IngestPipeline(new DataEnricherService(new CsvParserService()), importer,
+                    new IngestPipeline.Settings(2, 1, 1, 8, 2_000), limits);
+            BackfillService backfill = new BackfillService(
+                    BackfillService.ansSource(new AnsCrawlerService(), new FileManagerService(), downloadPath),
+                    pipeline, limits, recorder);
+
+            List<BackfillService.QuarterResult> results = backfill.run(trimestres);
+            writeReport(recorder.finish());
+
+            long falhas = results.stream().filter(r -> !r.sucesso()).count();
+            System.out.println("\n" + "═".repeat(60));
+            for (BackfillService.QuarterResult result : results) {
+                System.out.printf("  %s %-7s %6d ms  %s%n", result.sucesso() ? "✓" : "✗", result.trimestre().label(),
+                        result.millis(), result.sucesso() ? result.summary().agregados() + " agregados" : result.erro());
+            }
+            System.out.printf("Concluído: %d/%d trimestres importados%n", results.size() - falhas, results.size());
+            return falhas == 0 ? 0 : 1;
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            return 2;
+        } catch (Exception e) {
+            System.err.println("\n✗ Erro durante o backfill:");
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    /**
+     * Grava o relatório em reports/ e imprime a linha de resumo.
+     */
+    private static void writeReport(RunReport report) {
+        Path file = Paths.get(REPORTS_DIR, report.mode() + "-" + report.runId() + ".json");
+        try {
+            report.write(file);
+            System.out.println("\n" + report.summaryLine());
+            System.out.println("✓ Relatório da execução: " + file.toAbsolutePath());
+        } catch (IOException e) {
+            // O relatório não pode derrubar uma importação que já terminou
+            System.err.println("⚠ Falha ao gravar relatório da execução: " + e.getMessage());
+        }
+    }
 }
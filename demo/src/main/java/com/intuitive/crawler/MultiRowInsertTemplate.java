@@ -0,0 +1,86 @@
+package com.intuitive.crawler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gera (e reaproveita) statements INSERT multi-linha: INSERT INTO t (a, b)
+ * VALUES (?, ?),(?, ?),...
+ *
+ * Trade-off: um statement com N linhas vs. N statements em batch. - O banco
+ * faz parse/plan uma única vez por lote e o tráfego de rede cai bastante. -
+ * Limitação: o número de placeholders por statement é limitado (65535 no
+ * MySQL), por isso {@link #maxRows()}.
+ */
+public class MultiRowInsertTemplate {
+
+    /**
+     * Limite de placeholders do protocolo MySQL (H2 aceita mais).
+     */
+    static final int MAX_PLACEHOLDERS = 65_535;
+
+    private final String table;
+    private final String prefix;
+    private final String rowPlaceholders;
+    private final String suffix;
+    private final int columnCount;
+    private final Map<Integer, String> cache = new ConcurrentHashMap<>();
+
+    /**
+     * @param table tabela de destino
+     * @param columns colunas, na ordem de binding
+     * @param suffix trecho após o VALUES (ex.: ON DUPLICATE KEY UPDATE ...) ou
+     * null
+     */
+    public MultiRowInsertTemplate(String table, String[] columns, String suffix) {
+        if (columns == null || columns.length == 0) {
+            throw new IllegalArgumentException("Informe ao menos uma coluna.");
+        }
+        this.table = table;
+        this.columnCount = columns.length;
+        this.prefix = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ";
+        this.rowPlaceholders = "(" + "?, ".repeat(columns.length - 1) + "?)";
+        this.suffix = suffix == null || suffix.isBlank() ? "" : " " + suffix.trim();
+    }
+
+    /**
+     * Retorna o SQL para {@code rows} linhas (montado uma vez e mantido em
+     * cache).
+     *
+     * @param rows quantidade de linhas do statement
+     * @return SQL com rows * columnCount placeholders
+     */
+    public String sqlFor(int rows) {
+        if (rows < 1 || rows > maxRows()) {
+            throw new IllegalArgumentException("Quantidade de linhas fora do limite: " + rows);
+        }
+        return cache.computeIfAbsent(rows, this::build);
+    }
+
+    /**
+     * Máximo de linhas por statement respeitando o limite de placeholders.
+     */
+    public int maxRows() {
+        return MAX_PLACEHOLDERS / columnCount;
+    }
+
+    public String table() {
+        return table;
+    }
+
+    public int columnCount() {
+        return columnCount;
+    }
+
+    private String build(int rows) {
+        StringBuilder sql = new StringBuilder(prefix.length() + rows * (rowPlaceholders.length() + 1) + suffix.length());
+        sql.append(prefix);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(',');
+            }
+            sql.append(rowPlaceholders);
+        }
+        return sql.append(suffix).toString();
+    }
+}
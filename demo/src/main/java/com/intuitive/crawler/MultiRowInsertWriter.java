@@ -0,0 +1,137 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Acumula linhas e as envia em INSERTs multi-linha cujo tamanho é decidido
+ * pelo {@link AdaptiveBatchSizer}.
+ *
+ * Não faz commit nem flush implícito no close: o chamador decide quando
+ * chamar {@link #flush()}.
+ *
+ * @param <T> tipo da linha
+ */
+class MultiRowInsertWriter<T> implements AutoCloseable {
+
+    /**
+     * Faz o binding de uma linha a partir do índice de parâmetro informado.
+     */
+    @FunctionalInterface
+    interface RowBinder<T> {
+
+        /**
+         * @return próximo índice de parâmetro livre
+         */
+        int bind(PreparedStatement ps, int parameterIndex, T row) throws SQLException;
+    }
+
+    private final Connection conn;
+    private final MultiRowInsertTemplate template;
+    private final AdaptiveBatchSizer sizer;
+    private final RowBinder<T> binder;
+    private final List<T> pending = new ArrayList<>();
+
+    // Reaproveita o statement enquanto o tamanho do lote não muda
+    private PreparedStatement statement;
+    private int statementRows;
+    private int written;
+    private int flushes;
+
+    MultiRowInsertWriter(Connection conn, MultiRowInsertTemplate template, AdaptiveBatchSizer sizer, RowBinder<T> binder) {
+        this.conn = conn;
+        this.template = template;
+        this.sizer = sizer;
+        this.binder = binder;
+        // O sizer só mede lotes cheios: não pode crescer além do que cabe no statement
+        sizer.capAt(template.maxRows());
+    }
+
+    /**
+     * Adiciona uma linha e envia o lote se ele atingiu o tamanho atual.
+     *
+     * @return true se um flush aconteceu
+     */
+    boolean add(T row) throws SQLException {
+        pending.add(row);
+        if (pending.size() >= targetRows()) {
+            flush();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Envia as linhas pendentes em um único statement.
+     */
+    void flush() throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        int rows = pending.size();
+        PreparedStatement ps = statementFor(rows);
+
+        int index = 1;
+        for (T row : pending) {
+            index = binder.bind(ps, index, row);
+        }
+
+        IngestEvents.BatchFlush event = new IngestEvents.BatchFlush();
+        event.begin();
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            ps.executeUpdate();
+            failed = false;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.table = template.table();
+                event.statement = "insert:" + template.table() + "[" + rows + "]";
+                event.rows = rows;
+                event.failed = failed;
+                event.commit();
+            }
+        }
+        sizer.record(rows, System.nanoTime() - start);
+
+        written += rows;
+        flushes++;
+        pending.clear();
+    }
+
+    int written() {
+        return written;
+    }
+
+    int flushes() {
+        return flushes;
+    }
+
+    private int targetRows() {
+        return sizer.currentBatchSize();
+    }
+
+    private PreparedStatement statementFor(int rows) throws SQLException {
+        if (statement != null && statementRows == rows) {
+            return statement;
+        }
+        if (statement != null) {
+            statement.close();
+        }
+        statement = conn.prepareStatement(template.sqlFor(rows));
+        statementRows = rows;
+        return statement;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import com.mysql.cj.conf.PropertyKey;
+import com.mysql.cj.jdbc.JdbcConnection;
+import com.mysql.cj.jdbc.JdbcStatement;
+
+/**
+ * Carga via LOAD DATA LOCAL INFILE do MySQL, alimentado por um InputStream em
+ * memória (nenhum arquivo é gravado em disco).
+ *
+ * Requisitos: allowLoadLocalInfile=true na URL JDBC e local_infile=ON no
+ * servidor. Sem eles, {@link BulkLoader#forConnection} usa o batch JDBC.
+ */
+public class MySqlLoadDataBulkLoader implements BulkLoader {
+
+    @Override
+    public String name() {
+        return "MySQL LOAD DATA";
+    }
+
+    @Override
+    public int load(Connection conn, String table, List<AggregatorService.AggregatedRecord> records) throws SQLException {
+        if (records.isEmpty()) {
+            return 0;
+        }
+
+        // O nome do arquivo é ignorado: o driver lê do stream configurado abaixo.
+        // ESCAPED BY '': o stream só escapa aspas (dobrando-as); com o padrão '\'
+        // uma barra invertida no dado seria lida como escape e corromperia o campo
+        String sql = "LOAD DATA LOCAL INFILE 'despesas_agregadas.csv' INTO TABLE " + table + " "
+                + "CHARACTER SET utf8mb4 "
+                + "FIELDS TERMINATED BY ';' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '' "
+                + "LINES TERMINATED BY '\\n' "
+                + "(cnpj_operadora, codigo_conta, valor_total, competencia)";
+
+        IngestEvents.BatchFlush event = new IngestEvents.BatchFlush();
+        event.begin();
+        int inserted = -1;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.unwrap(JdbcStatement.class)
+                    .setLocalInfileInputStream(new AggregatedCsvInputStream(records, null));
+            int loaded = stmt.executeUpdate(sql);
+            failOnWarnings(stmt, table);
+            inserted = loaded;
+            return inserted;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.table = table;
+                event.statement = "load-data:" + table;
+                event.rows = records.size();
+                event.failed = inserted < 0;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Com LOCAL o servidor não consegue interromper a transferência, então
+     * erros de dado (truncamento, conversão, coluna faltando) viram avisos e a
+     * linha entra alterada. Qualquer aviso derruba a carga; quem chamou faz o
+     * rollback.
+     *
+     * @throws SQLException se o LOAD DATA gerou avisos
+     */
+    private static void failOnWarnings(Statement stmt, String table) throws SQLException {
+        long warnings;
+        try (ResultSet rs = stmt.executeQuery("SHOW COUNT(*) WARNINGS")) {
+            warnings = rs.next() ? rs.getLong(1) : 0;
+        }
+        if (warnings == 0) {
+            return;
+        }
+        StringBuilder detail = new StringBuilder();
+        try (ResultSet rs = stmt.executeQuery("SHOW WARNINGS LIMIT 3")) {
+            while (rs.next()) {
+                detail.append("; ").append(rs.getString("Message"));
+            }
+        }
+        throw new SQLException("LOAD DATA em " + table + " gerou " + warnings + " aviso(s)" + detail);
+    }
+
+    /**
+     * Verifica se cliente e servidor aceitam LOAD DATA LOCAL.
+     *
+     * @param conn conexão MySQL
+     * @return true se o fast path pode ser usado
+     */
+    static boolean isAvailable(Connection conn) {
+        try {
+            if (!conn.isWrapperFor(JdbcConnection.class)) {
+                return false;
+            }
+            boolean clientAllows = conn.unwrap(JdbcConnection.class)
+                    .getPropertySet()
+                    .getBooleanProperty(PropertyKey.allowLoadLocalInfile)
+                    .getValue();
+            if (!clientAllows) {
+                return false;
+            }
+
+            try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT @@GLOBAL.local_infile")) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
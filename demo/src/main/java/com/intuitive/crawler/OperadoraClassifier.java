@@ -0,0 +1,78 @@
+package com.intuitive.crawler;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Classifica o cadastro em operadora real vs. linha contábil (ATIVO,
+ * PASSIVO, contas redutoras "(-)", etc.), uma vez na importação. O
+ * resultado vai para operadoras.is_operadora_real, que a API filtra por
+ * índice.
+ *
+ * Mesma regra do antigo FILTRO_OPERADORAS_REAIS da API (13 LIKEs por
+ * consulta), com a semântica do MySQL de produção (collation
+ * utf8mb4_0900_ai_ci): sem diferenciar caixa nem acento, e com o tamanho
+ * mínimo em bytes UTF-8, como o LENGTH do MySQL ("Saúde" tem 5 caracteres e
+ * 6 bytes, e era listada). Herda também os falsos positivos da regra -
+ * "ADMINISTRATIVO" contém "ATIVO" - para que a troca não mude o que a API
+ * lista.
+ *
+ * Trade-off: coluna calculada no importador vs. coluna gerada no banco. -
+ * A regra fica em Java, testável e igual em H2 e MySQL; LIKE em coluna
+ * gerada varia com a collation de cada banco. - Limitação: mudou a regra,
+ * é preciso reimportar (ou reclassificar) o cadastro.
+ */
+public final class OperadoraClassifier {
+
+    /** Termos contábeis, já sem acento e em maiúsculas. */
+    private static final List<String> TERMOS_CONTABEIS = List.of(
+            "ACIONISTAS", "PROVISAO", "OUTROS", "ATIVO", "PASSIVO", "PATRIMONIO",
+            "RESULTADO", "RECEITA", "DESPESA");
+
+    /** Em bytes UTF-8: LENGTH(TRIM(razao_social)) &gt; 5 no MySQL. */
+    private static final int TAMANHO_MINIMO = 6;
+
+    private OperadoraClassifier() {
+    }
+
+    /**
+     * @param razaoSocial razão social do cadastro
+     * @return true se for uma operadora (não uma linha contábil)
+     */
+    public static boolean isOperadoraReal(String razaoSocial) {
+        if (razaoSocial == null || trimSpaces(razaoSocial).getBytes(StandardCharsets.UTF_8).length < TAMANHO_MINIMO) {
+            return false;
+        }
+        if (razaoSocial.startsWith("(-)") || razaoSocial.contains("(-) ")) {
+            return false;
+        }
+        String folded = fold(razaoSocial);
+        for (String termo : TERMOS_CONTABEIS) {
+            if (folded.contains(termo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** TRIM do SQL: só espaços, não tabs/quebras. */
+    private static String trimSpaces(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+
+    private static String fold(String value) {
+        return Normalizer.normalize(value, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toUpperCase(Locale.ROOT);
+    }
+}
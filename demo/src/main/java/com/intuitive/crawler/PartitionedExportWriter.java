@@ -0,0 +1,399 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Exporta registros enriquecidos em vários CSVs (shards), um por valor da
+ * chave de partição (trimestre, UF, faixa de operadoras...), mais um
+ * manifest.json com linhas, bytes e SHA-256 de cada arquivo.
+ *
+ * Trade-off: um dono por shard vs. lock por arquivo. - A thread que lê os
+ * registros só calcula a chave e entrega lotes; cada shard pertence a um
+ * único worker (distribuídos em rodízio na primeira ocorrência), que escreve
+ * sem sincronização com o mesmo codificador do {@link CsvWriterService}. -
+ * O manifest é gravado por último (arquivo temporário + move): a presença
+ * dele marca uma exportação completa. - Limitação: um arquivo aberto por
+ * shard até o fim; milhares de partições esbarram no limite do SO.
+ */
+public class PartitionedExportWriter {
+
+    public static final String MANIFEST = "manifest.json";
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final int BATCH_SIZE = 1_024;
+    private static final int QUEUE_BATCHES = 8;
+    private static final int BUFFER_BYTES = 64 * 1024;
+    // Marca de fim (comparada por identidade)
+    private static final List<Routed> END = new ArrayList<>(0);
+
+    /**
+     * Chave de partição: nome (vai para o manifest) e função registro ->
+     * partição. A partição vira o nome do arquivo (caracteres fora de
+     * [A-Za-z0-9._-] viram '_').
+     */
+    public record PartitionKey(String name, Function<DataEnricherService.EnrichedRecord, String> keyOf) {
+
+        /** Trimestre da data do registro ("4T2024"); "sem_periodo" se a data não for AAAA-MM-DD. */
+        public static PartitionKey byPeriod() {
+            return new PartitionKey("periodo", record -> {
+                String data = record.data;
+                if (data == null || data.length() < 7 || data.charAt(4) != '-') {
+                    return "sem_periodo";
+                }
+                try {
+                    int ano = Integer.parseInt(data.substring(0, 4));
+                    int mes = Integer.parseInt(data.substring(5, 7));
+                    return new Trimestre(ano, (mes - 1) / 3 + 1).label();
+                } catch (IllegalArgumentException e) {
+                    return "sem_periodo";
+                }
+            });
+        }
+
+        /** UF da operadora pelo CNPJ (ex: mapa montado do cadastro); "SEM_UF" se não houver. */
+        public static PartitionKey byUf(Function<String, String> ufByCnpj) {
+            return new PartitionKey("uf", record -> {
+                String uf = ufByCnpj.apply(record.cnpj);
+                return uf == null || uf.isBlank() ? "SEM_UF" : uf.trim().toUpperCase();
+            });
+        }
+
+        /**
+         * N faixas estáveis de operadoras pelo CNPJ numérico (mesma operadora
+         * sempre na mesma faixa, em qualquer trimestre): "operadoras-00" ...
+         */
+        public static PartitionKey byOperadoraRange(int ranges) {
+            if (ranges < 1) {
+                throw new IllegalArgumentException("ranges deve ser >= 1: " + ranges);
+            }
+            String format = "operadoras-%0" + String.valueOf(ranges - 1).length() + "d";
+            return new PartitionKey("operadoras-" + ranges, record -> {
+                long digits = 0;
+                String cnpj = record.cnpj == null ? "" : record.cnpj;
+                for (int i = 0; i < cnpj.length(); i++) {
+                    char c = cnpj.charAt(i);
+                    if (c >= '0' && c <= '9') {
+                        digits = digits * 10 + (c - '0');
+                    }
+                }
+                return String.format(format, Math.floorMod(digits, ranges));
+            });
+        }
+
+        /** Combinação das duas chaves: "4T2024_SP". */
+        public PartitionKey and(PartitionKey other) {
+            return new PartitionKey(name + "+" + other.name,
+                    record -> keyOf.apply(record) + "_" + other.keyOf.apply(record));
+        }
+    }
+
+    /**
+     * Um arquivo da exportação.
+     *
+     * @param partition valor da chave de partição
+     * @param file nome do arquivo, relativo ao diretório do manifest
+     * @param rows linhas de dados (sem o cabeçalho)
+     * @param bytes tamanho do arquivo em disco (comprimido, se gzip)
+     * @param sha256 hash dos bytes em disco, em hexadecimal
+     */
+    public record Shard(String partition, String file, long rows, long bytes, String sha256) {
+    }
+
+    /**
+     * Conteúdo do manifest.json.
+     *
+     * @param createdAt fim da exportação em ISO-8601
+     * @param partitionKey nome da chave de partição
+     * @param compression NONE ou GZIP
+     * @param totalRows soma das linhas dos shards
+     * @param shards shards em ordem de partição
+     */
+    public record Manifest(String createdAt, String partitionKey, String compression, long totalRows, List<Shard> shards) {
+
+        public static Manifest read(Path file) throws IOException {
+            return JSON.readValue(file.toFile(), Manifest.class);
+        }
+
+        void write(Path dir) throws IOException {
+            Path temp = dir.resolve(MANIFEST + ".tmp");
+            JSON.writeValue(temp.toFile(), this);
+            Files.move(temp, dir.resolve(MANIFEST), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private final CsvWriterService.Compression compression;
+    private final int threads;
+
+    /**
+     * @param compression NONE ou GZIP (arquivos .csv ou .csv.gz)
+     * @param threads workers de escrita (cada shard fica com um só)
+     */
+    public PartitionedExportWriter(CsvWriterService.Compression compression, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads deve ser >= 1: " + threads);
+        }
+        this.compression = compression;
+        this.threads = threads;
+    }
+
+    /**
+     * Exporta os registros para dir, um arquivo por partição, e grava o
+     * manifest.
+     *
+     * @param records registros, consumidos uma única vez pela thread chamadora
+     * @param dir diretório de saída (criado se não existir)
+     * @param key chave de partição
+     * @return o manifest gravado
+     * @throws IOException se algum shard falhar (o manifest não é gravado)
+     * @throws InterruptedException se a espera pelos workers for interrompida
+     */
+    public Manifest export(Iterator<DataEnricherService.EnrichedRecord> records, Path dir, PartitionKey key)
+            throws IOException, InterruptedException {
+        Files.createDirectories(dir);
+        Files.deleteIfExists(dir.resolve(MANIFEST));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Worker> workers = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            Worker worker = new Worker(dir, failure);
+            Thread thread = new Thread(worker, "export-" + i);
+            thread.setDaemon(true);
+            worker.thread = thread;
+            workers.add(worker);
+            thread.start();
+        }
+
+        Map<String, Integer> owner = new HashMap<>();
+        Map<String, String> fileOwner = new HashMap<>();
+        List<List<Routed>> pending = new ArrayList<>(threads);
+        for (int i = 0; i < threads; i++) {
+            pending.add(new ArrayList<>(BATCH_SIZE));
+        }
+        try {
+            while (records.hasNext() && failure.get() == null) {
+                DataEnricherService.EnrichedRecord record = records.next();
+                String partition = key.keyOf().apply(record);
+                Integer index = owner.get(partition);
+                if (index == null) {
+                    String file = fileName(partition);
+                    String previous = fileOwner.putIfAbsent(file, partition);
+                    if (previous != null) {
+                        throw new IllegalArgumentException("Partições \"" + previous + "\" e \"" + partition
+                                + "\" gerariam o mesmo arquivo " + file);
+                    }
+                    index = owner.size() % threads;
+                    owner.put(partition, index);
+                }
+                List<Routed> batch = pending.get(index);
+                batch.add(new Routed(partition, record));
+                if (batch.size() == BATCH_SIZE) {
+                    send(workers.get(index), batch, failure);
+                    pending.set(index, new ArrayList<>(BATCH_SIZE));
+                }
+            }
+            for (int i = 0; i < threads; i++) {
+                if (!pending.get(i).isEmpty()) {
+                    send(workers.get(i), pending.get(i), failure);
+                }
+            }
+        } finally {
+            // Os workers sempre terminam (e fecham os arquivos), mesmo com falha no roteamento
+            for (Worker worker : workers) {
+                send(worker, END, failure);
+            }
+            for (Worker worker : workers) {
+                worker.thread.join();
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IOException("Falha ao exportar shards em " + dir + ": " + error.getMessage(), error);
+        }
+
+        List<Shard> shards = new ArrayList<>();
+        for (Worker worker : workers) {
+            shards.addAll(worker.shards);
+        }
+        shards.sort(Comparator.comparing(Shard::partition));
+        long totalRows = shards.stream().mapToLong(Shard::rows).sum();
+        Manifest manifest = new Manifest(Instant.now().toString(), key.name(), compression.name(), totalRows, shards);
+        manifest.write(dir);
+        System.out.println("✓ Exportação particionada por " + key.name() + ": " + totalRows + " linhas em "
+                + shards.size() + " arquivos (" + dir + ")");
+        return manifest;
+    }
+
+    private String fileName(String partition) {
+        String safe = partition.replaceAll("[^A-Za-z0-9._-]", "_");
+        return (safe.isEmpty() ? "_" : safe) + (compression == CsvWriterService.Compression.GZIP ? ".csv.gz" : ".csv");
+    }
+
+    /** Entrega o lote sem ficar preso se o worker já tiver morrido. */
+    private static void send(Worker worker, List<Routed> batch, AtomicReference<Throwable> failure) throws InterruptedException {
+        while (!worker.queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+            if (!worker.thread.isAlive() || (failure.get() != null && batch != END)) {
+                return;
+            }
+        }
+    }
+
+    private record Routed(String partition, DataEnricherService.EnrichedRecord record) {
+    }
+
+    private final class Worker implements Runnable {
+
+        private final BlockingQueue<List<Routed>> queue = new ArrayBlockingQueue<>(QUEUE_BATCHES);
+        private final Path dir;
+        private final AtomicReference<Throwable> failure;
+        private final Map<String, ShardWriter> open = new HashMap<>();
+        private final List<Shard> shards = new ArrayList<>();
+        private Thread thread;
+
+        Worker(Path dir, AtomicReference<Throwable> failure) {
+            this.dir = dir;
+            this.failure = failure;
+        }
+
+        @Override
+        public void run() {
+            try {
+                List<Routed> batch;
+                while ((batch = queue.take()) != END) {
+                    if (failure.get() != null) {
+                        continue;
+                    }
+                    for (Routed routed : batch) {
+                        ShardWriter writer = open.get(routed.partition());
+                        if (writer == null) {
+                            writer = new ShardWriter(routed.partition(), dir.resolve(fileName(routed.partition())));
+                            open.put(routed.partition(), writer);
+                        }
+                        writer.write(routed.record());
+                    }
+                }
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+            } finally {
+                for (ShardWriter writer : open.values()) {
+                    try {
+                        shards.add(writer.close());
+                    } catch (Throwable e) {
+                        if (!failure.compareAndSet(null, e)) {
+                            failure.get().addSuppressed(e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Um arquivo de shard: codificador -> (gzip) -> SHA-256 -> FileChannel. */
+    private final class ShardWriter {
+
+        private final String partition;
+        private final Path path;
+        private final FileChannel file;
+        private final MessageDigest sha256;
+        private final OutputStream gzip;
+        private final CsvWriterService.Utf8LineEncoder encoder;
+        private long rows;
+
+        ShardWriter(String partition, Path path) throws IOException {
+            this.partition = partition;
+            this.path = path;
+            this.file = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                this.sha256 = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                file.close();
+                throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+            }
+            WritableByteChannel digested = new DigestingChannel(file, sha256);
+            if (compression == CsvWriterService.Compression.GZIP) {
+                gzip = new GZIPOutputStream(Channels.newOutputStream(digested), BUFFER_BYTES);
+                encoder = new CsvWriterService.Utf8LineEncoder(ByteBuffer.allocate(BUFFER_BYTES), Channels.newChannel(gzip));
+            } else {
+                gzip = null;
+                encoder = new CsvWriterService.Utf8LineEncoder(ByteBuffer.allocate(BUFFER_BYTES), digested);
+            }
+            CsvWriterService.writeHeader(encoder);
+        }
+
+        void write(DataEnricherService.EnrichedRecord record) throws IOException {
+            CsvWriterService.writeRecord(encoder, record);
+            rows++;
+        }
+
+        Shard close() throws IOException {
+            try (FileChannel channel = file) {
+                encoder.flush();
+                if (gzip != null) {
+                    gzip.close();
+                }
+                return new Shard(partition, path.getFileName().toString(), rows, channel.size(),
+                        HexFormat.of().formatHex(sha256.digest()));
+            }
+        }
+    }
+
+    /** Repassa os bytes ao canal atualizando o hash com o que foi de fato escrito. */
+    private static final class DigestingChannel implements WritableByteChannel {
+
+        private final FileChannel target;
+        private final MessageDigest digest;
+
+        DigestingChannel(FileChannel target, MessageDigest digest) {
+            this.target = target;
+            this.digest = digest;
+        }
+
+        @Override
+        public int write(ByteBuffer source) throws IOException {
+            ByteBuffer view = source.duplicate();
+            int written = target.write(source);
+            view.limit(view.position() + written);
+            digest.update(view);
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return target.isOpen();
+        }
+
+        @Override
+        public void close() {
+            // O FileChannel é fechado pelo ShardWriter, depois do gzip
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Relatório de uma execução de ingestão: tempo, CPU, volume e alocação por
+ * estágio, mais o GC da JVM no período.
+ *
+ * Trade-off: JSON por execução (um arquivo em reports/) vs. enviar para um
+ * sistema de métricas. - Não depende de infraestrutura e o job noturno
+ * compara dois arquivos com {@link #regressionsAgainst}. - Limitação: sem
+ * série histórica; guardar o relatório de referência é responsabilidade do
+ * job.
+ *
+ * Comparação: java ... RunReport &lt;referencia.json&gt; &lt;atual.json&gt;
+ * [tolerancia] (sai com código 1 se houver regressão).
+ *
+ * @param runId identificador da execução (timestamp UTC)
+ * @param mode modo da execução (ingest, backfill)
+ * @param startedAt início em ISO-8601
+ * @param wallMillis duração total
+ * @param gcCount coletas de GC durante a execução
+ * @param gcMillis tempo total de GC durante a execução
+ * @param stages estágios em ordem de início
+ */
+public record RunReport(String runId, String mode, String startedAt, long wallMillis,
+        long gcCount, long gcMillis, List<StageReport> stages) {
+
+    private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").withZone(ZoneOffset.UTC);
+
+    // Diferenças absolutas abaixo disso são ruído, mesmo que a variação relativa seja grande
+    private static final long MIN_MILLIS_DELTA = 50;
+    private static final long MIN_BYTES_DELTA = 16L * 1024 * 1024;
+
+    /**
+     * Métricas de um estágio.
+     *
+     * @param name nome (prefixado pelo trimestre no backfill, ex: 4T2024/parse)
+     * @param threads threads do estágio
+     * @param startMillis início relativo ao começo da execução
+     * @param wallMillis do primeiro trabalho ao fim do estágio
+     * @param busyMillis tempo somado processando (sem esperas)
+     * @param blockedMillis tempo somado esperando fila cheia (backpressure)
+     * @param cpuMillis CPU somada das threads
+     * @param rowsIn linhas recebidas
+     * @param rowsOut linhas emitidas/gravadas
+     * @param bytesRead bytes lidos
+     * @param bytesWritten bytes gravados
+     * @param allocatedBytes bytes alocados pelas threads
+     */
+    public record StageReport(String name, int threads, long startMillis, long wallMillis,
+            long busyMillis, long blockedMillis, long cpuMillis,
+            long rowsIn, long rowsOut, long bytesRead, long bytesWritten, long allocatedBytes) {
+
+        /**
+         * Linhas usadas para normalizar a comparação (0 = compara absoluto).
+         */
+        long volume() {
+            return Math.max(rowsIn, rowsOut);
+        }
+    }
+
+    /**
+     * Trabalho medido fora do pipeline (download, descompactação...).
+     */
+    @FunctionalInterface
+    public interface Measured<T> {
+
+        T run(StagedPipeline.StageMetrics metrics) throws Exception;
+    }
+
+    /**
+     * Coleta os estágios de uma execução (thread-safe: trimestres do backfill
+     * registram em paralelo).
+     */
+    public static class Recorder {
+
+        private final String mode;
+        private final Instant startedAt = Instant.now();
+        private final long startNanos = System.nanoTime();
+        private final long gcCountStart = jvmGcCount();
+        private final long gcMillisStart = jvmGcMillis();
+        private final List<StageReport> stages = new ArrayList<>();
+
+        public Recorder(String mode) {
+            this.mode = mode;
+        }
+
+        /**
+         * Executa e mede um estágio na thread atual.
+         */
+        public <T> T measure(String name, Measured<T> work) throws Exception {
+            StagedPipeline.StageMetrics metrics = new StagedPipeline.StageMetrics();
+            long start = System.nanoTime();
+            long cpuStart = ThreadUsage.cpuNanos();
+            long allocatedStart = ThreadUsage.allocatedBytes();
+            try {
+                return work.run(metrics);
+            } finally {
+                long wall = millis(System.nanoTime() - start);
+                add(new StageReport(name, 1, millis(start - startNanos), wall, wall, 0,
+                        millis(ThreadUsage.cpuNanos() - cpuStart),
+                        metrics.totalRowsIn(), metrics.totalRowsOut(), metrics.totalBytesRead(), metrics.totalBytesWritten(),
+                        ThreadUsage.allocatedBytes() - allocatedStart));
+            }
+        }
+
+        /**
+         * Registra todos os estágios de um pipeline.
+         *
+         * @param prefix prefixo dos nomes (ex: "4T2024/"; vazio para nenhum)
+         * @param result resultado do pipeline
+         */
+        public void addPipeline(String prefix, StagedPipeline.Result result) {
+            long offset = result.startNanos() - startNanos;
+            for (StagedPipeline.StageStats s : result.stages()) {
+                add(new StageReport(prefix + s.name(), s.parallelism(), millis(offset + s.startNanos()),
+                        millis(s.wallNanos()), millis(s.busyNanos()), millis(s.blockedNanos()), millis(s.cpuNanos()),
+                        s.rowsIn(), s.rowsOut(), s.bytesRead(), s.bytesWritten(), s.allocatedBytes()));
+            }
+        }
+
+        private synchronized void add(StageReport stage) {
+            stages.add(stage);
+        }
+
+        public synchronized RunReport finish() {
+            List<StageReport> ordered = new ArrayList<>(stages);
+            ordered.sort(Comparator.comparingLong(StageReport::startMillis));
+            return new RunReport(RUN_ID.format(startedAt), mode, startedAt.toString(),
+                    millis(System.nanoTime() - startNanos),
+                    jvmGcCount() - gcCountStart, jvmGcMillis() - gcMillisStart, List.copyOf(ordered));
+        }
+    }
+
+    /**
+     * Linha única para o log do job: totais da execução e o tempo de cada
+     * estágio.
+     */
+    public String summaryLine() {
+        long cpu = stages.stream().mapToLong(StageReport::cpuMillis).sum();
+        long allocated = stages.stream().mapToLong(StageReport::allocatedBytes).sum();
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT,
+                "RUN %s %s wall=%s cpu=%s alloc=%s gc=%d/%s |",
+                mode, runId, duration(wallMillis), duration(cpu), bytes(allocated), gcCount, duration(gcMillis)));
+        for (StageReport stage : stages) {
+            line.append(' ').append(stage.name()).append('=').append(duration(stage.wallMillis()));
+            if (stage.volume() > 0) {
+                line.append('/').append(stage.volume()).append('r');
+            }
+        }
+        return line.toString();
+    }
+
+    /**
+     * Compara com uma execução de referência, estágio a estágio (pelo nome).
+     *
+     * Tempo de parede, CPU e alocação são normalizados por linha quando os dois
+     * estágios informam volume, então trimestres de tamanhos diferentes ainda
+     * são comparáveis.
+     *
+     * @param baseline execução de referência
+     * @param tolerance piora relativa aceita (0.2 = 20%)
+     * @return uma mensagem por regressão (vazia se nenhuma)
+     */
+    public List<String> regressionsAgainst(RunReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (StageReport current : stages) {
+            StageReport reference = baseline.stages().stream()
+                    .filter(s -> s.name().equals(current.name()))
+                    .findFirst()
+                    .orElse(null);
+            if (reference == null) {
+                continue;
+            }
+            boolean perRow = current.volume() > 0 && reference.volume() > 0;
+            check(regressions, current, reference, "wall", current.wallMillis(), reference.wallMillis(), MIN_MILLIS_DELTA, perRow, tolerance);
+            check(regressions, current, reference, "cpu", current.cpuMillis(), reference.cpuMillis(), MIN_MILLIS_DELTA, perRow, tolerance);
+            check(regressions, current, reference, "alloc", current.allocatedBytes(), reference.allocatedBytes(), MIN_BYTES_DELTA, perRow, tolerance);
+        }
+        return regressions;
+    }
+
+    private static void check(List<String> regressions, StageReport current, StageReport reference, String metric,
+            long currentValue, long referenceValue, long minDelta, boolean perRow, double tolerance) {
+        // Referência escalada para o volume atual (ou absoluta, sem volume)
+        double expected = perRow ? (double) referenceValue * current.volume() / reference.volume() : referenceValue;
+        if (currentValue - expected < minDelta || currentValue <= expected * (1 + tolerance)) {
+            return;
+        }
+        regressions.add(String.format(Locale.ROOT, "%s: %s +%.0f%% (esperado ~%d, obtido %d%s)",
+                current.name(), metric, (currentValue / Math.max(expected, 1) - 1) * 100,
+                Math.round(expected), currentValue, perRow ? ", normalizado por linha" : ""));
+    }
+
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        JSON.writeValue(file.toFile(), this);
+    }
+
+    public static RunReport read(Path file) throws IOException {
+        return JSON.readValue(file.toFile(), RunReport.class);
+    }
+
+    /**
+     * Compara dois relatórios (uso no job noturno).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: RunReport <referencia.json> <atual.json> [tolerancia=0.2]");
+            System.exit(2);
+        }
+        RunReport baseline = read(Path.of(args[0]));
+        RunReport current = read(Path.of(args[1]));
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) : 0.2;
+
+        System.out.println("Referência: " + baseline.summaryLine());
+        System.out.println("Atual:      " + current.summaryLine());
+        List<String> regressions = current.regressionsAgainst(baseline, tolerance);
+        if (regressions.isEmpty()) {
+            System.out.println("✓ Nenhuma regressão acima de " + Math.round(tolerance * 100) + "%");
+            return;
+        }
+        regressions.forEach(r -> System.out.println("✗ " + r));
+        System.exit(1);
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+
+    private static String duration(long millis) {
+        return millis < 1_000 ? millis + "ms" : String.format(Locale.ROOT, "%.1fs", millis / 1000.0);
+    }
+
+    private static String bytes(long bytes) {
+        if (bytes < 1024 * 1024) {
+            return (bytes / 1024) + "KB";
+        }
+        return bytes < 1024L * 1024 * 1024
+                ? (bytes / (1024 * 1024)) + "MB"
+                : String.format(Locale.ROOT, "%.1fGB", bytes / (1024.0 * 1024 * 1024));
+    }
+
+    private static long jvmGcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .filter(count -> count > 0)
+                .sum();
+    }
+
+    private static long jvmGcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .filter(time -> time > 0)
+                .sum();
+    }
+}
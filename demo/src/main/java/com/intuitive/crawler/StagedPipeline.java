@@ -0,0 +1,449 @@
+package com.intuitive.crawler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Motor de pipeline em estágios: cada estágio tem suas próprias threads e lê
+ * de uma fila limitada alimentada pelo estágio anterior.
+ *
+ * Trade-off: filas limitadas (ArrayBlockingQueue) vs. materializar cada passo
+ * em uma List. - Os estágios rodam sobrepostos e o tempo total tende ao do
+ * estágio mais lento, não à soma. - Fila cheia bloqueia o produtor
+ * (backpressure), então a memória fica limitada pela capacidade das filas. -
+ * Limitação: estágios com estado (ex: agregação) só emitem no
+ * {@link Stage#finish}, o que vira uma barreira para os estágios seguintes.
+ *
+ * Uso:
+ * <pre>
+ * StagedPipeline.from("leitura", source)
+ *         .then("parse", 4, 64, parseStage)
+ *         .then("import", 1, 64, importStage)
+ *         .run();
+ * </pre>
+ */
+public final class StagedPipeline {
+
+    // Marca de fim de fluxo: cada worker do estágio seguinte recebe uma
+    private static final Object END = new Object();
+
+    // Contadores do estágio da thread atual (ver metrics())
+    private static final ThreadLocal<StageMetrics> CURRENT = new ThreadLocal<>();
+    private static final StageMetrics DETACHED = new StageMetrics();
+
+    private StagedPipeline() {
+    }
+
+    /**
+     * Produz os itens de entrada (roda em uma única thread).
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+
+        void produce(Emitter<T> out) throws Exception;
+    }
+
+    /**
+     * Entrega um item ao próximo estágio; bloqueia se a fila estiver cheia.
+     */
+    @FunctionalInterface
+    public interface Emitter<T> {
+
+        void emit(T item) throws InterruptedException;
+    }
+
+    /**
+     * Processa itens de entrada e emite zero ou mais itens de saída.
+     *
+     * Com paralelismo > 1, {@link #process} é chamado concorrentemente: o
+     * estado compartilhado precisa ser thread-safe.
+     */
+    @FunctionalInterface
+    public interface Stage<I, O> {
+
+        void process(I item, Emitter<O> out) throws Exception;
+
+        /**
+         * Chamado uma única vez, depois que todos os workers do estágio
+         * esgotaram a entrada.
+         */
+        default void finish(Emitter<O> out) throws Exception {
+        }
+    }
+
+    /**
+     * Inicia um pipeline a partir da fonte.
+     *
+     * @param name nome do estágio de origem (usado em logs e métricas)
+     * @param source produtor dos itens
+     * @return builder para encadear os estágios seguintes
+     */
+    public static <T> Builder<T> from(String name, Source<T> source) {
+        List<Node> nodes = new ArrayList<>();
+        nodes.add(new Node(name, 1, 0, (ignored, out) -> source.produce(out::emit)));
+        return new Builder<>(nodes);
+    }
+
+    /**
+     * Encadeia estágios; o tipo genérico é o item que sai do último estágio.
+     */
+    public static final class Builder<T> {
+
+        private final List<Node> nodes;
+
+        private Builder(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        /**
+         * Adiciona um estágio.
+         *
+         * @param name nome do estágio
+         * @param parallelism threads dedicadas ao estágio
+         * @param queueCapacity capacidade da fila de entrada do estágio
+         * @param stage lógica do estágio
+         * @return builder com o novo tipo de saída
+         */
+        @SuppressWarnings("unchecked")
+        public <O> Builder<O> then(String name, int parallelism, int queueCapacity, Stage<? super T, O> stage) {
+            if (parallelism < 1 || queueCapacity < 1) {
+                throw new IllegalArgumentException("Paralelismo e capacidade da fila devem ser positivos: " + name);
+            }
+            nodes.add(new Node(name, parallelism, queueCapacity, (Stage<Object, Object>) stage));
+            return new Builder<>(nodes);
+        }
+
+        /**
+         * Executa o pipeline até o fim e descarta a saída do último estágio.
+         *
+         * @return tempo total e métricas por estágio
+         * @throws Exception a primeira falha de qualquer estágio (os demais
+         * são interrompidos)
+         */
+        public Result run() throws Exception {
+            return new Execution(nodes).run();
+        }
+    }
+
+    /**
+     * Contadores de volume informados pelo próprio estágio (linhas e bytes não
+     * são visíveis para o motor, que só enxerga itens).
+     */
+    public static final class StageMetrics {
+
+        private final LongAdder rowsIn = new LongAdder();
+        private final LongAdder rowsOut = new LongAdder();
+        private final LongAdder bytesRead = new LongAdder();
+        private final LongAdder bytesWritten = new LongAdder();
+
+        public void rowsIn(long rows) {
+            rowsIn.add(rows);
+        }
+
+        public void rowsOut(long rows) {
+            rowsOut.add(rows);
+        }
+
+        public void bytesRead(long bytes) {
+            bytesRead.add(bytes);
+        }
+
+        public void bytesWritten(long bytes) {
+            bytesWritten.add(bytes);
+        }
+
+        long totalRowsIn() {
+            return rowsIn.sum();
+        }
+
+        long totalRowsOut() {
+            return rowsOut.sum();
+        }
+
+        long totalBytesRead() {
+            return bytesRead.sum();
+        }
+
+        long totalBytesWritten() {
+            return bytesWritten.sum();
+        }
+    }
+
+    /**
+     * Contadores do estágio que está rodando na thread atual. Fora de um
+     * pipeline devolve uma instância descartável (chamar é sempre seguro).
+     */
+    public static StageMetrics metrics() {
+        StageMetrics metrics = CURRENT.get();
+        return metrics != null ? metrics : DETACHED;
+    }
+
+    /**
+     * Métricas de um estágio.
+     *
+     * @param name nome do estágio
+     * @param parallelism threads do estágio
+     * @param itemsIn itens recebidos
+     * @param itemsOut itens emitidos
+     * @param rowsIn linhas recebidas (informadas pelo estágio)
+     * @param rowsOut linhas emitidas/gravadas (informadas pelo estágio)
+     * @param bytesRead bytes lidos (informados pelo estágio)
+     * @param bytesWritten bytes gravados (informados pelo estágio)
+     * @param busyNanos tempo somado das threads processando (sem esperas)
+     * @param blockedNanos tempo somado esperando fila cheia no próximo estágio
+     * @param cpuNanos CPU somada das threads do estágio (ThreadMXBean)
+     * @param allocatedBytes bytes alocados pelas threads do estágio
+     * @param startNanos início do primeiro trabalho, relativo ao início do
+     * pipeline
+     * @param endNanos fim do estágio, relativo ao início do pipeline
+     */
+    public record StageStats(String name, int parallelism, long itemsIn, long itemsOut,
+            long rowsIn, long rowsOut, long bytesRead, long bytesWritten,
+            long busyNanos, long blockedNanos, long cpuNanos, long allocatedBytes,
+            long startNanos, long endNanos) {
+
+        /**
+         * Tempo efetivo do estágio considerando as threads em paralelo.
+         */
+        public long effectiveNanos() {
+            return busyNanos / parallelism;
+        }
+
+        /**
+         * Do primeiro trabalho até o fim do estágio.
+         */
+        public long wallNanos() {
+            return Math.max(0, endNanos - startNanos);
+        }
+    }
+
+    /**
+     * Resultado de uma execução.
+     *
+     * @param startNanos System.nanoTime() no início do pipeline
+     * @param wallNanos duração total do pipeline
+     * @param stages métricas na ordem dos estágios
+     */
+    public record Result(long startNanos, long wallNanos, List<StageStats> stages) {
+
+        public StageStats slowestStage() {
+            StageStats slowest = stages.get(0);
+            for (StageStats stage : stages) {
+                if (stage.effectiveNanos() > slowest.effectiveNanos()) {
+                    slowest = stage;
+                }
+            }
+            return slowest;
+        }
+
+        /**
+         * Soma dos tempos efetivos: o que uma execução sequencial levaria.
+         */
+        public long sequentialNanos() {
+            return stages.stream().mapToLong(StageStats::effectiveNanos).sum();
+        }
+
+        public void print() {
+            System.out.printf("Pipeline: %d ms (estágio mais lento: %s, soma dos estágios: %d ms)%n",
+                    wallNanos / 1_000_000, slowestStage().name(), sequentialNanos() / 1_000_000);
+            for (StageStats s : stages) {
+                System.out.printf("  %-12s x%d  in=%d out=%d  ocupado=%d ms  bloqueado=%d ms  cpu=%d ms  alocado=%d MB%n",
+                        s.name(), s.parallelism(), s.itemsIn(), s.itemsOut(),
+                        s.effectiveNanos() / 1_000_000, s.blockedNanos() / s.parallelism() / 1_000_000,
+                        s.cpuNanos() / 1_000_000, s.allocatedBytes() / (1024 * 1024));
+            }
+        }
+    }
+
+    /**
+     * Estado de um estágio durante a execução.
+     */
+    private static final class Node {
+
+        final String name;
+        final int parallelism;
+        final BlockingQueue<Object> queue;
+        final Stage<Object, Object> stage;
+        final AtomicInteger activeWorkers;
+        final LongAdder itemsIn = new LongAdder();
+        final LongAdder itemsOut = new LongAdder();
+        final LongAdder busyNanos = new LongAdder();
+        final LongAdder blockedNanos = new LongAdder();
+        final LongAdder cpuNanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final StageMetrics metrics = new StageMetrics();
+        final AtomicLong startNanos = new AtomicLong();
+        volatile long endNanos;
+
+        Node(String name, int parallelism, int queueCapacity, Stage<Object, Object> stage) {
+            this.name = name;
+            this.parallelism = parallelism;
+            // A fonte não tem fila de entrada
+            this.queue = queueCapacity > 0 ? new ArrayBlockingQueue<>(queueCapacity) : null;
+            this.stage = stage;
+            this.activeWorkers = new AtomicInteger(parallelism);
+        }
+    }
+
+    private static final class Execution {
+
+        private final List<Node> nodes;
+        private final List<Thread> threads = new ArrayList<>();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private long startNanos;
+
+        Execution(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        Result run() throws Exception {
+            startNanos = System.nanoTime();
+            for (int i = 0; i < nodes.size(); i++) {
+                Node node = nodes.get(i);
+                Node next = i + 1 < nodes.size() ? nodes.get(i + 1) : null;
+                for (int w = 0; w < node.parallelism; w++) {
+                    int worker = w;
+                    Thread thread = new Thread(() -> work(node, next, worker), "pipeline-" + node.name + "-" + w);
+                    thread.setDaemon(true);
+                    threads.add(thread);
+                }
+            }
+            threads.forEach(Thread::start);
+
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                abort(e);
+                Thread.currentThread().interrupt();
+            }
+            long wall = System.nanoTime() - startNanos;
+
+            Throwable error = failure.get();
+            if (error instanceof Exception exception) {
+                throw exception;
+            }
+            if (error instanceof Error fatal) {
+                throw fatal;
+            }
+
+            List<StageStats> stats = new ArrayList<>();
+            for (Node node : nodes) {
+                long stageStart = node.startNanos.get();
+                stats.add(new StageStats(node.name, node.parallelism, node.itemsIn.sum(), node.itemsOut.sum(),
+                        node.metrics.totalRowsIn(), node.metrics.totalRowsOut(),
+                        node.metrics.totalBytesRead(), node.metrics.totalBytesWritten(),
+                        node.busyNanos.sum(), node.blockedNanos.sum(), node.cpuNanos.sum(), node.allocatedBytes.sum(),
+                        stageStart == 0 ? 0 : stageStart - startNanos, node.endNanos - startNanos));
+            }
+            return new Result(startNanos, wall, Collections.unmodifiableList(stats));
+        }
+
+        private void work(Node node, Node next, int worker) {
+            IngestEvents.PipelineStage event = new IngestEvents.PipelineStage();
+            event.begin();
+            long items = 0;
+            boolean failed = true;
+            // Tempo bloqueado desta thread, descontado do tempo ocupado
+            long[] blocked = {0};
+            Emitter<Object> out = next == null
+                    ? item -> node.itemsOut.increment()
+                    : item -> {
+                        long start = System.nanoTime();
+                        next.queue.put(item);
+                        long waited = System.nanoTime() - start;
+                        blocked[0] += waited;
+                        node.blockedNanos.add(waited);
+                        node.itemsOut.increment();
+                    };
+            CURRENT.set(node.metrics);
+            long cpuStart = ThreadUsage.cpuNanos();
+            long allocatedStart = ThreadUsage.allocatedBytes();
+            try {
+                if (node.queue == null) {
+                    timed(node, blocked, () -> node.stage.process(null, out));
+                } else {
+                    Object item;
+                    while ((item = node.queue.take()) != END) {
+                        node.itemsIn.increment();
+                        items++;
+                        Object current = item;
+                        timed(node, blocked, () -> node.stage.process(current, out));
+                    }
+                }
+                if (node.activeWorkers.decrementAndGet() == 0) {
+                    timed(node, blocked, () -> node.stage.finish(out));
+                    node.endNanos = System.nanoTime();
+                    if (next != null) {
+                        for (int i = 0; i < next.parallelism; i++) {
+                            next.queue.put(END);
+                        }
+                    }
+                }
+                failed = false;
+            } catch (InterruptedException e) {
+                // Interrompido por falha em outro estágio
+                abort(e);
+            } catch (Throwable t) {
+                abort(t);
+            } finally {
+                node.cpuNanos.add(ThreadUsage.cpuNanos() - cpuStart);
+                node.allocatedBytes.add(ThreadUsage.allocatedBytes() - allocatedStart);
+                CURRENT.remove();
+                event.end();
+                if (event.shouldCommit()) {
+                    event.stage = node.name;
+                    event.worker = worker;
+                    event.items = items;
+                    event.blockedNanos = blocked[0];
+                    event.failed = failed;
+                    event.commit();
+                }
+            }
+        }
+
+        @FunctionalInterface
+        private interface Work {
+
+            void run() throws Exception;
+        }
+
+        /**
+         * Mede o tempo ocupado descontando o tempo bloqueado em filas cheias.
+         */
+        private static void timed(Node node, long[] blocked, Work work) throws Exception {
+            long blockedBefore = blocked[0];
+            long start = System.nanoTime();
+            node.startNanos.compareAndSet(0, start);
+            try {
+                work.run();
+            } finally {
+                node.busyNanos.add(System.nanoTime() - start - (blocked[0] - blockedBefore));
+            }
+        }
+
+        /**
+         * Guarda a primeira falha e interrompe todas as threads (desbloqueia
+         * put/take nas filas).
+         */
+        private void abort(Throwable t) {
+            if (failure.compareAndSet(null, t)) {
+                for (Thread thread : threads) {
+                    if (thread != Thread.currentThread()) {
+                        thread.interrupt();
+                    }
+                }
+            } else if (!(t instanceof InterruptedException) && failure.get() != t) {
+                failure.get().addSuppressed(t);
+            }
+        }
+    }
+}
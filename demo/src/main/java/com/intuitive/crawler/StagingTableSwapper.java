@@ -0,0 +1,277 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Gerencia as tabelas sombra (*_staging) usadas na troca de dataset sem
+ * downtime.
+ *
+ * Fluxo: criar staging sem índices secundários → carga → criar índices →
+ * validar → FK → trocar pelas tabelas vivas.
+ *
+ * Trade-off: RENAME TABLE (MySQL) troca as quatro tabelas em um único
+ * statement atômico. - No H2 não existe rename múltiplo: a troca roda em modo
+ * exclusivo (SET EXCLUSIVE), então outras sessões esperam em vez de ver uma
+ * tabela faltando.
+ */
+class StagingTableSwapper {
+
+    static final String OPERADORAS = "operadoras";
+    static final String DESPESAS = "despesas_agregadas";
+    static final String STAGING_SUFFIX = "_staging";
+
+    // Mesmas colunas do schema.sql, sem UNIQUE/FK/índices (criados após a carga)
+    private static final String OPERADORAS_DDL = """
+        CREATE TABLE operadoras_staging (
+            id BIGINT AUTO_INCREMENT PRIMARY KEY,
+            cnpj VARCHAR(14) NOT NULL,
+            razao_social VARCHAR(255),
+            nome_fantasia VARCHAR(255),
+            uf VARCHAR(2),
+            modalidade VARCHAR(100),
+            is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE,
+            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+        )
+        """;
+
+    private static final String DESPESAS_DDL = """
+        CREATE TABLE despesas_agregadas_staging (
+            id BIGINT AUTO_INCREMENT PRIMARY KEY,
+            cnpj_operadora VARCHAR(14) NOT NULL,
+            codigo_conta VARCHAR(20) NOT NULL,
+            valor_total DECIMAL(15, 2) NOT NULL,
+            competencia VARCHAR(7) NOT NULL DEFAULT '',
+            created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+        )
+        """;
+
+    /**
+     * Índices secundários: {nome, tabela, definição}.
+     */
+    private static final List<String[]> INDEXES = List.of(
+            new String[]{"idx_cnpj", OPERADORAS, "UNIQUE INDEX %s ON %s(cnpj)"},
+            // Paginação por chave da API (OperadoraRepository.findAllKeyset)
+            new String[]{"idx_nome_fantasia_cnpj", OPERADORAS, "INDEX %s ON %s(nome_fantasia, cnpj)"},
+            // Filtro de operadoras reais da API já na ordem da listagem
+            new String[]{"idx_real_nome_fantasia_cnpj", OPERADORAS, "INDEX %s ON %s(is_operadora_real, nome_fantasia, cnpj)"},
+            new String[]{"idx_cnpj_conta", DESPESAS, "INDEX %s ON %s(cnpj_operadora, codigo_conta)"},
+            new String[]{"idx_valor", DESPESAS, "INDEX %s ON %s(valor_total)"},
+            new String[]{"idx_competencia", DESPESAS, "INDEX %s ON %s(competencia)"}
+    );
+
+    private final Connection conn;
+    private final boolean mysql;
+
+    StagingTableSwapper(Connection conn) throws SQLException {
+        this.conn = conn;
+        this.mysql = "MySQL".equalsIgnoreCase(conn.getMetaData().getDatabaseProductName());
+    }
+
+    /**
+     * Remove restos de execuções anteriores e cria as tabelas sombra vazias.
+     */
+    void createStagingTables() throws SQLException {
+        dropStagingTables();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(OPERADORAS_DDL);
+            stmt.execute(DESPESAS_DDL);
+        }
+    }
+
+    /**
+     * Cria os índices secundários nas tabelas sombra (depois da carga, em uma
+     * passada).
+     */
+    void buildIndexes() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String[] index : INDEXES) {
+                stmt.execute("CREATE " + String.format(index[2], stagingIndexName(index[0]), index[1] + STAGING_SUFFIX));
+            }
+        }
+    }
+
+    /**
+     * Adiciona a FK despesas → operadoras (após a validação de órfãos).
+     */
+    void addForeignKey() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE despesas_agregadas_staging ADD FOREIGN KEY (cnpj_operadora) "
+                    + "REFERENCES operadoras_staging(cnpj)");
+        }
+    }
+
+    /**
+     * Copia para a staging as despesas vivas de outras competências (e as
+     * operadoras que elas referenciam), para que a troca só substitua as
+     * competências presentes na nova carga.
+     *
+     * Despesas sem competência ('', anteriores à coluna) não são copiadas
+     * quando a carga tem competência: antes dela toda importação substituía o
+     * dataset inteiro, então a primeira carga por trimestre faz o mesmo com
+     * elas. - Copiá-las somaria o trimestre duas vezes ao reimportá-lo. -
+     * Limitação: trimestres antigos que só existiam sem competência precisam
+     * ser reimportados (backfill).
+     *
+     * @param competencias competências carregadas na staging
+     * @return {operadoras copiadas, despesas copiadas}
+     */
+    int[] carryOverOtherCompetencias(Set<String> competencias) throws SQLException {
+        if (!tableExists(OPERADORAS) || !tableExists(DESPESAS)) {
+            return new int[]{0, 0};
+        }
+        String others = competencias.isEmpty()
+                ? "1 = 1"
+                : "competencia NOT IN (" + String.join(", ", Collections.nCopies(competencias.size(), "?")) + ")"
+                + (competencias.contains("") ? "" : " AND competencia <> ''");
+
+        int operadoras;
+        int despesas;
+        try (PreparedStatement ps = conn.prepareStatement("""
+                INSERT INTO operadoras_staging (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real)
+                SELECT o.cnpj, o.razao_social, o.nome_fantasia, o.uf, o.modalidade, o.is_operadora_real
+                FROM operadoras o
+                WHERE o.cnpj IN (SELECT cnpj_operadora FROM despesas_agregadas WHERE %s)
+                  AND o.cnpj NOT IN (SELECT cnpj FROM operadoras_staging)
+                """.formatted(others))) {
+            bind(ps, competencias);
+            operadoras = ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement("""
+                INSERT INTO despesas_agregadas_staging (cnpj_operadora, codigo_conta, valor_total, competencia)
+                SELECT cnpj_operadora, codigo_conta, valor_total, competencia
+                FROM despesas_agregadas
+                WHERE %s
+                """.formatted(others))) {
+            bind(ps, competencias);
+            despesas = ps.executeUpdate();
+        }
+        return new int[]{operadoras, despesas};
+    }
+
+    /**
+     * Confere contagens e órfãos antes da troca.
+     *
+     * @param expectedOperadoras operadoras esperadas na staging
+     * @param expectedDespesas despesas esperadas na staging
+     * @throws IllegalStateException se a staging não passar na validação
+     */
+    void validate(int expectedOperadoras, int expectedDespesas) throws SQLException {
+        long operadoras = queryLong("SELECT COUNT(*) FROM operadoras_staging");
+        long despesas = queryLong("SELECT COUNT(*) FROM despesas_agregadas_staging");
+
+        if (operadoras == 0) {
+            throw new IllegalStateException("Staging sem operadoras: troca cancelada");
+        }
+        if (operadoras != expectedOperadoras || despesas != expectedDespesas) {
+            throw new IllegalStateException(String.format(
+                    "Contagem divergente na staging: operadoras %d/%d, despesas %d/%d",
+                    operadoras, expectedOperadoras, despesas, expectedDespesas));
+        }
+
+        long orphans = queryLong("""
+            SELECT COUNT(*) FROM despesas_agregadas_staging d
+            LEFT JOIN operadoras_staging o ON o.cnpj = d.cnpj_operadora
+            WHERE o.cnpj IS NULL
+            """);
+        if (orphans > 0) {
+            throw new IllegalStateException(orphans + " despesas sem operadora na staging: troca cancelada");
+        }
+    }
+
+    /**
+     * Troca as tabelas sombra pelas vivas e descarta as antigas.
+     */
+    void swap() throws SQLException {
+        boolean liveExists = tableExists(OPERADORAS) && tableExists(DESPESAS);
+
+        try (Statement stmt = conn.createStatement()) {
+            if (mysql) {
+                stmt.execute(liveExists
+                        ? "RENAME TABLE operadoras TO operadoras_old, operadoras_staging TO operadoras, "
+                        + "despesas_agregadas TO despesas_agregadas_old, despesas_agregadas_staging TO despesas_agregadas"
+                        : "RENAME TABLE operadoras_staging TO operadoras, despesas_agregadas_staging TO despesas_agregadas");
+            } else {
+                stmt.execute("SET EXCLUSIVE 1");
+                try {
+                    if (liveExists) {
+                        stmt.execute("ALTER TABLE despesas_agregadas RENAME TO despesas_agregadas_old");
+                        stmt.execute("ALTER TABLE operadoras RENAME TO operadoras_old");
+                    }
+                    stmt.execute("ALTER TABLE operadoras_staging RENAME TO operadoras");
+                    stmt.execute("ALTER TABLE despesas_agregadas_staging RENAME TO despesas_agregadas");
+                } finally {
+                    stmt.execute("SET EXCLUSIVE 0");
+                }
+            }
+
+            // Filhas antes das mães por causa da FK
+            stmt.execute("DROP TABLE IF EXISTS despesas_agregadas_old");
+            stmt.execute("DROP TABLE IF EXISTS operadoras_old");
+
+            if (!mysql) {
+                // Nomes de índice são globais no H2: só agora o nome definitivo está livre
+                for (String[] index : INDEXES) {
+                    stmt.execute("ALTER INDEX " + stagingIndexName(index[0]) + " RENAME TO " + index[0]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Se as duas tabelas sombra existem (carga retomável em andamento).
+     */
+    boolean stagingTablesExist() throws SQLException {
+        return tableExists(OPERADORAS + STAGING_SUFFIX) && tableExists(DESPESAS + STAGING_SUFFIX);
+    }
+
+    /**
+     * Descarta tabelas sombra/antigas que tenham sobrado (falha ou limpeza).
+     */
+    void dropStagingTables() throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS despesas_agregadas_staging");
+            stmt.execute("DROP TABLE IF EXISTS operadoras_staging");
+            stmt.execute("DROP TABLE IF EXISTS despesas_agregadas_old");
+            stmt.execute("DROP TABLE IF EXISTS operadoras_old");
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Set<String> values) throws SQLException {
+        int index = 1;
+        for (String value : values) {
+            ps.setString(index++, value);
+        }
+    }
+
+    private String stagingIndexName(String name) {
+        // No MySQL o nome do índice é por tabela e acompanha o RENAME
+        return mysql ? name : name + STAGING_SUFFIX;
+    }
+
+    private boolean tableExists(String table) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        for (String candidate : new String[]{table, table.toUpperCase()}) {
+            try (ResultSet rs = meta.getTables(conn.getCatalog(), null, candidate, new String[]{"TABLE"})) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private long queryLong(String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
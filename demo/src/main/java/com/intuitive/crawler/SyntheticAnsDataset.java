@@ -0,0 +1,464 @@
+package com.intuitive.crawler;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Gerador de dados sintéticos no formato da ANS: CSV trimestral de
+ * demonstrações contábeis (também em ZIP, como no FTP) e CSV de cadastro de
+ * operadoras, em escala configurável.
+ *
+ * Trade-off: gerador determinístico vs. amostra real anonimizada. - A mesma
+ * semente gera os mesmos bytes em qualquer máquina, então benchmarks do
+ * parser, enriquecimento e agregação são reproduzíveis. - Cada operadora tem
+ * seu próprio gerador (semente + índice), então o conteúdo não depende da
+ * ordem nem do tamanho do lote de escrita. - Limitação: distribuições
+ * aproximadas (valores log-normais, contas sorteadas da árvore), não
+ * estatísticas reais da ANS.
+ *
+ * O que o arquivo exercita: - plano de contas hierárquico (1 a 7 dígitos,
+ * contas pai e filhas no mesmo trimestre); - valores no formato brasileiro
+ * (vírgula decimal, parte com separador de milhar, negativos); - nomes
+ * acentuados em ISO-8859-1; - aspas duplicadas, células sem aspas e células
+ * vazias; - linhas órfãs (REG_ANS fora do cadastro).
+ *
+ * O cadastro usa a coluna REG_ANS (e não CNPJ) porque o enriquecimento indexa
+ * pela primeira dessas colunas que existir.
+ *
+ * Uso: java ... SyntheticAnsDataset &lt;diretório&gt; &lt;operadoras&gt;
+ * &lt;de&gt; [até] [semente]
+ */
+public class SyntheticAnsDataset {
+
+    public static final String FINANCIAL_HEADER
+            = "\"DATA\";\"REG_ANS\";\"CD_CONTA_CONTABIL\";\"DESCRICAO\";\"VL_SALDO_INICIAL\";\"VL_SALDO_FINAL\"";
+    public static final String CADASTRO_HEADER
+            = "\"REG_ANS\";\"RAZAO_SOCIAL\";\"NOME_FANTASIA\";\"MODALIDADE\";\"CIDADE\";\"UF\"";
+
+    // REG_ANS sintéticos: 6 dígitos a partir daqui
+    private static final int FIRST_REG_ANS = 300_000;
+    private static final int MAX_OPERADORAS = 600_000;
+
+    /**
+     * Parâmetros do gerador.
+     *
+     * @param seed semente (mesma semente = mesmos bytes)
+     * @param operadoras operadoras no arquivo financeiro (1k a 100k+)
+     * @param contasPorOperadora linhas de conta por operadora no trimestre
+     * @param orphanShare fração das operadoras ausentes do cadastro (0 a 1)
+     * @param thousandsShare fração dos valores com separador de milhar
+     * ("1.234,56")
+     * @param quotingEdgeShare fração das linhas com aspas duplicadas, células
+     * sem aspas ou vazias
+     * @param semicolonInQuotes inclui ';' dentro de campos entre aspas (o
+     * {@link CsvParserService} atual não suporta; desligado por padrão)
+     */
+    public record Config(long seed, int operadoras, int contasPorOperadora, double orphanShare,
+            double thousandsShare, double quotingEdgeShare, boolean semicolonInQuotes) {
+
+        public Config {
+            if (operadoras < 1 || operadoras > MAX_OPERADORAS) {
+                throw new IllegalArgumentException("Operadoras fora do limite (1 a " + MAX_OPERADORAS + "): " + operadoras);
+            }
+            if (contasPorOperadora < 1 || contasPorOperadora > ACCOUNTS.length) {
+                throw new IllegalArgumentException("Contas por operadora fora do limite (1 a " + ACCOUNTS.length + "): "
+                        + contasPorOperadora);
+            }
+            if (orphanShare < 0 || orphanShare > 1 || thousandsShare < 0 || thousandsShare > 1
+                    || quotingEdgeShare < 0 || quotingEdgeShare > 1) {
+                throw new IllegalArgumentException("Frações devem estar entre 0 e 1.");
+            }
+        }
+
+        /**
+         * Padrão: 40 contas por operadora, 2% de órfãs, 30% dos valores com
+         * milhar e 1% de linhas com casos de aspas.
+         */
+        public static Config of(int operadoras, long seed) {
+            return new Config(seed, operadoras, 40, 0.02, 0.3, 0.01, false);
+        }
+
+        public Config withOrphanShare(double share) {
+            return new Config(seed, operadoras, contasPorOperadora, share, thousandsShare, quotingEdgeShare, semicolonInQuotes);
+        }
+
+        public Config withContasPorOperadora(int contas) {
+            return new Config(seed, operadoras, contas, orphanShare, thousandsShare, quotingEdgeShare, semicolonInQuotes);
+        }
+
+        public Config withSemicolonInQuotes(boolean enabled) {
+            return new Config(seed, operadoras, contasPorOperadora, orphanShare, thousandsShare, quotingEdgeShare, enabled);
+        }
+    }
+
+    /**
+     * Arquivos e contagens de um trimestre gerado.
+     *
+     * @param financialCsv CSV de demonstrações contábeis (null se só o ZIP)
+     * @param zip ZIP com o CSV, como publicado no FTP (null se só o CSV)
+     * @param cadastroCsv CSV de cadastro de operadoras
+     * @param linhas linhas de dados no CSV financeiro
+     * @param linhasOrfas linhas cuja operadora não está no cadastro
+     */
+    public record Output(Path financialCsv, Path zip, Path cadastroCsv, long linhas, long linhasOrfas) {
+
+    }
+
+    // Contagens de uma escrita do arquivo financeiro
+    private record Counts(long linhas, long linhasOrfas) {
+
+    }
+
+    /**
+     * Conta do plano de contas sintético.
+     */
+    private record Account(String code, String descricao, int depth) {
+
+    }
+
+    private static final String[] ROOTS = {
+        "ATIVO",
+        "PASSIVO",
+        "CONTRAPRESTAÇÕES EFETIVAS DE PLANO DE ASSISTÊNCIA À SAÚDE",
+        "EVENTOS INDENIZÁVEIS LÍQUIDOS / SINISTROS RETIDOS"
+    };
+
+    private static final String[] ACCOUNT_TERMS = {
+        "ASSISTÊNCIA MÉDICO-HOSPITALAR",
+        "ASSISTÊNCIA ODONTOLÓGICA",
+        "CONSULTAS MÉDICAS",
+        "EXAMES",
+        "TERAPIAS",
+        "INTERNAÇÕES",
+        "OUTROS ATENDIMENTOS AMBULATORIAIS",
+        "DEMAIS DESPESAS MÉDICO-HOSPITALARES",
+        "PROVISÃO DE EVENTOS/SINISTROS A LIQUIDAR",
+        "CORRESPONSABILIDADE ASSUMIDA",
+        "(-) RECUPERAÇÃO DE EVENTOS",
+        "CARTEIRA DE PLANOS INDIVIDUAIS/FAMILIARES",
+        "PLANOS COLETIVOS EMPRESARIAIS",
+        "PLANOS COLETIVOS POR ADESÃO",
+        "PRÉ-ESTABELECIDO",
+        "PÓS-ESTABELECIDO",
+        "REDE PRÓPRIA",
+        "REDE CONTRATADA",
+        "REEMBOLSO",
+        "RESSARCIMENTO AO SUS",
+        "(-) GLOSAS",
+        "APLICAÇÕES GARANTIDORAS DE PROVISÕES TÉCNICAS"
+    };
+
+    private static final String[] NAME_PREFIXES = {
+        "COOPERATIVA DE TRABALHO MÉDICO", "ASSOCIAÇÃO BENEFICENTE", "SOCIEDADE ASSISTENCIAL", "CAIXA DE ASSISTÊNCIA",
+        "ODONTOPREV", "SAÚDE", "HOSPITAL", "CLÍNICA", "FUNDAÇÃO", "INSTITUTO DE PREVIDÊNCIA E ASSISTÊNCIA"
+    };
+
+    private static final String[] NAME_PLACES = {
+        "SÃO JOSÉ", "SÃO PAULO", "CONCEIÇÃO DO ARAGUAIA", "GOIÂNIA", "ITAJAÍ", "MARÍLIA", "PARAÍBA", "CEARÁ",
+        "JUNDIAÍ", "MACEIÓ", "BELÉM", "VITÓRIA", "FLORIANÓPOLIS", "RIBEIRÃO PRETO", "SANTA MARIA", "AÇAÍ"
+    };
+
+    private static final String[] NAME_SUFFIXES = {"LTDA", "S.A.", "S/A", "LTDA.", "", "- EM LIQUIDAÇÃO"};
+
+    private static final String[] MODALIDADES = {
+        "Cooperativa Médica", "Medicina de Grupo", "Odontologia de Grupo", "Autogestão", "Filantropia",
+        "Seguradora Especializada em Saúde", "Cooperativa Odontológica"
+    };
+
+    private static final String[][] CIDADES = {
+        {"São Paulo", "SP"}, {"Ribeirão Preto", "SP"}, {"Rio de Janeiro", "RJ"}, {"Belo Horizonte", "MG"},
+        {"Goiânia", "GO"}, {"Maceió", "AL"}, {"Belém", "PA"}, {"Florianópolis", "SC"}, {"Vitória", "ES"},
+        {"Curitiba", "PR"}, {"Porto Alegre", "RS"}, {"Brasília", "DF"}
+    };
+
+    // Plano de contas fixo (independe da semente): 4 raízes, 3 filhas por nível, até 7 dígitos
+    private static final Account[] ACCOUNTS = buildAccounts();
+    private static final int[] ROOT_POSITIONS = rootPositions();
+
+    private final Config config;
+
+    public SyntheticAnsDataset(Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Gera ZIP e cadastro de um trimestre em dir/ (ex: 4T2024.zip com
+     * 4T2024.csv dentro, e Relatorio_cadop.csv).
+     *
+     * @param dir diretório de saída (criado se não existir)
+     * @param trimestre competência das linhas
+     * @return arquivos e contagens
+     */
+    public Output writeQuarter(Path dir, Trimestre trimestre) throws IOException {
+        Files.createDirectories(dir);
+        Path zip = dir.resolve(trimestre.label() + ".zip");
+        Counts counts = writeZip(zip, trimestre);
+        Path cadastro = writeCadastro(dir.resolve("Relatorio_cadop.csv"));
+        return new Output(null, zip, cadastro, counts.linhas(), counts.linhasOrfas());
+    }
+
+    /**
+     * Gera o CSV financeiro sem compactar e o cadastro (uso em testes e
+     * benchmarks que leem o CSV direto).
+     */
+    public Output writeQuarterCsv(Path dir, Trimestre trimestre) throws IOException {
+        Files.createDirectories(dir);
+        Path csv = dir.resolve(trimestre.label() + ".csv");
+        Counts counts;
+        try (Writer writer = newWriter(Files.newOutputStream(csv))) {
+            counts = writeFinancial(writer, trimestre);
+        }
+        Path cadastro = writeCadastro(dir.resolve("Relatorio_cadop.csv"));
+        return new Output(csv, null, cadastro, counts.linhas(), counts.linhasOrfas());
+    }
+
+    private Counts writeZip(Path zip, Trimestre trimestre) throws IOException {
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(zip))) {
+            out.putNextEntry(new ZipEntry(trimestre.label() + ".csv"));
+            Writer writer = newWriter(out);
+            Counts counts = writeFinancial(writer, trimestre);
+            writer.flush();
+            out.closeEntry();
+            return counts;
+        }
+    }
+
+    /**
+     * Escreve o CSV de cadastro (só as operadoras não órfãs).
+     */
+    public Path writeCadastro(Path file) throws IOException {
+        try (Writer writer = newWriter(Files.newOutputStream(file))) {
+            writer.write(CADASTRO_HEADER);
+            writer.write('\n');
+            for (int i = 0; i < config.operadoras(); i++) {
+                SplittableRandom identity = identity(i);
+                if (isOrphan(identity)) {
+                    continue;
+                }
+                String[] nomes = nomes(i, identity);
+                String[] cidade = CIDADES[identity.nextInt(CIDADES.length)];
+                writer.write(String.join(";",
+                        quote(regAns(i)), quote(nomes[0]), quote(nomes[1]),
+                        quote(MODALIDADES[identity.nextInt(MODALIDADES.length)]), quote(cidade[0]), quote(cidade[1])));
+                writer.write('\n');
+            }
+        }
+        return file;
+    }
+
+    /**
+     * Escreve o CSV financeiro do trimestre (header + linhas), operadora por
+     * operadora, sem montar o arquivo em memória.
+     */
+    private Counts writeFinancial(Writer writer, Trimestre trimestre) throws IOException {
+        String data = quote(String.format("%d-%02d-01", trimestre.ano(), (trimestre.numero() - 1) * 3 + 1));
+        long linhas = 0;
+        long orfas = 0;
+
+        writer.write(FINANCIAL_HEADER);
+        writer.write('\n');
+        StringBuilder line = new StringBuilder(160);
+        for (int i = 0; i < config.operadoras(); i++) {
+            SplittableRandom identity = identity(i);
+            boolean orphan = isOrphan(identity);
+            String regAns = regAns(i);
+
+            // Valores mudam por trimestre; identidade e contas não
+            SplittableRandom values = new SplittableRandom(mix(config.seed(), i, trimestre.ano() * 4L + trimestre.numero()));
+            for (Account account : accountsOf(identity)) {
+                line.setLength(0);
+                boolean edge = values.nextDouble() < config.quotingEdgeShare();
+                int edgeKind = edge ? values.nextInt(4) : -1;
+
+                line.append(data).append(';');
+                line.append(edgeKind == 0 ? regAns : quote(regAns)).append(';');
+                line.append(quote(account.code())).append(';');
+                line.append(quote(edgeKind == 1 ? embeddedQuotes(account.descricao())
+                        : edgeKind == 2 && config.semicolonInQuotes() ? account.descricao() + "; CONSOLIDADO"
+                        : account.descricao())).append(';');
+                line.append(edgeKind == 3 ? "" : quote(valor(values, account, 0.8))).append(';');
+                line.append(quote(valor(values, account, 1.0)));
+                line.append('\n');
+                writer.append(line);
+
+                linhas++;
+                if (orphan) {
+                    orfas++;
+                }
+            }
+        }
+        return new Counts(linhas, orfas);
+    }
+
+    /**
+     * Contas reportadas pela operadora, em ordem de código (as 4 raízes sempre
+     * presentes).
+     */
+    private List<Account> accountsOf(SplittableRandom identity) {
+        BitSet chosen = new BitSet(ACCOUNTS.length);
+        for (int root = 0; root < ROOT_POSITIONS.length && root < config.contasPorOperadora(); root++) {
+            chosen.set(ROOT_POSITIONS[root]);
+        }
+        while (chosen.cardinality() < config.contasPorOperadora()) {
+            chosen.set(identity.nextInt(ACCOUNTS.length));
+        }
+        List<Account> accounts = new ArrayList<>(config.contasPorOperadora());
+        for (int i = chosen.nextSetBit(0); i >= 0; i = chosen.nextSetBit(i + 1)) {
+            accounts.add(ACCOUNTS[i]);
+        }
+        return accounts;
+    }
+
+    /**
+     * Valor em formato brasileiro: log-normal, maior nas contas de nível
+     * mais alto; negativo em contas "(-)" e em ~5% das demais.
+     */
+    private String valor(SplittableRandom random, Account account, double scale) {
+        double magnitude = Math.exp(random.nextDouble() * 3.0 + 16.0 - account.depth() * 1.2) * scale;
+        long cents = Math.round(magnitude * 100);
+        boolean negative = account.descricao().startsWith("(-)") || random.nextDouble() < 0.05;
+        return formatBrl(negative ? -cents : cents, random.nextDouble() < config.thousandsShare());
+    }
+
+    /**
+     * Centavos → "1234567,89" ou "1.234.567,89".
+     */
+    static String formatBrl(long cents, boolean thousands) {
+        long abs = Math.abs(cents);
+        String inteiro = Long.toString(abs / 100);
+        StringBuilder out = new StringBuilder(inteiro.length() + 8);
+        if (cents < 0) {
+            out.append('-');
+        }
+        if (thousands) {
+            int head = inteiro.length() % 3 == 0 ? 3 : inteiro.length() % 3;
+            out.append(inteiro, 0, head);
+            for (int i = head; i < inteiro.length(); i += 3) {
+                out.append('.').append(inteiro, i, i + 3);
+            }
+        } else {
+            out.append(inteiro);
+        }
+        long centavos = abs % 100;
+        return out.append(',').append(centavos < 10 ? "0" : "").append(centavos).toString();
+    }
+
+    private String[] nomes(int index, SplittableRandom identity) {
+        String prefix = NAME_PREFIXES[identity.nextInt(NAME_PREFIXES.length)];
+        String place = NAME_PLACES[identity.nextInt(NAME_PLACES.length)];
+        String suffix = NAME_SUFFIXES[identity.nextInt(NAME_SUFFIXES.length)];
+        // Sufixo numérico mantém a razão social única em qualquer escala
+        String razao = (prefix + " " + place + " " + (index + 1) + " " + suffix).trim();
+        String fantasia = identity.nextDouble() < config.quotingEdgeShare()
+                ? embeddedQuotes(prefix + " " + place)
+                : prefix.substring(0, Math.min(prefix.length(), 12)).trim() + " " + place;
+        return new String[]{razao, fantasia};
+    }
+
+    private boolean isOrphan(SplittableRandom identity) {
+        return identity.nextDouble() < config.orphanShare();
+    }
+
+    // Gerador da identidade da operadora (órfã, nomes, contas): sempre a mesma sequência de sorteios
+    private SplittableRandom identity(int index) {
+        return new SplittableRandom(mix(config.seed(), index, 0));
+    }
+
+    private static String regAns(int index) {
+        return Integer.toString(FIRST_REG_ANS + index);
+    }
+
+    // Palavra central entre aspas escapadas: HOSPITAL "SÃO JOSÉ" → HOSPITAL ""SÃO JOSÉ"" no CSV
+    private static String embeddedQuotes(String text) {
+        int space = text.indexOf(' ');
+        return space < 0 ? "\"" + text + "\"" : text.substring(0, space + 1) + "\"" + text.substring(space + 1) + "\"";
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static long mix(long seed, long index, long salt) {
+        // SplitMix64: sementes próximas geram sequências independentes
+        long z = seed + index * 0x9E3779B97F4A7C15L + salt * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static Writer newWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.ISO_8859_1), 1 << 16);
+    }
+
+    private static Account[] buildAccounts() {
+        List<Account> accounts = new ArrayList<>();
+        for (int root = 0; root < ROOTS.length; root++) {
+            accounts.add(new Account(Integer.toString(root + 1), ROOTS[root], 1));
+        }
+        // Nível a nível: código do pai + dígito 1..3
+        int levelStart = 0;
+        for (int depth = 2; depth <= 7; depth++) {
+            int levelEnd = accounts.size();
+            for (int parent = levelStart; parent < levelEnd; parent++) {
+                String code = accounts.get(parent).code();
+                for (int digit = 1; digit <= 3; digit++) {
+                    String child = code + digit;
+                    String term = ACCOUNT_TERMS[Math.floorMod(child.hashCode(), ACCOUNT_TERMS.length)];
+                    accounts.add(new Account(child, term, depth));
+                }
+            }
+            levelStart = levelEnd;
+        }
+        // Ordem de código (como no arquivo da ANS): raízes primeiro entre seus descendentes
+        Account[] sorted = accounts.toArray(Account[]::new);
+        Arrays.sort(sorted, (a, b) -> a.code().compareTo(b.code()));
+        return sorted;
+    }
+
+    private static int[] rootPositions() {
+        int[] roots = new int[ROOTS.length];
+        int found = 0;
+        for (int i = 0; i < ACCOUNTS.length; i++) {
+            if (ACCOUNTS[i].depth() == 1) {
+                roots[found++] = i;
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * Gera os ZIPs de um intervalo de trimestres.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Uso: SyntheticAnsDataset <diretório> <operadoras> <de> [até] [semente]");
+            System.exit(2);
+        }
+        Path dir = Path.of(args[0]);
+        int operadoras = Integer.parseInt(args[1]);
+        Trimestre de = Trimestre.parse(args[2]);
+        Trimestre ate = args.length > 3 ? Trimestre.parse(args[3]) : de;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+
+        SyntheticAnsDataset dataset = new SyntheticAnsDataset(Config.of(operadoras, seed));
+        for (Trimestre trimestre : Trimestre.range(de, ate)) {
+            long start = System.nanoTime();
+            Output output = dataset.writeQuarter(dir, trimestre);
+            System.out.printf("✓ %s: %d linhas (%d órfãs) em %d ms → %s%n", trimestre.label(), output.linhas(),
+                    output.linhasOrfas(), (System.nanoTime() - start) / 1_000_000, output.zip().toAbsolutePath());
+        }
+    }
+}
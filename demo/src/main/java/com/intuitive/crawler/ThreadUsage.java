@@ -0,0 +1,39 @@
+package com.intuitive.crawler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * CPU e bytes alocados da thread atual via ThreadMXBean.
+ *
+ * Retorna 0 quando a JVM não suporta a medição (os relatórios mostram 0 em vez
+ * de falhar).
+ */
+final class ThreadUsage {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final com.sun.management.ThreadMXBean HOTSPOT_THREADS
+            = THREADS instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemorySupported()
+            ? hotspot : null;
+    private static final boolean CPU_SUPPORTED = THREADS.isCurrentThreadCpuTimeSupported();
+
+    static {
+        if (CPU_SUPPORTED && !THREADS.isThreadCpuTimeEnabled()) {
+            THREADS.setThreadCpuTimeEnabled(true);
+        }
+        if (HOTSPOT_THREADS != null && !HOTSPOT_THREADS.isThreadAllocatedMemoryEnabled()) {
+            HOTSPOT_THREADS.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    private ThreadUsage() {
+    }
+
+    static long cpuNanos() {
+        return CPU_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : 0;
+    }
+
+    static long allocatedBytes() {
+        return HOTSPOT_THREADS != null ? HOTSPOT_THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+}
@@ -0,0 +1,90 @@
+package com.intuitive.crawler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Trimestre de competência das demonstrações contábeis (ex: 4T2024).
+ *
+ * Duas representações: - label(): nome usado pela ANS nos arquivos
+ * ("4T2024.zip"). - competencia(): valor gravado em
+ * despesas_agregadas.competencia ("2024-T4"), que ordena cronologicamente como
+ * texto.
+ *
+ * @param ano ano da competência
+ * @param numero trimestre (1 a 4)
+ */
+public record Trimestre(int ano, int numero) implements Comparable<Trimestre> {
+
+    private static final Pattern LABEL = Pattern.compile("([1-4])T(\\d{4})", Pattern.CASE_INSENSITIVE);
+    private static final Pattern COMPETENCIA = Pattern.compile("(\\d{4})-T([1-4])", Pattern.CASE_INSENSITIVE);
+
+    public Trimestre {
+        if (numero < 1 || numero > 4) {
+            throw new IllegalArgumentException("Trimestre inválido: " + numero);
+        }
+    }
+
+    /**
+     * Aceita "4T2024" (padrão ANS) ou "2024-T4" (competência).
+     *
+     * @throws IllegalArgumentException se o formato não for reconhecido
+     */
+    public static Trimestre parse(String value) {
+        String trimmed = value == null ? "" : value.trim();
+        Matcher label = LABEL.matcher(trimmed);
+        if (label.matches()) {
+            return new Trimestre(Integer.parseInt(label.group(2)), Integer.parseInt(label.group(1)));
+        }
+        Matcher competencia = COMPETENCIA.matcher(trimmed);
+        if (competencia.matches()) {
+            return new Trimestre(Integer.parseInt(competencia.group(1)), Integer.parseInt(competencia.group(2)));
+        }
+        throw new IllegalArgumentException("Trimestre inválido (use 4T2024 ou 2024-T4): " + value);
+    }
+
+    /**
+     * Extrai o trimestre de um nome de arquivo da ANS (ex: "4T2024.zip").
+     */
+    public static Optional<Trimestre> fromFileName(String fileName) {
+        Matcher matcher = LABEL.matcher(fileName == null ? "" : fileName);
+        if (!matcher.find()) {
+            return Optional.empty();
+        }
+        return Optional.of(new Trimestre(Integer.parseInt(matcher.group(2)), Integer.parseInt(matcher.group(1))));
+    }
+
+    /**
+     * Todos os trimestres de {@code from} até {@code to}, inclusive.
+     */
+    public static List<Trimestre> range(Trimestre from, Trimestre to) {
+        if (from.compareTo(to) > 0) {
+            throw new IllegalArgumentException("Intervalo invertido: " + from.label() + " > " + to.label());
+        }
+        List<Trimestre> result = new ArrayList<>();
+        for (Trimestre t = from; t.compareTo(to) <= 0; t = t.next()) {
+            result.add(t);
+        }
+        return result;
+    }
+
+    public Trimestre next() {
+        return numero == 4 ? new Trimestre(ano + 1, 1) : new Trimestre(ano, numero + 1);
+    }
+
+    public String label() {
+        return numero + "T" + ano;
+    }
+
+    public String competencia() {
+        return ano + "-T" + numero;
+    }
+
+    @Override
+    public int compareTo(Trimestre other) {
+        return ano != other.ano ? Integer.compare(ano, other.ano) : Integer.compare(numero, other.numero);
+    }
+}
@@ -1,12 +1,13 @@
 -- Dados mock para desenvolvimento (H2 in-memory)
 
--- Operadoras
-INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade) VALUES
-('00000000000001', 'Operadora A LTDA', 'Operadora A', 'SP', 'Medicina de Grupo'),
-('00000000000002', 'Operadora B SA', 'Operadora B', 'RJ', 'Cooperativa Médica'),
-('00000000000003', 'Operadora C ME', 'Operadora C', 'MG', 'Autogestão'),
-('00000000000004', 'Operadora D EIRELI', 'Operadora D', 'SP', 'Seguradora'),
-('00000000000005', 'Operadora E SA', 'Operadora E', 'RS', 'Filantropia');
+-- Operadoras (is_operadora_real normalmente vem do OperadoraClassifier no importador;
+-- sem ele a coluna fica FALSE e a API não lista nada)
+INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) VALUES
+('00000000000001', 'Operadora A LTDA', 'Operadora A', 'SP', 'Medicina de Grupo', TRUE),
+('00000000000002', 'Operadora B SA', 'Operadora B', 'RJ', 'Cooperativa Médica', TRUE),
+('00000000000003', 'Operadora C ME', 'Operadora C', 'MG', 'Autogestão', TRUE),
+('00000000000004', 'Operadora D EIRELI', 'Operadora D', 'SP', 'Seguradora', TRUE),
+('00000000000005', 'Operadora E SA', 'Operadora E', 'RS', 'Filantropia', TRUE);
 
 -- Despesas agregadas (vários registros por operadora)
 INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES
@@ -7,6 +7,7 @@ CREATE TABLE IF NOT EXISTS operadoras (
     nome_fantasia VARCHAR(255),
     uf VARCHAR(2),
     modalidade VARCHAR(100),
+    is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE,  -- Calculado no importador (OperadoraClassifier): exclui linhas contábeis
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 -- Tabela de Despesas Agregadas (resultado do AggregatorService)
@@ -15,10 +16,30 @@ CREATE TABLE IF NOT EXISTS despesas_agregadas (
     cnpj_operadora VARCHAR(14) NOT NULL,
     codigo_conta VARCHAR(20) NOT NULL,
     valor_total DECIMAL(15, 2) NOT NULL,  -- Justificativa: DECIMAL evita erros de arredondamento
+    competencia VARCHAR(7) NOT NULL DEFAULT '',  -- Trimestre (ex: 2024-T4); cada um é importado como unidade independente
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (cnpj_operadora) REFERENCES operadoras(cnpj)
 );
 
+-- Checkpoint da carga retomável na staging (DatabaseImportService.importDatasetWithSwap com jobId)
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    job_id VARCHAR(100) PRIMARY KEY,
+    last_chunk INT NOT NULL,            -- último chunk commitado (-1 = nenhum)
+    rows_committed BIGINT NOT NULL,
+    total_rows BIGINT NOT NULL,
+    chunk_size INT NOT NULL,
+    fingerprint BIGINT NOT NULL,        -- impressão digital dos registros (retomada segura)
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Versão do dataset (linha única): incrementada na transação de cada importação;
+-- a API compara com a versão que carregou para reconstruir caches/índices em memória
+CREATE TABLE IF NOT EXISTS dataset_version (
+    id INT PRIMARY KEY,
+    version BIGINT NOT NULL,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Índices (criados separadamente para compatibilidade com H2)
 -- Índices para MySQL (idempotente: cria apenas se não existir)
 
@@ -27,11 +48,40 @@ SET @cnt := (SELECT COUNT(1) FROM information_schema.statistics WHERE table_sche
 SET @sql := IF(@cnt = 0, 'CREATE INDEX idx_cnpj ON operadoras(cnpj)', 'SELECT 0');
 PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
 
+-- idx_nome_fantasia_cnpj on operadoras(nome_fantasia, cnpj): paginação por chave (WHERE (nome_fantasia, cnpj) > (?, ?))
+SET @cnt := (SELECT COUNT(1) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'operadoras' AND index_name = 'idx_nome_fantasia_cnpj');
+SET @sql := IF(@cnt = 0, 'CREATE INDEX idx_nome_fantasia_cnpj ON operadoras(nome_fantasia, cnpj)', 'SELECT 0');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- is_operadora_real em bases criadas antes da coluna: adiciona e preenche uma vez com a regra do
+-- antigo FILTRO_OPERADORAS_REAIS (as próximas importações recalculam pelo OperadoraClassifier)
+SET @cnt := (SELECT COUNT(1) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'operadoras' AND column_name = 'is_operadora_real');
+SET @sql := IF(@cnt = 0, 'ALTER TABLE operadoras ADD COLUMN is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE', 'SELECT 0');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+SET @sql := IF(@cnt = 0, 'UPDATE operadoras SET is_operadora_real = (razao_social IS NOT NULL AND LENGTH(TRIM(razao_social)) > 5 AND razao_social NOT LIKE ''(-)%'' AND razao_social NOT LIKE ''%(-) %'' AND razao_social NOT LIKE ''%Acionistas%'' AND razao_social NOT LIKE ''%Provisão%'' AND razao_social NOT LIKE ''%Outros%'' AND razao_social NOT LIKE ''%ATIVO%'' AND razao_social NOT LIKE ''%PASSIVO%'' AND razao_social NOT LIKE ''%PATRIMONIO%'' AND razao_social NOT LIKE ''%RESULTADO%'' AND razao_social NOT LIKE ''%RECEITA%'' AND razao_social NOT LIKE ''%DESPESA%'')', 'SELECT 0');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- idx_real_nome_fantasia_cnpj on operadoras(is_operadora_real, nome_fantasia, cnpj): filtro da API já na ordem da listagem
+SET @cnt := (SELECT COUNT(1) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'operadoras' AND index_name = 'idx_real_nome_fantasia_cnpj');
+SET @sql := IF(@cnt = 0, 'CREATE INDEX idx_real_nome_fantasia_cnpj ON operadoras(is_operadora_real, nome_fantasia, cnpj)', 'SELECT 0');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
 -- idx_cnpj_conta on despesas_agregadas(cnpj_operadora, codigo_conta)
 SET @cnt := (SELECT COUNT(1) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'despesas_agregadas' AND index_name = 'idx_cnpj_conta');
 SET @sql := IF(@cnt = 0, 'CREATE INDEX idx_cnpj_conta ON despesas_agregadas(cnpj_operadora, codigo_conta)', 'SELECT 0');
 PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
 
+-- competencia em bases criadas antes da coluna: as despesas existentes ficam com '' (sem trimestre)
+-- e são substituídas pela primeira importação com competência (ver StagingTableSwapper)
+SET @cnt := (SELECT COUNT(1) FROM information_schema.columns WHERE table_schema = DATABASE() AND table_name = 'despesas_agregadas' AND column_name = 'competencia');
+SET @sql := IF(@cnt = 0, 'ALTER TABLE despesas_agregadas ADD COLUMN competencia VARCHAR(7) NOT NULL DEFAULT '''' AFTER valor_total', 'SELECT 0');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
+-- idx_competencia on despesas_agregadas(competencia)
+SET @cnt := (SELECT COUNT(1) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'despesas_agregadas' AND index_name = 'idx_competencia');
+SET @sql := IF(@cnt = 0, 'CREATE INDEX idx_competencia ON despesas_agregadas(competencia)', 'SELECT 0');
+PREPARE stmt FROM @sql; EXECUTE stmt; DEALLOCATE PREPARE stmt;
+
 -- idx_valor on despesas_agregadas(valor_total)
 SET @cnt := (SELECT COUNT(1) FROM information_schema.statistics WHERE table_schema = DATABASE() AND table_name = 'despesas_agregadas' AND index_name = 'idx_valor');
 SET @sql := IF(@cnt = 0, 'CREATE INDEX idx_valor ON despesas_agregadas(valor_total)', 'SELECT 0');
@@ -0,0 +1,92 @@
+package com.intuitive.api.cache;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.intuitive.api.dto.OperadoraDetalhadaDTO;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.TestSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class DetalhesCacheTest {
+
+    @Test
+    void shouldServeHotOperatorsFromMemoryUntilTheNextImport() throws Exception {
+        JdbcTemplate jdbc = TestSchema.create("detalhescachedb");
+        seed(jdbc);
+        DetalhesCache cache = new DetalhesCache(new OperadoraRepository(jdbc), new DatasetVersionRepository(jdbc, 0), 3, 60_000);
+
+        // Período vem da competência; carga antiga (competência vazia) mantém a heurística pelo código da conta
+        OperadoraDetalhadaDTO detalhes = cache.get("00000000000001");
+        List<OperadoraDetalhadaDTO.DespesaHistoricoDTO> historico = detalhes.getHistoricoDespesas();
+        assertEquals(3, historico.size());
+        assertEquals(List.of("2023/2T", "2024/4T", "2024/1T"), historico.stream()
+                .map(d -> d.getAno() + "/" + d.getTrimestre()).toList());
+
+        // Rajada de misses para o mesmo CNPJ: uma carga só
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<OperadoraDetalhadaDTO>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(() -> {
+                    start.await();
+                    return cache.get("00000000000002");
+                }));
+            }
+            start.countDown();
+            OperadoraDetalhadaDTO primeiro = results.get(0).get();
+            for (Future<OperadoraDetalhadaDTO> result : results) {
+                assertSame(primeiro, result.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(2, cache.stats().loads());
+
+        // CNPJ inexistente não ocupa entrada
+        assertNull(cache.get("99999999999999"));
+        assertNull(cache.get("99999999999999"));
+        assertEquals(2, cache.stats().size());
+
+        // Sem carga nova a alteração não aparece
+        jdbc.update("UPDATE operadoras SET razao_social = 'Renomeada' WHERE cnpj = '00000000000001'");
+        assertSame(detalhes, cache.get("00000000000001"));
+
+        // Carga nova descarta o cache inteiro de uma vez
+        jdbc.update("UPDATE dataset_version SET version = version + 1 WHERE id = 1");
+        assertEquals("Renomeada", cache.get("00000000000001").getRazaoSocial());
+        VersionedCache.Stats stats = cache.stats();
+        assertEquals(1, stats.invalidations());
+        assertEquals(1, stats.size());
+
+        for (int i = 3; i < 7; i++) {
+            cache.get(String.format("%014d", i));
+        }
+        assertEquals(3, cache.stats().size());
+        assertEquals(2, cache.stats().evictions());
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO dataset_version (id, version) VALUES (1, 1)");
+        for (int i = 0; i < 8; i++) {
+            jdbc.update("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                    + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', TRUE)",
+                    String.format("%014d", i), "Operadora " + i, "Op " + i);
+        }
+        String insert = "INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total, competencia) VALUES (?, ?, ?, ?)";
+        jdbc.update(insert, "00000000000001", "3111", BigDecimal.TEN, "2023-T2");
+        jdbc.update(insert, "00000000000001", "411", BigDecimal.ONE, "");
+        jdbc.update(insert, "00000000000001", "4112024", BigDecimal.ONE, "2024-T1");
+    }
+}
@@ -0,0 +1,123 @@
+package com.intuitive.api.cache;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.TestSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class VersionedCacheTest {
+
+    @Test
+    void shouldLoadOncePerVersionForABurstOfConcurrentMisses() throws Exception {
+        AtomicLong version = new AtomicLong(1);
+        AtomicInteger loads = new AtomicInteger();
+        VersionedCache<String, String> cache = new VersionedCache<>("test", 10, 60_000, version::get);
+        ExecutorService pool = Executors.newFixedThreadPool(32);
+        try {
+            for (long v = 1; v <= 3; v++) {
+                version.set(v);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<String>> results = new ArrayList<>();
+                for (int i = 0; i < 32; i++) {
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return cache.get("top5", () -> {
+                            loads.incrementAndGet();
+                            sleep(100);
+                            return "v" + version.get();
+                        });
+                    }));
+                }
+                start.countDown();
+                for (Future<String> result : results) {
+                    assertEquals("v" + v, result.get());
+                }
+                assertEquals(v, loads.get());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        VersionedCache.Stats stats = cache.stats();
+        assertEquals(3, stats.loads());
+        assertEquals(96, stats.hits() + stats.misses());
+    }
+
+    @Test
+    void shouldExpireEvictAndNotCacheFailures() {
+        AtomicInteger loads = new AtomicInteger();
+        VersionedCache<Integer, Integer> cache = new VersionedCache<>("test", 3, 60_000, () -> 1);
+        for (int key = 0; key < 5; key++) {
+            cache.get(key, loads::incrementAndGet);
+        }
+        cache.get(4, loads::incrementAndGet);
+        cache.get(0, loads::incrementAndGet);
+        assertEquals(6, loads.get());
+        assertEquals(3, cache.stats().size());
+        assertEquals(3, cache.stats().evictions());
+
+        IllegalStateException falha = new IllegalStateException("banco fora");
+        assertEquals(falha, assertThrows(IllegalStateException.class, () -> cache.get(9, () -> {
+            throw falha;
+        })));
+        assertEquals(7, cache.get(9, () -> 7));
+
+        VersionedCache<String, Integer> curto = new VersionedCache<>("test", 3, 1, () -> 1);
+        curto.get("a", loads::incrementAndGet);
+        sleep(5);
+        curto.get("a", loads::incrementAndGet);
+        assertEquals(8, loads.get());
+    }
+
+    @Test
+    void shouldRecomputeStatisticsAfterTheImporterBumpsTheDatasetVersion() {
+        JdbcTemplate jdbc = TestSchema.create("estatisticascachedb");
+        jdbc.update("INSERT INTO dataset_version (id, version) VALUES (1, 1)");
+        for (int i = 0; i < 8; i++) {
+            String cnpj = String.format("%014d", i);
+            jdbc.update("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                    + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', TRUE)", cnpj, "Operadora " + i, "Op " + i);
+            jdbc.update("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES (?, '411', ?)",
+                    cnpj, BigDecimal.valueOf(i * 1_000L));
+        }
+        EstatisticasCache estatisticas = new EstatisticasCache(new OperadoraRepository(jdbc),
+                new DatasetVersionRepository(jdbc, 0), 60_000);
+
+        List<OperadoraDTO> antes = estatisticas.top5Despesas();
+        assertEquals("00000000000007", antes.get(0).getCnpj());
+
+        // Sem nova versão a alteração não aparece: o GROUP BY não roda de novo
+        jdbc.update("UPDATE despesas_agregadas SET valor_total = 1000000 WHERE cnpj_operadora = '00000000000000'");
+        assertEquals(antes, estatisticas.top5Despesas());
+        assertEquals(1, estatisticas.stats().get(0).loads());
+
+        // Como o importador faz ao confirmar uma carga
+        jdbc.update("UPDATE dataset_version SET version = version + 1 WHERE id = 1");
+        assertEquals("00000000000000", estatisticas.top5Despesas().get(0).getCnpj());
+        assertEquals(2, estatisticas.stats().get(0).loads());
+        assertEquals(estatisticas.mediaPorConta(), estatisticas.mediaPorConta());
+        assertEquals(1, estatisticas.stats().get(1).loads());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
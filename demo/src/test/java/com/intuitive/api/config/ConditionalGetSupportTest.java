@@ -0,0 +1,218 @@
+package com.intuitive.api.config;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import com.intuitive.api.cache.DetalhesCache;
+import com.intuitive.api.cache.EstatisticasCache;
+import com.intuitive.api.controller.OperadoraController;
+import com.intuitive.api.repository.CountCache;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.ParallelQueries;
+import com.intuitive.api.repository.TestSchema;
+import com.intuitive.api.search.OperadoraSearchIndex;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Fluxo do Spring MVC reproduzido à mão (sem spring-test no projeto):
+ * preHandle, controller e ResponseBodyAdvice, com requisições/respostas
+ * servlet mínimas. Toda query do JdbcTemplate pega uma conexão do
+ * DataSource, então contar conexões prova que o 304 não tocou o banco.
+ */
+class ConditionalGetSupportTest {
+
+    private static final String URL = "jdbc:h2:mem:conditionalgetdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void shouldAnswerIfNoneMatchWith304WithoutTouchingTheJdbcTemplate() throws Exception {
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        seed(admin);
+        AtomicInteger connections = new AtomicInteger();
+        JdbcTemplate jdbc = new JdbcTemplate(new DelegatingDataSource(new DriverManagerDataSource(URL, "sa", "")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connections.incrementAndGet();
+                return super.getConnection();
+            }
+        });
+
+        // Versão relida em segundo plano, como na aplicação no ar
+        DatasetVersionRepository datasetVersion = new DatasetVersionRepository(admin, 20);
+        datasetVersion.start();
+        try {
+            OperadoraRepository repository = new OperadoraRepository(jdbc);
+            OperadoraSearchIndex searchIndex = new OperadoraSearchIndex(repository, datasetVersion);
+            OperadoraController controller = new OperadoraController(repository, searchIndex,
+                    new CountCache(datasetVersion, 60_000), ParallelQueries.sequential(),
+                    new EstatisticasCache(repository, datasetVersion, 60_000),
+                    new DetalhesCache(repository, datasetVersion, 100, 60_000));
+            StandardEnvironment environment = new StandardEnvironment();
+            environment.getPropertySources().addFirst(new MapPropertySource("test",
+                    Map.of("api.cache-control.estatisticas", "max-age=5")));
+            ConditionalGetSupport support = new ConditionalGetSupport(datasetVersion, searchIndex, environment);
+
+            Method top5 = OperadoraController.class.getMethod("top5Despesas");
+            Method listar = OperadoraController.class.getMethod("listarOperadoras", int.class, int.class, String.class, String.class);
+            Method detalhes = OperadoraController.class.getMethod("buscarDetalhesOperadora", String.class);
+
+            String etagTop5 = fullGet(support, controller, top5, "/api/estatisticas/top5", Map.of());
+            String etagListar = fullGet(support, controller, listar, "/api/operadoras",
+                    Map.of("page", "2", "limit", "5", "q", "saude"), 2, 5, "saude", null);
+            String etagDetalhes = fullGet(support, controller, detalhes, "/api/operadoras/00000000000003/detalhes",
+                    Map.of(), "00000000000003");
+            assertTrue(connections.get() > 0);
+            assertNotEquals(etagListar, fullGet(support, controller, listar, "/api/operadoras",
+                    Map.of("page", "3", "limit", "5", "q", "saude"), 3, 5, "saude", null));
+
+            connections.set(0);
+            Response response = new Response();
+            assertFalse(support.preHandle(request("/api/estatisticas/top5", Map.of(), etagTop5), response.proxy(),
+                    new HandlerMethod(controller, top5)));
+            assertEquals(304, response.status);
+            assertEquals(etagTop5, response.headers.get("ETag"));
+            assertEquals("max-age=5", response.headers.get("Cache-Control"));
+
+            // Mesmos parâmetros em outra ordem, ETag fraco e lista de candidatos
+            Map<String, String> reordenado = new LinkedHashMap<>();
+            reordenado.put("q", "saude");
+            reordenado.put("limit", "5");
+            reordenado.put("page", "2");
+            response = new Response();
+            assertFalse(support.preHandle(request("/api/operadoras", reordenado, "\"outro\", W/" + etagListar),
+                    response.proxy(), new HandlerMethod(controller, listar)));
+            assertEquals(304, response.status);
+            assertEquals("no-cache", response.headers.get("Cache-Control"));
+
+            response = new Response();
+            assertFalse(support.preHandle(request("/api/operadoras/00000000000003/detalhes", Map.of(), etagDetalhes),
+                    response.proxy(), new HandlerMethod(controller, detalhes)));
+            assertEquals(0, connections.get());
+
+            // Carga nova: o ETag antigo deixa de valer
+            admin.update("UPDATE dataset_version SET version = version + 1 WHERE id = 1");
+            long deadline = System.currentTimeMillis() + 5_000;
+            boolean stale = false;
+            while (!stale && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+                stale = support.preHandle(request("/api/estatisticas/top5", Map.of(), etagTop5), new Response().proxy(),
+                        new HandlerMethod(controller, top5));
+            }
+            assertTrue(stale);
+            assertNotEquals(etagTop5, fullGet(support, controller, top5, "/api/estatisticas/top5", Map.of()));
+
+            // Sem ETag em resposta de erro
+            HttpServletRequest inexistente = request("/api/operadoras/999/detalhes", Map.of(), null);
+            Response notFound = new Response();
+            assertTrue(support.preHandle(inexistente, notFound.proxy(), new HandlerMethod(controller, detalhes)));
+            notFound.status = 404;
+            assertNull(advise(support, detalhes, inexistente, notFound));
+        } finally {
+            datasetVersion.shutdown();
+        }
+    }
+
+    /**
+     * preHandle + controller + ResponseBodyAdvice; devolve o ETag enviado.
+     */
+    private static String fullGet(ConditionalGetSupport support, OperadoraController controller, Method method,
+            String uri, Map<String, String> params, Object... args) throws Exception {
+        HttpServletRequest request = request(uri, params, null);
+        Response response = new Response();
+        assertTrue(support.preHandle(request, response.proxy(), new HandlerMethod(controller, method)));
+        ResponseEntity<?> entity = (ResponseEntity<?>) method.invoke(controller, args);
+        response.status = entity.getStatusCode().value();
+        String etag = advise(support, method, request, response);
+        assertTrue(etag != null && etag.startsWith("\""), uri);
+        return etag;
+    }
+
+    private static String advise(ConditionalGetSupport support, Method method, HttpServletRequest request, Response response) {
+        MethodParameter returnType = new MethodParameter(method, -1);
+        assertTrue(support.supports(returnType, null));
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response.proxy());
+        support.beforeBodyWrite(Map.of(), returnType, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), serverResponse);
+        return serverResponse.getHeaders().getETag();
+    }
+
+    private static HttpServletRequest request(String uri, Map<String, String> params, String ifNoneMatch) {
+        Map<String, String[]> parameterMap = new LinkedHashMap<>();
+        params.forEach((name, value) -> parameterMap.put(name, new String[]{value}));
+        Map<String, Object> attributes = new HashMap<>();
+        return (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getMethod" -> "GET";
+                    case "getRequestURI" -> uri;
+                    case "getParameterMap" -> parameterMap;
+                    case "getHeader" -> "If-None-Match".equalsIgnoreCase((String) args[0]) ? ifNoneMatch : null;
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                    default -> null;
+                });
+    }
+
+    private static final class Response {
+
+        int status = 200;
+        final Map<String, String> headers = new HashMap<>();
+
+        HttpServletResponse proxy() {
+            return (HttpServletResponse) Proxy.newProxyInstance(HttpServletResponse.class.getClassLoader(),
+                    new Class<?>[]{HttpServletResponse.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "setStatus" -> {
+                            status = (int) args[0];
+                            yield null;
+                        }
+                        case "getStatus" -> status;
+                        case "setHeader", "addHeader" -> headers.put((String) args[0], (String) args[1]);
+                        case "getHeader" -> headers.get((String) args[0]);
+                        case "getHeaderNames" -> headers.keySet();
+                        case "getHeaders" -> headers.containsKey((String) args[0])
+                                ? List.of(headers.get((String) args[0])) : List.of();
+                        case "containsHeader" -> headers.containsKey((String) args[0]);
+                        default -> null;
+                    });
+        }
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        TestSchema.load(jdbc);
+        jdbc.update("INSERT INTO dataset_version (id, version) VALUES (1, 1)");
+        for (int i = 0; i < 30; i++) {
+            String cnpj = String.format("%014d", i);
+            jdbc.update("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                    + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', TRUE)",
+                    cnpj, "Operadora Saude " + i, "Saude " + i);
+            jdbc.update("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES (?, '411', ?)",
+                    cnpj, BigDecimal.valueOf(i * 10L));
+        }
+    }
+}
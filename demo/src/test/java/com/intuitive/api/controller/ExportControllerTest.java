@@ -0,0 +1,160 @@
+package com.intuitive.api.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.intuitive.api.repository.ExportRepository;
+import com.intuitive.api.repository.TestSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+class ExportControllerTest {
+
+    private static final int OPERADORAS = 3_000;
+
+    @Test
+    void shouldStreamEveryRealOperatorAsNdjsonOrCsv() throws Exception {
+        ExportController controller = new ExportController(new ExportRepository(seed("exportoperadorasdb"), 100), 2);
+
+        ResponseEntity<StreamingResponseBody> ndjson = controller.exportarOperadoras(null, null, null);
+        assertEquals("application/x-ndjson", ndjson.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        assertNull(ndjson.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        String[] linhas = new String(write(ndjson), StandardCharsets.UTF_8).split("\n");
+        // Operadoras com i múltiplo de 10 não são reais e ficam de fora, como na listagem
+        assertEquals(OPERADORAS - OPERADORAS / 10, linhas.length);
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode primeira = mapper.readTree(linhas[0]);
+        assertEquals("00000000000001", primeira.get("cnpj").asText());
+        assertEquals("Saúde, \"Vida\"\nLtda 1", primeira.get("razao_social").asText());
+        assertTrue(primeira.get("nome_fantasia").isNull());
+        assertEquals("00000000002999", mapper.readTree(linhas[linhas.length - 1]).get("cnpj").asText());
+
+        // Accept: text/csv sem parâmetro format
+        ResponseEntity<StreamingResponseBody> csv = controller.exportarOperadoras(null, "text/csv", null);
+        assertEquals("text/csv;charset=UTF-8", csv.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+        String corpo = new String(write(csv), StandardCharsets.UTF_8);
+        assertTrue(corpo.startsWith("cnpj,razao_social,nome_fantasia,uf,modalidade\r\n"
+                + "00000000000001,\"Saúde, \"\"Vida\"\"\nLtda 1\",,SP,Medicina de Grupo\r\n"), corpo.substring(0, 120));
+        assertEquals(linhas.length + 1, corpo.split("\r\n").length);
+
+        assertEquals(400, controller.exportarOperadoras("xml", null, null).getStatusCode().value());
+    }
+
+    @Test
+    void shouldGzipDespesasWhenAcceptedAndLimitConcurrentExports() throws Exception {
+        ExportController controller = new ExportController(new ExportRepository(seed("exportdespesasdb"), 100), 1);
+
+        ResponseEntity<StreamingResponseBody> gzip = controller.exportarDespesas("csv", "2024-T4", null, "deflate, gzip, br");
+        assertEquals("gzip", gzip.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzip.getHeaders().getFirst(HttpHeaders.VARY).contains(HttpHeaders.ACCEPT_ENCODING));
+
+        // Um slot só: a segunda exportação espera a primeira terminar de escrever
+        assertEquals(503, controller.exportarDespesas(null, null, null, null).getStatusCode().value());
+        byte[] comprimido = write(gzip);
+        String csv;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(comprimido))) {
+            csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        List<String> linhas = List.of(csv.split("\r\n"));
+        assertEquals("cnpj_operadora,codigo_conta,valor_total,competencia", linhas.get(0));
+        assertEquals(OPERADORAS + 1, linhas.size());
+        assertEquals("00000000000000,411,1000000.00,2024-T4", linhas.get(1));
+        assertTrue(comprimido.length < csv.length() / 3);
+
+        ResponseEntity<StreamingResponseBody> todas = controller.exportarDespesas(null, "", null, "gzip;q=0");
+        assertEquals(200, todas.getStatusCode().value());
+        assertNull(todas.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(2 * OPERADORAS, new String(write(todas), StandardCharsets.UTF_8).split("\n").length);
+    }
+
+    @Test
+    void shouldReturnTheSlotWhenTheBodyNeverRuns() throws Exception {
+        ExportController controller = new ExportController(new ExportRepository(seed("exportslotsdb"), 100), 1);
+        Map<String, Object> attributes = new HashMap<>();
+        HttpServletRequest request = (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+                new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> switch (method.getName()) {
+                    case "getAttribute" -> attributes.get((String) args[0]);
+                    case "setAttribute" -> attributes.put((String) args[0], args[1]);
+                    case "removeAttribute" -> attributes.remove((String) args[0]);
+                    default -> null;
+                });
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertEquals(200, controller.exportarOperadoras(null, null, null).getStatusCode().value());
+            assertEquals(503, controller.exportarOperadoras(null, null, null).getStatusCode().value());
+
+            // Timeout/desconexão antes de o corpo rodar: o fim da requisição assíncrona devolve o slot
+            completeAsync(request);
+            ResponseEntity<StreamingResponseBody> segunda = controller.exportarOperadoras(null, null, null);
+            assertEquals(200, segunda.getStatusCode().value());
+
+            // Corpo e fim da requisição devolvem o mesmo slot uma vez só
+            write(segunda);
+            completeAsync(request);
+            assertEquals(200, controller.exportarOperadoras(null, null, null).getStatusCode().value());
+            assertEquals(503, controller.exportarOperadoras(null, null, null).getStatusCode().value());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    @Test
+    void shouldNegotiateGzipFromAcceptEncoding() {
+        assertTrue(ExportController.acceptsGzip("gzip"));
+        assertTrue(ExportController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertFalse(ExportController.acceptsGzip("gzip;q=0"));
+        assertFalse(ExportController.acceptsGzip("deflate, br"));
+        assertFalse(ExportController.acceptsGzip(null));
+    }
+
+    private static void completeAsync(HttpServletRequest request) throws Exception {
+        WebAsyncUtils.getAsyncManager(request).getCallableInterceptor(ExportController.class.getName())
+                .afterCompletion(null, null);
+    }
+
+    private static byte[] write(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static JdbcTemplate seed(String db) {
+        JdbcTemplate jdbc = TestSchema.create(db);
+        List<Object[]> operadoras = new ArrayList<>();
+        List<Object[]> despesas = new ArrayList<>();
+        for (int i = 0; i < OPERADORAS; i++) {
+            String cnpj = String.format("%014d", i);
+            operadoras.add(new Object[]{cnpj, "Saúde, \"Vida\"\nLtda " + i, null, i % 10 != 0});
+            despesas.add(new Object[]{cnpj, "411", new BigDecimal("1E+6"), "2024-T4"});
+            despesas.add(new Object[]{cnpj, "311", BigDecimal.valueOf(i, 2), "2024-T3"});
+        }
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', ?)", operadoras);
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total, competencia) "
+                + "VALUES (?, ?, ?, ?)", despesas);
+        return jdbc;
+    }
+}
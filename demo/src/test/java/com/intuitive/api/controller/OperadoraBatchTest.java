@@ -0,0 +1,118 @@
+package com.intuitive.api.controller;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.intuitive.api.cache.DetalhesCache;
+import com.intuitive.api.cache.EstatisticasCache;
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.dto.OperadoraLoteDTO;
+import com.intuitive.api.repository.CountCache;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.ParallelQueries;
+import com.intuitive.api.repository.TestSchema;
+import com.intuitive.api.search.OperadoraSearchIndex;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+class OperadoraBatchTest {
+
+    private static final String URL = "jdbc:h2:mem:batchdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @Test
+    void shouldResolveCnpjsInChunksAndAnswerInInputOrderWithExplicitMisses() {
+        JdbcTemplate admin = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        seed(admin);
+        AtomicInteger connections = new AtomicInteger();
+        JdbcTemplate jdbc = new JdbcTemplate(new DelegatingDataSource(new DriverManagerDataSource(URL, "sa", "")) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                connections.incrementAndGet();
+                return super.getConnection();
+            }
+        });
+        OperadoraRepository repository = new OperadoraRepository(jdbc);
+        DatasetVersionRepository datasetVersion = new DatasetVersionRepository(admin, 0);
+        OperadoraController controller = new OperadoraController(repository,
+                new OperadoraSearchIndex(repository, datasetVersion), new CountCache(datasetVersion, 60_000),
+                ParallelQueries.sequential(), new EstatisticasCache(repository, datasetVersion, 60_000),
+                new DetalhesCache(repository, datasetVersion, 100, 60_000));
+
+        // 1.200 CNPJs distintos (metade inexistente), na ordem inversa, mais um repetido e um nulo
+        List<String> cnpjs = new ArrayList<>();
+        for (int i = 1_199; i >= 0; i--) {
+            cnpjs.add(String.format("%014d", i * 2));
+        }
+        cnpjs.add(String.format("%014d", 8));
+        cnpjs.add(null);
+
+        ResponseEntity<Map<String, Object>> response = controller.buscarOperadorasEmLote(cnpjs, true);
+        assertEquals(200, response.getStatusCode().value());
+        // Um IN por bloco de 500, não uma query por CNPJ
+        assertEquals(3, connections.get());
+
+        @SuppressWarnings("unchecked")
+        List<OperadoraLoteDTO> data = (List<OperadoraLoteDTO>) response.getBody().get("data");
+        assertEquals(cnpjs.size(), data.size());
+        for (int i = 0; i < cnpjs.size(); i++) {
+            assertEquals(cnpjs.get(i), data.get(i).cnpj());
+        }
+        assertEquals(601, response.getBody().get("found"));
+        assertEquals(601, response.getBody().get("missing"));
+
+        OperadoraLoteDTO ultimo = data.get(1_199);
+        assertTrue(ultimo.found());
+        OperadoraDTO operadora = ultimo.operadora();
+        assertEquals("Operadora 0", operadora.getRazaoSocial());
+        assertEquals("SP", operadora.getUf());
+        assertEquals(0, new BigDecimal("15.00").compareTo(operadora.getTotalDespesas()));
+        OperadoraLoteDTO inexistente = data.get(0);
+        assertFalse(inexistente.found());
+        assertNull(inexistente.operadora());
+        assertEquals(data.get(1_195).operadora(), data.get(1_200).operadora());
+        assertFalse(data.get(1_201).found());
+
+        // Sem despesas=true o total não é calculado; operadora sem despesas vem com total nulo
+        connections.set(0);
+        assertNull(repository.findByCnpjs(List.of("00000000000004"), false).get("00000000000004").getTotalDespesas());
+        assertNull(repository.findByCnpjs(List.of("00000000000001"), true).get("00000000000001").getTotalDespesas());
+        assertEquals(2, connections.get());
+        assertEquals(repository.findByCnpjWithHistory("00000000000004").getRazaoSocial(),
+                repository.findByCnpjs(List.of("00000000000004"), false).get("00000000000004").getRazaoSocial());
+
+        assertEquals(400, controller.buscarOperadorasEmLote(
+                Collections.nCopies(OperadoraController.MAX_LOTE + 1, "00000000000002"), false).getStatusCode().value());
+    }
+
+    private static void seed(JdbcTemplate jdbc) {
+        TestSchema.load(jdbc);
+        jdbc.update("INSERT INTO dataset_version (id, version) VALUES (1, 1)");
+        // Só CNPJs múltiplos de 4 existem: metade dos pares pedidos no teste
+        List<Object[]> operadoras = new ArrayList<>();
+        List<Object[]> despesas = new ArrayList<>();
+        for (int i = 0; i < 2_400; i += 4) {
+            String cnpj = String.format("%014d", i);
+            operadoras.add(new Object[]{cnpj, "Operadora " + i, "Op " + i});
+            despesas.add(new Object[]{cnpj, "411", BigDecimal.TEN});
+            despesas.add(new Object[]{cnpj, "311", BigDecimal.valueOf(5)});
+        }
+        operadoras.add(new Object[]{"00000000000001", "Sem Despesas", "Sem"});
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', TRUE)", operadoras);
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES (?, ?, ?)", despesas);
+    }
+}
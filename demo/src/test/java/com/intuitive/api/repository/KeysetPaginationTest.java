@@ -0,0 +1,139 @@
+package com.intuitive.api.repository;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class KeysetPaginationTest {
+
+    private static final int OPERADORAS = 20_000;
+    private static final int LIMIT = 20;
+
+    private static JdbcTemplate jdbc;
+    private static OperadoraRepository repository;
+
+    @BeforeAll
+    static void seed() {
+        jdbc = TestSchema.create("keysetdb");
+
+        // Nomes fantasia repetidos (~10 por nome) para exercitar o desempate por CNPJ
+        List<Object[]> rows = new ArrayList<>(OPERADORAS);
+        for (int i = 0; i < OPERADORAS; i++) {
+            rows.add(new Object[]{String.format("%014d", i), "Operadora Saude " + i,
+                String.format("Fantasia %05d", (i * 7_919) % (OPERADORAS / 10)), "SP", "Medicina de Grupo"});
+        }
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) VALUES (?, ?, ?, ?, ?, TRUE)", rows);
+        jdbc.execute("ANALYZE");
+        repository = new OperadoraRepository(jdbc);
+    }
+
+    @Test
+    void shouldWalkAllPagesInOffsetOrderWithoutGapsOrDuplicates() {
+        List<String> viaCursor = new ArrayList<>();
+        KeysetCursor cursor = null;
+        int pages = 0;
+        do {
+            OperadoraRepository.KeysetPage page = repository.findByQueryKeyset("Saude 123", cursor, 7);
+            page.data().forEach(o -> viaCursor.add(o.getCnpj()));
+            cursor = page.next() == null ? null : KeysetCursor.decode(page.next().encode());
+            pages++;
+        } while (cursor != null);
+
+        List<String> viaOffset = new ArrayList<>();
+        int total = repository.countByQuery("Saude 123");
+        for (int p = 1; (p - 1) * 7 < total; p++) {
+            repository.findByQuery("Saude 123", p, 7).forEach(o -> viaOffset.add(o.getCnpj()));
+        }
+
+        assertEquals(total, viaCursor.size());
+        assertEquals(viaOffset, viaCursor);
+        assertEquals(new HashSet<>(viaCursor).size(), viaCursor.size());
+        assertEquals((total + 6) / 7, pages);
+    }
+
+    @Test
+    void shouldWalkEveryPageContiguouslyToTheEnd() {
+        List<String> expected = jdbc.queryForList("SELECT cnpj FROM operadoras ORDER BY nome_fantasia, cnpj", String.class);
+
+        List<String> viaCursor = new ArrayList<>(OPERADORAS);
+        KeysetCursor cursor = null;
+        int pages = 0;
+        do {
+            OperadoraRepository.KeysetPage page = repository.findAllKeyset(cursor, LIMIT);
+            assertEquals(page.next() == null ? OPERADORAS - pages * LIMIT : LIMIT, page.data().size());
+            page.data().forEach(o -> viaCursor.add(o.getCnpj()));
+            cursor = page.next();
+            pages++;
+        } while (cursor != null);
+
+        // Mesma sequência da ordenação completa: sem lacunas, repetições ou inversões entre páginas
+        assertEquals(expected, viaCursor);
+        assertEquals(OPERADORAS / LIMIT, pages);
+        int deepPage = (OPERADORAS - 2 * LIMIT) / LIMIT + 1;
+        assertEquals(cnpjs(repository.findAllPaginado(deepPage, LIMIT)),
+                cnpjs(repository.findAllKeyset(cursorAfter(OPERADORAS - 2 * LIMIT), LIMIT).data()));
+    }
+
+    @Test
+    void shouldSeekThroughTheRealNomeFantasiaCnpjIndex() {
+        // Latência por profundidade fica no JMH (OperadoraRepositoryBenchmark.findAllKeyset*, -Pbench);
+        // aqui só o plano: ordem e seek pelo índice, sem ordenar a tabela inteira
+        List<String> sql = new ArrayList<>();
+        List<Object[]> args = new ArrayList<>();
+        OperadoraRepository capturing = new OperadoraRepository(new JdbcTemplate(jdbc.getDataSource()) {
+            @Override
+            public <T> List<T> query(String statement, RowMapper<T> rowMapper, Object... values) {
+                sql.add(statement);
+                args.add(values);
+                return super.query(statement, rowMapper, values);
+            }
+        });
+        capturing.findAllKeyset(null, LIMIT);
+        capturing.findAllKeyset(cursorAfter(OPERADORAS / 2), LIMIT);
+
+        for (int i = 0; i < sql.size(); i++) {
+            String plan = jdbc.queryForObject("EXPLAIN " + sql.get(i), String.class, args.get(i)).toLowerCase();
+            assertTrue(plan.contains("idx_real_nome_fantasia_cnpj"), plan);
+            assertTrue(plan.contains("index sorted"), plan);
+            assertFalse(plan.contains("tablescan"), plan);
+        }
+        // Com cursor a leitura começa no nome do cursor, não no início do índice
+        assertTrue(jdbc.queryForObject("EXPLAIN " + sql.get(1), String.class, args.get(1)).toLowerCase()
+                .contains("and nome_fantasia >="));
+    }
+
+    @Test
+    void shouldEndWithNullCursorAndRejectGarbage() {
+        KeysetCursor nearEnd = cursorAfter(OPERADORAS - 5);
+        OperadoraRepository.KeysetPage last = repository.findAllKeyset(nearEnd, LIMIT);
+
+        assertEquals(5, last.data().size());
+        assertNull(last.next());
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("não é cursor"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("djI"));
+        KeysetCursor roundTrip = KeysetCursor.decode(new KeysetCursor("Saúde; \"Ltda\"", "123").encode());
+        assertEquals(new KeysetCursor("Saúde; \"Ltda\"", "123"), roundTrip);
+    }
+
+    /** Cursor da última de {@code rows} linhas já vistas (a próxima página começa na linha rows, 0-based). */
+    private static KeysetCursor cursorAfter(int rows) {
+        return jdbc.queryForObject("""
+                SELECT nome_fantasia, cnpj FROM operadoras ORDER BY nome_fantasia, cnpj LIMIT 1 OFFSET ?
+                """, (rs, n) -> new KeysetCursor(rs.getString(1), rs.getString(2)), rows - 1);
+    }
+
+    private static List<String> cnpjs(List<OperadoraDTO> page) {
+        return page.stream().map(OperadoraDTO::getCnpj).toList();
+    }
+}
@@ -0,0 +1,163 @@
+package com.intuitive.api.repository;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.crawler.CsvParserService;
+import com.intuitive.crawler.DataEnricherService;
+import com.intuitive.crawler.DatabaseImportService;
+import com.intuitive.crawler.OperadoraClassifier;
+import com.intuitive.crawler.SyntheticAnsDataset;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * O filtro por is_operadora_real (calculado pelo importador) devolve o mesmo
+ * que o antigo filtro de 13 LIKEs. IGNORECASE=TRUE faz o H2 comparar sem
+ * caixa, como a collation do MySQL de produção; OCTET_LENGTH conta bytes
+ * como o LENGTH do MySQL (o LENGTH do H2 conta caracteres).
+ */
+class OperadoraRealFlagTest {
+
+    private static final String URL = "jdbc:h2:mem:realflagdb;MODE=MySQL;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    /** Cópia do FILTRO_OPERADORAS_REAIS anterior à coluna (LENGTH do MySQL = OCTET_LENGTH do H2). */
+    private static final String FILTRO_LEGADO = """
+        AND razao_social NOT LIKE '(-)%'
+        AND razao_social NOT LIKE '%(-) %'
+        AND razao_social NOT LIKE '%Acionistas%'
+        AND razao_social NOT LIKE '%Provisão%'
+        AND razao_social NOT LIKE '%Outros%'
+        AND UPPER(razao_social) NOT LIKE '%ATIVO%'
+        AND UPPER(razao_social) NOT LIKE '%PASSIVO%'
+        AND UPPER(razao_social) NOT LIKE '%PATRIMÔNIO%'
+        AND UPPER(razao_social) NOT LIKE '%PATRIMONIO%'
+        AND UPPER(razao_social) NOT LIKE '%RESULTADO%'
+        AND UPPER(razao_social) NOT LIKE '%RECEITA%'
+        AND UPPER(razao_social) NOT LIKE '%DESPESA%'
+        AND razao_social IS NOT NULL
+        AND OCTET_LENGTH(TRIM(razao_social)) > 5
+        """;
+
+    /** Linhas contábeis que o arquivo financeiro traz no lugar de operadoras (caixas e acentos variados). */
+    private static final List<String> LINHAS_CONTABEIS = List.of(
+            "ATIVO CIRCULANTE", "Ativo Não Circulante", "(-) Provisão para Perdas", "Contraprestações (-) Ajustes",
+            "PASSIVO CIRCULANTE", "Patrimônio Líquido", "PATRIMONIO SOCIAL", "Outros Créditos", "OUTROS DÉBITOS",
+            "Lucros dos Acionistas", "RESULTADO DO EXERCÍCIO", "Receitas Financeiras", "Despesas Administrativas",
+            "PROVISÃO TÉCNICA", "Saúde", "  Vida  ", "Cooperativa Médica Administrativo", "Provisões Técnicas Ltda");
+
+    private static JdbcTemplate jdbc;
+    private static OperadoraRepository repository;
+
+    @BeforeAll
+    static void seed() throws Exception {
+        jdbc = new JdbcTemplate(new DriverManagerDataSource(URL, "sa", ""));
+        TestSchema.load(jdbc);
+
+        // Cadastro sintético + linhas contábeis, gravados pelo importador (que calcula a flag)
+        Path cadastro = new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(1_500, 42L))
+                .writeCadastro(Files.createTempFile("cadop", ".csv"));
+        List<DataEnricherService.Operadora> operadoras = new ArrayList<>();
+        for (Map<String, String> row : new CsvParserService().parseAndFilter(cadastro, Set.of(".*"))) {
+            operadoras.add(new DataEnricherService.Operadora(row.get("REG_ANS"), row.get("RAZAO_SOCIAL"), row.get("NOME_FANTASIA")));
+        }
+        Files.delete(cadastro);
+        for (int i = 0; i < LINHAS_CONTABEIS.size(); i++) {
+            operadoras.add(new DataEnricherService.Operadora("9" + String.format("%05d", i), LINHAS_CONTABEIS.get(i), ""));
+        }
+        new DatabaseImportService(URL, "sa", "").importOperadoras(operadoras);
+
+        List<Object[]> despesas = new ArrayList<>();
+        for (int i = 0; i < operadoras.size(); i++) {
+            despesas.add(new Object[]{operadoras.get(i).cnpj, "411", BigDecimal.valueOf((i * 7_919L) % 100_003, 2)});
+        }
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES (?, ?, ?)", despesas);
+        repository = new OperadoraRepository(jdbc);
+    }
+
+    @Test
+    void shouldListAndCountTheSameOperatorsAsTheLikeFilter() {
+        List<String> legado = jdbc.queryForList(
+                "SELECT cnpj FROM operadoras WHERE 1=1 " + FILTRO_LEGADO + " ORDER BY nome_fantasia, cnpj", String.class);
+        int excluidas = jdbc.queryForObject("SELECT COUNT(*) FROM operadoras", Integer.class) - legado.size();
+        assertTrue(excluidas >= LINHAS_CONTABEIS.size() - 2, "Seed deveria ter linhas contábeis: " + excluidas);
+
+        List<String> paginado = new ArrayList<>();
+        for (int page = 1; (page - 1) * 100 < legado.size(); page++) {
+            repository.findAllPaginado(page, 100).forEach(o -> paginado.add(o.getCnpj()));
+        }
+        assertEquals(legado, paginado);
+        assertEquals(legado.size(), repository.countTotal());
+        assertEquals(legado, repository.findAllForSearch().stream().map(OperadoraDTO::getCnpj).toList());
+    }
+
+    @Test
+    void shouldSearchAndRankTopExpensesLikeTheLikeFilter() {
+        for (String query : List.of("saude", "ATIVO", "cooperativa", "9000", "ltda")) {
+            String pattern = "%" + query + "%";
+            List<String> legado = jdbc.queryForList("""
+                    SELECT cnpj FROM operadoras
+                    WHERE (cnpj LIKE ? OR LOWER(razao_social) LIKE LOWER(?))
+                    """ + FILTRO_LEGADO + " ORDER BY nome_fantasia, cnpj LIMIT 1000", String.class, pattern, pattern);
+
+            assertEquals(legado, repository.findByQuery(query, 1, 1000).stream().map(OperadoraDTO::getCnpj).toList(), query);
+            assertEquals(legado.size(), repository.countByQuery(query), query);
+        }
+
+        List<String> top5Legado = jdbc.queryForList("""
+                SELECT da.cnpj_operadora
+                FROM despesas_agregadas da
+                INNER JOIN operadoras o ON da.cnpj_operadora = o.cnpj
+                WHERE 1=1
+                """ + FILTRO_LEGADO + """
+                GROUP BY da.cnpj_operadora, o.razao_social, o.nome_fantasia
+                ORDER BY SUM(da.valor_total) DESC
+                LIMIT 5
+                """, String.class);
+        assertEquals(top5Legado, repository.findTop5Despesas().stream().map(OperadoraDTO::getCnpj).toList());
+    }
+
+    @Test
+    void shouldMeasureTheMinimumLengthInBytesLikeMySql() {
+        // "Saúde": 5 caracteres, 6 bytes; o LENGTH do MySQL a deixava na listagem
+        assertTrue(OperadoraClassifier.isOperadoraReal("Saúde"));
+        assertFalse(OperadoraClassifier.isOperadoraReal("Saude"));
+        assertFalse(OperadoraClassifier.isOperadoraReal("  Vida  "));
+        assertEquals(List.of("Saúde"), jdbc.queryForList(
+                "SELECT razao_social FROM operadoras WHERE razao_social IN ('Saúde', '  Vida  ') AND is_operadora_real = TRUE",
+                String.class));
+    }
+
+    @Test
+    void shouldListTheDevSeedOnAFreshSchema() throws Exception {
+        JdbcTemplate fresh = TestSchema.create("devseeddb");
+        fresh.batchUpdate(statements(resource("/sql/data.sql").replaceAll("--[^\n]*", "")));
+
+        OperadoraRepository seeded = new OperadoraRepository(fresh);
+        assertEquals(5, seeded.countTotal());
+        assertEquals(5, seeded.findAllPaginado(1, 20).size());
+        assertEquals(5, seeded.findTop5Despesas().size());
+    }
+
+    private static String resource(String path) throws Exception {
+        try (var in = OperadoraRealFlagTest.class.getResourceAsStream(path)) {
+            return new String(in.readAllBytes(), java.nio.charset.StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String[] statements(String script) {
+        return java.util.Arrays.stream(script.split(";")).map(String::trim).filter(s -> !s.isEmpty())
+                .toArray(String[]::new);
+    }
+}
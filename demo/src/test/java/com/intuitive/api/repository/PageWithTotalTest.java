@@ -0,0 +1,80 @@
+package com.intuitive.api.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class PageWithTotalTest {
+
+    private static final int OPERADORAS = 5_000;
+
+    private static OperadoraRepository repository;
+
+    @BeforeAll
+    static void seed() {
+        JdbcTemplate jdbc = TestSchema.create("pagetotaldb");
+
+        // Uma em cada sete é linha contábil (fora da listagem e do total)
+        List<Object[]> rows = new ArrayList<>(OPERADORAS);
+        for (int i = 0; i < OPERADORAS; i++) {
+            rows.add(new Object[]{String.format("%014d", i), "Operadora Saude " + i,
+                String.format("Fantasia %04d", (i * 7_919) % 997), "SP", "Medicina de Grupo", i % 7 != 0});
+        }
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        repository = new OperadoraRepository(jdbc);
+    }
+
+    @Test
+    void shouldReturnTheSamePageAndTotalAsTwoSeparateQueries() {
+        for (String query : new String[]{null, "saude 12", "SAUDE 4", "0000000003", "inexistente"}) {
+            int total = query == null ? repository.countTotal() : repository.countByQuery(query);
+            int lastPage = Math.max(1, (total + 19) / 20);
+            for (int page : new int[]{1, 2, lastPage, lastPage + 1}) {
+                List<OperadoraDTO> expected = query == null
+                        ? repository.findAllPaginado(page, 20)
+                        : repository.findByQuery(query, page, 20);
+
+                OperadoraRepository.PageWithTotal result = repository.findPageWithTotal(query, page, 20);
+
+                assertEquals(expected, result.data(), query + " p" + page);
+                assertEquals(total, result.total(), query + " p" + page);
+            }
+        }
+        assertEquals(OPERADORAS - (OPERADORAS + 6) / 7, repository.findPageWithTotal("", 1, 20).total());
+    }
+
+    @Test
+    void shouldForgetTotalsOnNewDatasetVersionOrAfterTtl() throws InterruptedException {
+        AtomicLong version = new AtomicLong(1);
+        CountCache cache = new CountCache(version::get, 60_000);
+
+        cache.put("  Unimed ", 42);
+        cache.put(null, 1_000);
+        assertEquals(42, cache.get("UNIMED"));
+        assertEquals(1_000, cache.get(null));
+        assertNull(cache.get("unimed sul"));
+
+        version.incrementAndGet();
+        assertNull(cache.get("unimed"));
+        assertNull(cache.get(null));
+
+        CountCache shortLived = new CountCache(version::get, 1);
+        shortLived.put("unimed", 42);
+        Thread.sleep(5);
+        assertNull(shortLived.get("unimed"));
+
+        for (int i = 0; i < 2_000; i++) {
+            cache.put("termo " + i, i);
+        }
+        assertNull(cache.get("termo 0"));
+        assertEquals(1_999, cache.get("termo 1999"));
+    }
+}
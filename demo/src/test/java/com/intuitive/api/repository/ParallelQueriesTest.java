@@ -0,0 +1,129 @@
+package com.intuitive.api.repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.intuitive.api.dto.OperadoraDetalhadaDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class ParallelQueriesTest {
+
+    @Test
+    void shouldOverlapBothQueriesAndSurfaceTimeoutsAndFailures() throws Exception {
+        ParallelQueries parallel = new ParallelQueries(10, 2_000);
+        try {
+            // As duas só terminam se rodarem ao mesmo tempo
+            CountDownLatch both = new CountDownLatch(2);
+            Map.Entry<String, String> result = parallel.join(
+                    () -> meet(both, "a"), () -> meet(both, "b"), Map::entry);
+            assertEquals(Map.entry("a", "b"), result);
+
+            ParallelQueries impaciente = new ParallelQueries(10, 50);
+            long start = System.nanoTime();
+            assertThrows(QueryTimeoutException.class, () -> impaciente.join(() -> sleep(5_000), () -> "b", Map::entry));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+            impaciente.shutdown();
+
+            DataRetrievalFailureException falha = new DataRetrievalFailureException("falhou");
+            assertSame(falha, assertThrows(DataRetrievalFailureException.class,
+                    () -> parallel.join(() -> {
+                        throw falha;
+                    }, () -> "b", Map::entry)));
+            assertThrows(IllegalStateException.class, () -> parallel.join(() -> "a", () -> {
+                throw new IllegalStateException("segunda");
+            }, Map::entry));
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void shouldCancelASlowQueryOnTheRequestThread() {
+        JdbcTemplate jdbc = TestSchema.create("slowqueriesdb");
+        // Junção cruzada de 10^10 linhas: só termina se o banco cancelar
+        String lenta = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b WHERE a.X + b.X = 7";
+        ParallelQueries parallel = new ParallelQueries(10, 500);
+        try {
+            JdbcTemplate bounded = parallel.withQueryTimeout(jdbc);
+            assertEquals(1, bounded.getQueryTimeout(), "Timeout JDBC arredonda para cima, em segundos");
+            assertTrue(jdbc.getQueryTimeout() <= 0, "O template compartilhado não muda");
+            assertSame(jdbc, ParallelQueries.sequential().withQueryTimeout(jdbc));
+
+            long start = System.nanoTime();
+            assertThrows(QueryTimeoutException.class, () -> parallel.join(
+                    () -> "a", () -> bounded.queryForObject(lenta, Long.class), Map::entry));
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(10), "A query da thread da requisição deve ser cancelada");
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    @Test
+    void shouldReturnTheSameDetailsAsTheSequentialRepository() {
+        JdbcTemplate jdbc = TestSchema.create("parallelqueriesdb");
+        List<Object[]> despesas = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            String cnpj = String.format("%014d", i);
+            jdbc.update("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                    + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', TRUE)",
+                    cnpj, "Operadora Saude " + i, "Saude " + i);
+            for (int conta = 0; conta < i % 5; conta++) {
+                despesas.add(new Object[]{cnpj, "41" + conta + "2024", BigDecimal.valueOf(i * 100L + conta, 2)});
+            }
+        }
+        jdbc.batchUpdate("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES (?, ?, ?)", despesas);
+
+        OperadoraRepository sequencial = new OperadoraRepository(jdbc);
+        ParallelQueries parallel = new ParallelQueries(4, 5_000);
+        try {
+            OperadoraRepository paralelo = new OperadoraRepository(jdbc, parallel);
+            for (int i = 0; i < 50; i++) {
+                String cnpj = String.format("%014d", i);
+                OperadoraDetalhadaDTO esperado = sequencial.findDetalhesCompletos(cnpj);
+                OperadoraDetalhadaDTO obtido = paralelo.findDetalhesCompletos(cnpj);
+
+                assertEquals(esperado.getRazaoSocial(), obtido.getRazaoSocial());
+                assertEquals(i % 5, obtido.getHistoricoDespesas().size());
+                assertEquals(esperado.getHistoricoDespesas().stream().map(h -> h.getCodigoConta() + "=" + h.getValor()).toList(),
+                        obtido.getHistoricoDespesas().stream().map(h -> h.getCodigoConta() + "=" + h.getValor()).toList());
+            }
+            assertNull(paralelo.findDetalhesCompletos("99999999999999"));
+        } finally {
+            parallel.shutdown();
+        }
+    }
+
+    private static String meet(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            if (!latch.await(2, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Queries não rodaram em paralelo");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+        return value;
+    }
+
+    private static String sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "a";
+    }
+}
@@ -0,0 +1,47 @@
+package com.intuitive.api.repository;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class QueryEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRecordOneEventPerRepositoryQuery() throws Exception {
+        JdbcTemplate jdbc = TestSchema.create("queryeventdb");
+        for (int i = 0; i < 30; i++) {
+            jdbc.update("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                    + "VALUES (?, ?, ?, 'SP', 'Medicina de Grupo', TRUE)",
+                    String.format("%014d", i), "Operadora Saude " + i, "Operadora Saude " + i);
+        }
+        OperadoraRepository repository = new OperadoraRepository(jdbc);
+
+        Path file = tempDir.resolve("api.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.intuitive.api.RepositoryQuery").withThreshold(Duration.ZERO);
+            recording.start();
+            repository.findAllPaginado(1, 10);
+            repository.countTotal();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertEquals(List.of("findAllPaginado", "countTotal"),
+                events.stream().map(e -> e.getString("query")).toList());
+        assertEquals(10, events.get(0).getLong("rows"));
+        assertEquals(1, events.get(1).getLong("rows"));
+    }
+}
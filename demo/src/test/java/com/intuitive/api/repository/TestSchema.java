@@ -0,0 +1,88 @@
+package com.intuitive.api.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+/**
+ * Fixture compartilhada dos testes e benchmarks da API: recria em H2 (modo
+ * MySQL) o schema de produção a partir de /sql/schema.sql, com tabelas, FK e
+ * índices. Cada teste só insere as próprias linhas.
+ *
+ * Os blocos idempotentes do MySQL (SET @/PREPARE) não rodam no H2: deles só
+ * se aproveitam os CREATE INDEX. Os ALTER TABLE desses blocos são migrações de
+ * bases antigas e as colunas já estão nos CREATE TABLE.
+ */
+public final class TestSchema {
+
+    private static final Pattern GUARDED_INDEX = Pattern.compile("'(CREATE INDEX [^']+)'");
+
+    private TestSchema() {
+    }
+
+    /**
+     * URL de um banco H2 em memória (modo MySQL) que sobrevive entre conexões.
+     */
+    public static String url(String database) {
+        return "jdbc:h2:mem:" + database + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    /**
+     * Apaga o banco informado e recria o schema.
+     *
+     * @return JdbcTemplate apontando para o banco
+     */
+    public static JdbcTemplate create(String database) {
+        JdbcTemplate jdbc = new JdbcTemplate(new DriverManagerDataSource(url(database), "sa", ""));
+        load(jdbc);
+        return jdbc;
+    }
+
+    /**
+     * Apaga todos os objetos do banco e executa o schema.sql.
+     */
+    public static void load(JdbcTemplate jdbc) {
+        jdbc.execute("DROP ALL OBJECTS");
+        jdbc.batchUpdate(statements());
+    }
+
+    /**
+     * Statements do schema.sql na forma aceita pelo H2.
+     */
+    static String[] statements() {
+        String schema = resource("/sql/schema.sql");
+        // Comentários saem antes do split: alguns contêm ';'
+        String plain = schema.replaceAll("(?m)^(SET @|PREPARE ).*$", "").replaceAll("--[^\n]*", "");
+        List<String> statements = new ArrayList<>();
+        for (String statement : plain.split(";")) {
+            if (!statement.isBlank()) {
+                statements.add(statement.trim());
+            }
+        }
+        // Índices depois das tabelas
+        Matcher index = GUARDED_INDEX.matcher(schema);
+        while (index.find()) {
+            statements.add(index.group(1));
+        }
+        return statements.toArray(String[]::new);
+    }
+
+    private static String resource(String path) {
+        try (InputStream in = TestSchema.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException(path + " não encontrado no classpath");
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
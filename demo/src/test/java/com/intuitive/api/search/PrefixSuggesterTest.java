@@ -0,0 +1,79 @@
+package com.intuitive.api.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class PrefixSuggesterTest {
+
+    private static final String[] WORDS = {"Saúde", "Sul", "São", "Santa", "Unimed", "União", "Vida", "Vitória",
+        "Odonto", "Assistência", "Médica", "Hospital", "Cooperativa", "Ltda", "Amil", "Açaí"};
+
+    @Test
+    void shouldReturnTopWeightedOperatorsWhoseWordsStartWithPrefix() {
+        Random random = new Random(7);
+        List<OperadoraDTO> operadoras = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            // Pesos distintos: a ordem esperada não depende de desempate
+            operadoras.add(operadora(String.format("%014d", random.nextLong(100_000_000_000_000L)),
+                    phrase(random), random.nextInt(3) == 0 ? null : phrase(random), BigDecimal.valueOf(i * 31L % 20_011)));
+        }
+        PrefixSuggester suggester = PrefixSuggester.build(operadoras);
+
+        for (String prefix : List.of("s", "SA", "são", "sao p", "uni", "VITÓRIA", "açaí", "0", "123", "12.34", "xyz", "ltda amil")) {
+            String key = TrigramIndex.normalizeQuery(prefix);
+            List<OperadoraDTO> expected = operadoras.stream()
+                    .filter(o -> startsAnyWord(TrigramIndex.normalize(o.getRazaoSocial()), key)
+                            || startsAnyWord(TrigramIndex.normalize(o.getNomeFantasia()), key)
+                            || o.getCnpj().startsWith(key))
+                    .sorted(Comparator.comparing(OperadoraDTO::getTotalDespesas).reversed())
+                    .limit(10)
+                    .toList();
+
+            assertEquals(expected, suggester.suggest(prefix, 10), prefix);
+        }
+    }
+
+    @Test
+    void shouldListEachOperatorOnceAndBreakTiesAlphabetically() {
+        OperadoraDTO santaCasa = operadora("11111111000111", "Santa Casa Santa Maria", "Santa", BigDecimal.TEN);
+        OperadoraDTO saude = operadora("22222222000122", "Saúde Total", "", BigDecimal.TEN);
+        OperadoraDTO semDespesa = operadora("33333333000133", "Sul América", "", null);
+        PrefixSuggester suggester = PrefixSuggester.build(List.of(semDespesa, santaCasa, saude));
+
+        assertEquals(List.of(santaCasa, saude, semDespesa), suggester.suggest("S", 10));
+        assertEquals(List.of(santaCasa, saude), suggester.suggest("S", 2));
+        assertEquals(List.of(saude), suggester.suggest("tot", 10));
+        assertEquals(List.of(semDespesa), suggester.suggest("3333", 10));
+        assertTrue(suggester.suggest("  ", 10).isEmpty());
+        assertTrue(suggester.suggest("casa santa x", 10).isEmpty());
+        assertTrue(PrefixSuggester.build(List.of()).suggest("s", 10).isEmpty());
+    }
+
+    private static boolean startsAnyWord(String text, String key) {
+        return !key.isEmpty() && IntStream.range(0, text.length())
+                .filter(i -> i == 0 || text.charAt(i - 1) == ' ')
+                .anyMatch(i -> text.startsWith(key, i));
+    }
+
+    private static String phrase(Random random) {
+        return IntStream.range(0, 1 + random.nextInt(4)).mapToObj(i -> WORDS[random.nextInt(WORDS.length)])
+                .collect(Collectors.joining(Arrays.asList(" ", " - ", " ").get(random.nextInt(3))));
+    }
+
+    private static OperadoraDTO operadora(String cnpj, String razaoSocial, String nomeFantasia, BigDecimal total) {
+        OperadoraDTO dto = new OperadoraDTO(cnpj, razaoSocial, nomeFantasia, total);
+        dto.setUf("SP");
+        return dto;
+    }
+}
@@ -0,0 +1,127 @@
+package com.intuitive.api.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.intuitive.api.dto.OperadoraDTO;
+import com.intuitive.api.repository.DatasetVersionRepository;
+import com.intuitive.api.repository.OperadoraRepository;
+import com.intuitive.api.repository.TestSchema;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class TrigramIndexTest {
+
+    private static final String[] WORDS = {"Saúde", "SAUDE", "Assistência", "Médica", "Odonto", "Açaí", "Vida",
+        "Unimed", "Cooperativa", "Hospital", "São", "José", "Ltda", "S.A.", "Amil", "Bradesco", "Caixa"};
+
+    @Test
+    void shouldMatchBruteForceScanWithExactTotals() {
+        Random random = new Random(42);
+        List<OperadoraDTO> operadoras = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            OperadoraDTO dto = new OperadoraDTO(String.format("%014d", random.nextLong(100_000_000_000_000L)),
+                    phrase(random), "SP", "Medicina de Grupo");
+            dto.setNomeFantasia(random.nextInt(4) == 0 ? null : phrase(random));
+            operadoras.add(dto);
+        }
+        TrigramIndex index = TrigramIndex.build(operadoras);
+
+        for (String query : List.of("a", "sa", "saude", "SAÚDE vida", "medica", "çai", "ltda s a", "são jo",
+                "0001", "12.3", "xyz", "odonto caixa", "operadora inexistente")) {
+            String term = TrigramIndex.normalizeQuery(query);
+            List<OperadoraDTO> expected = operadoras.stream()
+                    .filter(o -> TrigramIndex.normalize(o.getRazaoSocial()).contains(term)
+                            || TrigramIndex.normalize(o.getNomeFantasia()).contains(term)
+                            || o.getCnpj().contains(term))
+                    .toList();
+
+            TrigramIndex.SearchPage all = index.search(query, 0, Integer.MAX_VALUE);
+            assertEquals(expected.size(), all.total(), query);
+            assertEquals(Set.copyOf(expected), Set.copyOf(all.data()), query);
+
+            TrigramIndex.SearchPage page = index.search(query, 10, 10);
+            assertEquals(expected.size(), page.total(), query);
+            assertEquals(all.data().subList(Math.min(10, all.total()), Math.min(20, all.total())), page.data(), query);
+        }
+    }
+
+    @Test
+    void shouldFoldAccentsMatchCnpjDigitsAndRankPrefixesFirst() {
+        OperadoraDTO meio = operadora("11111111000111", "Cooperativa Assaude Norte", "");
+        OperadoraDTO palavra = operadora("22222222000122", "Hospital Saúde Total", "");
+        OperadoraDTO inicio = operadora("33333333000133", "Ltda", "SAÚDE Bem Estar");
+        TrigramIndex index = TrigramIndex.build(List.of(meio, palavra, inicio));
+
+        assertEquals(List.of(inicio, palavra, meio), index.search("saude", 0, 10).data());
+        assertEquals(List.of(palavra), index.search("22.222.222/0001", 0, 10).data());
+        assertEquals(List.of(inicio), index.search("  bem-estar ", 0, 10).data());
+        assertEquals(0, index.search("saude norte total", 0, 10).total());
+        assertEquals(3, index.search("saude", 1, 1).total());
+        assertEquals(List.of(palavra), index.search("saude", 1, 1).data());
+    }
+
+    @Test
+    void shouldFollowSqlResultsAndRebuildWhenDatasetVersionChanges() throws Exception {
+        JdbcTemplate jdbc = TestSchema.create("trigramdb");
+        // Só ASCII e nome fantasia sem termo buscado: aqui o índice deve achar o mesmo que o LIKE
+        String[] ascii = {"Vida", "Unimed", "Cooperativa", "Hospital", "Amil", "Odonto"};
+        jdbc.batchUpdate("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES (?, ?, ?, ?, ?, TRUE)", IntStream.range(0, 2_000)
+                .mapToObj(i -> new Object[]{String.format("%014d", i * 7_919L), "Operadora Saude " + ascii[i % ascii.length] + " " + i,
+                    "Fantasia", "SP", "Medicina de Grupo"})
+                .toList());
+        jdbc.update("INSERT INTO operadoras (cnpj, razao_social, is_operadora_real) VALUES ('99999999000199', 'ATIVO CIRCULANTE', FALSE)");
+        OperadoraRepository repository = new OperadoraRepository(jdbc);
+        OperadoraSearchIndex searchIndex = new OperadoraSearchIndex(repository, new DatasetVersionRepository(jdbc, 0));
+        assertTrue(searchIndex.current().isEmpty());
+
+        // dataset_version ainda vazia: versão 0
+        searchIndex.start();
+        TrigramIndex index = await(searchIndex, null);
+        for (String query : List.of("saude 1", "cooperativa", "7919", "ATIVO")) {
+            Set<String> sql = repository.findByQuery(query, 1, 10_000).stream().map(OperadoraDTO::getCnpj).collect(Collectors.toSet());
+            TrigramIndex.SearchPage page = index.search(query, 0, 10_000);
+            assertEquals(repository.countByQuery(query), page.total(), query);
+            assertEquals(sql, page.data().stream().map(OperadoraDTO::getCnpj).collect(Collectors.toSet()), query);
+        }
+
+        jdbc.update("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia, uf, modalidade, is_operadora_real) "
+                + "VALUES ('12345678000190', 'Nova Operadora Açaí', '', 'PA', '', TRUE)");
+        assertEquals(index, searchIndex.current().orElseThrow());
+        jdbc.update("INSERT INTO dataset_version (id, version) VALUES (1, 1)");
+
+        TrigramIndex rebuilt = await(searchIndex, index);
+        assertEquals("12345678000190", rebuilt.search("acai", 0, 1).data().get(0).getCnpj());
+        searchIndex.shutdown();
+    }
+
+    private static TrigramIndex await(OperadoraSearchIndex searchIndex, TrigramIndex previous) throws InterruptedException {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (System.nanoTime() < deadline) {
+            TrigramIndex current = searchIndex.current().orElse(null);
+            if (current != null && current != previous) {
+                return current;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Índice não foi (re)construído");
+    }
+
+    private static String phrase(Random random) {
+        return IntStream.range(0, 2 + random.nextInt(3)).mapToObj(i -> WORDS[random.nextInt(WORDS.length)])
+                .collect(Collectors.joining(" "));
+    }
+
+    private static OperadoraDTO operadora(String cnpj, String razaoSocial, String nomeFantasia) {
+        OperadoraDTO dto = new OperadoraDTO(cnpj, razaoSocial, "SP", "Medicina de Grupo");
+        dto.setNomeFantasia(nomeFantasia);
+        return dto;
+    }
+}
@@ -0,0 +1,96 @@
+package com.intuitive.crawler;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveBatchSizerTest {
+
+    private static final long MS = 1_000_000L;
+
+    @Test
+    void shouldGrowWhileFlushesAreFastAndThroughputHolds() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 10_000, 1_000, 500).newSizer();
+
+        // Custo fixo de 50ms por flush: lotes maiores rendem mais linhas/s
+        for (int i = 0; i < 5; i++) {
+            int size = sizer.currentBatchSize();
+            sizer.record(size, 50 * MS);
+        }
+
+        assertTrue(sizer.currentBatchSize() > 1_000, "Deve crescer enquanto a latência está abaixo do alvo");
+    }
+
+    @Test
+    void shouldShrinkWhenLatencyExceedsTarget() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 10_000, 4_000, 500).newSizer();
+
+        sizer.record(4_000, 2_000 * MS);
+
+        // 4000 * (500 / 2000) = 1000
+        assertEquals(1_000, sizer.currentBatchSize());
+    }
+
+    @Test
+    void shouldStayWithinConfiguredBounds() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(200, 1_000, 500, 100).newSizer();
+
+        for (int i = 0; i < 20; i++) {
+            sizer.record(sizer.currentBatchSize(), MS);
+        }
+        assertEquals(1_000, sizer.currentBatchSize(), "Não pode passar do máximo");
+
+        for (int i = 0; i < 20; i++) {
+            sizer.record(sizer.currentBatchSize(), 10_000 * MS);
+        }
+        assertEquals(200, sizer.currentBatchSize(), "Não pode ficar abaixo do mínimo");
+    }
+
+    @Test
+    void shouldReturnToBestSizeWhenThroughputDrops() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 10_000, 1_000, 5_000).newSizer();
+
+        // 1000 linhas em 100ms = 10k linhas/s (melhor observado)
+        sizer.record(1_000, 100 * MS);
+        assertEquals(1_500, sizer.currentBatchSize());
+
+        // 1500 linhas em 600ms = 2.5k linhas/s: lote maior piorou o throughput
+        sizer.record(1_500, 600 * MS);
+        assertEquals(1_000, sizer.currentBatchSize());
+    }
+
+    @Test
+    void shouldIgnorePartialTailBatches() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 10_000, 1_000, 500).newSizer();
+
+        sizer.record(10, 5_000 * MS);
+
+        assertEquals(1_000, sizer.currentBatchSize());
+    }
+
+    @Test
+    void shouldKeepAdaptingWhenCappedBelowCurrentSize() {
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 20_000, 20_000, 500).newSizer();
+
+        // Teto de 65535 placeholders / 6 colunas
+        sizer.capAt(10_922);
+        assertEquals(10_922, sizer.currentBatchSize());
+
+        // Lote cheio (no teto) e lento: não é resto parcial, deve encolher
+        sizer.record(10_922, 2_000 * MS);
+        assertEquals(2_700, sizer.currentBatchSize());
+
+        for (int i = 0; i < 20; i++) {
+            sizer.record(sizer.currentBatchSize(), MS);
+        }
+        assertTrue(sizer.currentBatchSize() <= 10_922, "Não pode voltar a passar do teto");
+    }
+
+    @Test
+    void shouldRejectInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchSizer.BatchBounds(0, 100, 10, 100));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchSizer.BatchBounds(500, 100, 10, 100));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveBatchSizer.BatchBounds(1, 100, 10, 0));
+    }
+}
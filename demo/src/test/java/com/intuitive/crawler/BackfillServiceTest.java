@@ -0,0 +1,150 @@
+package com.intuitive.crawler;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BackfillServiceTest {
+
+    private static final String TEST_DB_URL = "jdbc:h2:mem:backfilldb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setup() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("""
+                CREATE TABLE operadoras (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    cnpj VARCHAR(14) NOT NULL UNIQUE,
+                    razao_social VARCHAR(255),
+                    nome_fantasia VARCHAR(255),
+                    uf VARCHAR(2),
+                    modalidade VARCHAR(100),
+                    is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE despesas_agregadas (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    cnpj_operadora VARCHAR(14) NOT NULL,
+                    codigo_conta VARCHAR(20) NOT NULL,
+                    valor_total DECIMAL(15, 2) NOT NULL,
+                    competencia VARCHAR(7) NOT NULL DEFAULT '',
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (cnpj_operadora) REFERENCES operadoras(cnpj)
+                )
+                """);
+        }
+    }
+
+    @Test
+    void shouldImportQuartersConcurrentlyWithinGlobalLimits() throws Exception {
+        ConcurrencyLimits limits = new ConcurrencyLimits(2, 2, 1);
+        BackfillService backfill = new BackfillService(this::fakeDownload, pipeline(limits), limits);
+
+        List<BackfillService.QuarterResult> results = backfill.run(
+                Trimestre.range(Trimestre.parse("1T2024"), Trimestre.parse("4T2024")));
+
+        assertEquals(4, results.size());
+        assertTrue(results.stream().allMatch(BackfillService.QuarterResult::sucesso));
+        assertEquals(List.of("2024-T1", "2024-T2", "2024-T3", "2024-T4"),
+                results.stream().map(r -> r.trimestre().competencia()).toList());
+
+        for (BackfillService.QuarterResult result : results) {
+            assertEquals(result.summary().agregados(), countCompetencia(result.trimestre().competencia()));
+        }
+        assertEquals(2, limits.peak(ConcurrencyLimits.Resource.DOWNLOAD), "Downloads deveriam se sobrepor até o limite");
+        assertTrue(limits.peak(ConcurrencyLimits.Resource.CPU) <= 2);
+        assertEquals(1, limits.peak(ConcurrencyLimits.Resource.DB_WRITER));
+    }
+
+    @Test
+    void shouldKeepOtherQuartersWhenOneFailsOrIsReimported() throws Exception {
+        ConcurrencyLimits limits = new ConcurrencyLimits(3, 2, 2);
+        BackfillService.QuarterSource flaky = trimestre -> {
+            if (trimestre.numero() == 2) {
+                throw new java.io.IOException("Falha ao baixar arquivo. Código de status: 404");
+            }
+            return fakeDownload(trimestre);
+        };
+
+        List<BackfillService.QuarterResult> results = new BackfillService(flaky, pipeline(limits), limits)
+                .run(Trimestre.range(Trimestre.parse("1T2024"), Trimestre.parse("3T2024")));
+
+        assertFalse(results.get(1).sucesso());
+        assertTrue(results.get(1).erro().contains("404"));
+        assertEquals(0, countCompetencia("2024-T2"));
+        long t1 = countCompetencia("2024-T1");
+        long t3 = countCompetencia("2024-T3");
+        assertTrue(t1 > 0 && t3 > 0);
+
+        // Reexecutar só o trimestre que falhou e um que já existia: substitui, não duplica
+        new BackfillService(this::fakeDownload, pipeline(limits), limits)
+                .run(List.of(Trimestre.parse("2T2024"), Trimestre.parse("3T2024")));
+
+        assertEquals(t1, countCompetencia("2024-T1"));
+        assertTrue(countCompetencia("2024-T2") > 0);
+        assertEquals(t3, countCompetencia("2024-T3"));
+    }
+
+    @Test
+    void shouldExpandQuarterRangeAcrossYears() {
+        List<Trimestre> range = Trimestre.range(Trimestre.parse("3T2023"), Trimestre.parse("2024-T2"));
+
+        assertEquals(List.of("3T2023", "4T2023", "1T2024", "2T2024"), range.stream().map(Trimestre::label).toList());
+        assertEquals("2023-T4", range.get(1).competencia());
+        assertEquals(Trimestre.parse("4T2024"), Trimestre.fromFileName("dados/4T2024.zip").orElseThrow());
+    }
+
+    private IngestPipeline pipeline(ConcurrencyLimits limits) {
+        return new IngestPipeline(new DataEnricherService(new CsvParserService()),
+                new DatabaseImportService(TEST_DB_URL, "sa", ""),
+                new IngestPipeline.Settings(2, 1, 1, 4, 500), limits);
+    }
+
+    /**
+     * "Download" simulado: espera um pouco e grava um CSV sintético do
+     * trimestre (operadoras em parte comuns entre trimestres).
+     */
+    private Path fakeDownload(Trimestre trimestre) throws Exception {
+        Thread.sleep(150);
+        StringBuilder csv = new StringBuilder("\"DATA\";\"REG_ANS\";\"CD_CONTA_CONTABIL\";\"DESCRICAO\";\"VL_SALDO_FINAL\"\n");
+        for (int i = 0; i < 3_000; i++) {
+            int operadora = 400_000 + trimestre.numero() * 10 + (i % 60);
+            csv.append("\"").append(trimestre.ano()).append("-01-01\";\"").append(operadora).append("\";\"")
+                    .append(41 + (i % 7)).append("\";\"Operadora ").append(operadora).append("\";\"")
+                    .append(i).append(",50\"\n");
+        }
+        Path file = tempDir.resolve(trimestre.label() + ".csv");
+        Files.writeString(file, csv, StandardCharsets.ISO_8859_1);
+        return file;
+    }
+
+    private long countCompetencia(String competencia) throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "");
+                PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM despesas_agregadas WHERE competencia = ?")) {
+            ps.setString(1, competencia);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkLoaderTest {
+
+    private static final String H2_URL = "jdbc:h2:mem:bulkdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    // MySQL local (mesma configuração do Main); o teste é ignorado se indisponível
+    private static final String MYSQL_URL = System.getProperty("mysql.url",
+            "jdbc:mysql://localhost:3306/registrosans?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true&allowLoadLocalInfile=true");
+    private static final String MYSQL_USER = System.getProperty("mysql.user", "root");
+    private static final String MYSQL_PASSWORD = System.getProperty("mysql.password", "Amateresu123.");
+
+    @BeforeEach
+    void setup() throws Exception {
+        try (Connection conn = DriverManager.getConnection(H2_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS despesas_agregadas (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    cnpj_operadora VARCHAR(14),
+                    codigo_conta VARCHAR(20),
+                    valor_total DECIMAL(15, 2),
+                    competencia VARCHAR(7) NOT NULL DEFAULT ''
+                )
+                """);
+            stmt.execute("TRUNCATE TABLE despesas_agregadas");
+        }
+    }
+
+    @Test
+    void shouldPickCsvReadLoaderForH2() throws Exception {
+        try (Connection conn = DriverManager.getConnection(H2_URL, "sa", "")) {
+            assertInstanceOf(H2CsvReadBulkLoader.class, BulkLoader.forConnection(conn));
+        }
+    }
+
+    @Test
+    void shouldLoadRecordsWithH2CsvRead() throws Exception {
+        assertLoadsSampleRecords(new H2CsvReadBulkLoader());
+    }
+
+    @Test
+    void shouldLoadRecordsWithJdbcBatchFallback() throws Exception {
+        assertLoadsSampleRecords(new JdbcBatchBulkLoader());
+    }
+
+    @Test
+    void shouldLoadLargeVolumeWithH2CsvRead() throws Exception {
+        List<AggregatorService.AggregatedRecord> records = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            records.add(new AggregatorService.AggregatedRecord("CNPJ" + i, "Op" + i, "3111", 1.5));
+        }
+
+        try (Connection conn = DriverManager.getConnection(H2_URL, "sa", "")) {
+            conn.setAutoCommit(false);
+            int loaded = new H2CsvReadBulkLoader().load(conn, "despesas_agregadas", records);
+            conn.commit();
+
+            assertEquals(20_000, loaded);
+            assertEquals(20_000, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas"));
+        }
+    }
+
+    @Test
+    void shouldLoadRecordsWithMySqlLoadData() throws Exception {
+        Connection conn;
+        try {
+            conn = DriverManager.getConnection(MYSQL_URL, MYSQL_USER, MYSQL_PASSWORD);
+        } catch (SQLException e) {
+            assumeTrue(false, "MySQL local indisponível: " + e.getMessage());
+            return;
+        }
+
+        try (conn; Statement stmt = conn.createStatement()) {
+            assumeTrue(MySqlLoadDataBulkLoader.isAvailable(conn), "local_infile desabilitado no servidor");
+
+            // Tabela temporária: não interfere nos dados reais do banco
+            stmt.execute("""
+                CREATE TEMPORARY TABLE despesas_bulk_test (
+                    cnpj_operadora VARCHAR(14),
+                    codigo_conta VARCHAR(20),
+                    valor_total DECIMAL(15, 2),
+                    competencia VARCHAR(7) NOT NULL DEFAULT ''
+                )
+                """);
+
+            conn.setAutoCommit(false);
+            int loaded = new MySqlLoadDataBulkLoader().load(conn, "despesas_bulk_test", sampleRecords());
+            conn.commit();
+
+            assertEquals(3, loaded);
+            assertEquals(3, queryLong(conn, "SELECT COUNT(*) FROM despesas_bulk_test"));
+            assertEquals(10_001_500.75, queryDouble(conn, "SELECT SUM(valor_total) FROM despesas_bulk_test"), 0.001);
+        }
+    }
+
+    @Test
+    void shouldKeepBackslashesAndFailOnWarningsWithMySqlLoadData() throws Exception {
+        Connection conn;
+        try {
+            conn = DriverManager.getConnection(MYSQL_URL, MYSQL_USER, MYSQL_PASSWORD);
+        } catch (SQLException e) {
+            assumeTrue(false, "MySQL local indisponível: " + e.getMessage());
+            return;
+        }
+
+        try (conn; Statement stmt = conn.createStatement()) {
+            assumeTrue(MySqlLoadDataBulkLoader.isAvailable(conn), "local_infile desabilitado no servidor");
+            stmt.execute("""
+                CREATE TEMPORARY TABLE despesas_bulk_test (
+                    cnpj_operadora VARCHAR(14),
+                    codigo_conta VARCHAR(20),
+                    valor_total DECIMAL(15, 2),
+                    competencia VARCHAR(7) NOT NULL DEFAULT ''
+                )
+                """);
+            MySqlLoadDataBulkLoader loader = new MySqlLoadDataBulkLoader();
+
+            loader.load(conn, "despesas_bulk_test", List.of(
+                    new AggregatorService.AggregatedRecord("123", "Op A", "31\\1\\N", 1.0)));
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_bulk_test WHERE codigo_conta = '31\\\\1\\\\N'"),
+                    "Barra invertida é dado, não escape");
+
+            // Conta maior que a coluna: com LOCAL o truncamento vira aviso, e aviso derruba a carga
+            SQLException e = assertThrows(SQLException.class, () -> loader.load(conn, "despesas_bulk_test", List.of(
+                    new AggregatorService.AggregatedRecord("456", "Op B", "3".repeat(30), 1.0))));
+            assertTrue(e.getMessage().contains("aviso"), e.getMessage());
+        }
+    }
+
+    private void assertLoadsSampleRecords(BulkLoader loader) throws Exception {
+        try (Connection conn = DriverManager.getConnection(H2_URL, "sa", "")) {
+            conn.setAutoCommit(false);
+            int loaded = loader.load(conn, "despesas_agregadas", sampleRecords());
+            conn.commit();
+
+            assertEquals(3, loaded);
+            assertEquals(3, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas"));
+            assertEquals(10_001_500.75, queryDouble(conn, "SELECT SUM(valor_total) FROM despesas_agregadas"), 0.001);
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas WHERE codigo_conta = '31\"1'"),
+                    "Aspas dentro do campo devem ser preservadas");
+        }
+    }
+
+    private List<AggregatorService.AggregatedRecord> sampleRecords() {
+        return List.of(
+                new AggregatorService.AggregatedRecord("123", "Op A", "3111", 1000.50),
+                new AggregatorService.AggregatedRecord("456", "Op B", "31\"1", 500.25),
+                // 1.0E7 em Double.toString: não pode virar notação científica no CSV
+                new AggregatorService.AggregatedRecord("789", "Op C", "3112", 10_000_000.00)
+        );
+    }
+
+    private long queryLong(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private double queryDouble(Connection conn, String sql) throws SQLException {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getDouble(1);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.intuitive.crawler;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import com.intuitive.crawler.AggregatorService.AggregatedRecord;
+import com.intuitive.crawler.DataEnricherService.EnrichedRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRoundTripAggregatedRecordsWithStatistics() throws Exception {
+        List<AggregatedRecord> records = List.of(
+                new AggregatedRecord("22222222000122", "SAÚDE B", "411", 1_234_567.891, "2024-10-01"),
+                new AggregatedRecord("11111111000111", "SAÚDE A", "41111", -10.5, "2024-10-01"),
+                new AggregatedRecord("11111111000111", "SAÚDE A", "411", 0.07, "2024-10-01"));
+        Path file = tempDir.resolve("agg.col");
+
+        ColumnarSnapshot.writeAggregated(records, file);
+
+        try (ColumnarSnapshot.Reader reader = ColumnarSnapshot.open(file)) {
+            assertEquals(ColumnarSnapshot.Kind.AGGREGATED, reader.kind());
+            assertEquals(3, reader.rowCount());
+            ColumnarSnapshot.ColumnInfo cnpj = reader.column("cnpj_operadora");
+            assertEquals(2, cnpj.cardinality());
+            assertEquals("11111111000111", cnpj.min());
+            assertEquals("22222222000122", cnpj.max());
+            ColumnarSnapshot.ColumnInfo valor = reader.column("valor_total");
+            assertEquals("-10.50", valor.min());
+            assertEquals("1234567.89", valor.max());
+
+            List<AggregatedRecord> loaded = reader.readAggregated();
+            assertEquals(records.size(), loaded.size());
+            for (int i = 0; i < records.size(); i++) {
+                assertEquals(records.get(i).cnpjOperadora, loaded.get(i).cnpjOperadora);
+                assertEquals(records.get(i).razaoSocial, loaded.get(i).razaoSocial);
+                assertEquals(records.get(i).codigoConta, loaded.get(i).codigoConta);
+                assertEquals(records.get(i).competencia, loaded.get(i).competencia);
+            }
+            assertEquals(1_234_567.89, loaded.get(0).totalValor);
+            assertEquals(new BigDecimal("1234557.46"), reader.decimals("valor_total").sum());
+        }
+    }
+
+    @Test
+    void shouldReaggregateEnrichedSnapshotToSameTotals() throws Exception {
+        SyntheticAnsDataset.Output quarter = new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(300, 5L))
+                .writeQuarterCsv(tempDir.resolve("dados"), new Trimestre(2024, 4));
+        CsvParserService parser = new CsvParserService();
+        List<EnrichedRecord> enriched = new DataEnricherService(parser)
+                .enrichRecords(parser.parseAndFilter(quarter.financialCsv(), Set.of(".*")), quarter.cadastroCsv());
+        Path file = tempDir.resolve("enriched.col");
+
+        ColumnarSnapshot.writeEnriched(enriched, file);
+        List<EnrichedRecord> loaded;
+        try (ColumnarSnapshot.Reader reader = ColumnarSnapshot.open(file)) {
+            loaded = reader.readEnriched();
+            // 300 operadoras: códigos de 2 bytes para CNPJ, de 1 byte para a data
+            assertEquals(2, reader.column("cnpj").codeWidth());
+            assertEquals(1, reader.column("data").codeWidth());
+        }
+
+        AggregatorService aggregator = new AggregatorService();
+        List<AggregatedRecord> expected = aggregator.aggregateByOperadoraAndConta(enriched);
+        List<AggregatedRecord> actual = aggregator.aggregateByOperadoraAndConta(loaded);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).cnpjOperadora, actual.get(i).cnpjOperadora);
+            assertEquals(expected.get(i).codigoConta, actual.get(i).codigoConta);
+            assertEquals(expected.get(i).totalValor, actual.get(i).totalValor, 0.001);
+        }
+        assertEquals(enriched.get(0).nomeFantasia, loaded.get(0).nomeFantasia);
+        assertEquals(enriched.get(0).data, loaded.get(0).data);
+    }
+
+    @Test
+    void shouldScanOneColumnWithoutReadingTheOthers() throws Exception {
+        List<AggregatedRecord> records = List.of(
+                new AggregatedRecord("1", "A", "411", 10.25, "2024-10-01"),
+                new AggregatedRecord("2", "B", "412", 20.50, "2024-10-01"));
+        Path file = tempDir.resolve("scan.col");
+        ColumnarSnapshot.writeAggregated(records, file);
+
+        // Corrompe todos os blocos menos os de valor_total e codigo_conta
+        List<ColumnarSnapshot.ColumnInfo> columns;
+        try (ColumnarSnapshot.Reader reader = ColumnarSnapshot.open(file)) {
+            columns = reader.columns();
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (ColumnarSnapshot.ColumnInfo column : columns) {
+                if (!column.name().equals("valor_total") && !column.name().equals("codigo_conta")) {
+                    overwrite(channel, column.dataOffset(), column.dataLength());
+                    overwrite(channel, column.dictOffset(), column.dictLength());
+                }
+            }
+        }
+
+        try (ColumnarSnapshot.Reader reader = ColumnarSnapshot.open(file)) {
+            assertEquals(new BigDecimal("30.75"), reader.decimals("valor_total").sum());
+            ColumnarSnapshot.StringColumn contas = reader.strings("codigo_conta");
+            assertEquals("411", contas.get(0));
+            assertEquals("412", contas.get(1));
+        }
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotSnapshots() throws Exception {
+        Path csv = tempDir.resolve("dados.csv");
+        Files.writeString(csv, "CNPJ;RAZAO_SOCIAL;NOME_FANTASIA;CODIGO_CONTA;VALOR;DATA\n1;A;B;411;1,00;2024-10-01\n");
+
+        assertThrows(IOException.class, () -> ColumnarSnapshot.open(csv));
+    }
+
+    private static void overwrite(FileChannel channel, long offset, long length) throws IOException {
+        if (length == 0) {
+            return;
+        }
+        byte[] garbage = new byte[(int) length];
+        Arrays.fill(garbage, (byte) 0xFF);
+        channel.write(ByteBuffer.wrap(garbage), offset);
+    }
+}
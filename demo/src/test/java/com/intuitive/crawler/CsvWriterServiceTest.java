@@ -0,0 +1,77 @@
+package com.intuitive.crawler;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import com.intuitive.crawler.DataEnricherService.EnrichedRecord;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvWriterServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldWriteUtf8LinesWithHeader() throws Exception {
+        List<EnrichedRecord> records = List.of(
+                new EnrichedRecord("12345678000199", "Operadora Saúde Ltda", "Saúde Total", "411", "1000.50", "2024-10-01"),
+                new EnrichedRecord("98765432000111", "Planos 𝄞 SA", null, "41111", "-3.10", "2024-10-01"));
+        Path output = tempDir.resolve("out.csv");
+
+        long rows = new CsvWriterService().writeEnrichedRecords(records, output);
+
+        String expected = CsvWriterService.HEADER + "\n"
+                + "12345678000199;Operadora Saúde Ltda;Saúde Total;411;1000.50;2024-10-01\n"
+                + "98765432000111;Planos 𝄞 SA;;41111;-3.10;2024-10-01\n";
+        assertEquals(2, rows);
+        assertArrayEquals(expected.getBytes(StandardCharsets.UTF_8), Files.readAllBytes(output));
+    }
+
+    @Test
+    void shouldQuoteFieldsWithSeparatorQuotesOrLineBreaks() throws Exception {
+        List<EnrichedRecord> records = List.of(
+                new EnrichedRecord("1", "Saúde; Vida", "A \"Boa\"", "linha\nquebrada", "0.00", "2024-10-01"));
+        Path output = tempDir.resolve("quoted.csv");
+
+        new CsvWriterService().writeEnrichedRecords(records, output);
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals("1;\"Saúde; Vida\";\"A \"\"Boa\"\"\";\"linha", lines.get(1));
+        assertEquals("quebrada\";0.00;2024-10-01", lines.get(2));
+    }
+
+    @Test
+    void shouldStreamIntoGzipWithSmallBuffer() throws Exception {
+        int count = 20_000;
+        Path gz = tempDir.resolve("out.csv.gz");
+        Path plain = tempDir.resolve("out.csv");
+
+        // Buffer de 16 bytes: força flush no meio de campos e de caracteres multibyte
+        long rows = new CsvWriterService(16).writeEnrichedRecords(
+                IntStream.range(0, count).mapToObj(CsvWriterServiceTest::record), gz, CsvWriterService.Compression.GZIP);
+        new CsvWriterService().writeEnrichedRecords(
+                IntStream.range(0, count).mapToObj(CsvWriterServiceTest::record).iterator(), plain,
+                CsvWriterService.Compression.forPath(plain));
+
+        assertEquals(count, rows);
+        byte[] unzipped;
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(gz))) {
+            unzipped = in.readAllBytes();
+        }
+        assertArrayEquals(Files.readAllBytes(plain), unzipped);
+        assertEquals(count + 1, Files.readAllLines(plain, StandardCharsets.UTF_8).size());
+    }
+
+    private static EnrichedRecord record(int i) {
+        return new EnrichedRecord(String.format("%014d", i), "Operadora Ação " + i, i % 7 == 0 ? "X;Y" : "Fantasia",
+                "4" + (i % 1000), i + ".25", "2024-10-01");
+    }
+}
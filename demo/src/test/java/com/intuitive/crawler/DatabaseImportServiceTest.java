@@ -12,7 +12,7 @@ import org.junit.jupiter.api.Test;
 
 class DatabaseImportServiceTest {
 
-    private static final String TEST_DB_URL = "jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1";
+    private static final String TEST_DB_URL = "jdbc:h2:mem:importdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
     private DatabaseImportService service;
 
     @BeforeEach
@@ -26,7 +26,10 @@ class DatabaseImportServiceTest {
                 CREATE TABLE IF NOT EXISTS operadoras (
                     cnpj VARCHAR(14) PRIMARY KEY,
                     razao_social VARCHAR(255),
-                    nome_fantasia VARCHAR(255)
+                    nome_fantasia VARCHAR(255),
+                    uf VARCHAR(2),
+                    modalidade VARCHAR(100),
+                    is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE
                 )
                 """);
 
@@ -35,7 +38,8 @@ class DatabaseImportServiceTest {
                     id BIGINT AUTO_INCREMENT PRIMARY KEY,
                     cnpj_operadora VARCHAR(14),
                     codigo_conta VARCHAR(20),
-                    valor_total DECIMAL(15, 2)
+                    valor_total DECIMAL(15, 2),
+                    competencia VARCHAR(7) NOT NULL DEFAULT ''
                 )
                 """);
             // Garantir que cada teste comece com tabelas vazias
@@ -27,6 +27,8 @@ class H2InMemorySqlValidationTest {
                 schema = schema.replaceAll("(?m)^\\s*INDEX\\b.*$", "");
                 // Remover comentários de linha
                 schema = schema.replaceAll("(?m)^--.*$", "");
+                // Remover blocos de índice idempotentes específicos do MySQL (SET @var / PREPARE)
+                schema = schema.replaceAll("(?m)^(SET @|PREPARE ).*$", "");
                 // Remover vírgula final antes de fechamento de parênteses
                 schema = schema.replaceAll(",\\s*\\)", ")");
 
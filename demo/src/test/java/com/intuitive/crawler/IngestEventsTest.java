@@ -0,0 +1,89 @@
+package com.intuitive.crawler;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IngestEventsTest {
+
+    private static final String TEST_DB_URL = "jdbc:h2:mem:jfrdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldRecordStageAndBatchFlushEvents() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS operadoras (
+                    cnpj VARCHAR(14) PRIMARY KEY,
+                    razao_social VARCHAR(255),
+                    nome_fantasia VARCHAR(255),
+                    uf VARCHAR(2),
+                    modalidade VARCHAR(100),
+                    is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE
+                )
+                """);
+            stmt.execute("TRUNCATE TABLE operadoras");
+        }
+        List<DataEnricherService.Operadora> operadoras = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            String cnpj = String.format("%014d", i);
+            operadoras.add(new DataEnricherService.Operadora(cnpj, "Operadora " + i, "Operadora " + i));
+        }
+
+        Path file = tempDir.resolve("ingest.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.intuitive.ingest.PipelineStage").withThreshold(Duration.ZERO);
+            recording.enable("com.intuitive.ingest.BatchFlush").withThreshold(Duration.ZERO);
+            recording.start();
+
+            StagedPipeline
+                    .<Integer>from("leitura", out -> {
+                        for (int i = 0; i < 50; i++) {
+                            out.emit(i);
+                        }
+                    })
+                    .then("parse", 2, 4, (Integer chunk, StagedPipeline.Emitter<Void> out) -> {
+                    })
+                    .run();
+            new DatabaseImportService(TEST_DB_URL, "sa", "").importOperadoras(operadoras);
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        List<RecordedEvent> stages = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.intuitive.ingest.PipelineStage"))
+                .toList();
+        assertEquals(3, stages.size(), "Um evento por worker (1 leitura + 2 parse)");
+        assertEquals(50, stages.stream()
+                .filter(e -> e.getString("stage").equals("parse"))
+                .mapToLong(e -> e.getLong("items"))
+                .sum());
+        assertTrue(stages.stream().noneMatch(e -> e.getBoolean("failed")));
+
+        List<RecordedEvent> flushes = events.stream()
+                .filter(e -> e.getEventType().getName().equals("com.intuitive.ingest.BatchFlush"))
+                .toList();
+        assertFalse(flushes.isEmpty());
+        assertEquals(1_000, flushes.stream().mapToLong(e -> e.getLong("rows")).sum());
+        assertTrue(flushes.stream().allMatch(e -> e.getString("table").equals("operadoras")
+                && e.getString("statement").startsWith("insert:operadoras[")));
+    }
+}
@@ -0,0 +1,88 @@
+package com.intuitive.crawler;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IngestPipelineTest {
+
+    private static final String TEST_DB_URL = "jdbc:h2:mem:pipelinedb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @BeforeEach
+    void setup() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+    }
+
+    @Test
+    void shouldImportSyntheticQuarterLikeSequentialFlow(@TempDir Path tempDir) throws Exception {
+        Path csv = writeSyntheticQuarter(tempDir.resolve("4T2024.csv"), 50_000);
+
+        DatabaseImportService importer = new DatabaseImportService(TEST_DB_URL, "sa", "");
+        CsvParserService parser = new CsvParserService();
+        IngestPipeline pipeline = new IngestPipeline(new DataEnricherService(parser), importer,
+                new IngestPipeline.Settings(3, 2, 2, 4, 1_000));
+
+        IngestPipeline.Summary summary = pipeline.run(csv);
+        summary.pipeline().print();
+
+        // Referência: fluxo sequencial com as mesmas regras
+        List<Map<String, String>> rows = parser.parseAndFilter(csv, Set.of(".*"));
+        List<DataEnricherService.EnrichedRecord> enriched = rows.stream()
+                .map(row -> new DataEnricherService.EnrichedRecord(row.get("REG_ANS"), "", "",
+                row.get("CD_CONTA_CONTABIL"), row.get("VL_SALDO_FINAL"), row.get("DATA")))
+                .toList();
+        List<AggregatorService.AggregatedRecord> expected = new AggregatorService().aggregateByOperadoraAndConta(enriched);
+
+        assertEquals(50_000, summary.registros());
+        assertEquals(200, summary.operadoras());
+        assertEquals(expected.size(), summary.agregados());
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "");
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery(
+                        "SELECT cnpj_operadora, codigo_conta, valor_total FROM despesas_agregadas ORDER BY cnpj_operadora, codigo_conta")) {
+            for (AggregatorService.AggregatedRecord record : expected) {
+                rs.next();
+                assertEquals(record.cnpjOperadora, rs.getString(1));
+                assertEquals(record.codigoConta, rs.getString(2));
+                assertEquals(record.totalValor, rs.getDouble(3), 0.005);
+            }
+            assertEquals(false, rs.next());
+        }
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "");
+                Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT razao_social FROM operadoras WHERE cnpj = '300000'")) {
+            rs.next();
+            assertEquals("DESPESAS 300000 - 0", rs.getString(1), "Duplicatas: vale a primeira linha do arquivo");
+        }
+    }
+
+    private Path writeSyntheticQuarter(Path file, int rows) throws Exception {
+        Random random = new Random(42);
+        StringBuilder csv = new StringBuilder("\"DATA\";\"REG_ANS\";\"CD_CONTA_CONTABIL\";\"DESCRICAO\";\"VL_SALDO_INICIAL\";\"VL_SALDO_FINAL\"\n");
+        for (int i = 0; i < rows; i++) {
+            int operadora = 300_000 + (i % 200);
+            csv.append("\"2024-10-01\";\"").append(operadora).append("\";\"")
+                    .append(41 + random.nextInt(30)).append("\";\"DESPESAS ").append(operadora).append(" - ").append(i / 200)
+                    .append("\";\"0,00\";\"").append(random.nextInt(1_000_000)).append(',').append(String.format("%02d", random.nextInt(100)))
+                    .append("\"\n");
+        }
+        Files.writeString(file, csv, StandardCharsets.ISO_8859_1);
+        return file;
+    }
+}
@@ -0,0 +1,173 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.h2.api.Trigger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MultiRowInsertWriterTest {
+
+    private static final String TEST_DB_URL = "jdbc:h2:mem:multirowdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    @BeforeEach
+    void setup() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS operadoras (
+                    cnpj VARCHAR(14) PRIMARY KEY,
+                    razao_social VARCHAR(255),
+                    nome_fantasia VARCHAR(255),
+                    uf VARCHAR(2),
+                    modalidade VARCHAR(100),
+                    is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS despesas_agregadas (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    cnpj_operadora VARCHAR(14),
+                    codigo_conta VARCHAR(20),
+                    valor_total DECIMAL(15, 2),
+                    competencia VARCHAR(7) NOT NULL DEFAULT ''
+                )
+                """);
+            stmt.execute("TRUNCATE TABLE operadoras");
+            stmt.execute("TRUNCATE TABLE despesas_agregadas");
+        }
+    }
+
+    @Test
+    void shouldBuildAndReuseMultiRowTemplates() {
+        MultiRowInsertTemplate template = new MultiRowInsertTemplate("t", new String[]{"a", "b"}, "ON DUPLICATE KEY UPDATE b = VALUES(b)");
+
+        assertEquals("INSERT INTO t (a, b) VALUES (?, ?),(?, ?) ON DUPLICATE KEY UPDATE b = VALUES(b)", template.sqlFor(2));
+        assertSame(template.sqlFor(500), template.sqlFor(500), "Template deve ser montado uma única vez");
+        assertEquals(65_535 / 2, template.maxRows());
+        assertThrows(IllegalArgumentException.class, () -> template.sqlFor(template.maxRows() + 1));
+    }
+
+    @Test
+    void shouldWriteAllRowsAcrossAdaptiveFlushes() throws Exception {
+        List<AggregatorService.AggregatedRecord> records = new ArrayList<>();
+        for (int i = 0; i < 12_345; i++) {
+            records.add(new AggregatorService.AggregatedRecord("CNPJ" + i, "Op" + i, "3111", 1.0));
+        }
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            conn.setAutoCommit(false);
+            int loaded = new JdbcBatchBulkLoader(new AdaptiveBatchSizer.BatchBounds(100, 5_000, 500, 1_000))
+                    .load(conn, "despesas_agregadas", records);
+            conn.commit();
+
+            assertEquals(12_345, loaded);
+            assertEquals(12_345, count(conn, "despesas_agregadas"));
+        }
+    }
+
+    @Test
+    void shouldRespectPlaceholderLimitForWideBatches() throws Exception {
+        MultiRowInsertTemplate template = new MultiRowInsertTemplate("despesas_agregadas",
+                new String[]{"cnpj_operadora", "codigo_conta", "valor_total"}, null);
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 100_000, 100_000, 60_000).newSizer();
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "");
+                MultiRowInsertWriter<Integer> writer = new MultiRowInsertWriter<>(conn, template, sizer, (ps, idx, i) -> {
+                    ps.setString(idx++, "C" + i);
+                    ps.setString(idx++, "3111");
+                    ps.setDouble(idx++, i);
+                    return idx;
+                })) {
+            for (int i = 0; i < 30_000; i++) {
+                writer.add(i);
+            }
+            writer.flush();
+
+            assertEquals(30_000, writer.written());
+            assertTrue(writer.flushes() >= 2, "Lotes acima de 21845 linhas devem ser divididos");
+        }
+    }
+
+    @Test
+    void shouldShrinkSlowFlushesCappedByPlaceholderLimit() throws Exception {
+        MultiRowInsertTemplate template = new MultiRowInsertTemplate("despesas_lentas",
+                new String[]{"cnpj_operadora", "codigo_conta", "valor_total"}, null);
+        // Lote inicial acima do teto (21845 linhas com 3 colunas), alvo de 100ms
+        AdaptiveBatchSizer sizer = new AdaptiveBatchSizer.BatchBounds(100, 100_000, 100_000, 100).newSizer();
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP TABLE IF EXISTS despesas_lentas");
+            stmt.execute("CREATE TABLE despesas_lentas (cnpj_operadora VARCHAR(14), codigo_conta VARCHAR(20), valor_total DECIMAL(15, 2))");
+            stmt.execute("CREATE TRIGGER despesas_lentas_insert BEFORE INSERT ON despesas_lentas FOR EACH STATEMENT CALL \""
+                    + SlowStatement.class.getName() + "\"");
+
+            try (MultiRowInsertWriter<Integer> writer = new MultiRowInsertWriter<>(conn, template, sizer, (ps, idx, i) -> {
+                ps.setString(idx++, "C" + i);
+                ps.setString(idx++, "3111");
+                ps.setDouble(idx++, i);
+                return idx;
+            })) {
+                for (int i = 0; i < template.maxRows(); i++) {
+                    writer.add(i);
+                }
+
+                assertEquals(1, writer.flushes(), "Lote cheio no teto deve ser enviado");
+                assertTrue(sizer.currentBatchSize() < template.maxRows(), "Flush lento deve encolher o lote");
+            }
+        }
+    }
+
+    /**
+     * Trigger de statement que simula um banco lento.
+     */
+    public static class SlowStatement implements Trigger {
+
+        @Override
+        public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    void shouldUpsertOperadorasWithMultiRowStatements() throws Exception {
+        DatabaseImportService service = new DatabaseImportService(TEST_DB_URL, "sa", "");
+        service.setBatchBounds(new AdaptiveBatchSizer.BatchBounds(10, 100, 10, 1_000));
+
+        List<DataEnricherService.Operadora> operadoras = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            operadoras.add(new DataEnricherService.Operadora("C" + i, "Razao " + i, "Fantasia " + i));
+        }
+        operadoras.add(new DataEnricherService.Operadora("", "Sem CNPJ", "Ignorada"));
+        service.importOperadoras(operadoras);
+
+        // Segunda carga atualiza em vez de duplicar
+        service.importOperadoras(List.of(new DataEnricherService.Operadora("C1", "Razao Nova", "Fantasia Nova")));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT razao_social FROM operadoras WHERE cnpj = 'C1'")) {
+            assertEquals(250, count(conn, "operadoras"));
+            rs.next();
+            assertEquals("Razao Nova", rs.getString(1));
+        }
+    }
+
+    private long count(Connection conn, String table) throws Exception {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.intuitive.crawler;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import com.intuitive.crawler.DataEnricherService.EnrichedRecord;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PartitionedExportWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldShardByPeriodAndDescribeEveryFileInManifest() throws Exception {
+        List<EnrichedRecord> records = IntStream.range(0, 30_000)
+                .mapToObj(i -> record(i, i % 3 == 0 ? "2024-07-01" : i % 3 == 1 ? "2024-10-01" : "2025-01-01"))
+                .toList();
+        Path dir = tempDir.resolve("export");
+
+        PartitionedExportWriter.Manifest manifest = new PartitionedExportWriter(CsvWriterService.Compression.NONE, 2)
+                .export(records.iterator(), dir, PartitionedExportWriter.PartitionKey.byPeriod());
+
+        assertEquals(List.of("1T2025", "3T2024", "4T2024"), manifest.shards().stream().map(PartitionedExportWriter.Shard::partition).toList());
+        assertEquals(30_000, manifest.totalRows());
+        Set<String> exported = new HashSet<>();
+        for (PartitionedExportWriter.Shard shard : manifest.shards()) {
+            Path file = dir.resolve(shard.file());
+            byte[] bytes = Files.readAllBytes(file);
+            assertEquals(shard.bytes(), bytes.length);
+            assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)), shard.sha256());
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(CsvWriterService.HEADER, lines.get(0));
+            assertEquals(shard.rows(), lines.size() - 1);
+            assertEquals(10_000, shard.rows());
+            exported.addAll(lines.subList(1, lines.size()));
+        }
+
+        // Mesmas linhas do arquivo único, só que repartidas
+        Path single = tempDir.resolve("single.csv");
+        new CsvWriterService().writeEnrichedRecords(records, single);
+        List<String> singleLines = Files.readAllLines(single, StandardCharsets.UTF_8);
+        assertEquals(new HashSet<>(singleLines.subList(1, singleLines.size())), exported);
+        assertEquals(manifest, PartitionedExportWriter.Manifest.read(dir.resolve(PartitionedExportWriter.MANIFEST)));
+    }
+
+    @Test
+    void shouldCompressShardsAndCombineKeys() throws Exception {
+        Map<String, String> ufByCnpj = Map.of(cnpj(0), "sp", cnpj(1), "RJ");
+        List<EnrichedRecord> records = IntStream.range(0, 4_000).mapToObj(i -> record(i, "2024-10-01")).toList();
+        Path dir = tempDir.resolve("gz");
+
+        PartitionedExportWriter.Manifest manifest = new PartitionedExportWriter(CsvWriterService.Compression.GZIP, 3)
+                .export(records.iterator(), dir, PartitionedExportWriter.PartitionKey.byPeriod()
+                        .and(PartitionedExportWriter.PartitionKey.byUf(ufByCnpj::get)));
+
+        assertEquals("periodo+uf", manifest.partitionKey());
+        assertEquals(List.of("4T2024_RJ", "4T2024_SEM_UF", "4T2024_SP"),
+                manifest.shards().stream().map(PartitionedExportWriter.Shard::partition).toList());
+        long rows = 0;
+        for (PartitionedExportWriter.Shard shard : manifest.shards()) {
+            assertTrue(shard.file().endsWith(".csv.gz"));
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(dir.resolve(shard.file())))) {
+                List<String> lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+                assertEquals(shard.rows(), lines.size() - 1);
+                rows += shard.rows();
+            }
+        }
+        assertEquals(4_000, rows);
+        assertEquals(400, manifest.shards().get(0).rows());
+    }
+
+    @Test
+    void shouldKeepOperatorInSameRangeAndRejectFileNameCollisions() throws Exception {
+        PartitionedExportWriter.PartitionKey ranges = PartitionedExportWriter.PartitionKey.byOperadoraRange(16);
+        assertEquals("operadoras-05", ranges.keyOf().apply(record(5, "2024-10-01")));
+        assertEquals(ranges.keyOf().apply(record(5, "2024-10-01")), ranges.keyOf().apply(record(15, "2025-01-01")));
+
+        PartitionedExportWriter.PartitionKey colliding = new PartitionedExportWriter.PartitionKey("ruim",
+                r -> r.codigoConta.equals("411") ? "a/b" : "a?b");
+        List<EnrichedRecord> records = new ArrayList<>(List.of(
+                new EnrichedRecord("1", "A", "A", "411", "1,00", "2024-10-01"),
+                new EnrichedRecord("1", "A", "A", "412", "1,00", "2024-10-01")));
+        Path dir = tempDir.resolve("collision");
+
+        assertThrows(IllegalArgumentException.class, () -> new PartitionedExportWriter(CsvWriterService.Compression.NONE, 2)
+                .export(records.iterator(), dir, colliding));
+        assertFalse(Files.exists(dir.resolve(PartitionedExportWriter.MANIFEST)));
+    }
+
+    private static String cnpj(int operadora) {
+        return String.format("%014d", operadora);
+    }
+
+    // 10 operadoras; operadora = i % 10
+    private static EnrichedRecord record(int i, String data) {
+        return new EnrichedRecord(cnpj(i % 10), "Operadora Saúde " + i % 10, "Fantasia; " + i % 10,
+                "41" + i, i + ",25", data);
+    }
+}
@@ -0,0 +1,143 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ResumableImportTest {
+
+    private static final String TEST_DB_URL = "jdbc:h2:mem:resumedb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final String JOB = "ingest-2024-T4";
+
+    @BeforeEach
+    void setup() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        // Dataset publicado antes da carga
+        service().importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("OLD1", "Antiga", "Antiga")),
+                List.of(new AggregatorService.AggregatedRecord("OLD1", "Antiga", "3111", 1.0, "2024-T4")));
+    }
+
+    @Test
+    void shouldResumeFromFirstUncommittedChunkExactlyOnce() throws Exception {
+        List<AggregatorService.AggregatedRecord> records = records(10_000, "2024-T4");
+        long version = count("SELECT version FROM dataset_version");
+
+        // 1ª execução: falha antes do commit do chunk 4 (índice 3)
+        DatabaseImportService firstRun = service();
+        firstRun.chunkListener = chunk -> {
+            if (chunk == 3) {
+                throw new IllegalStateException("falha injetada");
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> firstRun.importDatasetWithSwap(JOB, operadoras(records), records, 1_000));
+        assertEquals(3_000, count("SELECT COUNT(*) FROM despesas_agregadas_staging"), "Só chunks commitados permanecem");
+        assertEquals(1, count("SELECT COUNT(*) FROM despesas_agregadas"), "A API continua vendo o dataset anterior");
+        assertEquals(version, count("SELECT version FROM dataset_version"));
+
+        // 2ª execução: falha de novo mais adiante
+        DatabaseImportService secondRun = service();
+        secondRun.chunkListener = chunk -> {
+            if (chunk == 7) {
+                throw new IllegalStateException("falha injetada");
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> secondRun.importDatasetWithSwap(JOB, operadoras(records), records, 1_000));
+        assertEquals(7_000, count("SELECT COUNT(*) FROM despesas_agregadas_staging"));
+        assertEquals(6, count("SELECT last_chunk FROM import_checkpoint WHERE job_id = '" + JOB + "'"));
+        assertEquals(version, count("SELECT version FROM dataset_version"));
+
+        // 3ª execução: conclui a partir do chunk 8 e publica
+        int inserted = service().importDatasetWithSwap(JOB, operadoras(records), records, 1_000);
+
+        assertEquals(3_000, inserted, "Deve inserir apenas os chunks que faltavam");
+        assertEquals(10_000, count("SELECT COUNT(*) FROM despesas_agregadas"));
+        assertEquals(10_000, count("SELECT COUNT(DISTINCT cnpj_operadora) FROM despesas_agregadas"), "Nenhuma linha duplicada");
+        assertEquals(0, count("SELECT COUNT(*) FROM operadoras WHERE cnpj = 'OLD1'"));
+        assertEquals(version + 1, count("SELECT version FROM dataset_version"), "Versão sobe uma vez, na troca");
+        assertEquals(0, count("SELECT COUNT(*) FROM import_checkpoint"));
+        assertEquals(0, count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE LOWER(TABLE_NAME) LIKE '%\\_staging'"));
+    }
+
+    @Test
+    void shouldReloadEverythingWhenJobAlreadyCompleted() throws Exception {
+        List<AggregatorService.AggregatedRecord> records = records(2_500, "2024-T4");
+
+        service().importDatasetWithSwap(JOB, operadoras(records), records, 1_000);
+        int inserted = service().importDatasetWithSwap(JOB, operadoras(records), records, 1_000);
+
+        assertEquals(2_500, inserted);
+        assertEquals(2_500, count("SELECT COUNT(*) FROM despesas_agregadas"));
+    }
+
+    @Test
+    void shouldStartOverWhenRecordsChange() throws Exception {
+        List<AggregatorService.AggregatedRecord> records = records(3_000, "2024-T4");
+        DatabaseImportService firstRun = service();
+        firstRun.chunkListener = chunk -> {
+            if (chunk == 1) {
+                throw new IllegalStateException("falha injetada");
+            }
+        };
+        assertThrows(IllegalStateException.class, () -> firstRun.importDatasetWithSwap(JOB, operadoras(records), records, 1_000));
+
+        List<AggregatorService.AggregatedRecord> changed = records(3_000, "2024-T4");
+        changed.set(0, new AggregatorService.AggregatedRecord("OUTRO", "Outro", "3111", 1.0, "2024-T4"));
+
+        // Nada foi publicado ainda: descartar a staging e recarregar é seguro
+        int inserted = service().importDatasetWithSwap(JOB, operadoras(changed), changed, 1_000);
+
+        assertEquals(3_000, inserted);
+        assertEquals(3_000, count("SELECT COUNT(*) FROM despesas_agregadas"));
+        assertEquals(1, count("SELECT COUNT(*) FROM despesas_agregadas WHERE cnpj_operadora = 'OUTRO'"));
+    }
+
+    @Test
+    void shouldDiscardStagingWhenValidationFails() throws Exception {
+        List<AggregatorService.AggregatedRecord> records = records(2_000, "2024-T4");
+        List<DataEnricherService.Operadora> semUma = operadoras(records).subList(1, 2_000);
+
+        assertThrows(IllegalStateException.class, () -> service().importDatasetWithSwap(JOB, semUma, records, 1_000));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM import_checkpoint"));
+        assertEquals(0, count("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE LOWER(TABLE_NAME) LIKE '%\\_staging'"));
+        assertEquals(1, count("SELECT COUNT(*) FROM despesas_agregadas"));
+    }
+
+    private DatabaseImportService service() {
+        return new DatabaseImportService(TEST_DB_URL, "sa", "");
+    }
+
+    private List<AggregatorService.AggregatedRecord> records(int size, String competencia) {
+        List<AggregatorService.AggregatedRecord> records = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            records.add(new AggregatorService.AggregatedRecord(String.format("%014d", i), "Op" + i, "3111", i, competencia));
+        }
+        return records;
+    }
+
+    private List<DataEnricherService.Operadora> operadoras(List<AggregatorService.AggregatedRecord> records) {
+        List<DataEnricherService.Operadora> operadoras = new ArrayList<>();
+        for (AggregatorService.AggregatedRecord record : records) {
+            operadoras.add(new DataEnricherService.Operadora(record.cnpjOperadora, record.razaoSocial, record.razaoSocial));
+        }
+        return operadoras;
+    }
+
+    private long count(String sql) throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.intuitive.crawler;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReportCpuAllocationAndRowsPerStage() throws Exception {
+        RunReport.Recorder recorder = new RunReport.Recorder("ingest");
+
+        recorder.measure("download", metrics -> {
+            metrics.bytesWritten(4_096);
+            return null;
+        });
+        StagedPipeline.Result result = StagedPipeline
+                .<Integer>from("leitura", out -> {
+                    for (int i = 0; i < 200; i++) {
+                        out.emit(i);
+                    }
+                    StagedPipeline.metrics().rowsOut(200);
+                })
+                .then("parse", 2, 8, (Integer chunk, StagedPipeline.Emitter<List<String>> out) -> {
+                    // Trabalho real de CPU e alocação por item
+                    List<String> rows = new ArrayList<>();
+                    for (int i = 0; i < 500; i++) {
+                        rows.add(Integer.toHexString(chunk * 31 + i).repeat(4));
+                    }
+                    StagedPipeline.metrics().rowsIn(1);
+                    StagedPipeline.metrics().rowsOut(rows.size());
+                    out.emit(rows);
+                })
+                .then("import", 1, 8, (List<String> rows, StagedPipeline.Emitter<Void> out) ->
+                        StagedPipeline.metrics().rowsIn(rows.size()))
+                .run();
+        recorder.addPipeline("", result);
+        RunReport report = recorder.finish();
+
+        assertEquals(List.of("download", "leitura", "parse", "import"),
+                report.stages().stream().map(RunReport.StageReport::name).toList());
+        RunReport.StageReport parse = report.stages().get(2);
+        assertEquals(2, parse.threads());
+        assertEquals(200, parse.rowsIn());
+        assertEquals(100_000, parse.rowsOut());
+        assertTrue(parse.allocatedBytes() > 0, "Alocação do estágio deveria ser medida");
+        assertTrue(report.stages().stream().mapToLong(RunReport.StageReport::cpuMillis).sum() >= 0);
+        assertEquals(100_000, report.stages().get(3).rowsIn());
+        assertEquals(4_096, report.stages().get(0).bytesWritten());
+        assertTrue(result.stages().get(1).cpuNanos() > 0, "CPU do estágio deveria ser medida");
+    }
+
+    @Test
+    void shouldRoundTripThroughJson() throws Exception {
+        RunReport report = report(stage("parse", 1_200, 10_000), stage("import", 800, 10_000));
+        Path file = tempDir.resolve("reports").resolve("ingest-" + report.runId() + ".json");
+
+        report.write(file);
+
+        assertEquals(report, RunReport.read(file));
+        String line = report.summaryLine();
+        assertTrue(line.startsWith("RUN ingest 20261019-030000"), line);
+        assertTrue(line.contains("parse=1.2s/10000r") && line.contains("import=800ms/10000r"), line);
+    }
+
+    @Test
+    void shouldFlagOnlyStagesSlowerThanTolerance() {
+        RunReport baseline = report(stage("parse", 1_000, 10_000), stage("import", 1_000, 10_000));
+
+        // parse dobrou; import 10% mais lento (dentro da tolerância)
+        RunReport slower = report(stage("parse", 2_000, 10_000), stage("import", 1_100, 10_000));
+        List<String> regressions = slower.regressionsAgainst(baseline, 0.2);
+        assertTrue(regressions.stream().anyMatch(r -> r.startsWith("parse: wall")), regressions.toString());
+        assertTrue(regressions.stream().noneMatch(r -> r.startsWith("import")), regressions.toString());
+
+        // Trimestre com o dobro de linhas no dobro do tempo: mesmo custo por linha
+        RunReport bigger = report(stage("parse", 2_000, 20_000), stage("import", 2_000, 20_000));
+        assertEquals(List.of(), bigger.regressionsAgainst(baseline, 0.2));
+    }
+
+    private static RunReport report(RunReport.StageReport... stages) {
+        long wall = 0;
+        for (RunReport.StageReport stage : stages) {
+            wall += stage.wallMillis();
+        }
+        return new RunReport("20261019-030000", "ingest", "2026-10-19T03:00:00Z", wall, 3, 40, List.of(stages));
+    }
+
+    private static RunReport.StageReport stage(String name, long millis, long rows) {
+        return new RunReport.StageReport(name, 2, 0, millis, millis, 0, millis, rows, rows, 0, 0, rows * 1_000);
+    }
+}
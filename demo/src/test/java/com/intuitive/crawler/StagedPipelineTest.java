@@ -0,0 +1,135 @@
+package com.intuitive.crawler;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class StagedPipelineTest {
+
+    @Test
+    void shouldOverlapStagesInsteadOfRunningThemInSequence() throws Exception {
+        // Trimestre sintético: 120 pedaços, ~2 ms de trabalho por pedaço em cada estágio
+        int chunks = 120;
+
+        StagedPipeline.Result result = StagedPipeline
+                .<Integer>from("leitura", out -> {
+                    for (int i = 0; i < chunks; i++) {
+                        out.emit(i);
+                    }
+                })
+                .then("parse", 1, 8, (Integer chunk, StagedPipeline.Emitter<Integer> out) -> {
+                    Thread.sleep(2);
+                    out.emit(chunk);
+                })
+                .then("enrich", 1, 8, (Integer chunk, StagedPipeline.Emitter<Integer> out) -> {
+                    Thread.sleep(2);
+                    out.emit(chunk);
+                })
+                .then("agregacao", 1, 8, (Integer chunk, StagedPipeline.Emitter<Integer> out) -> {
+                    Thread.sleep(2);
+                    out.emit(chunk);
+                })
+                // Estágio de 4 ms com 2 threads: mesmo tempo efetivo dos outros
+                .then("import", 2, 8, (Integer chunk, StagedPipeline.Emitter<Void> out) -> Thread.sleep(4))
+                .run();
+
+        // Sem comparação de relógio (instável em CI): só o que as métricas garantem
+        List<StagedPipeline.StageStats> stages = result.stages();
+        for (StagedPipeline.StageStats stage : stages.subList(1, stages.size())) {
+            assertEquals(chunks, stage.itemsIn(), stage.name());
+            // sleep(2) dura pelo menos 2 ms; tempo esperando fila cheia não conta como ocupado
+            long minBusy = chunks * (stage.name().equals("import") ? 4 : 2) * 1_000_000L;
+            assertTrue(stage.busyNanos() >= minBusy, stage.name() + ": ocupado " + stage.busyNanos() + " ns");
+            assertTrue(result.wallNanos() >= stage.effectiveNanos(), stage.name());
+        }
+        // Filas de 8 seguram bem menos que 120 pedaços: cada estágio começa antes do anterior
+        // terminar, e o último já trabalha enquanto o primeiro ainda emite
+        for (int i = 1; i < stages.size(); i++) {
+            assertTrue(stages.get(i).startNanos() < stages.get(i - 1).endNanos(),
+                    stages.get(i).name() + " deveria começar antes do fim de " + stages.get(i - 1).name());
+        }
+        assertTrue(stages.get(stages.size() - 1).startNanos() < stages.get(1).endNanos(), "import x parse");
+        assertTrue(stages.get(0).blockedNanos() > 0, "Leitura deveria ter esperado fila cheia");
+    }
+
+    @Test
+    void shouldBlockProducerWhenQueueIsFull() throws Exception {
+        AtomicLong produced = new AtomicLong();
+        AtomicLong consumed = new AtomicLong();
+        AtomicLong maxInFlight = new AtomicLong();
+
+        StagedPipeline.Result result = StagedPipeline
+                .<Integer>from("leitura", out -> {
+                    for (int i = 0; i < 200; i++) {
+                        out.emit(i);
+                        long inFlight = produced.incrementAndGet() - consumed.get();
+                        maxInFlight.accumulateAndGet(inFlight, Math::max);
+                    }
+                })
+                .then("lento", 1, 4, (Integer item, StagedPipeline.Emitter<Void> out) -> {
+                    Thread.sleep(1);
+                    consumed.incrementAndGet();
+                })
+                .run();
+
+        // fila (4) + item em processamento + o que acabou de ser emitido
+        assertTrue(maxInFlight.get() <= 6, "Fila limitada deveria conter o produtor, em voo: " + maxInFlight.get());
+        assertTrue(result.stages().get(0).blockedNanos() > 0, "Produtor deveria ter esperado fila cheia");
+        assertEquals(200, consumed.get());
+    }
+
+    @Test
+    void shouldCallFinishOnceAfterAllWorkers() throws Exception {
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger finishCalls = new AtomicInteger();
+        AtomicInteger seenAtFinish = new AtomicInteger();
+
+        StagedPipeline
+                .<Integer>from("leitura", out -> {
+                    for (int i = 0; i < 1_000; i++) {
+                        out.emit(i);
+                    }
+                })
+                .then("soma", 4, 16, new StagedPipeline.Stage<Integer, Void>() {
+                    @Override
+                    public void process(Integer item, StagedPipeline.Emitter<Void> out) {
+                        processed.incrementAndGet();
+                    }
+
+                    @Override
+                    public void finish(StagedPipeline.Emitter<Void> out) {
+                        finishCalls.incrementAndGet();
+                        seenAtFinish.set(processed.get());
+                    }
+                })
+                .run();
+
+        assertEquals(1, finishCalls.get());
+        assertEquals(1_000, seenAtFinish.get(), "finish deve rodar depois de todos os itens");
+    }
+
+    @Test
+    void shouldPropagateFirstFailureAndStopAllStages() {
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> StagedPipeline
+                .<Integer>from("leitura", out -> {
+                    for (int i = 0; i < 1_000_000; i++) {
+                        out.emit(i);
+                    }
+                })
+                .then("parse", 2, 4, (Integer item, StagedPipeline.Emitter<Integer> out) -> {
+                    if (item == 50) {
+                        throw new IllegalStateException("linha inválida");
+                    }
+                    out.emit(item);
+                })
+                .then("import", 1, 4, (Integer item, StagedPipeline.Emitter<Void> out) -> Thread.sleep(1))
+                .run());
+
+        assertEquals("linha inválida", e.getMessage());
+    }
+}
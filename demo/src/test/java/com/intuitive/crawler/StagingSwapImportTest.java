@@ -0,0 +1,185 @@
+package com.intuitive.crawler;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StagingSwapImportTest {
+
+    private static final String TEST_DB_URL = "jdbc:h2:mem:swapdb;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private DatabaseImportService service;
+
+    @BeforeEach
+    void setup() throws Exception {
+        service = new DatabaseImportService(TEST_DB_URL, "sa", "");
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+            stmt.execute("""
+                CREATE TABLE operadoras (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    cnpj VARCHAR(14) NOT NULL UNIQUE,
+                    razao_social VARCHAR(255),
+                    nome_fantasia VARCHAR(255),
+                    uf VARCHAR(2),
+                    modalidade VARCHAR(100),
+                    is_operadora_real BOOLEAN NOT NULL DEFAULT FALSE,
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+            stmt.execute("""
+                CREATE TABLE despesas_agregadas (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    cnpj_operadora VARCHAR(14) NOT NULL,
+                    codigo_conta VARCHAR(20) NOT NULL,
+                    valor_total DECIMAL(15, 2) NOT NULL,
+                    competencia VARCHAR(7) NOT NULL DEFAULT '',
+                    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                    FOREIGN KEY (cnpj_operadora) REFERENCES operadoras(cnpj)
+                )
+                """);
+            stmt.execute("INSERT INTO operadoras (cnpj, razao_social, nome_fantasia) VALUES ('OLD1', 'Antiga', 'Antiga')");
+            stmt.execute("INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES ('OLD1', '3111', 1.00)");
+        }
+    }
+
+    @Test
+    void shouldPublishNewDatasetAndDropShadowTables() throws Exception {
+        List<DataEnricherService.Operadora> operadoras = new ArrayList<>();
+        List<AggregatorService.AggregatedRecord> despesas = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            operadoras.add(new DataEnricherService.Operadora("N" + i, "Nova " + i, "Nova " + i));
+            despesas.add(new AggregatorService.AggregatedRecord("N" + i, "Nova " + i, "3111", 10.0));
+            despesas.add(new AggregatorService.AggregatedRecord("N" + i, "Nova " + i, "3112", 5.0));
+        }
+        // CNPJ repetido: vale o último, como no upsert
+        operadoras.add(new DataEnricherService.Operadora("N0", "Nova 0 Atualizada", "Nova 0"));
+
+        service.importDatasetWithSwap(operadoras, despesas);
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(300, queryLong(conn, "SELECT COUNT(*) FROM operadoras"));
+            assertEquals(600, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas"));
+            assertEquals(0, queryLong(conn, "SELECT COUNT(*) FROM operadoras WHERE cnpj = 'OLD1'"));
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM operadoras WHERE razao_social = 'Nova 0 Atualizada'"));
+            assertEquals(0, queryLong(conn, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE LOWER(TABLE_NAME) LIKE '%\\_staging' OR LOWER(TABLE_NAME) LIKE '%\\_old'"));
+            assertEquals(3, queryLong(conn, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.INDEXES "
+                    + "WHERE LOWER(INDEX_NAME) IN ('idx_cnpj', 'idx_cnpj_conta', 'idx_valor')"),
+                    "Índices devem ser criados após a carga e assumir o nome definitivo");
+
+            // FK continua valendo nas tabelas trocadas
+            assertThrows(Exception.class, () -> conn.createStatement().execute(
+                    "INSERT INTO despesas_agregadas (cnpj_operadora, codigo_conta, valor_total) VALUES ('XPTO', '1', 1)"));
+        }
+    }
+
+    @Test
+    void shouldKeepLiveTablesWhenValidationFails() throws Exception {
+        List<DataEnricherService.Operadora> operadoras = List.of(new DataEnricherService.Operadora("N1", "Nova", "Nova"));
+        List<AggregatorService.AggregatedRecord> despesas = List.of(
+                new AggregatorService.AggregatedRecord("N1", "Nova", "3111", 10.0),
+                new AggregatorService.AggregatedRecord("ORFA", "Sem cadastro", "3111", 10.0)
+        );
+
+        assertThrows(IllegalStateException.class, () -> service.importDatasetWithSwap(operadoras, despesas));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM operadoras WHERE cnpj = 'OLD1'"));
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas"));
+            assertEquals(0, queryLong(conn, "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+                    + "WHERE LOWER(TABLE_NAME) LIKE '%\\_staging'"));
+        }
+    }
+
+    @Test
+    void shouldSwapTwiceInARow() throws Exception {
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("A", "Primeira", "Primeira")),
+                List.of(new AggregatorService.AggregatedRecord("A", "Primeira", "3111", 1.0)));
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("B", "Segunda", "Segunda")),
+                List.of(new AggregatorService.AggregatedRecord("B", "Segunda", "3111", 2.0)));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM operadoras WHERE cnpj = 'B'"));
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM operadoras"));
+        }
+    }
+
+    @Test
+    void shouldReplaceOnlyTheImportedCompetencia() throws Exception {
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("A", "Primeira", "Primeira")),
+                List.of(new AggregatorService.AggregatedRecord("A", "Primeira", "3111", 1.0, "2024-T3")));
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("B", "Segunda", "Segunda")),
+                List.of(new AggregatorService.AggregatedRecord("B", "Segunda", "3111", 2.0, "2024-T4")));
+        // Reimportar o 4T substitui só o 4T
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("B", "Segunda", "Segunda")),
+                List.of(new AggregatorService.AggregatedRecord("B", "Segunda", "3111", 3.0, "2024-T4")));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas WHERE competencia = '2024-T3'"));
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas WHERE competencia = '2024-T4'"));
+            assertEquals(3, queryLong(conn, "SELECT valor_total FROM despesas_agregadas WHERE competencia = '2024-T4'"));
+            // Despesa antiga sem competência ('') sai na primeira carga por trimestre, com sua operadora
+            assertEquals(0, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas WHERE competencia = ''"));
+            assertEquals(2, queryLong(conn, "SELECT COUNT(*) FROM operadoras"));
+            assertEquals(4, queryLong(conn, "SELECT SUM(valor_total) FROM despesas_agregadas"));
+        }
+    }
+
+    @Test
+    void shouldNotCountLegacyRowsTwiceWhenTheirQuarterIsImported() throws Exception {
+        // Base anterior à competência: o 4T foi importado sem trimestre ('')
+        service.importCompetencia("2024-T4",
+                List.of(new DataEnricherService.Operadora("OLD1", "Antiga", "Antiga")),
+                List.of(new AggregatorService.AggregatedRecord("OLD1", "Antiga", "3111", 1.0, "2024-T4")));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas"));
+            assertEquals(1, queryLong(conn, "SELECT SUM(valor_total) FROM despesas_agregadas"));
+        }
+
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("OLD1", "Antiga", "Antiga")),
+                List.of(new AggregatorService.AggregatedRecord("OLD1", "Antiga", "3111", 1.0, "2024-T4")));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas WHERE competencia = '2024-T4'"));
+            assertEquals(1, queryLong(conn, "SELECT SUM(valor_total) FROM despesas_agregadas"));
+        }
+    }
+
+    @Test
+    void shouldCreateLiveTablesOnFirstImport() throws Exception {
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", ""); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+
+        service.importDatasetWithSwap(
+                List.of(new DataEnricherService.Operadora("A", "Primeira", "Primeira")),
+                List.of(new AggregatorService.AggregatedRecord("A", "Primeira", "3111", 1.0)));
+
+        try (Connection conn = DriverManager.getConnection(TEST_DB_URL, "sa", "")) {
+            assertEquals(1, queryLong(conn, "SELECT COUNT(*) FROM despesas_agregadas"));
+        }
+    }
+
+    private long queryLong(Connection conn, String sql) throws Exception {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.intuitive.crawler;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Garante que a ingestão em pipeline roda com heap fixo bem menor que o
+ * necessário para materializar o arquivo: um trimestre sintético grande é
+ * importado em uma JVM filha com -Xmx pequeno. Se algum estágio voltar a
+ * acumular as linhas, a filha morre com OutOfMemoryError e o teste falha.
+ */
+class StreamingIngestMemoryTest {
+
+    // 4.000 operadoras x 40 contas = 160 mil linhas (~12 MB de CSV); materializadas
+    // como Map por linha passam de 100 MB de heap
+    private static final int OPERADORAS = 4_000;
+    private static final String HEAP_BUDGET = "-Xmx64m";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldImportLargeQuarterWithinFixedHeap() throws Exception {
+        SyntheticAnsDataset.Output quarter = new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(OPERADORAS, 11L))
+                .writeQuarterCsv(tempDir.resolve("dados"), new Trimestre(2024, 4));
+        Path log = tempDir.resolve("child.log");
+
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        Process child = new ProcessBuilder(java, HEAP_BUDGET, "-XX:+UseSerialGC",
+                "-cp", System.getProperty("java.class.path"),
+                Child.class.getName(), quarter.financialCsv().toString(), tempDir.resolve("db").toString())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        boolean finished = child.waitFor(3, TimeUnit.MINUTES);
+        if (!finished) {
+            child.destroyForcibly();
+        }
+        List<String> output = Files.readAllLines(log, StandardCharsets.UTF_8);
+        String tail = String.join("\n", output.subList(Math.max(0, output.size() - 20), output.size()));
+
+        assertTrue(finished, "Ingestão não terminou em 3 minutos:\n" + tail);
+        assertEquals(0, child.exitValue(), "Ingestão falhou com " + HEAP_BUDGET + ":\n" + tail);
+        String result = output.stream().filter(line -> line.startsWith("RESULT ")).findFirst().orElseThrow();
+        String[] fields = result.split(" ");
+        assertEquals(quarter.linhas(), Long.parseLong(fields[1]), "Todas as linhas devem ser lidas");
+        assertEquals(quarter.linhas(), Long.parseLong(fields[2]), "Um agregado por (operadora, conta) no trimestre sintético");
+        System.out.println("Pico de heap com " + HEAP_BUDGET + ": " + fields[3] + " MB para "
+                + Files.size(quarter.financialCsv()) / (1024 * 1024) + " MB de CSV");
+    }
+
+    /**
+     * Processo filho: importa o CSV em um H2 em arquivo (os dados não ocupam o
+     * heap) e imprime "RESULT registros agregados picoMB".
+     */
+    public static final class Child {
+
+        public static void main(String[] args) throws Exception {
+            Path csv = Path.of(args[0]);
+            String url = "jdbc:h2:file:" + new File(args[1]).getAbsolutePath() + ";MODE=MySQL;CACHE_SIZE=4096";
+
+            DatabaseImportService importer = new DatabaseImportService(url, "sa", "");
+            IngestPipeline pipeline = new IngestPipeline(new DataEnricherService(new CsvParserService()), importer,
+                    new IngestPipeline.Settings(2, 1, 1, 4, 1_000));
+            IngestPipeline.Summary summary = pipeline.run(csv);
+            summary.pipeline().print();
+
+            long peak = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                if (pool.getType() == MemoryType.HEAP) {
+                    peak += pool.getPeakUsage().getUsed();
+                }
+            }
+            System.out.println("RESULT " + summary.registros() + " " + summary.agregados() + " " + peak / (1024 * 1024));
+        }
+    }
+}
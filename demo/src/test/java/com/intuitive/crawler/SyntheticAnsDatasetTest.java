@@ -0,0 +1,132 @@
+package com.intuitive.crawler;
+
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SyntheticAnsDatasetTest {
+
+    private static final Trimestre QUARTER = new Trimestre(2024, 4);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldGenerateSameBytesForSameSeed() throws Exception {
+        SyntheticAnsDataset.Config config = SyntheticAnsDataset.Config.of(500, 7L);
+
+        SyntheticAnsDataset.Output first = new SyntheticAnsDataset(config).writeQuarterCsv(tempDir.resolve("a"), QUARTER);
+        SyntheticAnsDataset.Output second = new SyntheticAnsDataset(config).writeQuarterCsv(tempDir.resolve("b"), QUARTER);
+        SyntheticAnsDataset.Output otherSeed = new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(500, 8L))
+                .writeQuarterCsv(tempDir.resolve("c"), QUARTER);
+
+        assertEquals(500 * 40, first.linhas());
+        assertArrayEquals(Files.readAllBytes(first.financialCsv()), Files.readAllBytes(second.financialCsv()));
+        assertArrayEquals(Files.readAllBytes(first.cadastroCsv()), Files.readAllBytes(second.cadastroCsv()));
+        assertFalse(Arrays.equals(Files.readAllBytes(first.financialCsv()), Files.readAllBytes(otherSeed.financialCsv())));
+    }
+
+    @Test
+    void shouldZipTheSameCsvAndKeepAccountsAcrossQuarters() throws Exception {
+        SyntheticAnsDataset dataset = new SyntheticAnsDataset(SyntheticAnsDataset.Config.of(200, 1L));
+        SyntheticAnsDataset.Output csv = dataset.writeQuarterCsv(tempDir.resolve("csv"), QUARTER);
+        SyntheticAnsDataset.Output zip = dataset.writeQuarter(tempDir.resolve("zip"), QUARTER);
+
+        try (ZipInputStream in = new ZipInputStream(Files.newInputStream(zip.zip()))) {
+            ZipEntry entry = in.getNextEntry();
+            assertEquals("4T2024.csv", entry.getName());
+            assertArrayEquals(Files.readAllBytes(csv.financialCsv()), in.readAllBytes());
+        }
+
+        // Mesmas operadoras e contas no trimestre seguinte; só datas e valores mudam
+        Path next = dataset.writeQuarterCsv(tempDir.resolve("next"), QUARTER.next()).financialCsv();
+        assertEquals(columns(csv.financialCsv(), 1, 2), columns(next, 1, 2));
+        assertNotEquals(columns(csv.financialCsv(), 5), columns(next, 5));
+        assertTrue(Files.readAllLines(next, StandardCharsets.ISO_8859_1).get(1).startsWith("\"2025-01-01\";"));
+    }
+
+    @Test
+    void shouldProduceConfiguredShareOfOrphanRows() throws Exception {
+        SyntheticAnsDataset.Config config = SyntheticAnsDataset.Config.of(2_000, 42L).withOrphanShare(0.1).withContasPorOperadora(10);
+        SyntheticAnsDataset.Output output = new SyntheticAnsDataset(config).writeQuarterCsv(tempDir, QUARTER);
+
+        CsvParserService parser = new CsvParserService();
+        List<Map<String, String>> rows = parser.parseAndFilter(output.financialCsv(), Set.of(".*"));
+        List<DataEnricherService.EnrichedRecord> enriched = new DataEnricherService(parser)
+                .enrichRecords(rows, output.cadastroCsv());
+
+        assertEquals(20_000, rows.size());
+        assertEquals(output.linhasOrfas(), rows.size() - enriched.size(), "Órfãs = linhas sem operadora no cadastro");
+        double share = (double) output.linhasOrfas() / output.linhas();
+        assertTrue(share > 0.07 && share < 0.13, "Fração de órfãs fora do esperado: " + share);
+    }
+
+    @Test
+    void shouldWriteBrazilianNumbersAccentsAndQuotingEdgeCases() throws Exception {
+        SyntheticAnsDataset.Config config = new SyntheticAnsDataset.Config(3L, 1_000, 40, 0.02, 0.3, 0.05, false);
+        SyntheticAnsDataset.Output output = new SyntheticAnsDataset(config).writeQuarterCsv(tempDir, QUARTER);
+
+        List<String> lines = Files.readAllLines(output.financialCsv(), StandardCharsets.ISO_8859_1);
+        assertEquals(SyntheticAnsDataset.FINANCIAL_HEADER, lines.get(0));
+        assertTrue(lines.stream().anyMatch(l -> l.contains("ASSISTÊNCIA")), "Acentos em ISO-8859-1");
+        assertTrue(lines.stream().anyMatch(l -> l.contains("\"\"")), "Aspas duplicadas");
+        assertTrue(lines.stream().anyMatch(l -> l.contains(";;")), "Células vazias");
+        assertTrue(lines.stream().anyMatch(l -> l.matches("\"\\d{4}-\\d{2}-\\d{2}\";\\d{6};.*")), "REG_ANS sem aspas");
+
+        String[] headers = CsvParserService.parseHeader(lines.get(0));
+        long milhar = 0;
+        long negativos = 0;
+        for (String line : lines.subList(1, lines.size())) {
+            String valor = CsvParserService.parseRow(headers, line).get("VL_SALDO_FINAL");
+            assertTrue(valor.matches("-?\\d{1,3}(\\.\\d{3})*,\\d{2}|-?\\d+,\\d{2}"), valor);
+            assertNotEquals(BigDecimal.ZERO, AggregatorService.parseValorExact(valor));
+            milhar += valor.indexOf('.') >= 0 ? 1 : 0;
+            negativos += valor.startsWith("-") ? 1 : 0;
+        }
+        assertTrue(milhar > 0 && negativos > 0);
+
+        byte[] cadastro = Files.readAllBytes(output.cadastroCsv());
+        assertTrue(new String(cadastro, StandardCharsets.ISO_8859_1).contains("SÃO"));
+        assertFalse(new String(cadastro, StandardCharsets.UTF_8).contains("SÃO"), "Arquivo não pode estar em UTF-8");
+    }
+
+    @Test
+    void shouldFormatCentsInBrazilianNotation() {
+        assertEquals("1234567,89", SyntheticAnsDataset.formatBrl(123_456_789, false));
+        assertEquals("1.234.567,89", SyntheticAnsDataset.formatBrl(123_456_789, true));
+        assertEquals("-123,05", SyntheticAnsDataset.formatBrl(-12_305, true));
+        assertEquals("0,07", SyntheticAnsDataset.formatBrl(7, true));
+    }
+
+    private static List<String> columns(Path csv, int... indexes) throws Exception {
+        try (InputStream in = Files.newInputStream(csv)) {
+            return new String(in.readAllBytes(), StandardCharsets.ISO_8859_1).lines()
+                    .skip(1)
+                    .map(line -> {
+                        String[] cells = line.split(";");
+                        StringBuilder key = new StringBuilder();
+                        for (int index : indexes) {
+                            key.append(cells[index].replace("\"", "")).append('|');
+                        }
+                        return key.toString();
+                    })
+                    .toList();
+        }
+    }
+}
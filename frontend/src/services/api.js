@@ -48,6 +48,18 @@ export async function getOperadoras(page = 1, limit = 20, q = '') {
   return fixObjectEncoding(data)
 }
 
+// Autocomplete: sugestões por prefixo (respondidas da memória da API; 503 enquanto o índice carrega)
+export async function suggestOperadoras(prefix, limit = 8) {
+  const url = new URL(`${BASE_URL}/operadoras/suggest`)
+  url.searchParams.set('prefix', prefix)
+  url.searchParams.set('limit', limit)
+
+  const res = await fetch(url.toString(), fetchOptions)
+  if (!res.ok) return { data: [] }
+  const data = await res.json()
+  return fixObjectEncoding(data)
+}
+
 export async function getOperadora(cnpj) {
   const res = await fetch(`${BASE_URL}/operadoras/${encodeURIComponent(cnpj)}`, fetchOptions)
   if (!res.ok) throw new Error('Erro ao buscar operadora')